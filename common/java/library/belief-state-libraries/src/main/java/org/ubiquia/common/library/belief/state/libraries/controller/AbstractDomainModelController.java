@@ -3,11 +3,14 @@ package org.ubiquia.common.library.belief.state.libraries.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.transaction.Transactional;
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.util.*;
 import org.apache.commons.lang3.reflect.FieldUtils;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
@@ -19,6 +22,10 @@ import org.springframework.web.bind.annotation.*;
 import org.ubiquia.common.library.api.interfaces.InterfaceLogger;
 import org.ubiquia.common.library.belief.state.libraries.interfaces.InterfaceModelController;
 import org.ubiquia.common.library.belief.state.libraries.model.association.Association;
+import org.ubiquia.common.library.belief.state.libraries.model.update.BulkUpdate;
+import org.ubiquia.common.library.belief.state.libraries.model.update.BulkUpdateResponse;
+import org.ubiquia.common.library.belief.state.libraries.service.BulkIngestService;
+import org.ubiquia.common.library.belief.state.libraries.service.DistinctTagCache;
 import org.ubiquia.common.library.belief.state.libraries.service.EntityUpdater;
 import org.ubiquia.common.library.belief.state.libraries.service.builder.io.DtoPageBuilder;
 import org.ubiquia.common.library.belief.state.libraries.service.builder.telemetry.MicroMeterTagsBuilder;
@@ -26,6 +33,9 @@ import org.ubiquia.common.library.belief.state.libraries.service.command.MicroMe
 import org.ubiquia.common.library.belief.state.libraries.service.finder.EntityRepositoryFinder;
 import org.ubiquia.common.library.belief.state.libraries.service.logic.DomainControllerLogic;
 import org.ubiquia.common.library.dao.component.EntityDao;
+import org.ubiquia.common.library.dao.component.NdjsonExporter;
+import org.ubiquia.common.library.dao.component.PageCounter;
+import org.ubiquia.common.library.dao.service.logic.ClassMetadataIndex;
 import org.ubiquia.common.library.implementation.service.builder.DomainIngressResponseBuilder;
 import org.ubiquia.common.library.implementation.service.visitor.PageValidator;
 import org.ubiquia.common.model.domain.dto.AbstractDomainModel;
@@ -51,6 +61,12 @@ public abstract class AbstractDomainModelController<
     protected Class<T> cachedEntityClass;
     protected Class<D> cachedDtoClass;
     @Autowired
+    protected BulkIngestService bulkIngestService;
+    @Autowired
+    protected ClassMetadataIndex classMetadataIndex;
+    @Autowired
+    protected DistinctTagCache distinctTagCache;
+    @Autowired
     protected DomainControllerLogic domainControllerLogic;
     @Autowired
     protected EntityDao<T> entityDao;
@@ -65,8 +81,12 @@ public abstract class AbstractDomainModelController<
     @Autowired(required = false)
     protected MicroMeterCommand microMeterCommand;
     @Autowired
+    protected NdjsonExporter ndjsonExporter;
+    @Autowired
     protected ObjectMapper objectMapper;
     @Autowired
+    protected PageCounter pageCounter;
+    @Autowired
     protected PageValidator pageValidator;
     @Autowired
     private MicroMeterTagsBuilder microMeterTagsBuilder;
@@ -118,8 +138,13 @@ public abstract class AbstractDomainModelController<
                 + " id's must be null for adds!");
         }
         var entity = this.getIngressMapper().map(ingress, this.cachedEntityClass);
+        final var hasTags = this.hasTags(entity);
         entity = this.getEntityRepository().save(entity);
         this.getEntityRelationshipBuilder().tryBuildRelationships(entity);
+        this.pageCounter.evict(entity.getClass());
+        if (hasTags) {
+            this.distinctTagCache.invalidate();
+        }
         var response = this.domainIngressResponseBuilder.buildIngressResponseFrom(entity);
         this.getLogger().info("...persisted.");
         if (Objects.nonNull(sample)) {
@@ -130,7 +155,8 @@ public abstract class AbstractDomainModelController<
     }
 
     /**
-     * Accept a list of models to ingress and persist into the back-end database.
+     * Accept a list of models to ingress and persist into the back-end database. Models are
+     * persisted in batches, with every existing model they reference resolved once per batch.
      *
      * @param ingresses The list of models to ingress.
      * @return A list of metadata representing the persisted models.
@@ -159,13 +185,15 @@ public abstract class AbstractDomainModelController<
             convertedEntities.add(converted);
         }
 
-        var responses = new ArrayList<IngressResponse>();
-        var entities = this.getEntityRepository().saveAll(convertedEntities);
-        for (var entity : entities) {
-            this.getEntityRelationshipBuilder().tryBuildRelationships(entity);
-            var response = this.domainIngressResponseBuilder.buildIngressResponseFrom(entity);
-            responses.add(response);
+        if (convertedEntities.stream().anyMatch(this::hasTags)) {
+            this.distinctTagCache.invalidate();
         }
+        final var responses = this.bulkIngestService.ingest(
+            convertedEntities,
+            this.getEntityRepository(),
+            this.getEntityRelationshipBuilder(),
+            this.tags);
+        this.pageCounter.evict(this.cachedEntityClass);
 
         this.getLogger().info("...persisted.");
 
@@ -227,6 +255,7 @@ public abstract class AbstractDomainModelController<
         this.associateParentAndChild(childField, parentEntity, childEntity);
         parentEntity = parentRepository.save(parentEntity);
         this.getEntityRelationshipBuilder().tryBuildRelationships(parentEntity);
+        this.pageCounter.evict(parentEntity.getClass());
 
         var response = this.domainIngressResponseBuilder.buildIngressResponseFrom(parentEntity);
         if (Objects.nonNull(sample)) {
@@ -267,6 +296,8 @@ public abstract class AbstractDomainModelController<
         entity.getUbiquiaTags().add(tag);
 
         entity = this.getEntityRepository().save(entity);
+        this.pageCounter.evict(entity.getClass());
+        this.distinctTagCache.invalidate();
         var response = this.domainIngressResponseBuilder.buildIngressResponseFrom(entity);
 
         if (Objects.nonNull(sample)) {
@@ -316,6 +347,8 @@ public abstract class AbstractDomainModelController<
         }
         entity.getUbiquiaTags().remove(match.get());
         entity = this.getEntityRepository().save(entity);
+        this.pageCounter.evict(entity.getClass());
+        this.distinctTagCache.invalidate();
 
         var response = this.domainIngressResponseBuilder.buildIngressResponseFrom(entity);
         if (Objects.nonNull(sample)) {
@@ -325,7 +358,8 @@ public abstract class AbstractDomainModelController<
     }
 
     /**
-     * Return the entire list of unique tag keys from this class of models.
+     * Return the entire list of unique tag keys from this class of models, cached until a tag
+     * is next added or removed.
      *
      * @return The list of unique keys.
      */
@@ -336,7 +370,9 @@ public abstract class AbstractDomainModelController<
             sample = this.microMeterCommand.startSample();
         }
         this.getLogger().info("Received request to get distinct keys...");
-        var keys = this.getEntityRepository().findAllDistinctTagKeys();
+        var keys = this.distinctTagCache.getKeys(
+            this.cachedEntityClass,
+            () -> this.getEntityRepository().findAllDistinctTagKeys());
         if (Objects.nonNull(sample)) {
             this.microMeterCommand.endSample(sample, "getDistinctKeys", this.tags);
         }
@@ -344,7 +380,8 @@ public abstract class AbstractDomainModelController<
     }
 
     /**
-     * Get the unique values for a given tag key for this model.
+     * Get the unique values for a given tag key for this model, cached until a tag is next
+     * added or removed.
      *
      * @param key The key to produce unique values for.
      * @return The list of unique values.
@@ -356,7 +393,10 @@ public abstract class AbstractDomainModelController<
             sample = this.microMeterCommand.startSample();
         }
         this.getLogger().info("Received request to get distinct values for key: {}", key);
-        var values = this.getEntityRepository().findAllDistinctTagValuesByKey(key);
+        var values = this.distinctTagCache.getValuesByKey(
+            this.cachedEntityClass,
+            key,
+            () -> this.getEntityRepository().findAllDistinctTagValuesByKey(key));
         if (Objects.nonNull(sample)) {
             this.microMeterCommand.endSample(sample, "valuesByKey", this.tags);
         }
@@ -400,6 +440,7 @@ public abstract class AbstractDomainModelController<
         var entity = record.get();
         this.entityUpdater.trySetValue(entity, keyValuePairs);
         entity = this.getEntityRepository().save(entity);
+        this.pageCounter.evict(entity.getClass());
 
         var response = this.domainIngressResponseBuilder.buildIngressResponseFrom(entity);
 
@@ -409,6 +450,49 @@ public abstract class AbstractDomainModelController<
         return response;
     }
 
+    /**
+     * Update the values of fields for every model matching the query parameters and, if any
+     * are provided, the IDs of the bulk update. Models are updated in place by chunked UPDATE
+     * statements rather than loaded and saved one at a time.
+     *
+     * @param bulkUpdate         The fields to assign and, optionally, IDs to assign them to.
+     * @param httpServletRequest The request whose query parameters models must match.
+     * @return The number of models updated.
+     * @throws NoSuchFieldException Exceptions from invalid fields.
+     */
+    @Transactional
+    @PostMapping("/update/bulk")
+    public BulkUpdateResponse updateBulk(
+        @RequestBody @Validated BulkUpdate bulkUpdate,
+        HttpServletRequest httpServletRequest) throws NoSuchFieldException {
+
+        Timer.Sample sample = null;
+        if (Objects.nonNull(this.microMeterCommand)) {
+            sample = this.microMeterCommand.startSample();
+        }
+
+        this.getLogger().info("Received a bulk update request...");
+        var parameterMap = this.domainControllerLogic.getParameterMapFrom(httpServletRequest);
+
+        var assignments = new LinkedHashMap<String, String>();
+        for (var assignment : bulkUpdate.getAssignments()) {
+            assignments.put(assignment.getKey(), assignment.getValue());
+        }
+
+        var response = new BulkUpdateResponse();
+        response.setUpdatedCount(this.entityDao.update(
+            parameterMap,
+            bulkUpdate.getIds(),
+            assignments,
+            this.cachedEntityClass));
+        this.getLogger().info("...updated {} models.", response.getUpdatedCount());
+
+        if (Objects.nonNull(sample)) {
+            this.microMeterCommand.endSample(sample, "update.bulk", this.tags);
+        }
+        return response;
+    }
+
     /**
      * Delete a model provided the ID of the entity to delete.
      *
@@ -429,6 +513,8 @@ public abstract class AbstractDomainModelController<
         } else {
             response = ResponseEntity.status(HttpStatus.OK).body(record.get().getUbiquiaId());
             this.getEntityRepository().delete(record.get());
+            this.pageCounter.evict(record.get().getClass());
+            this.distinctTagCache.invalidate();
         }
         if (Objects.nonNull(sample)) {
             this.microMeterCommand.endSample(sample, "delete", this.tags);
@@ -437,7 +523,8 @@ public abstract class AbstractDomainModelController<
     }
 
     /**
-     * Query for an individual models.
+     * Query for an individual models. The model is looked up by its primary key rather than
+     * through a paginated query, so no count is run.
      *
      * @param id The ID of the model to query.
      * @return The record if applicable, otherwise a 204.
@@ -456,26 +543,15 @@ public abstract class AbstractDomainModelController<
 
         this.getLogger().info("Received a GET request for ID: {}", id);
 
-        var parameterMap = new HashMap<String, String[]>();
-        var array = new String[1];
-        array[0] = id;
-        parameterMap.put("ubiquiaId", array);
-
-        var records = this.entityDao.getPage(
-            parameterMap,
-            0,
-            1,
-            true,
-            new ArrayList<>(),
-            this.cachedEntityClass);
+        var record = this.entityDao.findById(id, this.cachedEntityClass);
 
         ResponseEntity<D> response = null;
 
-        if (records.isEmpty()) {
+        if (record.isEmpty()) {
             response = ResponseEntity.status(HttpStatus.NO_CONTENT).build();
         } else {
-            var egress = this.dtoPageBuilder.buildPageFrom(records);
-            response = ResponseEntity.status(HttpStatus.OK).body(egress.getContent().get(0));
+            var egress = this.dtoPageBuilder.buildDtoFrom(record.get());
+            response = ResponseEntity.status(HttpStatus.OK).body(egress);
         }
 
         if (Objects.nonNull(sample)) {
@@ -515,7 +591,9 @@ public abstract class AbstractDomainModelController<
     }
 
     /**
-     * A query allowing for no-frills "multi-select" for performance-intensive needs.
+     * A query allowing for no-frills "multi-select" for performance-intensive needs. Rows are
+     * projected like "/query/projection/params" rows, as arrays in the order the fields were
+     * named, and a "count-mode" parameter applies as it does for "/query/params".
      *
      * @param page               The page number to query for.
      * @param size               The size of the page to query for.
@@ -557,6 +635,7 @@ public abstract class AbstractDomainModelController<
             sortDescending,
             sortByFields,
             multiselectFields,
+            this.pageCounter.getCountModeFrom(httpServletRequest),
             this.cachedEntityClass);
 
         if (Objects.nonNull(sample)) {
@@ -567,46 +646,175 @@ public abstract class AbstractDomainModelController<
     }
 
     /**
-     * Query for page of data provided predicates.
+     * Query for a page of projected rows provided predicates. Only the fields named by
+     * "projection-fields" are selected - or, if none are named, the fields the DTO declares -
+     * and each row is returned as JSON without hydrating or mapping any entities. Relationships
+     * and collections are only joined or loaded when a field is requested through them (i.e.,
+     * "pets.name"), and a "count-mode" parameter applies as it does for "/query/params".
      *
      * @param page               The page number to query for.
      * @param size               The size of the page to query for.
      * @param sortDescending     Whether or not to sort descending.
      * @param sortByFields       The fields to sort by.
+     * @param projectionFields   The field paths to return on response.
      * @param httpServletRequest The servlet request with any potential predicates.
-     * @return The page response with our minimal data.
+     * @return The page of rows.
      * @throws NoSuchFieldException Exceptions from bad client requests.
      */
-    @GetMapping("/query/params")
+    @GetMapping("/query/projection/params")
     @Transactional
-    public GenericPageImplementation<D> queryWithParams(
-        @RequestParam("page") final Integer page,
+    public Page<Map<String, Object>> queryWithProjectionParams(
+        @RequestParam(value = "page", required = false, defaultValue = "0") final Integer page,
         @RequestParam("size") final Integer size,
         @RequestParam(value = "sort-descending", required = false, defaultValue = "true")
             final Boolean sortDescending,
         @RequestParam(value = "sort-by-fields", required = false, defaultValue = "")
             final List<String> sortByFields,
+        @RequestParam(value = "projection-fields", required = false, defaultValue = "")
+            final List<String> projectionFields,
         HttpServletRequest httpServletRequest) throws
-        Exception {
+        NoSuchFieldException {
 
         Timer.Sample sample = null;
         if (Objects.nonNull(this.microMeterCommand)) {
             sample = this.microMeterCommand.startSample();
         }
 
-        this.getLogger().info("Received a query request by params...");
+        this.getLogger().debug("Received a projection query request...");
 
         this.pageValidator.validatePageAndSize(page, size);
         var parameterMap = this.domainControllerLogic.getParameterMapFrom(httpServletRequest);
 
-        var records = this.entityDao.getPage(
+        var fields = projectionFields;
+        if (fields.isEmpty()) {
+            fields = this.domainControllerLogic.getDefaultProjectionFieldsFor(
+                this.cachedEntityClass,
+                this.cachedDtoClass);
+        }
+
+        var records = this.entityDao.getPageProjection(
             parameterMap,
             page,
             size,
             sortDescending,
             sortByFields,
+            fields,
+            this.pageCounter.getCountModeFrom(httpServletRequest),
             this.cachedEntityClass);
 
+        if (Objects.nonNull(sample)) {
+            this.microMeterCommand.endSample(sample, "queryProjection", this.tags);
+        }
+
+        return records;
+    }
+
+    /**
+     * Export every record matching the predicates as newline-delimited JSON, one DTO per line.
+     * Records are read forward-only a fetch size at a time and written as they are read, so
+     * the export runs in constant memory however many records match; no count is run.
+     *
+     * @param sortDescending      Whether or not to sort descending.
+     * @param sortByFields        The fields to sort by.
+     * @param httpServletRequest  The servlet request with any potential predicates.
+     * @param httpServletResponse The servlet response to write records to.
+     * @throws Exception Exceptions from bad client requests or from writing records.
+     */
+    @GetMapping(value = "/export/params", produces = NdjsonExporter.MEDIA_TYPE)
+    @Transactional
+    public void exportWithParams(
+        @RequestParam(value = "sort-descending", required = false, defaultValue = "true")
+            final Boolean sortDescending,
+        @RequestParam(value = "sort-by-fields", required = false, defaultValue = "")
+            final List<String> sortByFields,
+        HttpServletRequest httpServletRequest,
+        HttpServletResponse httpServletResponse) throws Exception {
+
+        Timer.Sample sample = null;
+        if (Objects.nonNull(this.microMeterCommand)) {
+            sample = this.microMeterCommand.startSample();
+        }
+
+        this.getLogger().debug("Received an export request...");
+        var parameterMap = this.domainControllerLogic.getParameterMapFrom(httpServletRequest);
+
+        var records = this.entityDao.getStream(
+            parameterMap,
+            sortDescending,
+            sortByFields,
+            this.ndjsonExporter.getFetchSize(),
+            this.cachedEntityClass);
+
+        httpServletResponse.setContentType(NdjsonExporter.MEDIA_TYPE);
+        var exported = this.ndjsonExporter.export(
+            records,
+            httpServletResponse.getOutputStream(),
+            this.dtoPageBuilder::buildDtoFrom);
+        this.getLogger().debug("...exported {} records.", exported);
+
+        if (Objects.nonNull(sample)) {
+            this.microMeterCommand.endSample(sample, "exportParams", this.tags);
+        }
+    }
+
+    /**
+     * Query for page of data provided predicates. Passing a "cursor" parameter (blank for the
+     * first page, then each page's "nextCursor") opts into keyset pagination, which costs the
+     * same for every page however deep, in place of page numbers. Otherwise, a "count-mode"
+     * parameter of EXACT (the default), NONE, CACHED or ESTIMATED chooses how the total number
+     * of records is determined.
+     *
+     * @param page               The page number to query for.
+     * @param size               The size of the page to query for.
+     * @param sortDescending     Whether or not to sort descending.
+     * @param sortByFields       The fields to sort by.
+     * @param httpServletRequest The servlet request with any potential predicates.
+     * @return The page response with our minimal data.
+     * @throws NoSuchFieldException Exceptions from bad client requests.
+     */
+    @GetMapping("/query/params")
+    @Transactional
+    public GenericPageImplementation<D> queryWithParams(
+        @RequestParam(value = "page", required = false, defaultValue = "0") final Integer page,
+        @RequestParam("size") final Integer size,
+        @RequestParam(value = "sort-descending", required = false, defaultValue = "true")
+            final Boolean sortDescending,
+        @RequestParam(value = "sort-by-fields", required = false, defaultValue = "")
+            final List<String> sortByFields,
+        HttpServletRequest httpServletRequest) throws
+        Exception {
+
+        Timer.Sample sample = null;
+        if (Objects.nonNull(this.microMeterCommand)) {
+            sample = this.microMeterCommand.startSample();
+        }
+
+        this.getLogger().info("Received a query request by params...");
+
+        this.pageValidator.validatePageAndSize(page, size);
+        var parameterMap = this.domainControllerLogic.getParameterMapFrom(httpServletRequest);
+
+        Page<T> records = null;
+        var cursor = httpServletRequest.getParameter("cursor");
+        if (Objects.nonNull(cursor)) {
+            records = this.entityDao.getPageAfter(
+                parameterMap,
+                cursor,
+                size,
+                sortDescending,
+                sortByFields,
+                this.cachedEntityClass);
+        } else {
+            records = this.entityDao.getPage(
+                parameterMap,
+                page,
+                size,
+                sortDescending,
+                sortByFields,
+                this.pageCounter.getCountModeFrom(httpServletRequest),
+                this.cachedEntityClass);
+        }
+
         var egress = this.dtoPageBuilder.buildPageFrom(records);
 
         if (Objects.nonNull(sample)) {
@@ -687,4 +895,60 @@ public abstract class AbstractDomainModelController<
         var childEntity = (AbstractDomainModelEntity) childRecord.get();
         return childEntity;
     }
+
+    /**
+     * Determine whether a new entity, or any new entity nested in it, carries any tags, and so
+     * whether persisting it can change the distinct tag keys and values. New nested entities are
+     * persisted along with the entity when their relationships cascade, so they are walked too;
+     * entities with an ID reference existing records whose tags the write does not change.
+     *
+     * @param entity The entity.
+     * @return Whether the entity or a nested entity has tags.
+     */
+    private boolean hasTags(final AbstractDomainModelEntity entity) {
+        return this.hasTags(entity, Collections.newSetFromMap(new IdentityHashMap<>()));
+    }
+
+    private boolean hasTags(final AbstractDomainModelEntity entity, final Set<Object> visited) {
+        if (!Hibernate.isInitialized(entity)
+            || Objects.nonNull(entity.getUbiquiaId())
+            || !visited.add(entity)) {
+            return false;
+        }
+        if (Objects.nonNull(entity.getUbiquiaTags()) && !entity.getUbiquiaTags().isEmpty()) {
+            return true;
+        }
+
+        var fields = this.classMetadataIndex
+            .getMetadataFor(entity.getClass())
+            .getFieldsByName()
+            .values();
+        for (var field : fields) {
+            if (Modifier.isStatic(field.getModifiers())) {
+                continue;
+            }
+            Object value = null;
+            try {
+                value = FieldUtils.readField(field, entity, true);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("ERROR: Could not read field "
+                    + field.getName()
+                    + " of "
+                    + entity.getClass().getSimpleName(), e);
+            }
+            if (value instanceof AbstractDomainModelEntity related
+                && this.hasTags(related, visited)) {
+                return true;
+            }
+            if (value instanceof Collection<?> collection && Hibernate.isInitialized(collection)) {
+                for (var element : collection) {
+                    if (element instanceof AbstractDomainModelEntity related
+                        && this.hasTags(related, visited)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
 }
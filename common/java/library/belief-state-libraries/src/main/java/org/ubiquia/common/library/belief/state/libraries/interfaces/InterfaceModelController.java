@@ -1,8 +1,10 @@
 package org.ubiquia.common.library.belief.state.libraries.interfaces;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.transaction.Transactional;
 import java.util.List;
+import java.util.Map;
 import org.springframework.data.domain.Page;
 import org.springframework.data.repository.query.Param;
 import org.springframework.http.ResponseEntity;
@@ -11,6 +13,8 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.ubiquia.common.library.belief.state.libraries.model.association.Association;
+import org.ubiquia.common.library.belief.state.libraries.model.update.BulkUpdate;
+import org.ubiquia.common.library.belief.state.libraries.model.update.BulkUpdateResponse;
 import org.ubiquia.common.library.belief.state.libraries.repository.EntityRepository;
 import org.ubiquia.common.library.belief.state.libraries.service.builder.entity.EntityRelationshipBuilder;
 import org.ubiquia.common.library.belief.state.libraries.service.mapper.AbstractIngressDtoMapper;
@@ -127,6 +131,19 @@ public interface InterfaceModelController<
         @RequestBody List<KeyValuePair> keyValuePairs)
         throws IllegalAccessException;
 
+    /**
+     * Update the values of fields for every model matching the query parameters and, if any
+     * are provided, the IDs of the bulk update.
+     *
+     * @param bulkUpdate         The fields to assign and, optionally, IDs to assign them to.
+     * @param httpServletRequest The request whose query parameters models must match.
+     * @return The number of models updated.
+     * @throws NoSuchFieldException Exceptions from invalid fields.
+     */
+    BulkUpdateResponse updateBulk(
+        @RequestBody @Validated BulkUpdate bulkUpdate,
+        HttpServletRequest httpServletRequest) throws NoSuchFieldException;
+
     /**
      * Delete a model provided the ID of the entity to delete.
      *
@@ -180,6 +197,50 @@ public interface InterfaceModelController<
         final HttpServletRequest httpServletRequest)
         throws NoSuchFieldException;
 
+    /**
+     * Query for a page of projected rows provided predicates, selecting only the requested
+     * fields (or, by default, the DTO's own fields) without hydrating any entities.
+     *
+     * @param page               The page number to query for.
+     * @param size               The size of the page to query for.
+     * @param sortDescending     Whether or not to sort descending.
+     * @param sortByFields       The fields to sort by.
+     * @param projectionFields   The field paths to return on response.
+     * @param httpServletRequest The servlet request with any potential predicates.
+     * @return The page of rows.
+     * @throws NoSuchFieldException Exceptions from bad client requests.
+     */
+    Page<Map<String, Object>> queryWithProjectionParams(
+        @RequestParam(value = "page", required = false, defaultValue = "0") final Integer page,
+        @RequestParam("size") final Integer size,
+        @RequestParam(value = "sort-descending", required = false, defaultValue = "true")
+            final Boolean sortDescending,
+        @RequestParam(value = "sort-by-fields", required = false, defaultValue = "")
+            final List<String> sortByFields,
+        @RequestParam(value = "projection-fields", required = false, defaultValue = "")
+            final List<String> projectionFields,
+        final HttpServletRequest httpServletRequest)
+        throws NoSuchFieldException;
+
+    /**
+     * Export every record matching the predicates as newline-delimited JSON, streamed in
+     * constant memory.
+     *
+     * @param sortDescending      Whether or not to sort descending.
+     * @param sortByFields        The fields to sort by.
+     * @param httpServletRequest  The servlet request with any potential predicates.
+     * @param httpServletResponse The servlet response to write records to.
+     * @throws Exception Exceptions from bad client requests or from writing records.
+     */
+    void exportWithParams(
+        @RequestParam(value = "sort-descending", required = false, defaultValue = "true")
+            final Boolean sortDescending,
+        @RequestParam(value = "sort-by-fields", required = false, defaultValue = "")
+            final List<String> sortByFields,
+        final HttpServletRequest httpServletRequest,
+        final HttpServletResponse httpServletResponse)
+        throws Exception;
+
     /**
      * Query for page of data provided predicates.
      *
@@ -0,0 +1,35 @@
+package org.ubiquia.common.library.belief.state.libraries.model.update;
+
+import jakarta.validation.constraints.NotEmpty;
+import java.util.List;
+import org.springframework.validation.annotation.Validated;
+import org.ubiquia.common.model.domain.embeddable.KeyValuePair;
+
+/**
+ * Object defining a bulk update: the fields to assign and, optionally, the IDs of the models to
+ * assign them to. Models may also, or instead, be matched by query parameters.
+ */
+@Validated
+public class BulkUpdate {
+
+    private List<String> ids;
+
+    private List<KeyValuePair> assignments;
+
+    public List<String> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<String> ids) {
+        this.ids = ids;
+    }
+
+    @NotEmpty
+    public List<KeyValuePair> getAssignments() {
+        return assignments;
+    }
+
+    public void setAssignments(List<KeyValuePair> assignments) {
+        this.assignments = assignments;
+    }
+}
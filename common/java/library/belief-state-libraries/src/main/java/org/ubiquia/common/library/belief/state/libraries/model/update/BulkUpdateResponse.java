@@ -0,0 +1,17 @@
+package org.ubiquia.common.library.belief.state.libraries.model.update;
+
+/**
+ * Object describing the result of a bulk update.
+ */
+public class BulkUpdateResponse {
+
+    private Long updatedCount;
+
+    public Long getUpdatedCount() {
+        return updatedCount;
+    }
+
+    public void setUpdatedCount(Long updatedCount) {
+        this.updatedCount = updatedCount;
+    }
+}
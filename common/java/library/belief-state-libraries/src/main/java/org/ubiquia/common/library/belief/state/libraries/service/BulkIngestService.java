@@ -0,0 +1,160 @@
+package org.ubiquia.common.library.belief.state.libraries.service;
+
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.ubiquia.common.library.belief.state.libraries.repository.EntityRepository;
+import org.ubiquia.common.library.belief.state.libraries.service.builder.entity.EntityRelationshipBuilder;
+import org.ubiquia.common.library.belief.state.libraries.service.command.MicroMeterCommand;
+import org.ubiquia.common.library.belief.state.libraries.service.finder.EntityRepositoryFinder;
+import org.ubiquia.common.library.implementation.service.builder.DomainIngressResponseBuilder;
+import org.ubiquia.common.model.domain.embeddable.KeyValuePair;
+import org.ubiquia.common.model.domain.entity.AbstractDomainModelEntity;
+import org.ubiquia.common.model.ubiquia.IngressResponse;
+
+/**
+ * A service that persists lists of new entities in batches. For each batch, the IDs of every
+ * existing entity referenced anywhere in the batch are collected up front and resolved with
+ * chunked IN queries, relationships are then linked in memory against those resolved entities,
+ * and the batch is flushed at once so Hibernate can batch its inserts and updates. The
+ * persistence context is cleared between batches so memory stays bounded by the batch size.
+ */
+@Service
+public class BulkIngestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkIngestService.class);
+
+    @Value("${ubiquia.beliefState.ingest.batch-size:1000}")
+    private Integer batchSize;
+
+    @Value("${ubiquia.beliefState.ingest.lookup-chunk-size:500}")
+    private Integer lookupChunkSize;
+
+    @Autowired
+    private DomainIngressResponseBuilder domainIngressResponseBuilder;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityRepositoryFinder entityRepositoryFinder;
+
+    @Autowired(required = false)
+    private MicroMeterCommand microMeterCommand;
+
+    /**
+     * Persist a list of new entities and build their relationships, a batch at a time.
+     *
+     * @param entities            The entities to persist.
+     * @param repository          The repository of the entities.
+     * @param relationshipBuilder The relationship builder of the entities.
+     * @param tags                The tags to add to per-batch telemetry.
+     * @param <T>                 The entity type.
+     * @return The ingress responses of the persisted entities, in order.
+     * @throws Exception Exceptions from building relationships.
+     */
+    @Transactional
+    public <T extends AbstractDomainModelEntity> List<IngressResponse> ingest(
+        final List<T> entities,
+        final EntityRepository<T> repository,
+        final EntityRelationshipBuilder<T> relationshipBuilder,
+        final List<KeyValuePair> tags) throws Exception {
+
+        var responses = new ArrayList<IngressResponse>(entities.size());
+        for (var start = 0; start < entities.size(); start += this.batchSize) {
+            var batch = entities.subList(start, Math.min(start + this.batchSize, entities.size()));
+            responses.addAll(this.ingestBatch(batch, repository, relationshipBuilder, tags));
+        }
+        return responses;
+    }
+
+    /**
+     * Persist a single batch of new entities.
+     *
+     * @param batch               The batch to persist.
+     * @param repository          The repository of the entities.
+     * @param relationshipBuilder The relationship builder of the entities.
+     * @param tags                The tags to add to per-batch telemetry.
+     * @param <T>                 The entity type.
+     * @return The ingress responses of the batch.
+     * @throws Exception Exceptions from building relationships.
+     */
+    private <T extends AbstractDomainModelEntity> List<IngressResponse> ingestBatch(
+        final List<T> batch,
+        final EntityRepository<T> repository,
+        final EntityRelationshipBuilder<T> relationshipBuilder,
+        final List<KeyValuePair> tags) throws Exception {
+
+        Timer.Sample sample = null;
+        if (Objects.nonNull(this.microMeterCommand)) {
+            sample = this.microMeterCommand.startSample();
+        }
+        final var started = System.nanoTime();
+
+        var ids = new HashMap<Class<?>, Set<String>>();
+        for (var entity : batch) {
+            relationshipBuilder.collectReferencedIds(entity, ids);
+        }
+        var resolved = this.resolve(ids);
+
+        var responses = new ArrayList<IngressResponse>(batch.size());
+        for (var entity : repository.saveAll(batch)) {
+            relationshipBuilder.tryBuildRelationships(entity, resolved);
+            responses.add(this.domainIngressResponseBuilder.buildIngressResponseFrom(entity));
+        }
+
+        // Write the whole batch in as few JDBC batches as possible, then let it all go.
+        this.entityManager.flush();
+        this.entityManager.clear();
+
+        var elapsedMilliseconds = Math.max(1L, (System.nanoTime() - started) / 1_000_000L);
+        logger.info("...ingested a batch of {} entities ({} references resolved) in {} ms: "
+                + "{} entities/second.",
+            batch.size(),
+            resolved.size(),
+            elapsedMilliseconds,
+            batch.size() * 1000L / elapsedMilliseconds);
+
+        if (Objects.nonNull(sample)) {
+            this.microMeterCommand.endSample(sample, "bulkIngestBatch", tags);
+        }
+        return responses;
+    }
+
+    /**
+     * Fetch every referenced entity with chunked IN queries, one set of queries per class.
+     *
+     * @param ids The referenced IDs by entity class.
+     * @return The managed entities by their Ubiquia ID.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> resolve(final Map<Class<?>, Set<String>> ids) {
+        var resolved = new HashMap<String, Object>();
+        for (var entry : ids.entrySet()) {
+            var repository = this.entityRepositoryFinder.findRepositoryFor(
+                entry.getKey().getSimpleName());
+            var classIds = new ArrayList<>(entry.getValue());
+            for (var start = 0; start < classIds.size(); start += this.lookupChunkSize) {
+                var chunk = classIds.subList(
+                    start,
+                    Math.min(start + this.lookupChunkSize, classIds.size()));
+                for (var fetched : (Iterable<AbstractDomainModelEntity>)
+                    repository.findAllById(chunk)) {
+                    resolved.put(fetched.getUbiquiaId(), fetched);
+                }
+            }
+        }
+        return resolved;
+    }
+}
@@ -0,0 +1,179 @@
+package org.ubiquia.common.library.belief.state.libraries.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PostConstruct;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * A cache of the distinct tag keys, and distinct tag values per key, of each class of domain
+ * model, so that the "tags/get" endpoints do not run a DISTINCT over every tag of every record
+ * per request. Because subclasses share their parents' tags, any write that can add or remove
+ * a tag invalidates every class's lookups; invalidation is repeated once the write commits so
+ * that no lookup run mid-transaction can cache what the write is replacing. Entries also
+ * expire after "ubiquia.beliefState.tags.cache-ttl-milliseconds" so that writes made by other
+ * instances of the belief state are picked up.
+ *
+ * <p>Lookups are published as "ubiquia.belief.state.tags.cache" (tagged hit/miss.)</p>
+ */
+@Service
+public class DistinctTagCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(DistinctTagCache.class);
+
+    @Value("${ubiquia.beliefState.tags.cache-ttl-milliseconds:60000}")
+    private Long cacheTtlMilliseconds;
+
+    @Value("${ubiquia.beliefState.tags.max-cached-lookups:10000}")
+    private Integer maxCachedLookups;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    private final Map<LookupKey, Lookup> lookups = new ConcurrentHashMap<>();
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private Counter hitCounter;
+
+    private Counter missCounter;
+
+    /**
+     * A cached lookup: the distinct keys of a class when the tag key is null, otherwise the
+     * distinct values of that tag key.
+     *
+     * @param entityClass The class of domain model.
+     * @param tagKey      The tag key, or null.
+     */
+    private record LookupKey(Class<?> entityClass, String tagKey) {
+    }
+
+    /**
+     * The result of a lookup and when it was loaded.
+     *
+     * @param results  The distinct keys or values.
+     * @param loadedAt When the lookup was loaded, in epoch milliseconds.
+     */
+    private record Lookup(List<String> results, long loadedAt) {
+    }
+
+    /** Registers the cache's metrics. */
+    @PostConstruct
+    public void init() {
+        if (Objects.isNull(this.meterRegistry)) {
+            this.meterRegistry = new SimpleMeterRegistry();
+        }
+        this.hitCounter = Counter.builder("ubiquia.belief.state.tags.cache")
+            .description("Distinct tag key and value lookups served from the cache.")
+            .tag("result", "hit")
+            .register(this.meterRegistry);
+        this.missCounter = Counter.builder("ubiquia.belief.state.tags.cache")
+            .description("Distinct tag key and value lookups served from the cache.")
+            .tag("result", "miss")
+            .register(this.meterRegistry);
+    }
+
+    /**
+     * Get the distinct tag keys of a class of domain model, loading them on a miss.
+     *
+     * @param entityClass The class of domain model.
+     * @param loader      The query loading the keys.
+     * @return The distinct keys.
+     */
+    public List<String> getKeys(final Class<?> entityClass, final Supplier<List<String>> loader) {
+        return this.get(new LookupKey(entityClass, null), loader);
+    }
+
+    /**
+     * Get the distinct values of a tag key for a class of domain model, loading them on a miss.
+     *
+     * @param entityClass The class of domain model.
+     * @param key         The tag key.
+     * @param loader      The query loading the values.
+     * @return The distinct values.
+     */
+    public List<String> getValuesByKey(
+        final Class<?> entityClass,
+        final String key,
+        final Supplier<List<String>> loader) {
+
+        return this.get(new LookupKey(entityClass, key), loader);
+    }
+
+    /**
+     * Invalidate every cached lookup now and, if called within a transaction, again once it
+     * commits.
+     */
+    public void invalidate() {
+        this.clear();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        clear();
+                    }
+                });
+        }
+    }
+
+    /**
+     * Get the number of cached lookups.
+     *
+     * @return The number of cached lookups.
+     */
+    public int size() {
+        return this.lookups.size();
+    }
+
+    private List<String> get(final LookupKey key, final Supplier<List<String>> loader) {
+        var now = System.currentTimeMillis();
+        var cached = this.lookups.get(key);
+        if (Objects.nonNull(cached) && now - cached.loadedAt() < this.cacheTtlMilliseconds) {
+            this.hitCounter.increment();
+            return cached.results();
+        }
+
+        this.missCounter.increment();
+        var generation = this.generation.get();
+        var results = List.copyOf(loader.get());
+
+        // Only cache what was loaded if nothing was invalidated while it loaded, and stop
+        // caching rather than grow without bound on client-supplied keys; expired lookups are
+        // purged first so that they do not hold the cache at its cap.
+        if (this.lookups.size() >= this.maxCachedLookups) {
+            this.purgeExpired(now);
+        }
+        if (generation == this.generation.get() && this.lookups.size() < this.maxCachedLookups) {
+            var lookup = new Lookup(results, now);
+            this.lookups.put(key, lookup);
+            if (generation != this.generation.get()) {
+                this.lookups.remove(key, lookup);
+            }
+        }
+        return results;
+    }
+
+    private void purgeExpired(final long now) {
+        this.lookups.values().removeIf(x -> now - x.loadedAt() >= this.cacheTtlMilliseconds);
+    }
+
+    private void clear() {
+        this.generation.incrementAndGet();
+        this.lookups.clear();
+        logger.debug("Invalidated distinct tag lookups...");
+    }
+}
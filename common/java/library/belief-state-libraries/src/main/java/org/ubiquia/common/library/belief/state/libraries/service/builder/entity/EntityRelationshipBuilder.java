@@ -74,13 +74,94 @@ public abstract class EntityRelationshipBuilder<T extends AbstractDomainModelEnt
      * @throws Exception Exceptions from black magic.
      */
     public void tryBuildRelationships(T entity) throws Exception {
+        this.tryBuildRelationships(entity, Map.of());
+    }
+
+    /**
+     * Provided a domain entity and the already-persisted entities it may reference, crawl
+     * through the model and hydrate any existing relationships recursively. References found
+     * in the resolved entities are linked in memory rather than fetched and saved one by one.
+     *
+     * @param entity   The entity we're building existing relationship data for.
+     * @param resolved Managed entities by their Ubiquia ID, i.e. from
+     *                 {@link #collectReferencedIds(AbstractDomainModelEntity, Map)}.
+     * @throws Exception Exceptions from black magic.
+     */
+    public void tryBuildRelationships(T entity, Map<String, Object> resolved) throws Exception {
         var entityName = getEntityClassName(entity);
         var builder = (EntityRelationshipBuilder<T>) this.tryGetRelationshipBuilderFor(entity);
         if (!this.cachedEntityClass.getName().equalsIgnoreCase(entityName)
             && Objects.nonNull(builder)) {
-            builder.tryBuildRelationships(entity);
+            builder.tryBuildRelationships(entity, resolved);
         } else {
-            this.trySetRelationshipsFor(entity);
+            this.trySetRelationshipsFor(entity, resolved);
+        }
+    }
+
+    /**
+     * Provided a domain entity, crawl through the model the same way relationships are built
+     * and collect the Ubiquia IDs of every entity it references, by class, so that they can be
+     * resolved in bulk before relationships are built.
+     *
+     * @param entity The entity whose references to collect.
+     * @param ids    The IDs collected so far by entity class; added to in place.
+     * @throws Exception Exceptions from black magic.
+     */
+    @SuppressWarnings("unchecked")
+    public void collectReferencedIds(T entity, Map<Class<?>, Set<String>> ids)
+        throws Exception {
+
+        var entityName = getEntityClassName(entity);
+        var builder = (EntityRelationshipBuilder<T>) this.tryGetRelationshipBuilderFor(entity);
+        if (!this.cachedEntityClass.getName().equalsIgnoreCase(entityName)
+            && Objects.nonNull(builder)) {
+            builder.collectReferencedIds(entity, ids);
+        } else {
+            for (var key : this.cachedEntityFieldMap.keySet()) {
+                this.collectReferencedIdFor(key.get(entity), ids);
+            }
+            for (var key : this.cachedEntityListFieldMap.keySet()) {
+                var values = (List<?>) key.get(entity);
+                if (Objects.nonNull(values)) {
+                    for (var value : values) {
+                        this.collectReferencedIdFor(value, ids);
+                    }
+                }
+            }
+            for (var key : this.cachedEntitySetFieldMap.keySet()) {
+                var values = (Set<?>) key.get(entity);
+                if (Objects.nonNull(values)) {
+                    for (var value : values) {
+                        this.collectReferencedIdFor(value, ids);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Collect the ID of a referenced entity or, if it is new, of the entities it references.
+     *
+     * @param child The referenced entity.
+     * @param ids   The IDs collected so far by entity class.
+     * @throws Exception Exceptions from black magic.
+     */
+    @SuppressWarnings("unchecked")
+    private void collectReferencedIdFor(Object child, Map<Class<?>, Set<String>> ids)
+        throws Exception {
+
+        if (Objects.nonNull(child)
+            && (Hibernate.unproxy(child) instanceof AbstractDomainModelEntity entity)) {
+            if (Objects.nonNull(entity.getUbiquiaId())) {
+                ids.computeIfAbsent(entity.getClass(), x -> new HashSet<>())
+                    .add(entity.getUbiquiaId());
+            } else {
+                var builder = (EntityRelationshipBuilder<T>) this.tryGetRelationshipBuilderFor(
+                    entity);
+                if (Objects.nonNull(builder)) {
+                    builder.collectReferencedIds((T) entity, ids);
+                }
+            }
         }
     }
 
@@ -109,13 +190,16 @@ public abstract class EntityRelationshipBuilder<T extends AbstractDomainModelEnt
      * @throws Exception Exceptions from black magic.
      */
     @Transactional
-    private void trySetRelationshipsFor(T entity) throws Exception {
+    private void trySetRelationshipsFor(T entity, Map<String, Object> resolved)
+        throws Exception {
+
         for (var key : this.cachedEntityFieldMap.keySet()) {
             this.handleBidirectionalRelationship(
                 entity,
                 key,
                 key.get(entity),
-                this.cachedEntityFieldMap.get(key));
+                this.cachedEntityFieldMap.get(key),
+                resolved);
         }
 
         for (var key : this.cachedEntityListFieldMap.keySet()) {
@@ -127,7 +211,8 @@ public abstract class EntityRelationshipBuilder<T extends AbstractDomainModelEnt
                         entity,
                         key,
                         value,
-                        this.cachedEntityListFieldMap.get(key));
+                        this.cachedEntityListFieldMap.get(key),
+                        resolved);
                 }
             }
         }
@@ -141,7 +226,8 @@ public abstract class EntityRelationshipBuilder<T extends AbstractDomainModelEnt
                         entity,
                         key,
                         value,
-                        this.cachedEntitySetFieldMap.get(key));
+                        this.cachedEntitySetFieldMap.get(key),
+                        resolved);
                 }
             }
         }
@@ -154,13 +240,15 @@ public abstract class EntityRelationshipBuilder<T extends AbstractDomainModelEnt
      * @param parentField       The field of the parent referencing the child.
      * @param child             The child entity.
      * @param childBackRefField The field of the child referencing the parent.
+     * @param resolved          Managed entities by their Ubiquia ID.
      * @throws Exception Black magic exceptions.
      */
     private void handleBidirectionalRelationship(
         T parent,
         Field parentField,
         Object child,
-        Field childBackRefField)
+        Field childBackRefField,
+        Map<String, Object> resolved)
         throws Exception {
 
         if (Objects.nonNull(child)) {
@@ -174,7 +262,16 @@ public abstract class EntityRelationshipBuilder<T extends AbstractDomainModelEnt
             var idRecord = this.getIdValueFor(unproxiedChild);
 
             Object persistedChild = null;
-            if (idRecord.isPresent()) {
+            var resolvedChild = unproxiedChild instanceof AbstractDomainModelEntity entity
+                && Objects.nonNull(entity.getUbiquiaId())
+                ? resolved.get(entity.getUbiquiaId())
+                : null;
+
+            // Resolved children are already managed, so linking them is enough to persist them.
+            if (Objects.nonNull(resolvedChild)) {
+                this.linkParentToChild(resolvedChild, parent, childBackRefField);
+                persistedChild = resolvedChild;
+            } else if (idRecord.isPresent()) {
                 Object fetched = null;
                 try {
                     fetched = repository.findById(idRecord.get()).orElseThrow(()
@@ -185,7 +282,7 @@ public abstract class EntityRelationshipBuilder<T extends AbstractDomainModelEnt
                 this.linkParentToChild(fetched, parent, childBackRefField);
                 persistedChild = repository.save(fetched);
             } else {
-                this.tryBuildNestedRelationshipsIfNeededFor(unproxiedChild);
+                this.tryBuildNestedRelationshipsIfNeededFor(unproxiedChild, resolved);
                 this.linkParentToChild(unproxiedChild, parent, childBackRefField);
                 persistedChild = repository.save(unproxiedChild);
             }
@@ -260,17 +357,21 @@ public abstract class EntityRelationshipBuilder<T extends AbstractDomainModelEnt
     /**
      * Attempt to recursively build nested relationships as needed.
      *
-     * @param child The child to update.
+     * @param child    The child to update.
+     * @param resolved Managed entities by their Ubiquia ID.
      * @throws Exception Exceptions from black magic.
      */
-    private void tryBuildNestedRelationshipsIfNeededFor(Object child) throws Exception {
+    private void tryBuildNestedRelationshipsIfNeededFor(
+        Object child,
+        Map<String, Object> resolved) throws Exception {
+
         if ((child instanceof AbstractDomainModelEntity entity)) {
             var entityName = this.getEntityClassName(entity);
             if (!entityName.equalsIgnoreCase(this.cachedEntityClass.getSimpleName())) {
                 var builder =
                     (EntityRelationshipBuilder<T>) this.tryGetRelationshipBuilderFor(entity);
                 if (Objects.nonNull(builder)) {
-                    builder.tryBuildRelationships((T) entity);
+                    builder.tryBuildRelationships((T) entity, resolved);
                 }
             }
         }
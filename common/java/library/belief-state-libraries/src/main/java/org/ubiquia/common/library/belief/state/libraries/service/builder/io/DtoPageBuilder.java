@@ -25,6 +25,19 @@ public class DtoPageBuilder<T extends AbstractDomainModelEntity, D extends Abstr
     @Autowired
     private ObjectMapper objectMapper;
 
+    /**
+     * Build a DTO from a single database record.
+     *
+     * @param record The database record to egress as a DTO.
+     * @return The DTO.
+     * @throws IllegalAccessException Exceptions from reflection.
+     */
+    @SuppressWarnings("unchecked")
+    public D buildDtoFrom(T record) throws Exception {
+        var dtoMapper = this.egressMapperFinder.findEgressMapperFor(record);
+        return (D) dtoMapper.map(record);
+    }
+
     /**
      * Build a paginated response from a page of database of records.
      *
@@ -32,7 +45,6 @@ public class DtoPageBuilder<T extends AbstractDomainModelEntity, D extends Abstr
      * @return paginated response of DTOs.
      * @throws IllegalAccessException Exceptions from reflection.
      */
-    @SuppressWarnings("unchecked")
     public GenericPageImplementation<D> buildPageFrom(Page<T> records)
         throws Exception {
 
@@ -40,9 +52,7 @@ public class DtoPageBuilder<T extends AbstractDomainModelEntity, D extends Abstr
 
         var converted = new ArrayList<D>();
         for (var record : records.getContent()) {
-            var dtoMapper = this.egressMapperFinder.findEgressMapperFor(record);
-            var dto = (D) dtoMapper.map(record);
-            converted.add(dto);
+            converted.add(this.buildDtoFrom(record));
         }
 
         convertedPage = new GenericPageImplementation<>(
@@ -58,6 +68,10 @@ public class DtoPageBuilder<T extends AbstractDomainModelEntity, D extends Abstr
             records.getNumberOfElements(),
             records.getSort().isEmpty());
 
+        if (records instanceof GenericPageImplementation<T> page) {
+            convertedPage.setNextCursor(page.getNextCursor());
+        }
+
         return convertedPage;
     }
 }
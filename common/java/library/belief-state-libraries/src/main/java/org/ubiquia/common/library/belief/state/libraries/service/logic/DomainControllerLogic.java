@@ -1,8 +1,18 @@
 package org.ubiquia.common.library.belief.state.libraries.service.logic;
 
+import jakarta.persistence.Entity;
+import jakarta.persistence.Transient;
 import jakarta.servlet.http.HttpServletRequest;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
+import org.apache.commons.lang3.reflect.FieldUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -17,6 +27,9 @@ public class DomainControllerLogic {
 
     private final Pattern camelcaseRegex;
 
+    private final Map<Class<?>, List<String>> projectionFieldsByEntityClass =
+        new ConcurrentHashMap<>();
+
     /**
      * Constructors are fun.
      */
@@ -43,6 +56,36 @@ public class DomainControllerLogic {
         return map;
     }
 
+    /**
+     * Get the fields a projection selects when the client names none: the entity's fields that
+     * its DTO also declares, less relationships and collections, which are only loaded when
+     * asked for by name.
+     *
+     * @param entityClass The entity class being projected.
+     * @param dtoClass    The DTO class mirroring the entity.
+     * @return The field names.
+     */
+    public List<String> getDefaultProjectionFieldsFor(
+        final Class<?> entityClass,
+        final Class<?> dtoClass) {
+
+        return this.projectionFieldsByEntityClass.computeIfAbsent(entityClass, x -> {
+            var fields = new ArrayList<String>();
+            for (var field : FieldUtils.getAllFields(entityClass)) {
+                var skip = Modifier.isStatic(field.getModifiers())
+                    || field.isAnnotationPresent(Transient.class)
+                    || Collection.class.isAssignableFrom(field.getType())
+                    || field.getType().isAnnotationPresent(Entity.class)
+                    || Objects.isNull(FieldUtils.getField(dtoClass, field.getName(), true));
+                if (!skip) {
+                    fields.add(field.getName());
+                }
+            }
+            logger.debug("Default projection of {}: {}", entityClass.getSimpleName(), fields);
+            return List.copyOf(fields);
+        });
+    }
+
     /**
      * Remove any superfluous keys from our map of parameters to query for.
      *
@@ -54,6 +97,9 @@ public class DomainControllerLogic {
         map.remove("sortDescending");
         map.remove("sortByFields");
         map.remove("multiselectFields");
+        map.remove("projectionFields");
+        map.remove("cursor");
+        map.remove("countMode");
 
         logger.debug("Map now contains the following: {}", map.keySet());
     }
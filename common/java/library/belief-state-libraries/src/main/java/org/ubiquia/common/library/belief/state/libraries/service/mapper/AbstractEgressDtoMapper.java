@@ -3,13 +3,19 @@ package org.ubiquia.common.library.belief.state.libraries.service.mapper;
 import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Embeddable;
 import jakarta.persistence.Embedded;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.commons.lang3.reflect.FieldUtils;
 import org.hibernate.Hibernate;
+import org.springframework.aop.framework.AopProxyUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationContext;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -24,6 +30,14 @@ import org.ubiquia.common.model.domain.entity.AbstractDomainModelEntity;
  * this class WILL NOT cache the "many" side of any domain relationships, thereby ensuring
  * that no unbounded lists get egressed to clients.
  *
+ * <p>Every field is bound once, when the mapper is constructed, to a pair of method handles and
+ * the kind of copy it needs; embeddables and the mappers of related entities are bound the first
+ * time each class is seen. Mapping is then plain field access. Related entities are mapped up to
+ * "ubiquia.beliefState.egress.max-depth" relationships away from the root (so zero maps none of
+ * them); beyond it, or when an entity is already being mapped further up the graph, they are
+ * egressed as references holding only their ID and model type.
+ * </p>
+ *
  * @param <F> The entity class we're mapping from.
  * @param <T> The DTO class we're mapping to.
  */
@@ -34,19 +48,81 @@ public abstract class AbstractEgressDtoMapper<
     implements InterfaceEgressDtoMapper<F, T>,
     InterfaceLogger {
 
+    private static final MethodType GETTER_TYPE = MethodType.methodType(
+        Object.class,
+        Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(
+        void.class,
+        Object.class,
+        Object.class);
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+
     private final Class<F> cachedEntityClass;
     private final Class<T> cachedDtoClass;
-    private final List<Field> cachedEntityFields = new ArrayList<>();
-    private final HashMap<Field, Field> cachedDtoFieldMap = new HashMap<>();
+    private final List<FieldCopier> fieldCopiers = new ArrayList<>();
+    private final Map<EmbeddableKey, EmbeddableCopier> embeddableCopiers =
+        new ConcurrentHashMap<>();
+    @SuppressWarnings("rawtypes")
+    private final Map<Class<?>, Optional<AbstractEgressDtoMapper>> relatedMappers =
+        new ConcurrentHashMap<>();
     @Autowired
     private ApplicationContext applicationContext;
+    @Value("${ubiquia.beliefState.egress.max-depth:8}")
+    private Integer maxDepth;
+
+    /**
+     * The kind of copy a field needs.
+     */
+    private enum FieldKind {
+        VALUE,
+        EMBEDDABLE,
+        ELEMENT_COLLECTION,
+        COLLECTION,
+        ENTITY
+    }
+
+    /**
+     * A bound entity field and the DTO field it is copied to.
+     */
+    private record FieldCopier(
+        String name,
+        FieldKind kind,
+        Class<?> dtoType,
+        MethodHandle getter,
+        MethodHandle setter) {
+    }
+
+    /**
+     * The entity and DTO classes of an embeddable.
+     */
+    private record EmbeddableKey(Class<?> entityClass, Class<?> dtoClass) {
+    }
+
+    /**
+     * A bound embeddable DTO constructor and the getter/setter pairs of the fields it copies.
+     */
+    private record EmbeddableCopier(
+        MethodHandle constructor,
+        List<MethodHandle> getters,
+        List<MethodHandle> setters) {
+    }
+
+    /**
+     * The state of a single mapping: how many relationships away from the root the entity being
+     * mapped is, and which entities are on its path.
+     */
+    private static final class EgressContext {
+
+        private final Set<Object> path = Collections.newSetFromMap(new IdentityHashMap<>());
+        private int depth = 0;
+    }
 
     /**
      * Constructor. Cache requisite data.
      */
     @SuppressWarnings("unchecked")
     public AbstractEgressDtoMapper() {
-        this.getLogger().debug("Initializing reflection cache for mapper: {}...",
+        this.getLogger().debug("Initializing field bindings for mapper: {}...",
             this.getClass().getSimpleName());
 
         this.cachedEntityClass = this.resolveGenericClass(0);
@@ -57,9 +133,9 @@ public abstract class AbstractEgressDtoMapper<
 
         this.matchFields(entityFields, dtoFields);
 
-        this.cachedEntityFields.removeIf(f -> f.getName().equals("modelType"));
+        this.fieldCopiers.removeIf(f -> f.name().equals("modelType"));
 
-        this.getLogger().debug("...reflection cache initialized.");
+        this.getLogger().debug("...field bindings initialized.");
     }
 
     /**
@@ -96,11 +172,45 @@ public abstract class AbstractEgressDtoMapper<
     public AbstractDomainModel map(final F from)
         throws Exception {
 
+        return this.map(from, new EgressContext());
+    }
+
+    /**
+     * Map from an entity to a DTO as part of a larger mapping.
+     *
+     * @param from    The entity to map from.
+     * @param context The state of the mapping.
+     * @return A mapped DTO.
+     * @throws Exception Exceptions from mapping fields.
+     */
+    private AbstractDomainModel map(
+        final AbstractDomainModelEntity from,
+        final EgressContext context) throws Exception {
+
+        var to = this.getReferenceTo(from);
+
+        var unproxied = Hibernate.unproxy(from);
+        if (Objects.nonNull(unproxied)) {
+            context.path.add(unproxied);
+            try {
+                this.tryHydrateObject(unproxied, to, context);
+            } finally {
+                context.path.remove(unproxied);
+            }
+        }
+        return to;
+    }
+
+    /**
+     * Build a DTO that only references an entity by its ID and model type.
+     *
+     * @param from The entity to reference.
+     * @return The reference.
+     */
+    private T getReferenceTo(final AbstractDomainModelEntity from) {
         var to = this.getNewDto();
         to.setModelType(this.getModelType());
         to.setUbiquiaId(from.getUbiquiaId());
-
-        this.tryHydrateObject(from, to);
         return to;
     }
 
@@ -118,7 +228,7 @@ public abstract class AbstractEgressDtoMapper<
     }
 
     /**
-     * Provided an entity and a mirrored DTO, cache the fields for quicker lookups later.
+     * Provided an entity and a mirrored DTO, bind the fields for quicker lookups later.
      *
      * @param entityFields The list of entity fields.
      * @param dtoFields    The list of DTO fields.
@@ -198,48 +308,74 @@ public abstract class AbstractEgressDtoMapper<
     }
 
     /**
-     * Cache mirrored DTO and entity fields for quicker lookup later.
+     * Bind mirrored DTO and entity fields to method handles for quicker access later.
      *
-     * @param entityField The entity field to cache.
-     * @param dtoField    The DTO field to cache.
+     * @param entityField The entity field to bind.
+     * @param dtoField    The DTO field to bind.
      */
     private void cacheField(final Field entityField, final Field dtoField) {
         entityField.setAccessible(true);
         dtoField.setAccessible(true);
-        this.cachedEntityFields.add(entityField);
-        this.cachedDtoFieldMap.put(entityField, dtoField);
-        this.getLogger().debug("...cached field: {}...", entityField.getName());
+        try {
+            var lookup = MethodHandles.lookup();
+            this.fieldCopiers.add(new FieldCopier(
+                entityField.getName(),
+                this.getKindOf(entityField),
+                dtoField.getType(),
+                lookup.unreflectGetter(entityField).asType(GETTER_TYPE),
+                lookup.unreflectSetter(dtoField).asType(SETTER_TYPE)));
+            this.getLogger().debug("...cached field: {}...", entityField.getName());
+        } catch (IllegalAccessException e) {
+            this.getLogger().warn("ERROR: Unable to bind field {}; skipping...",
+                entityField.getName(), e);
+        }
+    }
+
+    /**
+     * Determine the kind of copy a field needs from its declaration.
+     *
+     * @param field The entity field.
+     * @return The kind of copy.
+     */
+    private FieldKind getKindOf(final Field field) {
+        var type = field.getType();
+        var kind = FieldKind.VALUE;
+        if (field.isAnnotationPresent(Embedded.class)
+            || type.isAnnotationPresent(Embeddable.class)) {
+            kind = FieldKind.EMBEDDABLE;
+        } else if (field.isAnnotationPresent(ElementCollection.class)) {
+            kind = FieldKind.ELEMENT_COLLECTION;
+        } else if (List.class.isAssignableFrom(type) || Set.class.isAssignableFrom(type)) {
+            kind = FieldKind.COLLECTION;
+        } else if (AbstractDomainModelEntity.class.isAssignableFrom(type)
+            || type.isAssignableFrom(AbstractDomainModelEntity.class)) {
+            kind = FieldKind.ENTITY;
+        }
+        return kind;
     }
 
     /**
      * Attempt to hydrate an object per the provided egress and hydration parameters.
      *
-     * @param from The entity to hydrate from.
-     * @param to   The DTO to map to.
-     * @throws IllegalAccessException Reflection exceptions.
+     * @param from    The entity to hydrate from.
+     * @param to      The DTO to map to.
+     * @param context The state of the mapping.
+     * @throws Exception Exceptions from mapping fields.
      */
-    @Transactional
-    private void tryHydrateObject(final F from, T to)
+    private void tryHydrateObject(final Object from, T to, final EgressContext context)
         throws Exception {
 
-        var unproxied = Hibernate.unproxy(from);
-        if (Objects.nonNull(unproxied)) {
-            for (var field : this.cachedEntityFields) {
-                var dtoField = this.cachedDtoFieldMap.get(field);
-
-                var value = field.get(unproxied);
-                if (Objects.nonNull(field.get(unproxied))) {
-                    if (field.isAnnotationPresent(Embedded.class)
-                        || field.getType().isAnnotationPresent(Embeddable.class)) {
-
-                        this.tryHydrateEmbeddable(to, value, dtoField);
-                    } else if (field.isAnnotationPresent(ElementCollection.class)) {
-                        this.tryHydrateEmbeddables(to, value, dtoField);
-                    } else {
-                        this.hydrateObject(to, value, dtoField);
-                    }
-                } else {
-                    dtoField.set(to, null);
+        for (var copier : this.fieldCopiers) {
+            var value = get(copier.getter(), from);
+            if (Objects.isNull(value)) {
+                set(copier.setter(), to, null);
+            } else {
+                switch (copier.kind()) {
+                    case EMBEDDABLE -> this.tryHydrateEmbeddable(to, value, copier);
+                    case ELEMENT_COLLECTION -> this.tryHydrateEmbeddables(to, value, copier);
+                    case COLLECTION -> this.hydrateCollection(to, value, copier);
+                    case ENTITY -> this.trySetRelatedEntity(to, value, copier, context);
+                    default -> set(copier.setter(), to, value);
                 }
             }
         }
@@ -248,184 +384,222 @@ public abstract class AbstractEgressDtoMapper<
     /**
      * Attempt to hydrate embedded objects without bidirectional relationships.
      *
-     * @param to The parent object we're hydrating.
-     * @param value The embedded object.
-     * @param dtoField The DTO field representing the embedded object.
+     * @param to     The parent object we're hydrating.
+     * @param value  The embedded object.
+     * @param copier The bound field of the embedded object.
      * @throws Exception The usual exception clause.
      */
-    private void tryHydrateEmbeddable(T to, Object value, final Field dtoField) throws Exception {
-        var embeddedEntityClass = value.getClass();
-        this.getLogger().debug("Hydrating embeddable object of class: {}",
-            embeddedEntityClass);
-
-        dtoField.setAccessible(true);
-        var embeddedDtoType = dtoField.getType();
-        var embeddedDto = embeddedDtoType.getDeclaredConstructor().newInstance();
-        dtoField.set(to, embeddedDto);
+    private void tryHydrateEmbeddable(T to, Object value, final FieldCopier copier)
+        throws Exception {
 
-        while (Objects.nonNull(embeddedEntityClass) && embeddedEntityClass != Object.class) {
-            for (var embeddedField : embeddedEntityClass.getDeclaredFields()) {
-                embeddedField.setAccessible(true);
+        var embeddableCopier = this.embeddableCopiers.computeIfAbsent(
+            new EmbeddableKey(value.getClass(), copier.dtoType()),
+            this::bindEmbeddable);
 
-                // ---- guard: skip things we should not copy ----
-                var mods = embeddedField.getModifiers();
-                var skip = java.lang.reflect.Modifier.isStatic(mods)
-                    || embeddedField.isSynthetic();
+        var embeddedDto = invoke(embeddableCopier.constructor());
+        for (var i = 0; i < embeddableCopier.getters().size(); i++) {
+            set(
+                embeddableCopier.setters().get(i),
+                embeddedDto,
+                get(embeddableCopier.getters().get(i), value));
+        }
+        set(copier.setter(), to, embeddedDto);
+    }
 
-                if (!skip) {
+    /**
+     * Bind an embeddable's fields to the same-named fields declared by its DTO.
+     *
+     * @param key The entity and DTO classes of the embeddable.
+     * @return The bound embeddable.
+     */
+    private EmbeddableCopier bindEmbeddable(final EmbeddableKey key) {
+        this.getLogger().debug("Binding embeddable object of class: {}", key.entityClass());
+
+        var lookup = MethodHandles.lookup();
+        var getters = new ArrayList<MethodHandle>();
+        var setters = new ArrayList<MethodHandle>();
+        try {
+            var constructor = key.dtoClass().getDeclaredConstructor();
+            constructor.setAccessible(true);
+
+            var embeddedEntityClass = key.entityClass();
+            while (Objects.nonNull(embeddedEntityClass) && embeddedEntityClass != Object.class) {
+                for (var embeddedField : embeddedEntityClass.getDeclaredFields()) {
+                    if (Modifier.isStatic(embeddedField.getModifiers())
+                        || embeddedField.isSynthetic()) {
+                        continue;
+                    }
                     try {
-                        // read from entity
-                        var fieldValue = embeddedField.get(value);
-
-                        // find same-named field on DTO
-                        try {
-                            var dtoSideField = embeddedDto.getClass()
-                                .getDeclaredField(embeddedField.getName());
+                        var dtoSideField = key.dtoClass()
+                            .getDeclaredField(embeddedField.getName());
+                        var dtoMods = dtoSideField.getModifiers();
+                        if (!Modifier.isStatic(dtoMods)
+                            && !dtoSideField.isSynthetic()
+                            && !Modifier.isFinal(dtoMods)) {
+                            embeddedField.setAccessible(true);
                             dtoSideField.setAccessible(true);
-
-                            var dtoMods = dtoSideField.getModifiers();
-                            var dtoSideSkippable = java.lang.reflect.Modifier.isStatic(dtoMods)
-                                || dtoSideField.isSynthetic()
-                                || java.lang.reflect.Modifier.isFinal(dtoMods);
-
-                            if (!dtoSideSkippable) {
-                                dtoSideField.set(embeddedDto, fieldValue);
-                                this.getLogger().debug("Embedded field: {} = {}",
-                                    dtoSideField.getName(), fieldValue);
-                            }
-                        } catch (NoSuchFieldException ignored) {
-                            // DTO doesn’t declare this field—intentionally ignore
+                            getters.add(lookup.unreflectGetter(embeddedField).asType(GETTER_TYPE));
+                            setters.add(lookup.unreflectSetter(dtoSideField).asType(SETTER_TYPE));
                         }
-
-                    } catch (IllegalAccessException e) {
-                        this.getLogger().warn("ERROR: Unable to copy embedded field {}",
-                            embeddedField.getName(), e);
+                    } catch (NoSuchFieldException ignored) {
+                        // DTO doesn’t declare this field—intentionally ignore
                     }
                 }
+                embeddedEntityClass = embeddedEntityClass.getSuperclass();
             }
-            embeddedEntityClass = embeddedEntityClass.getSuperclass();
+
+            return new EmbeddableCopier(
+                lookup.unreflectConstructor(constructor).asType(CONSTRUCTOR_TYPE),
+                getters,
+                setters);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("ERROR: Unable to bind embeddable "
+                + key.entityClass().getSimpleName() + " to " + key.dtoClass().getSimpleName(), e);
         }
     }
 
+    /**
+     * Copy an element collection of embeddables.
+     *
+     * @param to     The parent object we're hydrating.
+     * @param value  The element collection.
+     * @param copier The bound field of the element collection.
+     * @throws Exception The usual exception clause.
+     */
+    private void tryHydrateEmbeddables(T to, Object value, final FieldCopier copier)
+        throws Exception {
 
-    private void tryHydrateEmbeddables(T to, Object value, final Field dtoField) throws Exception {
-
-        dtoField.setAccessible(true);
-        if (Objects.isNull(value)) {
-            dtoField.set(to, null);
-        } else {
-            if (List.class.isAssignableFrom(value.getClass())) {
-                var embeddedDtoList = new ArrayList<>();
-                embeddedDtoList.addAll((List<Object>) value);
-                dtoField.set(to, embeddedDtoList);
-            } else if (Set.class.isAssignableFrom(value.getClass())) {
-                var embeddedDtoSet = new HashSet<>();
-                embeddedDtoSet.addAll((Set<Object>) value);
-                dtoField.set(to, embeddedDtoSet);
-            }
+        if (value instanceof List<?> list) {
+            set(copier.setter(), to, new ArrayList<>(list));
+        } else if (value instanceof Set<?> set) {
+            set(copier.setter(), to, new HashSet<>(set));
         }
     }
 
     /**
-     * Provided an object, hydrate it with data from the database.
+     * Copy a collection of values, unproxying each element.
      *
-     * @param to       The object to hydrate.
-     * @param value    The value to fetch from teh database.
-     * @param dtoField The mirrored DTO field to use to set our values.
-     * @throws IllegalAccessException Exceptions from Reflection.
+     * @param to     The object to hydrate.
+     * @param value  The collection.
+     * @param copier The bound field of the collection.
+     * @throws Exception The usual exception clause.
      */
-    private void hydrateObject(T to, Object value, final Field dtoField)
+    private void hydrateCollection(T to, Object value, final FieldCopier copier)
         throws Exception {
 
-        value = Hibernate.unproxy(value);
-
-        if (List.class.isAssignableFrom(value.getClass())) {
-            var values = new ArrayList<>();
-            for (var element : (List<?>) value) {
-                var unproxied = Hibernate.unproxy(element);
-                if (Objects.nonNull(unproxied)) {
-                    values.add(unproxied);
-                }
-            }
-            dtoField.set(to, values);
-        } else if (Set.class.isAssignableFrom(value.getClass())) {
-            var values = new HashSet<>();
-            for (var element : (Set<?>) value) {
-                var unproxied = Hibernate.unproxy(element);
-                if (Objects.nonNull(unproxied)) {
-                    values.add(unproxied);
-                }
-            }
-            dtoField.set(to, values);
+        Collection<Object> values = null;
+        if (value instanceof List<?>) {
+            values = new ArrayList<>();
         } else {
-            this.trySetDtoField(to, dtoField, value);
+            values = new HashSet<>();
         }
+        for (var element : (Collection<?>) value) {
+            var unproxied = Hibernate.unproxy(element);
+            if (Objects.nonNull(unproxied)) {
+                values.add(unproxied);
+            }
+        }
+        set(copier.setter(), to, values);
     }
 
     /**
-     * Attempt to set the DTO and its field with the values from the database.
+     * Attempt to set the DTO field of a related entity with that entity's DTO, or with a
+     * reference to it if it is too deep or already being mapped.
      *
-     * @param dto      The DTO to hydrate.
-     * @param dtoField The specific field to set.
-     * @param value    The value we're updating the field with.
-     * @throws IllegalAccessException Reflection exceptions.
+     * @param dto     The DTO to hydrate.
+     * @param value   The related entity.
+     * @param copier  The bound field of the related entity.
+     * @param context The state of the mapping.
+     * @throws Exception Exceptions from mapping the related entity.
      */
-    @SuppressWarnings({"rawtypes", "unchecked"})
-    @Transactional
-    private void trySetDtoField(T dto, final Field dtoField, final Object value)
+    @SuppressWarnings("rawtypes")
+    private void trySetRelatedEntity(
+        T dto,
+        final Object value,
+        final FieldCopier copier,
+        final EgressContext context)
         throws Exception {
 
         var unproxied = Hibernate.unproxy(value);
-        if (Objects.nonNull(unproxied)) {
-
-            var type = unproxied.getClass();
-
-            this.getLogger().debug("Attempting to map field name '{}' of type: '{}'...",
-                dtoField.getName(),
-                type.getSimpleName());
-
-            if (AbstractDomainModelEntity.class.isAssignableFrom(type)) {
-                var lowerCase = Character.toLowerCase(type.getSimpleName().charAt(0));
-                var simpleName = lowerCase + type.getSimpleName().substring(1);
-
-                var fullTypeCamelCase = simpleName + "EgressDtoMapper";
-                fullTypeCamelCase = fullTypeCamelCase.replace("Entity", "");
-
-                var fullType = type.getSimpleName() + "EgressDtoMapper";
-                fullType = fullTypeCamelCase.replace("Entity", "");
-
-                if (this.applicationContext.containsBean(fullTypeCamelCase)) {
-                    this.getLogger().debug("...Found mapper bean for type {}; attempting to map...",
-                        fullTypeCamelCase);
-                    var mapperBean = (AbstractEgressDtoMapper)
-                        this.applicationContext
-                            .getBean(fullTypeCamelCase);
-
-                    var mapped = mapperBean.map((AbstractDomainModelEntity) unproxied);
-                    mapped = (AbstractDomainModel) Hibernate.unproxy(mapped);
-                    dtoField.set(dto, mapped);
-
-                } else if (this.applicationContext.containsBean(fullType)) {
+        if (unproxied instanceof AbstractDomainModelEntity entity) {
+            var mapper = this.relatedMappers
+                .computeIfAbsent(entity.getClass(), this::tryFindMapperFor);
+            if (mapper.isPresent()) {
+                AbstractDomainModel mapped = null;
+                if (context.depth + 1 > this.maxDepth || context.path.contains(entity)) {
+                    mapped = mapper.get().getReferenceTo(entity);
+                } else {
+                    context.depth++;
+                    try {
+                        mapped = mapper.get().map(entity, context);
+                    } finally {
+                        context.depth--;
+                    }
+                }
+                set(copier.setter(), dto, mapped);
+            }
+        } else if (Objects.nonNull(unproxied)) {
+            set(copier.setter(), dto, unproxied);
+        }
+    }
 
-                    this.getLogger().debug("...Found mapper bean for type {}; attempting to map...",
-                        fullType);
+    /**
+     * Find the mapper bean of an entity class, if any.
+     *
+     * @param type The entity class.
+     * @return The mapper, if found.
+     */
+    @SuppressWarnings("rawtypes")
+    private Optional<AbstractEgressDtoMapper> tryFindMapperFor(final Class<?> type) {
+        var lowerCase = Character.toLowerCase(type.getSimpleName().charAt(0));
+        var simpleName = lowerCase + type.getSimpleName().substring(1);
+        var fullTypeCamelCase = (simpleName + "EgressDtoMapper").replace("Entity", "");
+        var fullType = (type.getSimpleName() + "EgressDtoMapper").replace("Entity", "");
+
+        AbstractEgressDtoMapper mapper = null;
+        for (var beanName : List.of(fullTypeCamelCase, fullType)) {
+            if (Objects.isNull(mapper) && this.applicationContext.containsBean(beanName)) {
+                this.getLogger().debug("...Found mapper bean {} for type {}...",
+                    beanName,
+                    type.getSimpleName());
+                var bean = this.applicationContext.getBean(beanName);
+
+                // Related entities are mapped within this mapping, so go straight to the target.
+                var target = AopProxyUtils.getSingletonTarget(bean);
+                mapper = (AbstractEgressDtoMapper) (Objects.nonNull(target) ? target : bean);
+            }
+        }
+        return Optional.ofNullable(mapper);
+    }
 
-                    var mapperBean = (AbstractEgressDtoMapper)
-                        this.applicationContext
-                            .getBean(fullType);
+    private static Object get(final MethodHandle getter, final Object from) throws Exception {
+        try {
+            return (Object) getter.invokeExact(from);
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
 
-                    var mapped = mapperBean.map((AbstractDomainModelEntity) unproxied);
-                    mapped = (AbstractDomainModel) Hibernate.unproxy(mapped);
-                    dtoField.set(dto, mapped);
-                }
-            } else {
-                this.getLogger().debug("...Type '{}' is not a Ubiquia entity; "
-                        + "assigning value as-is...",
-                    type);
-                this.getLogger().debug("Field and Value: {} : {}", dtoField.getName(), value);
+    private static void set(final MethodHandle setter, final Object to, final Object value)
+        throws Exception {
+        try {
+            setter.invokeExact(to, value);
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
 
-                dtoField.set(dto, value);
-            }
+    private static Object invoke(final MethodHandle constructor) throws Exception {
+        try {
+            return (Object) constructor.invokeExact();
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
         }
     }
 }
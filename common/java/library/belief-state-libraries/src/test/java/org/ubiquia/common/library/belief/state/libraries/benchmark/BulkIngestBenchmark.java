@@ -0,0 +1,92 @@
+package org.ubiquia.common.library.belief.state.libraries.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.ubiquia.common.library.belief.state.libraries.controller.AnimalController;
+import org.ubiquia.common.library.belief.state.libraries.controller.PersonController;
+import org.ubiquia.common.library.belief.state.libraries.service.factory.MockFactory;
+import org.ubiquia.domain.generated.Animal;
+import org.ubiquia.domain.generated.Person;
+
+/**
+ * Integration benchmark measuring list ingest throughput (in entities per second) of 1k, 10k
+ * and 100k animals that each reference one of 100 existing owners, plus a 1k baseline of
+ * adding the same animals one at a time. Run with the "benchmark" Gradle task.
+ */
+@SpringBootTest(properties = "logging.level.org.ubiquia=INFO")
+@Tag("benchmark")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class BulkIngestBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkIngestBenchmark.class);
+    private static final int OWNERS = 100;
+    private static final int BASELINE_ENTITIES = 1_000;
+
+    @Autowired
+    private AnimalController animalController;
+
+    @Autowired
+    private MockFactory mockFactory;
+
+    @Autowired
+    private PersonController personController;
+
+    /** Measures ingesting the animals as one list. */
+    @ParameterizedTest
+    @ValueSource(ints = {1_000, 10_000, 100_000})
+    public void benchmarkAddList(final int entities) throws Throwable {
+        var animals = this.generateAnimals(entities);
+
+        var start = System.nanoTime();
+        var responses = this.animalController.addList(animals);
+        var elapsedNanos = System.nanoTime() - start;
+
+        logger.info("BENCHMARK bulk ingest of {}: {} entities/s ({} ms)",
+            entities,
+            String.format("%.0f", entities / (elapsedNanos / 1_000_000_000.0)),
+            elapsedNanos / 1_000_000);
+        Assertions.assertEquals(entities, responses.size());
+    }
+
+    @Test
+    public void benchmarkAddOneByOne() throws Throwable {
+        var animals = this.generateAnimals(BASELINE_ENTITIES);
+
+        var start = System.nanoTime();
+        for (var animal : animals) {
+            this.animalController.add(animal);
+        }
+        var elapsedNanos = System.nanoTime() - start;
+
+        logger.info("BENCHMARK one-at-a-time ingest of {}: {} entities/s ({} ms)",
+            BASELINE_ENTITIES,
+            String.format("%.0f", BASELINE_ENTITIES / (elapsedNanos / 1_000_000_000.0)),
+            elapsedNanos / 1_000_000);
+    }
+
+    private List<Animal> generateAnimals(final int entities) throws Throwable {
+        var owners = new ArrayList<Person>();
+        for (var i = 0; i < OWNERS; i++) {
+            var response = this.personController.add(this.mockFactory.generatePerson());
+            owners.add(this.personController.queryModelWithId(response.getId()).getBody());
+        }
+
+        var animals = new ArrayList<Animal>(entities);
+        for (var i = 0; i < entities; i++) {
+            var animal = this.mockFactory.generateWienerDog();
+            animal.setOwner(owners.get(i % OWNERS));
+            animals.add(animal);
+        }
+        return animals;
+    }
+}
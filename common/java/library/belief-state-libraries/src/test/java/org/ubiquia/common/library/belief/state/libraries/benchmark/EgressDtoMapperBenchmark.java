@@ -0,0 +1,203 @@
+package org.ubiquia.common.library.belief.state.libraries.benchmark;
+
+import jakarta.persistence.Embedded;
+import java.time.OffsetDateTime;
+import java.util.HashSet;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.ubiquia.common.library.belief.state.libraries.service.mapper.AbstractEgressDtoMapper;
+import org.ubiquia.common.model.domain.dto.AbstractDomainModel;
+import org.ubiquia.common.model.domain.embeddable.KeyValuePair;
+import org.ubiquia.common.model.domain.entity.AbstractDomainModelEntity;
+
+/**
+ * JMH benchmark of mapping a 5-level nested entity graph, each level with values, an
+ * embeddable and tags, to DTOs: the bound {@link AbstractEgressDtoMapper} ("bound") versus the
+ * reflective mapper it replaced ("reflective", see {@link ReflectiveEgressDtoMapper}).
+ * Run with ./gradlew :common:java:library:belief-state-libraries:jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EgressDtoMapperBenchmark {
+
+    private static final int LEVELS = 5;
+
+    private AnnotationConfigApplicationContext boundContext;
+
+    private AnnotationConfigApplicationContext reflectiveContext;
+
+    private BoundLevelMapper boundMapper;
+
+    private ReflectiveLevelMapper reflectiveMapper;
+
+    private LevelEntity root;
+
+    /** A domain entity nested to itself, one level per child. */
+    public static class LevelEntity extends AbstractDomainModelEntity {
+
+        private String name;
+
+        private Integer rank;
+
+        private Double weight;
+
+        private OffsetDateTime observedAt;
+
+        @Embedded
+        private LevelDetailEntity detail;
+
+        private LevelEntity child;
+    }
+
+    /** The embeddable of a level entity. */
+    public static class LevelDetailEntity {
+
+        private String description;
+
+        private Boolean active;
+    }
+
+    /** The DTO of a level entity. */
+    public static class LevelModel extends AbstractDomainModel {
+
+        private String name;
+
+        private Integer rank;
+
+        private Double weight;
+
+        private OffsetDateTime observedAt;
+
+        private LevelDetail detail;
+
+        private LevelModel child;
+    }
+
+    /** The DTO of a level entity's embeddable. */
+    public static class LevelDetail {
+
+        private String description;
+
+        private Boolean active;
+    }
+
+    /** The bound mapper of level entities. */
+    public static class BoundLevelMapper extends AbstractEgressDtoMapper<LevelEntity, LevelModel> {
+
+        private static final Logger logger = LoggerFactory.getLogger(BoundLevelMapper.class);
+
+        @Override
+        public Logger getLogger() {
+            return logger;
+        }
+
+        @Override
+        public LevelModel getNewDto() {
+            return new LevelModel();
+        }
+
+        @Override
+        public String getModelType() {
+            return "Level";
+        }
+    }
+
+    /** The reflective mapper of level entities. */
+    public static class ReflectiveLevelMapper
+        extends ReflectiveEgressDtoMapper<LevelEntity, LevelModel> {
+
+        private static final Logger logger = LoggerFactory.getLogger(ReflectiveLevelMapper.class);
+
+        @Override
+        public Logger getLogger() {
+            return logger;
+        }
+
+        @Override
+        public LevelModel getNewDto() {
+            return new LevelModel();
+        }
+
+        @Override
+        public String getModelType() {
+            return "Level";
+        }
+    }
+
+    /** Registers each mapper under the bean name related entities are resolved by. */
+    @Setup(Level.Trial)
+    public void setup() {
+        this.boundContext = new AnnotationConfigApplicationContext();
+        this.boundContext.registerBean("levelEgressDtoMapper", BoundLevelMapper.class);
+        this.boundContext.refresh();
+        this.boundMapper = this.boundContext.getBean(BoundLevelMapper.class);
+
+        this.reflectiveContext = new AnnotationConfigApplicationContext();
+        this.reflectiveContext.registerBean("levelEgressDtoMapper", ReflectiveLevelMapper.class);
+        this.reflectiveContext.refresh();
+        this.reflectiveMapper = this.reflectiveContext.getBean(ReflectiveLevelMapper.class);
+
+        this.root = this.buildGraph();
+    }
+
+    /** Closes both contexts. */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.boundContext.close();
+        this.reflectiveContext.close();
+    }
+
+    /** Maps the graph with the bound mapper. */
+    @Benchmark
+    public Object bound() throws Exception {
+        return this.boundMapper.map(this.root);
+    }
+
+    /** Maps the graph with the reflective mapper. */
+    @Benchmark
+    public Object reflective() throws Exception {
+        return this.reflectiveMapper.map(this.root);
+    }
+
+    private LevelEntity buildGraph() {
+        LevelEntity child = null;
+        for (var i = LEVELS; i > 0; i--) {
+            var detail = new LevelDetailEntity();
+            detail.description = "Level " + i + " of " + LEVELS;
+            detail.active = i % 2 == 0;
+
+            var tags = new HashSet<KeyValuePair>();
+            var tag = new KeyValuePair();
+            tag.setKey("level");
+            tag.setValue(Integer.toString(i));
+            tags.add(tag);
+
+            var level = new LevelEntity();
+            level.setUbiquiaId(UUID.randomUUID().toString());
+            level.setUbiquiaCreatedAt(OffsetDateTime.now());
+            level.setUbiquiaUpdatedAt(OffsetDateTime.now());
+            level.setUbiquiaTags(tags);
+            level.name = "level-" + i;
+            level.rank = i;
+            level.weight = i * 1.5;
+            level.observedAt = OffsetDateTime.now();
+            level.detail = detail;
+            level.child = child;
+            child = level;
+        }
+        return child;
+    }
+}
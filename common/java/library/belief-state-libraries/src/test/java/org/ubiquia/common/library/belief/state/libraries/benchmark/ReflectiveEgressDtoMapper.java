@@ -0,0 +1,126 @@
+package org.ubiquia.common.library.belief.state.libraries.benchmark;
+
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.Embedded;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.ubiquia.common.library.api.interfaces.InterfaceLogger;
+import org.ubiquia.common.library.belief.state.libraries.interfaces.service.mapper.InterfaceEgressDtoMapper;
+import org.ubiquia.common.model.domain.dto.AbstractDomainModel;
+import org.ubiquia.common.model.domain.entity.AbstractDomainModelEntity;
+
+/**
+ * The baseline of {@link EgressDtoMapperBenchmark}: just the per-call reflective field copy of
+ * the mapper that {@link
+ * org.ubiquia.common.library.belief.state.libraries.service.mapper.AbstractEgressDtoMapper}
+ * replaced. Every field is read and written through reflection, embeddables are copied through
+ * per-call field lookups, and related entities are mapped by a mapper bean found by name on
+ * every call.
+ *
+ * @param <F> The entity class we're mapping from.
+ * @param <T> The DTO class we're mapping to.
+ */
+public abstract class ReflectiveEgressDtoMapper<
+    F extends AbstractDomainModelEntity,
+    T extends AbstractDomainModel>
+    implements InterfaceEgressDtoMapper<F, T>,
+    InterfaceLogger {
+
+    private final Map<Field, Field> dtoFields = new LinkedHashMap<>();
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    /**
+     * Constructor. Match each entity field to its same-named DTO field.
+     */
+    public ReflectiveEgressDtoMapper() {
+        var type = (ParameterizedType) this.getClass().getGenericSuperclass();
+        var entityClass = (Class<?>) type.getActualTypeArguments()[0];
+        var dtoClass = (Class<?>) type.getActualTypeArguments()[1];
+
+        for (var entityField : FieldUtils.getAllFields(entityClass)) {
+            var dtoField = FieldUtils.getField(dtoClass, entityField.getName(), true);
+            if (Objects.nonNull(dtoField)
+                && !Modifier.isStatic(entityField.getModifiers())
+                && !entityField.getName().equals("modelType")) {
+                entityField.setAccessible(true);
+                this.dtoFields.put(entityField, dtoField);
+            }
+        }
+    }
+
+    /**
+     * Map from an entity to a DTO.
+     *
+     * @param from The entity to map from.
+     * @return A mapped DTO.
+     * @throws Exception Exceptions from reflection.
+     */
+    public AbstractDomainModel map(final F from) throws Exception {
+        var to = this.getNewDto();
+        to.setModelType(this.getModelType());
+        to.setUbiquiaId(from.getUbiquiaId());
+
+        var unproxied = Hibernate.unproxy(from);
+        for (var entry : this.dtoFields.entrySet()) {
+            var field = entry.getKey();
+            var value = Hibernate.unproxy(field.get(unproxied));
+            if (Objects.isNull(value)) {
+                entry.getValue().set(to, null);
+            } else if (field.isAnnotationPresent(Embedded.class)
+                || field.getType().isAnnotationPresent(Embeddable.class)) {
+                entry.getValue().set(to, this.copyEmbeddable(value, entry.getValue().getType()));
+            } else if (value instanceof Collection<?> collection) {
+                entry.getValue().set(to, value instanceof List<?>
+                    ? new ArrayList<>(collection)
+                    : new HashSet<>(collection));
+            } else if (value instanceof AbstractDomainModelEntity entity) {
+                entry.getValue().set(to, this.mapRelated(entity));
+            } else {
+                entry.getValue().set(to, value);
+            }
+        }
+        return to;
+    }
+
+    private Object copyEmbeddable(final Object value, final Class<?> dtoType) throws Exception {
+        var embeddedDto = dtoType.getDeclaredConstructor().newInstance();
+        for (var embeddedField : FieldUtils.getAllFields(value.getClass())) {
+            var dtoSideField = FieldUtils.getField(dtoType, embeddedField.getName(), true);
+            if (Objects.nonNull(dtoSideField)
+                && !Modifier.isStatic(embeddedField.getModifiers())
+                && !Modifier.isFinal(dtoSideField.getModifiers())) {
+                embeddedField.setAccessible(true);
+                dtoSideField.set(embeddedDto, embeddedField.get(value));
+            }
+        }
+        return embeddedDto;
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private Object mapRelated(final AbstractDomainModelEntity entity) throws Exception {
+        var simpleName = entity.getClass().getSimpleName();
+        var beanName = (Character.toLowerCase(simpleName.charAt(0))
+            + simpleName.substring(1)
+            + "EgressDtoMapper").replace("Entity", "");
+
+        Object mapped = null;
+        if (this.applicationContext.containsBean(beanName)) {
+            var mapper = (ReflectiveEgressDtoMapper) this.applicationContext.getBean(beanName);
+            mapped = mapper.map(entity);
+        }
+        return mapped;
+    }
+}
@@ -0,0 +1,103 @@
+package org.ubiquia.common.library.belief.state.libraries.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Set;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.ubiquia.common.library.belief.state.libraries.controller.AnimalController;
+import org.ubiquia.common.library.belief.state.libraries.service.factory.MockFactory;
+import org.ubiquia.common.library.dao.component.EntityDao;
+import org.ubiquia.common.model.domain.embeddable.KeyValuePair;
+import org.ubiquia.domain.generated.Animal;
+import org.ubiquia.domain.generated.AnimalEntity;
+
+/**
+ * Integration benchmark measuring tag lookup latency over 100k and 1M tagged animals: distinct
+ * keys and values-by-key (uncached, then cached) and a tag-filtered page query. Animals are
+ * ingested a chunk at a time so memory stays bounded. Run with the "benchmark" Gradle task.
+ */
+@SpringBootTest(properties = "logging.level.org.ubiquia=WARN")
+@Tag("benchmark")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class TagLookupBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(TagLookupBenchmark.class);
+    private static final int CHUNK = 10_000;
+    private static final int KEYS = 50;
+    private static final int VALUES = 20;
+
+    @Autowired
+    private AnimalController animalController;
+
+    @Autowired
+    private EntityDao<AnimalEntity> animalDataAccessObject;
+
+    @Autowired
+    private MockFactory mockFactory;
+
+    /** Measures tag lookups once the animals are ingested. */
+    @ParameterizedTest
+    @ValueSource(ints = {100_000, 1_000_000})
+    public void benchmarkTagLookups(final int entities) throws Throwable {
+        for (var start = 0; start < entities; start += CHUNK) {
+            var animals = new ArrayList<Animal>(CHUNK);
+            for (var i = start; i < Math.min(start + CHUNK, entities); i++) {
+                var animal = this.mockFactory.generateWienerDog();
+                animal.setUbiquiaTags(Set.of(
+                    new KeyValuePair("key" + (i % KEYS), "value" + (i % VALUES)),
+                    new KeyValuePair("serial", Integer.toString(i))));
+                animals.add(animal);
+            }
+            this.animalController.addList(animals);
+        }
+
+        final var keys = this.time(entities, "distinct keys (uncached)",
+            () -> this.animalController.getDistinctKeys());
+        this.time(entities, "distinct keys (cached)",
+            () -> this.animalController.getDistinctKeys());
+        final var values = this.time(entities, "values by key (uncached)",
+            () -> this.animalController.getDistinctValuesByKey("key7"));
+        this.time(entities, "values by key (cached)",
+            () -> this.animalController.getDistinctValuesByKey("key7"));
+
+        var params = new HashMap<String, String[]>();
+        params.put("ubiquiaTags[serial]", new String[] {Integer.toString(entities / 2)});
+        var page = this.time(entities, "tag-filtered page", () -> {
+            try {
+                return this.animalDataAccessObject.getPage(
+                    params,
+                    0,
+                    10,
+                    false,
+                    new ArrayList<>(),
+                    AnimalEntity.class);
+            } catch (NoSuchFieldException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        Assertions.assertEquals(KEYS + 1, keys.size());
+        Assertions.assertFalse(values.isEmpty());
+        Assertions.assertEquals(1, page.getContent().size());
+    }
+
+    private <R> R time(final int entities, final String lookup, final Supplier<R> supplier) {
+        var start = System.nanoTime();
+        var result = supplier.get();
+        var elapsedNanos = System.nanoTime() - start;
+        logger.info("BENCHMARK {} over {} tagged entities: {} ms",
+            lookup,
+            entities,
+            String.format("%.2f", elapsedNanos / 1_000_000.0));
+        return result;
+    }
+}
@@ -4,6 +4,8 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.UUID;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -20,11 +22,14 @@ import org.springframework.web.client.RestTemplate;
 import org.ubiquia.common.library.belief.state.libraries.model.association.Association;
 import org.ubiquia.common.library.belief.state.libraries.model.association.ChildAssociation;
 import org.ubiquia.common.library.belief.state.libraries.model.association.ParentAssociation;
+import org.ubiquia.common.library.belief.state.libraries.model.update.BulkUpdate;
+import org.ubiquia.common.library.belief.state.libraries.model.update.BulkUpdateResponse;
 import org.ubiquia.common.library.belief.state.libraries.service.factory.MockFactory;
 import org.ubiquia.common.model.domain.embeddable.KeyValuePair;
 import org.ubiquia.common.model.ubiquia.GenericPageImplementation;
 import org.ubiquia.common.model.ubiquia.IngressResponse;
 import org.ubiquia.domain.generated.Animal;
+import org.ubiquia.domain.generated.ColorType;
 import org.ubiquia.domain.generated.Person;
 
 /** Tests for the person entity controller. */
@@ -249,6 +254,109 @@ public class PersonEntityControllerTest {
         Assertions.assertTrue(tagsList.contains("uniqueValue"));
     }
 
+    @Test
+    public void assertGetUniqueTagKeysAfterRemove_isValid() throws Throwable {
+
+        var model = this.mockFactory.generatePerson();
+        var ingressResponse = this.personController.add(model);
+        var tag = new KeyValuePair("removedKey", "removedValue");
+        this.personController.addTag(ingressResponse.getId(), tag);
+
+        var getUrl = "http://localhost:8080/ubiquia/belief-state-service/person/tags/get/keys";
+        var json = this.mockMvc.perform(MockMvcRequestBuilders
+                .get(getUrl)
+                .accept(MediaType.APPLICATION_JSON))
+            .andExpect(MockMvcResultMatchers.status().is2xxSuccessful())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        Assertions.assertTrue(Arrays
+            .asList(this.objectMapper.readValue(json, String[].class))
+            .contains("removedKey"));
+
+        // The cached keys are invalidated by the removal.
+        this.personController.removeTag(ingressResponse.getId(), tag);
+        json = this.mockMvc.perform(MockMvcRequestBuilders
+                .get(getUrl)
+                .accept(MediaType.APPLICATION_JSON))
+            .andExpect(MockMvcResultMatchers.status().is2xxSuccessful())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        Assertions.assertFalse(Arrays
+            .asList(this.objectMapper.readValue(json, String[].class))
+            .contains("removedKey"));
+    }
+
+    @Test
+    public void assertGetUniqueTagKeysAfterAddingNestedModel_isValid() throws Throwable {
+
+        var getUrl = "http://localhost:8080/ubiquia/belief-state-service/animal/tags/get/keys";
+        var json = this.mockMvc.perform(MockMvcRequestBuilders
+                .get(getUrl)
+                .accept(MediaType.APPLICATION_JSON))
+            .andExpect(MockMvcResultMatchers.status().is2xxSuccessful())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        Assertions.assertFalse(Arrays
+            .asList(this.objectMapper.readValue(json, String[].class))
+            .contains("nestedKey"));
+
+        // Only the nested pet has tags, yet the cached keys are invalidated by the add.
+        var ween = this.mockFactory.generateWienerDog();
+        ween.setUbiquiaTags(new HashSet<>());
+        ween.getUbiquiaTags().add(new KeyValuePair("nestedKey", "nestedValue"));
+        var person = this.mockFactory.generatePerson();
+        person.setUbiquiaTags(new HashSet<>());
+        person.getPets().add(ween);
+        this.personController.add(person);
+
+        json = this.mockMvc.perform(MockMvcRequestBuilders
+                .get(getUrl)
+                .accept(MediaType.APPLICATION_JSON))
+            .andExpect(MockMvcResultMatchers.status().is2xxSuccessful())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        Assertions.assertTrue(Arrays
+            .asList(this.objectMapper.readValue(json, String[].class))
+            .contains("nestedKey"));
+    }
+
+    @Test
+    public void assertQueriesWithTagParams_isValid() throws Throwable {
+
+        var red = this.personController.add(this.mockFactory.generatePerson());
+        this.personController.addTag(red.getId(), new KeyValuePair("color", "red"));
+
+        // A tag of another key with the same value must not match.
+        var blue = this.personController.add(this.mockFactory.generatePerson());
+        this.personController.addTag(blue.getId(), new KeyValuePair("color", "blue"));
+        this.personController.addTag(blue.getId(), new KeyValuePair("shade", "red"));
+
+        var getUrl = "http://localhost:8080/ubiquia/belief-state-service/person/query/params";
+        var json = this.mockMvc.perform(MockMvcRequestBuilders
+                .get(getUrl)
+                .accept(MediaType.APPLICATION_JSON)
+                .queryParam("page", "0")
+                .queryParam("size", "10")
+                .queryParam("ubiquiaTags[color]", "red")
+                .contentType(MediaType.APPLICATION_JSON))
+            .andExpect(MockMvcResultMatchers.status().is2xxSuccessful())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+        var result = this.objectMapper.readValue(
+            json,
+            new TypeReference<GenericPageImplementation<Person>>() {
+            });
+
+        Assertions.assertEquals(1, result.getContent().size());
+        Assertions.assertEquals(red.getId(), result.getContent().get(0).getUbiquiaId());
+    }
+
     @Test
     public void assertAddTags_isValid() throws Throwable {
 
@@ -414,6 +522,52 @@ public class PersonEntityControllerTest {
         Assertions.assertEquals(result.getContent().get(0).getUbiquiaId(), personResponse.getId());
     }
 
+    @Test
+    public void assertAddsListWithReferences_isValid() throws Throwable {
+
+        var owners = new ArrayList<Person>();
+        for (var i = 0; i < 2; i++) {
+            var response = this.personController.add(this.mockFactory.generatePerson());
+            owners.add(this.personController.queryModelWithId(response.getId()).getBody());
+        }
+
+        var weens = new ArrayList<Animal>();
+        for (var i = 0; i < 4; i++) {
+            var ween = this.mockFactory.generateWienerDog();
+            ween.setOwner(owners.get(i % owners.size()));
+            weens.add(ween);
+        }
+        var responses = this.animalController.addList(weens);
+        Assertions.assertEquals(weens.size(), responses.size());
+
+        var getUrl = "http://localhost:8080/ubiquia/belief-state-service/person/query/params";
+        for (var i = 0; i < responses.size(); i++) {
+            var json = this.mockMvc.perform(MockMvcRequestBuilders
+                    .get(getUrl)
+                    .accept(MediaType.APPLICATION_JSON)
+                    .queryParam("page", "0")
+                    .queryParam("size", "1")
+                    .queryParam("pets.ubiquiaId", responses.get(i).getId())
+                    .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().is2xxSuccessful())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+            var result = this.objectMapper.readValue(
+                json,
+                new TypeReference<GenericPageImplementation<Person>>() {
+                });
+
+            var owner = owners.get(i % owners.size());
+            var record = result.getContent().get(0);
+            Assertions.assertEquals(owner.getUbiquiaId(), record.getUbiquiaId());
+            Assertions.assertEquals(
+                owner.getName().getFirstName(),
+                record.getName().getFirstName());
+        }
+    }
+
     @Test
     public void assertQueriesCountWithParams_isValid() throws Throwable {
 
@@ -456,6 +610,128 @@ public class PersonEntityControllerTest {
             .andReturn();
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void assertQueriesProjectionWithParams_isValid() throws Throwable {
+
+        var model = this.mockFactory.generatePerson();
+        var ingressResponse = this.personController.add(model);
+
+        var queryUrl = "http://localhost:8080/ubiquia/belief-state-service/person/query/projection/params";
+        var json = this.mockMvc.perform(MockMvcRequestBuilders
+                .get(queryUrl)
+                .queryParam("ubiquiaId", ingressResponse.getId())
+                .queryParam("page", "0")
+                .queryParam("size", "1")
+                .queryParam("projection-fields", "name.firstName")
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON))
+            .andExpect(MockMvcResultMatchers.status().is2xxSuccessful())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+        var result = this.objectMapper.readValue(
+            json,
+            new TypeReference<GenericPageImplementation<Map<String, Object>>>() {
+            });
+
+        Assertions.assertEquals(1, result.getTotalElements());
+        var row = result.getContent().get(0);
+        Assertions.assertEquals(ingressResponse.getId(), row.get("ubiquiaId"));
+        Assertions.assertEquals(
+            model.getName().getFirstName(),
+            ((Map<String, Object>) row.get("name")).get("firstName"));
+        Assertions.assertFalse(row.containsKey("hairColor"));
+
+        // Without named fields, the DTO's own fields are projected, less its relationships.
+        json = this.mockMvc.perform(MockMvcRequestBuilders
+                .get(queryUrl)
+                .queryParam("ubiquiaId", ingressResponse.getId())
+                .queryParam("page", "0")
+                .queryParam("size", "1")
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON))
+            .andExpect(MockMvcResultMatchers.status().is2xxSuccessful())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+        result = this.objectMapper.readValue(
+            json,
+            new TypeReference<GenericPageImplementation<Map<String, Object>>>() {
+            });
+
+        row = result.getContent().get(0);
+        Assertions.assertTrue(row.containsKey("hairColor"));
+        Assertions.assertTrue(row.containsKey("name"));
+        Assertions.assertFalse(row.containsKey("pets"));
+    }
+
+    @Test
+    public void assertExportsWithParams_isValid() throws Throwable {
+
+        var ids = new ArrayList<String>();
+        for (var i = 0; i < 3; i++) {
+            ids.add(this.personController.add(this.mockFactory.generatePerson()).getId());
+        }
+
+        var exportUrl = "http://localhost:8080/ubiquia/belief-state-service/person/export/params";
+        var response = this.mockMvc.perform(MockMvcRequestBuilders
+                .get(exportUrl)
+                .accept("application/x-ndjson"))
+            .andExpect(MockMvcResultMatchers.status().is2xxSuccessful())
+            .andReturn()
+            .getResponse();
+
+        Assertions.assertTrue(response.getContentType().startsWith("application/x-ndjson"));
+        var lines = response.getContentAsString().lines().toList();
+        Assertions.assertEquals(3, lines.size());
+        for (var line : lines) {
+            var node = this.objectMapper.readTree(line);
+            Assertions.assertTrue(ids.contains(node.get("ubiquiaId").asText()));
+        }
+    }
+
+    @Test
+    public void assertUpdatesBulkWithParams_isValid() throws Throwable {
+
+        var model = this.mockFactory.generatePerson();
+        var ingressResponse = this.personController.add(model);
+        final var other = this.personController.add(this.mockFactory.generatePerson());
+
+        var bulkUpdate = new BulkUpdate();
+        bulkUpdate.setAssignments(Arrays.asList(
+            new KeyValuePair("name.firstName", "Updated"),
+            new KeyValuePair("hairColor", "GREEN")));
+
+        var updateUrl = "http://localhost:8080/ubiquia/belief-state-service/person/update/bulk";
+        var result = this.mockMvc.perform(MockMvcRequestBuilders
+                .post(updateUrl)
+                .queryParam("ubiquiaId", ingressResponse.getId())
+                .content(this.objectMapper.writeValueAsString(bulkUpdate))
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON))
+            .andExpect(MockMvcResultMatchers.status().is2xxSuccessful())
+            .andReturn();
+
+        var response = this.objectMapper.readValue(
+            result.getResponse().getContentAsString(),
+            BulkUpdateResponse.class);
+        Assertions.assertEquals(1L, response.getUpdatedCount());
+
+        var updated = this.personController
+            .queryModelWithId(ingressResponse.getId())
+            .getBody();
+        Assertions.assertEquals("Updated", updated.getName().getFirstName());
+        Assertions.assertEquals(ColorType.GREEN, updated.getHairColor());
+
+        var untouched = this.personController
+            .queryModelWithId(other.getId())
+            .getBody();
+        Assertions.assertNotEquals("Updated", untouched.getName().getFirstName());
+    }
+
     @Test
     public void assertDeletesModel_isValid() throws Exception {
         var model = this.mockFactory.generatePerson();
@@ -484,4 +760,59 @@ public class PersonEntityControllerTest {
 
         Assertions.assertEquals(HttpStatus.NO_CONTENT, queried.getStatusCode());
     }
+
+    @Test
+    public void assertQueriesModelById_isValid() throws Throwable {
+
+        var model = this.mockFactory.generatePerson();
+        var ingressResponse = this.personController.add(model);
+
+        var getUrl = "http://localhost:8080/ubiquia/belief-state-service/person/query/"
+            + ingressResponse.getId();
+        var json = this.mockMvc.perform(MockMvcRequestBuilders
+                .get(getUrl)
+                .accept(MediaType.APPLICATION_JSON))
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+        var record = this.objectMapper.readValue(json, Person.class);
+        Assertions.assertEquals(ingressResponse.getId(), record.getUbiquiaId());
+
+        this.mockMvc.perform(MockMvcRequestBuilders
+                .get("http://localhost:8080/ubiquia/belief-state-service/person/query/"
+                    + UUID.randomUUID())
+                .accept(MediaType.APPLICATION_JSON))
+            .andExpect(MockMvcResultMatchers.status().isNoContent());
+    }
+
+    @Test
+    public void assertQueriesWithoutCount_isValid() throws Throwable {
+
+        for (var i = 0; i < 3; i++) {
+            this.personController.add(this.mockFactory.generatePerson());
+        }
+
+        var getUrl = "http://localhost:8080/ubiquia/belief-state-service/person/query/params";
+        var json = this.mockMvc.perform(MockMvcRequestBuilders
+                .get(getUrl)
+                .accept(MediaType.APPLICATION_JSON)
+                .queryParam("page", "0")
+                .queryParam("size", "2")
+                .queryParam("count-mode", "NONE")
+                .contentType(MediaType.APPLICATION_JSON))
+            .andExpect(MockMvcResultMatchers.status().is2xxSuccessful())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+        var result = this.objectMapper.readValue(
+            json,
+            new TypeReference<GenericPageImplementation<Person>>() {
+            });
+
+        Assertions.assertEquals(2, result.getContent().size());
+        Assertions.assertTrue(result.hasNext());
+    }
 }
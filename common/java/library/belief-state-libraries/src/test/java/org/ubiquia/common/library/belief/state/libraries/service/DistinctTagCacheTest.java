@@ -0,0 +1,49 @@
+package org.ubiquia.common.library.belief.state.libraries.service;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.ubiquia.domain.generated.AnimalEntity;
+import org.ubiquia.domain.generated.PersonEntity;
+
+/** Tests for the expiry and size cap of the distinct tag cache. */
+@SpringBootTest(properties = {
+    "ubiquia.beliefState.tags.cache-ttl-milliseconds=100",
+    "ubiquia.beliefState.tags.max-cached-lookups=1"
+})
+public class DistinctTagCacheTest {
+
+    @Autowired
+    private DistinctTagCache distinctTagCache;
+
+    /** Start each test with an empty cache. */
+    @BeforeEach
+    public void setup() {
+        this.distinctTagCache.invalidate();
+    }
+
+    @Test
+    public void assertCachesAfterExpiredLookupsArePurged_isValid() throws Exception {
+        final var loads = new AtomicInteger(0);
+
+        this.distinctTagCache.getKeys(AnimalEntity.class, () -> List.of("animalKey"));
+        Assertions.assertEquals(1, this.distinctTagCache.size());
+
+        // The cache is at its cap, but only with an expired lookup.
+        Thread.sleep(150);
+        for (var i = 0; i < 3; i++) {
+            var keys = this.distinctTagCache.getKeys(PersonEntity.class, () -> {
+                loads.incrementAndGet();
+                return List.of("personKey");
+            });
+            Assertions.assertEquals(List.of("personKey"), keys);
+        }
+
+        Assertions.assertEquals(1, loads.get());
+        Assertions.assertEquals(1, this.distinctTagCache.size());
+    }
+}
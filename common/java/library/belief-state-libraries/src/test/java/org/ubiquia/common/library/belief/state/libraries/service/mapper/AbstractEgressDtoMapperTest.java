@@ -0,0 +1,87 @@
+package org.ubiquia.common.library.belief.state.libraries.service.mapper;
+
+import java.util.UUID;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.ubiquia.domain.generated.Dachschund;
+import org.ubiquia.domain.generated.DachschundEntity;
+import org.ubiquia.domain.generated.NameEntity;
+import org.ubiquia.domain.generated.PersonEntity;
+
+/** Tests for the field bindings, depth control and references of egress mappers. */
+@SpringBootTest
+public class AbstractEgressDtoMapperTest {
+
+    @Autowired
+    private DachschundEgressDtoMapper dachschundEgressDtoMapper;
+
+    @Test
+    public void assertMapsRelatedEntities_isValid() throws Exception {
+        var ween = this.generateWienerDogWithOwner();
+
+        var dto = (Dachschund) this.dachschundEgressDtoMapper.map(ween);
+
+        Assertions.assertEquals(ween.getUbiquiaId(), dto.getUbiquiaId());
+        Assertions.assertEquals("Dachschund", dto.getModelType());
+        Assertions.assertEquals(ween.getWeight(), dto.getWeight());
+        Assertions.assertEquals(ween.getOwner().getUbiquiaId(), dto.getOwner().getUbiquiaId());
+        Assertions.assertEquals("Jeremy", dto.getOwner().getName().getFirstName());
+    }
+
+    @Test
+    public void assertMapsReferencesBeyondMaxDepth_isValid() throws Exception {
+        var ween = this.generateWienerDogWithOwner();
+
+        var target = AopTestUtils.getTargetObject(this.dachschundEgressDtoMapper);
+        var maxDepth = ReflectionTestUtils.getField(target, "maxDepth");
+        ReflectionTestUtils.setField(target, "maxDepth", 0);
+        try {
+            var dto = (Dachschund) this.dachschundEgressDtoMapper.map(ween);
+
+            Assertions.assertEquals(ween.getWeight(), dto.getWeight());
+            Assertions.assertEquals(
+                ween.getOwner().getUbiquiaId(),
+                dto.getOwner().getUbiquiaId());
+            Assertions.assertEquals("Person", dto.getOwner().getModelType());
+            Assertions.assertNull(dto.getOwner().getName());
+        } finally {
+            ReflectionTestUtils.setField(target, "maxDepth", maxDepth);
+        }
+    }
+
+    @Test
+    public void assertMapsRelatedEntitiesAtMaxDepth_isValid() throws Exception {
+        var ween = this.generateWienerDogWithOwner();
+
+        var target = AopTestUtils.getTargetObject(this.dachschundEgressDtoMapper);
+        var maxDepth = ReflectionTestUtils.getField(target, "maxDepth");
+        ReflectionTestUtils.setField(target, "maxDepth", 1);
+        try {
+            var dto = (Dachschund) this.dachschundEgressDtoMapper.map(ween);
+
+            Assertions.assertEquals(
+                ween.getOwner().getUbiquiaId(),
+                dto.getOwner().getUbiquiaId());
+            Assertions.assertEquals("Jeremy", dto.getOwner().getName().getFirstName());
+        } finally {
+            ReflectionTestUtils.setField(target, "maxDepth", maxDepth);
+        }
+    }
+
+    private DachschundEntity generateWienerDogWithOwner() {
+        var owner = new PersonEntity();
+        owner.setUbiquiaId(UUID.randomUUID().toString());
+        owner.setName(new NameEntity().firstName("Jeremy"));
+
+        var ween = new DachschundEntity();
+        ween.setUbiquiaId(UUID.randomUUID().toString());
+        ween.setName(new NameEntity().firstName("Oscar"));
+        ween.setWeight(9.5f);
+        ween.setOwner(owner);
+        return ween;
+    }
+}
@@ -0,0 +1,358 @@
+package org.ubiquia.common.library.dao.component;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.transaction.Transactional;
+import java.lang.reflect.Field;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import org.hibernate.annotations.UpdateTimestamp;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.ubiquia.common.library.dao.service.logic.ClassDeriver;
+import org.ubiquia.common.library.dao.service.logic.ClassMetadataIndex;
+
+/**
+ * A component that updates fields of every record matching a set of parameters (the same
+ * language {@link ParameterDao} queries with) or a list of IDs, as set-based UPDATE statements
+ * rather than by loading and saving each record. Assignments are resolved and converted once
+ * per request; records are then updated a chunk of IDs at a time, with matching IDs sought
+ * past the previous chunk so every chunk costs the same.
+ *
+ * <p>Because the statements bypass the persistence context, fields annotated with
+ * {@link UpdateTimestamp} are set explicitly, so change tracking that relies on them (i.e.,
+ * syncing records updated since they were last synced) sees the update. Pending changes are
+ * flushed before and the persistence context cleared after.</p>
+ */
+@Component
+public class BulkUpdater {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkUpdater.class);
+
+    @Value("${ubiquia.dao.bulk-update.chunk-size:1000}")
+    private Integer chunkSize;
+
+    @Autowired
+    private ClassDeriver classDeriver;
+
+    @Autowired
+    private ClassMetadataIndex classMetadataIndex;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PageCounter pageCounter;
+
+    @Autowired
+    private ParameterDao<?> parameterDao;
+
+    private final Map<Class<?>, List<Field>> updateTimestampFields = new ConcurrentHashMap<>();
+
+    /**
+     * A field assignment resolved against the class being updated.
+     *
+     * @param path  The dotted path of the field (i.e., "name.firstName".)
+     * @param type  The type of the field.
+     * @param value The converted value, or null.
+     */
+    private record Assignment(String path, Class<?> type, Object value) {
+    }
+
+    /**
+     * Update every record matching the parameters and, if any are provided, IDs.
+     *
+     * @param parameters  The parameters records must match; may be empty if IDs are provided.
+     * @param ids         The IDs of the records to update, or null/empty to update every
+     *                    record matching the parameters.
+     * @param assignments The values to set, keyed by field name; embedded fields may be dotted.
+     * @param clazz       The class of records to update.
+     * @return The number of records updated.
+     * @throws NoSuchFieldException Exceptions from clients passing invalid fields.
+     */
+    @Transactional
+    public long update(
+        final Map<String, String[]> parameters,
+        final List<String> ids,
+        final Map<String, String> assignments,
+        final Class<?> clazz) throws NoSuchFieldException {
+
+        var hasIds = Objects.nonNull(ids) && !ids.isEmpty();
+        if (parameters.isEmpty() && !hasIds) {
+            throw new IllegalArgumentException("ERROR: A bulk update needs parameters or IDs "
+                + "to match records by; refusing to update every record.");
+        }
+        if (Objects.isNull(assignments) || assignments.isEmpty()) {
+            throw new IllegalArgumentException("ERROR: A bulk update needs at least one "
+                + "field to assign.");
+        }
+
+        var predicateClass = this.classDeriver.tryGetPredicateClass(
+            clazz,
+            new ArrayList<>(parameters.keySet()));
+        var idField = this.classMetadataIndex.getMetadataFor(predicateClass).getIdField();
+        if (Objects.isNull(idField)) {
+            throw new IllegalArgumentException("ERROR: Cannot bulk update "
+                + predicateClass.getSimpleName()
+                + "; it has no ID field.");
+        }
+        var bound = this.bind(predicateClass, idField, assignments);
+
+        this.entityManager.flush();
+        final var start = System.currentTimeMillis();
+        var updated = 0L;
+        var chunks = 0;
+        if (hasIds) {
+            for (var from = 0; from < ids.size(); from += this.chunkSize) {
+                var chunk = ids.subList(from, Math.min(from + this.chunkSize, ids.size()));
+                List<?> matched = chunk;
+                if (!parameters.isEmpty()) {
+                    matched = this.getIdsAfter(parameters, predicateClass, idField, null, chunk);
+                }
+                updated += this.updateChunk(predicateClass, idField, matched, bound);
+                chunks++;
+            }
+        } else {
+            Object lastId = null;
+            List<?> matched = null;
+            do {
+                matched = this.getIdsAfter(parameters, predicateClass, idField, lastId, null);
+                if (!matched.isEmpty()) {
+                    updated += this.updateChunk(predicateClass, idField, matched, bound);
+                    lastId = matched.get(matched.size() - 1);
+                    chunks++;
+                }
+            } while (matched.size() == this.chunkSize);
+        }
+        this.entityManager.clear();
+        this.pageCounter.evict(predicateClass);
+
+        logger.info("...bulk updated {} {} record(s) in {} chunk(s) in {} ms.",
+            updated,
+            predicateClass.getSimpleName(),
+            chunks,
+            System.currentTimeMillis() - start);
+        return updated;
+    }
+
+    /**
+     * Resolve and convert assignments once, up front.
+     *
+     * @param clazz       The class being updated.
+     * @param idField     The ID field of the class, which cannot be assigned.
+     * @param assignments The values to set, keyed by field name.
+     * @return The resolved assignments.
+     * @throws NoSuchFieldException Exceptions from clients passing invalid fields.
+     */
+    private List<Assignment> bind(
+        final Class<?> clazz,
+        final Field idField,
+        final Map<String, String> assignments) throws NoSuchFieldException {
+
+        var bound = new ArrayList<Assignment>();
+        for (var entry : assignments.entrySet()) {
+            var fieldPath = this.classMetadataIndex.resolvePath(clazz, entry.getKey());
+            if (!fieldPath.getPredicateClass().equals(clazz)) {
+                throw new IllegalArgumentException("ERROR: Cannot bulk update field "
+                    + entry.getKey()
+                    + "; it is only declared on "
+                    + fieldPath.getPredicateClass().getSimpleName());
+            }
+            var fields = fieldPath.getFields();
+            for (var i = 0; i < fields.size() - 1; i++) {
+                if (!this.classMetadataIndex.isEmbeddableClass(fields.get(i).getType())) {
+                    throw new IllegalArgumentException("ERROR: Cannot bulk update field "
+                        + entry.getKey()
+                        + "; only fields of the record itself or its embeddables can be set.");
+                }
+            }
+            var field = fields.get(fields.size() - 1);
+            if (field.equals(idField)) {
+                throw new IllegalArgumentException("ERROR: Cannot bulk update the ID field.");
+            }
+            var converter = this.getConverterFor(field, entry.getKey());
+            var value = entry.getValue();
+            bound.add(new Assignment(
+                String.join(".", fields.stream().map(Field::getName).toList()),
+                field.getType(),
+                Objects.isNull(value) || value.equalsIgnoreCase("null")
+                    ? null
+                    : converter.apply(value)));
+        }
+        return bound;
+    }
+
+    /**
+     * Get the IDs of the next chunk of records matching the parameters, in ID order.
+     *
+     * @param parameters The parameters records must match.
+     * @param clazz      The class being updated.
+     * @param idField    The ID field of the class.
+     * @param lastId     The last ID of the previous chunk, or null for the first.
+     * @param restrictTo IDs to restrict the chunk to, or null.
+     * @return The matching IDs.
+     * @throws NoSuchFieldException Exceptions from clients passing invalid fields.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private List<?> getIdsAfter(
+        final Map<String, String[]> parameters,
+        final Class<?> clazz,
+        final Field idField,
+        final Object lastId,
+        final Collection<?> restrictTo) throws NoSuchFieldException {
+
+        var criteriaBuilder = this.entityManager.getCriteriaBuilder();
+        var query = criteriaBuilder.createQuery(Object.class);
+        var root = query.from(clazz);
+        Path id = root.get(idField.getName());
+
+        var predicates = new ArrayList<Predicate>(this.parameterDao.getPredicates(
+            parameters,
+            criteriaBuilder,
+            query,
+            root,
+            clazz));
+        if (Objects.nonNull(lastId)) {
+            predicates.add(criteriaBuilder.greaterThan(id, (Comparable) lastId));
+        }
+        if (Objects.nonNull(restrictTo)) {
+            predicates.add(id.in(restrictTo));
+        }
+
+        query.select(id)
+            .where(predicates.toArray(new Predicate[0]))
+            .orderBy(criteriaBuilder.asc(id));
+        return this.entityManager
+            .createQuery(query)
+            .setMaxResults(this.chunkSize)
+            .getResultList();
+    }
+
+    /**
+     * Update a chunk of records by ID in one statement.
+     *
+     * @param clazz       The class being updated.
+     * @param idField     The ID field of the class.
+     * @param ids         The IDs to update.
+     * @param assignments The resolved assignments.
+     * @return The number of records updated.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private int updateChunk(
+        final Class<?> clazz,
+        final Field idField,
+        final List<?> ids,
+        final List<Assignment> assignments) {
+
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        var criteriaBuilder = this.entityManager.getCriteriaBuilder();
+        var update = criteriaBuilder.createCriteriaUpdate((Class) clazz);
+        Root<?> root = update.from(clazz);
+        for (var assignment : assignments) {
+            var path = this.getPath(root, assignment.path());
+            if (Objects.isNull(assignment.value())) {
+                update.set(path, (Expression) criteriaBuilder.nullLiteral(assignment.type()));
+            } else {
+                update.set(path, assignment.value());
+            }
+        }
+        for (var field : this.getUpdateTimestampFields(clazz)) {
+            update.set(root.get(field.getName()), this.now(field.getType()));
+        }
+        update.where(root.get(idField.getName()).in(ids));
+        return this.entityManager.createQuery(update).executeUpdate();
+    }
+
+    private Path getPath(final Root<?> root, final String dottedPath) {
+        Path<?> path = root;
+        for (var segment : dottedPath.split("\\.")) {
+            path = path.get(segment);
+        }
+        return path;
+    }
+
+    /**
+     * Get the fields of a class that Hibernate would stamp with the time of an update.
+     *
+     * @param clazz The class.
+     * @return The fields.
+     */
+    private List<Field> getUpdateTimestampFields(final Class<?> clazz) {
+        return this.updateTimestampFields.computeIfAbsent(clazz, x -> this.classMetadataIndex
+            .getMetadataFor(x)
+            .getFieldsByName()
+            .values()
+            .stream()
+            .filter(field -> field.isAnnotationPresent(UpdateTimestamp.class))
+            .toList());
+    }
+
+    private Object now(final Class<?> type) {
+        Object now = null;
+        if (type.equals(OffsetDateTime.class)) {
+            now = OffsetDateTime.now();
+        } else if (type.equals(Instant.class)) {
+            now = Instant.now();
+        } else if (type.equals(LocalDateTime.class)) {
+            now = LocalDateTime.now();
+        } else if (type.equals(Date.class)) {
+            now = new Date();
+        } else {
+            throw new IllegalArgumentException("ERROR: Unsupported update timestamp type: "
+                + type.getSimpleName());
+        }
+        return now;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Function<String, Object> getConverterFor(final Field field, final String key) {
+        var type = field.getType();
+        Function<String, Object> converter = null;
+        if (type.equals(String.class)) {
+            converter = x -> x;
+        } else if (type.equals(Integer.class)) {
+            converter = Integer::valueOf;
+        } else if (type.equals(Long.class)) {
+            converter = Long::valueOf;
+        } else if (type.equals(Float.class)) {
+            converter = Float::valueOf;
+        } else if (type.equals(Double.class)) {
+            converter = Double::valueOf;
+        } else if (type.equals(Boolean.class)) {
+            converter = Boolean::valueOf;
+        } else if (type.equals(OffsetDateTime.class)) {
+            converter = OffsetDateTime::parse;
+        } else if (type.equals(Date.class)) {
+            converter = x -> Date.from(Instant.parse(x));
+        } else if (type.isEnum()) {
+            // Java Enums are capitalized
+            converter = x -> Enum.valueOf((Class) type, x.toUpperCase(Locale.ROOT));
+        } else {
+            throw new IllegalArgumentException("ERROR: Cannot bulk update field "
+                + key
+                + " of type "
+                + type.getSimpleName()
+                + "; only value fields can be set.");
+        }
+        return converter;
+    }
+}
@@ -1,11 +1,16 @@
 package org.ubiquia.common.library.dao.component;
 
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Component;
+import org.ubiquia.common.model.ubiquia.GenericPageImplementation;
+import org.ubiquia.common.model.ubiquia.dao.CountMode;
 import org.ubiquia.common.model.ubiquia.dao.QueryFilter;
 
 /**
@@ -18,6 +23,12 @@ import org.ubiquia.common.model.ubiquia.dao.QueryFilter;
 @Component
 public class EntityDao<T> {
 
+    @Autowired
+    private BulkUpdater bulkUpdater;
+
+    @Autowired
+    private EntityManager entityManager;
+
     @Autowired
     private ParameterDao<T> parameterDataAccessObject;
 
@@ -112,6 +123,155 @@ public class EntityDao<T> {
         return pageResponse;
     }
 
+    /**
+     * Get a page of data provided a set of parameters, determining the total number of
+     * matching records per the count mode.
+     *
+     * @param parameters     The query parameters received.
+     * @param page           The page number to retrieve.
+     * @param size           The size of the page.
+     * @param sortDescending Whether or not to sort descending.
+     * @param sortByFields   Fields to sort by.
+     * @param countMode      How to determine the total number of matching records.
+     * @param clazz          The class we're getting a page of data for.
+     * @return The Page of data.
+     * @throws NoSuchFieldException Exceptions from invalid fields.
+     */
+    @Transactional
+    public Page<T> getPage(
+        final Map<String, String[]> parameters,
+        final Integer page,
+        final Integer size,
+        final Boolean sortDescending,
+        final List<String> sortByFields,
+        final CountMode countMode,
+        final Class<T> clazz) throws NoSuchFieldException {
+
+        var pageResponse = this.parameterDataAccessObject.getPage(
+            parameters,
+            page,
+            size,
+            sortDescending,
+            sortByFields,
+            countMode,
+            clazz);
+
+        return pageResponse;
+    }
+
+    /**
+     * Find a single record by its ID without running a paginated query.
+     *
+     * @param id    The ID of the record.
+     * @param clazz The class of the record; subclasses are matched as well.
+     * @return The record, if it exists.
+     */
+    @Transactional
+    public Optional<T> findById(final String id, final Class<T> clazz) {
+        return Optional.ofNullable(this.entityManager.find(clazz, id));
+    }
+
+    /**
+     * Get a keyset (cursor) paginated page of data provided a set of parameters.
+     *
+     * @param parameters     The query parameters received.
+     * @param cursor         The next cursor of the previous page, or null/blank for the first.
+     * @param size           The size of the page.
+     * @param sortDescending Whether or not to sort descending.
+     * @param sortByFields   Fields to sort by; the ID is always the final tiebreaker.
+     * @param clazz          The class we're getting a page of data for.
+     * @return The Page of data, with the cursor of the next page if there is one.
+     * @throws NoSuchFieldException Exceptions from invalid fields.
+     */
+    @Transactional
+    public GenericPageImplementation<T> getPageAfter(
+        final Map<String, String[]> parameters,
+        final String cursor,
+        final Integer size,
+        final Boolean sortDescending,
+        final List<String> sortByFields,
+        final Class<T> clazz) throws NoSuchFieldException {
+
+        var pageResponse = this.parameterDataAccessObject.getPageAfter(
+            parameters,
+            cursor,
+            size,
+            sortDescending,
+            sortByFields,
+            clazz);
+
+        return pageResponse;
+    }
+
+    /**
+     * Stream every record matching a set of parameters, forward-only and read-only, fetching
+     * rows from the database a fetch size at a time. The stream must be consumed, and closed,
+     * within the caller's transaction.
+     *
+     * @param parameters     The query parameters received.
+     * @param sortDescending Whether or not to sort descending.
+     * @param sortByFields   Fields to sort by.
+     * @param fetchSize      The number of rows to fetch from the database at a time.
+     * @param clazz          The class we're streaming data for.
+     * @return The stream of records.
+     * @throws NoSuchFieldException Exceptions from invalid fields.
+     */
+    public Stream<T> getStream(
+        final Map<String, String[]> parameters,
+        final Boolean sortDescending,
+        final List<String> sortByFields,
+        final Integer fetchSize,
+        final Class<T> clazz) throws NoSuchFieldException {
+
+        var stream = this.parameterDataAccessObject.getStream(
+            parameters,
+            sortDescending,
+            sortByFields,
+            fetchSize,
+            clazz);
+
+        return stream;
+    }
+
+    /**
+     * Get a page of projected rows provided a set of parameters: only the requested fields are
+     * selected, as maps keyed by field name, without hydrating any entities.
+     *
+     * @param parameters     The query parameters received.
+     * @param page           The page number to retrieve.
+     * @param size           The size of the page.
+     * @param sortDescending Whether or not to sort descending.
+     * @param sortByFields   Fields to sort by.
+     * @param fields         The field paths to select.
+     * @param countMode      How to determine the total number of matching records.
+     * @param clazz          The class we're getting a page of data for.
+     * @return The Page of rows.
+     * @throws NoSuchFieldException Exceptions from invalid fields.
+     */
+    @Transactional
+    public Page<Map<String, Object>> getPageProjection(
+        final Map<String, String[]> parameters,
+        final Integer page,
+        final Integer size,
+        final Boolean sortDescending,
+        final List<String> sortByFields,
+        final List<String> fields,
+        final CountMode countMode,
+        final Class<T> clazz) throws NoSuchFieldException {
+
+        var pageResponse = this.parameterDataAccessObject.getPageProjection(
+            parameters,
+            page,
+            size,
+            sortDescending,
+            sortByFields,
+            fields,
+            countMode,
+            clazz);
+
+        return pageResponse;
+    }
+
     /**
      * Get a page of data provided a set of parameters.
      *
@@ -135,6 +295,43 @@ public class EntityDao<T> {
         final List<String> multiselectFields,
         final Class<T> clazz) throws NoSuchFieldException {
 
+        return this.getPageMultiselect(
+            parameters,
+            page,
+            size,
+            sortDescending,
+            sortByFields,
+            multiselectFields,
+            CountMode.EXACT,
+            clazz);
+    }
+
+    /**
+     * Get a page of data provided a set of parameters, determining the total number of
+     * matching records per the count mode.
+     *
+     * @param parameters        The query parameters received.
+     * @param page              The page number to retrieve.
+     * @param size              The size of the page.
+     * @param sortDescending    Whether or not to sort descending.
+     * @param sortByFields      Fields to sort by.
+     * @param multiselectFields Fields to select.
+     * @param countMode         How to determine the total number of matching records.
+     * @param clazz             The class we're getting a page of data for.
+     * @return The Page of data.
+     * @throws NoSuchFieldException Exceptions from invalid fields.
+     */
+    @Transactional
+    public Page<Object[]> getPageMultiselect(
+        final Map<String, String[]> parameters,
+        final Integer page,
+        final Integer size,
+        final Boolean sortDescending,
+        final List<String> sortByFields,
+        final List<String> multiselectFields,
+        final CountMode countMode,
+        final Class<T> clazz) throws NoSuchFieldException {
+
         var pageResponse = this.parameterDataAccessObject.getPageMultiSelect(
             parameters,
             page,
@@ -142,8 +339,29 @@ public class EntityDao<T> {
             sortDescending,
             sortByFields,
             multiselectFields,
+            countMode,
             clazz);
 
         return pageResponse;
     }
+
+    /**
+     * Update fields of every record matching the parameters and, if any are provided, IDs, as
+     * chunked set-based UPDATE statements.
+     *
+     * @param parameters  The parameters records must match; may be empty if IDs are provided.
+     * @param ids         The IDs of the records to update, or null/empty for every match.
+     * @param assignments The values to set, keyed by field name.
+     * @param clazz       The class of records to update.
+     * @return The number of records updated.
+     * @throws NoSuchFieldException Exceptions from invalid fields.
+     */
+    public long update(
+        final Map<String, String[]> parameters,
+        final List<String> ids,
+        final Map<String, String> assignments,
+        final Class<T> clazz) throws NoSuchFieldException {
+
+        return this.bulkUpdater.update(parameters, ids, assignments, clazz);
+    }
 }
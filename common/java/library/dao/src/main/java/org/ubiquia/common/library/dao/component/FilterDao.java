@@ -4,10 +4,8 @@ import jakarta.persistence.EntityManager;
 import jakarta.persistence.criteria.*;
 import jakarta.transaction.Transactional;
 import java.lang.reflect.Field;
-import java.lang.reflect.ParameterizedType;
 import java.time.OffsetDateTime;
 import java.util.*;
-import org.apache.commons.lang3.reflect.FieldUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,8 +16,8 @@ import org.springframework.stereotype.Component;
 import org.ubiquia.common.library.dao.service.builder.NestedPredicateBuilder;
 import org.ubiquia.common.library.dao.service.builder.NonNestedPredicateBuilder;
 import org.ubiquia.common.library.dao.service.logic.ClassDeriver;
+import org.ubiquia.common.library.dao.service.logic.ClassMetadataIndex;
 import org.ubiquia.common.library.dao.service.logic.EntityDeriver;
-import org.ubiquia.common.model.ubiquia.GenericPageImplementation;
 import org.ubiquia.common.model.ubiquia.dao.QueryFilter;
 import org.ubiquia.common.model.ubiquia.dao.QueryFilterParameter;
 import org.ubiquia.common.model.ubiquia.dao.SortType;
@@ -37,16 +35,24 @@ public class FilterDao<T> {
     @Autowired
     private ClassDeriver classDeriver;
     @Autowired
+    private ClassMetadataIndex classMetadataIndex;
+    @Autowired
     private EntityDeriver entityDeriver;
     @Autowired
     private EntityManager entityManager;
     @Autowired
+    private KeysetPager keysetPager;
+    @Autowired
     private NestedPredicateBuilder nestedPredicateBuilder;
     @Autowired
     private NonNestedPredicateBuilder nonNestedPredicateBuilder;
+    @Autowired
+    private QueryShapePager queryShapePager;
 
     /**
-     * Given a filter, build and return paginated results from the database.
+     * Given a filter, build and return paginated results from the database. If the filter has
+     * a cursor, the page is keyset-paginated from it and the page number is ignored; otherwise
+     * the total number of records is determined per the filter's count mode.
      *
      * @param queryFilter The filter we're using.
      * @param page        The page we're querying for.
@@ -62,22 +68,42 @@ public class FilterDao<T> {
         final int size,
         final Class<T> clazz) throws NoSuchFieldException {
 
-        var predicateClass = this.classDeriver.tryGetPredicateClass(clazz, queryFilter);
+        // Filters with a cursor (even a blank one, for the first page) are keyset-paginated.
+        if (Objects.nonNull(queryFilter.getCursor())) {
+            var predicateClass = this.classDeriver.tryGetPredicateClass(clazz, queryFilter);
 
-        var criteriaBuilder = this.entityManager.getCriteriaBuilder();
-        var criteriaQuery = criteriaBuilder.createQuery(predicateClass);
-        var root = criteriaQuery.from(predicateClass);
+            var criteriaBuilder = this.entityManager.getCriteriaBuilder();
+            var criteriaQuery = criteriaBuilder.createQuery(predicateClass);
+            var root = criteriaQuery.from(predicateClass);
+
+            var predicates = this.getPredicates(
+                queryFilter,
+                criteriaBuilder,
+                criteriaQuery,
+                root,
+                predicateClass);
+            return this.keysetPager.getPage(
+                criteriaBuilder,
+                criteriaQuery,
+                root,
+                predicates,
+                predicateClass,
+                queryFilter.getCursor(),
+                size,
+                queryFilter.getSortBy(),
+                SortType.DESCENDING.equals(queryFilter.getSort()));
+        }
 
-        this.trySetOrderBy(queryFilter, criteriaBuilder, root, criteriaQuery);
         var pageRequest = this.getPageRequest(queryFilter, page, size);
 
-        var pageResponse = this.queryDatabase(
-            queryFilter,
-            criteriaBuilder,
-            criteriaQuery,
-            root,
+        // Requests that differ only in their values share one compiled query.
+        Page<T> pageResponse = this.queryShapePager.getPage(
+            clazz,
+            queryFilter.getParameters(),
+            queryFilter.getSortBy(),
+            SortType.DESCENDING.equals(queryFilter.getSort()),
             pageRequest,
-            predicateClass);
+            queryFilter.getCountMode());
 
         return pageResponse;
     }
@@ -118,58 +144,6 @@ public class FilterDao<T> {
     }
 
 
-    /**
-     * Query the database provided the filters.
-     *
-     * @param queryFilter     The filter we're generating predicates for.
-     * @param criteriaBuilder The Criteria Builder.
-     * @param criteriaQuery   Our top-level JPA query.
-     * @param root            The root-level table we're querying from.
-     * @param pageRequest     The page configuration.
-     * @param clazz           The class we're querying for.
-     * @return A page of data.
-     * @throws NoSuchFieldException Exceptions from passing in invalid fields.
-     */
-    @SuppressWarnings("unchecked")
-    @Transactional
-    private Page<T> queryDatabase(
-        final QueryFilter queryFilter,
-        final CriteriaBuilder criteriaBuilder,
-        final CriteriaQuery<?> criteriaQuery,
-        final Root<?> root,
-        final PageRequest pageRequest,
-        final Class<?> clazz) throws NoSuchFieldException {
-
-        var predicateClass = this.classDeriver.tryGetPredicateClass(clazz, queryFilter);
-
-        var predicates = this.getPredicates(
-            queryFilter,
-            criteriaBuilder,
-            criteriaQuery,
-            root,
-            predicateClass);
-
-        // Create a "compound predicate" - a conjunction - from all the filtered parameters.
-        var conjunction = criteriaBuilder.and(predicates.toArray(new Predicate[predicates.size()]));
-        criteriaQuery.where(conjunction);
-
-        var listSize = pageRequest.getPageSize();
-        if (listSize <= 0) {
-            listSize = 1;
-        }
-
-        // Build our query results from our requested page.
-        var query = this.entityManager.createQuery(criteriaQuery)
-            .setFirstResult(pageRequest.getPageNumber() * pageRequest.getPageSize())
-            .setHint("org.hibernate.cacheable", true)
-            .setMaxResults(listSize);
-        var records = query.getResultList();
-
-        var count = this.getCount(queryFilter, clazz);
-        var paged = new GenericPageImplementation<>(records, pageRequest, count);
-        return (GenericPageImplementation<T>) paged;
-    }
-
     /**
      * Given a filter and a class, build and return predicates
      * to use for querying records from the database.
@@ -233,13 +207,9 @@ public class FilterDao<T> {
 
         Predicate predicate = null;
 
-        var fields = FieldUtils.getAllFieldsList(clazz);
-        var match = fields.stream().filter(x ->
-                x.getName().equalsIgnoreCase(filterParam.getKey()))
-            .findFirst();
-        if (match.isPresent()) {
+        var field = this.classMetadataIndex.getMetadataFor(clazz).getField(filterParam.getKey());
+        if (Objects.nonNull(field)) {
 
-            var field = match.get();
             predicate = this.getPredicateForParameterHelper(
                 criteriaBuilder,
                 field,
@@ -268,40 +238,9 @@ public class FilterDao<T> {
         final Class<?> clazz) throws NoSuchFieldException {
 
         // Resolve the final class and final field from the nested keychain...
-        var currentClass = clazz;
-        Field finalField = null;
-
-        for (var segment : split) {
-            var cleanSegment = this.getStringWithoutOperatorSymbols(segment);
-
-            // Find the field in the current class (or subclass)
-            var field = findFieldIgnoreCase(currentClass, cleanSegment);
-            if (Objects.isNull(field)) {
-                logger.debug("Field '{}' not found in '{}', checking subclasses...",
-                    cleanSegment,
-                    currentClass.getSimpleName());
-                currentClass = this.classDeriver.tryGetPredicateClass(currentClass, cleanSegment);
-                field = findFieldIgnoreCase(currentClass, cleanSegment);
-
-                if (Objects.isNull(field)) {
-                    throw new NoSuchFieldException("Field '"
-                        + cleanSegment
-                        + "' not found in "
-                        + currentClass.getSimpleName()
-                        + " or its subclasses.");
-                }
-            }
-
-            finalField = field;
-
-            // If this field is a collection, resolve the generic type for the next iteration
-            if (Collection.class.isAssignableFrom(field.getType())) {
-                var collectionType = (ParameterizedType) field.getGenericType();
-                currentClass = (Class<?>) collectionType.getActualTypeArguments()[0];
-            } else {
-                currentClass = field.getType();
-            }
-        }
+        var fieldPath = this.classMetadataIndex.resolvePath(clazz, filterParameter.getKey());
+        var currentClass = fieldPath.getTargetClass();
+        var finalField = fieldPath.getFinalField();
 
         // ...build the subquery with correlated joins...
         var subQuery = criteriaQuery.subquery(currentClass);
@@ -337,16 +276,6 @@ public class FilterDao<T> {
             finalField);
     }
 
-    /**
-     * Helper: Find a field in a class by name (case-insensitive).
-     */
-    private Field findFieldIgnoreCase(Class<?> clazz, String fieldName) {
-        return FieldUtils.getAllFieldsList(clazz).stream()
-            .filter(f -> f.getName().equalsIgnoreCase(fieldName))
-            .findFirst()
-            .orElse(null);
-    }
-
     /**
      * Private helper method to build a predicate from a filter parameter.
      *
@@ -465,33 +394,6 @@ public class FilterDao<T> {
         return key.replaceAll("[<>*]", "");
     }
 
-    /**
-     * Try to set our order by criteria.
-     *
-     * @param queryFilter     The filter to use to build our order by.
-     * @param criteriaBuilder The JPA criteria builder.
-     * @param root            The root-level table/class we're querying for.
-     * @param criteriaQuery   The JPA query.
-     */
-    private void trySetOrderBy(
-        final QueryFilter queryFilter,
-        final CriteriaBuilder criteriaBuilder,
-        final Root<?> root,
-        CriteriaQuery criteriaQuery) {
-
-        if (Objects.nonNull(queryFilter.getSortBy())) {
-            for (var sortByField : queryFilter.getSortBy()) {
-                Order order = null;
-                if (SortType.DESCENDING.equals(queryFilter.getSort())) {
-                    order = criteriaBuilder.desc(root.get(sortByField));
-                } else {
-                    order = criteriaBuilder.asc(root.get(sortByField));
-                }
-                criteriaQuery.orderBy(order);
-            }
-        }
-    }
-
     /**
      * Get a page request.
      *
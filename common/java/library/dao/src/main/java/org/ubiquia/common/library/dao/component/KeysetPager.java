@@ -0,0 +1,117 @@
+package org.ubiquia.common.library.dao.component;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.ubiquia.common.library.dao.service.builder.KeysetPredicateBuilder;
+import org.ubiquia.common.library.dao.service.logic.KeysetCursorCodec;
+import org.ubiquia.common.model.ubiquia.GenericPageImplementation;
+
+/**
+ * A component that runs keyset ("cursor") paginated queries for the DAOs. Rather than skipping
+ * an offset's worth of rows, each page seeks past the previous page's last record using the
+ * sort key and ID encoded in its cursor, so every page costs the same no matter how deep it is.
+ * Cursor pages are not counted; the returned page only reports whether there is a next page,
+ * along with the cursor to fetch it with.
+ */
+@Component
+public class KeysetPager {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private KeysetCursorCodec keysetCursorCodec;
+
+    @Autowired
+    private KeysetPredicateBuilder keysetPredicateBuilder;
+
+    /**
+     * Run a keyset paginated query.
+     *
+     * @param criteriaBuilder The criteria builder.
+     * @param criteriaQuery   The query to page, selecting from the root.
+     * @param root            The root-most class representing the table we're querying.
+     * @param predicates      The query's predicates.
+     * @param clazz           The class we're querying.
+     * @param cursor          The cursor from the previous page, or null/blank for the first.
+     * @param size            The page size.
+     * @param sortBy          The fields to sort by; the ID is always the final tiebreaker.
+     * @param descending      Whether to sort descending.
+     * @param <T>             The type of record.
+     * @return A page of records with the cursor of the next page, if any.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> GenericPageImplementation<T> getPage(
+        final CriteriaBuilder criteriaBuilder,
+        final CriteriaQuery<?> criteriaQuery,
+        final Root<?> root,
+        final List<Predicate> predicates,
+        final Class<?> clazz,
+        final String cursor,
+        final Integer size,
+        final List<String> sortBy,
+        final Boolean descending) {
+
+        var sortFields = this.keysetPredicateBuilder.getSortFieldsFor(clazz, sortBy);
+        var allPredicates = new ArrayList<>(predicates);
+        if (Objects.nonNull(cursor) && !cursor.isBlank()) {
+            var position = this.keysetCursorCodec.decode(cursor, sortFields, descending);
+            allPredicates.add(this.keysetPredicateBuilder.getSeekPredicate(
+                criteriaBuilder,
+                root,
+                clazz,
+                position));
+        }
+
+        criteriaQuery.where(criteriaBuilder.and(allPredicates.toArray(new Predicate[0])));
+        criteriaQuery.orderBy(this.keysetPredicateBuilder.getOrders(
+            criteriaBuilder,
+            root,
+            clazz,
+            sortFields,
+            descending));
+
+        // Fetch one extra record to learn whether there is a next page without counting.
+        var pageSize = Math.max(1, size);
+        var records = new ArrayList<T>((List<T>) this.entityManager
+            .createQuery(criteriaQuery)
+            .setMaxResults(pageSize + 1)
+            .getResultList());
+
+        var hasNext = records.size() > pageSize;
+        if (hasNext) {
+            records.remove(pageSize);
+        }
+
+        var sort = Sort.unsorted();
+        if (!sortFields.isEmpty()) {
+            sort = Sort.by(
+                descending ? Sort.Direction.DESC : Sort.Direction.ASC,
+                sortFields.toArray(new String[0]));
+        }
+        var pageRequest = PageRequest.of(0, pageSize, sort);
+
+        var page = new GenericPageImplementation<>(
+            records,
+            pageRequest,
+            records.size() + (hasNext ? 1 : 0));
+        if (hasNext) {
+            page.setNextCursor(this.keysetCursorCodec.encode(
+                this.keysetCursorCodec.buildCursorAfter(
+                    records.get(records.size() - 1),
+                    sortFields,
+                    descending)));
+        }
+        return page;
+    }
+}
@@ -0,0 +1,108 @@
+package org.ubiquia.common.library.dao.component;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import java.io.OutputStream;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * A component that exports a stream of records as newline-delimited JSON (NDJSON), one record
+ * per line, as it is read. Every fetch size of records the output is flushed and the
+ * persistence context is cleared, so neither the response nor the managed entities grow with
+ * the number of records exported.
+ */
+@Component
+public class NdjsonExporter {
+
+    /** The media type of NDJSON exports. */
+    public static final String MEDIA_TYPE = "application/x-ndjson";
+
+    private static final Logger logger = LoggerFactory.getLogger(NdjsonExporter.class);
+
+    @Value("${ubiquia.dao.export.fetch-size:500}")
+    private Integer fetchSize;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Maps a record to the object written for it.
+     *
+     * @param <T> The type of record.
+     */
+    @FunctionalInterface
+    public interface RecordMapper<T> {
+
+        /**
+         * Map a record.
+         *
+         * @param record The record.
+         * @return The object to write.
+         * @throws Exception Exceptions from mapping the record.
+         */
+        Object map(T record) throws Exception;
+    }
+
+    /**
+     * Get the number of records to fetch from the database, and write, at a time.
+     *
+     * @return The fetch size.
+     */
+    public Integer getFetchSize() {
+        return this.fetchSize;
+    }
+
+    /**
+     * Write every record of a stream as a line of JSON, then close the stream. Must be called
+     * within the transaction the stream was opened in.
+     *
+     * @param records      The records to export.
+     * @param outputStream The stream to write to; it is flushed but left open.
+     * @param mapper       Maps each record to the object written for it.
+     * @param <T>          The type of record.
+     * @return The number of records written.
+     * @throws Exception Exceptions from mapping or writing records.
+     */
+    public <T> long export(
+        final Stream<T> records,
+        final OutputStream outputStream,
+        final RecordMapper<T> mapper) throws Exception {
+
+        var writer = this.objectMapper
+            .writer()
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        var written = 0L;
+        try (records; var generator = this.objectMapper.createGenerator(outputStream)) {
+            generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            generator.setRootValueSeparator(null);
+
+            var iterator = records.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, mapper.map(iterator.next()));
+                generator.writeRaw('\n');
+                written++;
+
+                // Nothing read so far is needed again, so let it all go.
+                if (written % this.fetchSize == 0) {
+                    generator.flush();
+                    this.entityManager.clear();
+                }
+            }
+            generator.flush();
+        }
+
+        logger.debug("...exported {} records.", written);
+        return written;
+    }
+}
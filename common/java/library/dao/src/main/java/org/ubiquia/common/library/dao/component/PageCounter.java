@@ -0,0 +1,347 @@
+package org.ubiquia.common.library.dao.component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.ubiquia.common.library.dao.model.QueryShape;
+import org.ubiquia.common.model.ubiquia.dao.CountMode;
+
+/**
+ * A component that determines the total number of records of a page-number paginated query
+ * according to the query's {@link CountMode}. Every mode other than EXACT fetches one record
+ * more than the page size, so whether there is a next page is always known without a count,
+ * and the last page always reports an exact total. Cached and estimated counts are kept per
+ * query shape and parameter values for a configurable TTL, and are evicted early by writes
+ * through the DAOs and domain controllers.
+ *
+ * <p>Counts are grouped by the class they count, so that a write drops a class's counts at
+ * once. Each class also has a generation that every eviction advances; a count is only cached
+ * if its class's generation has not moved since the count began, so a count that raced a
+ * write is never cached after the write's eviction.</p>
+ */
+@Component
+public class PageCounter {
+
+    private static final Logger logger = LoggerFactory.getLogger(PageCounter.class);
+
+    @Value("${ubiquia.dao.count.ttl-milliseconds:30000}")
+    private Long ttlMilliseconds;
+
+    @Value("${ubiquia.dao.count.max-cached-counts:10000}")
+    private Integer maxCachedCounts;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final Map<Class<?>, Map<String, CachedCount>> cachedCounts =
+        new ConcurrentHashMap<>();
+
+    private final Map<Class<?>, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor refreshExecutor;
+
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * A count query that can be run on demand.
+     */
+    @FunctionalInterface
+    public interface Counter {
+
+        /**
+         * Run the count query.
+         *
+         * @return The number of matching records.
+         * @throws NoSuchFieldException Exceptions from clients passing invalid fields.
+         */
+        Long count() throws NoSuchFieldException;
+    }
+
+    /**
+     * The key of a cached count: the class a query counts, and its shape and values.
+     *
+     * @param rootClass The class the query counts.
+     * @param query     The query's shape and parameter values.
+     */
+    public record CountKey(Class<?> rootClass, String query) {
+    }
+
+    private record CachedCount(Long count, Long countedAt, AtomicBoolean refreshing) {
+    }
+
+    /** Start the background count refresher. */
+    @PostConstruct
+    public void init() {
+        this.transactionTemplate = new TransactionTemplate(this.transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+
+        // A single refresher with a small queue; refreshes beyond that are rejected, and
+        // retried by the next request that finds the count stale.
+        this.refreshExecutor = new ThreadPoolExecutor(
+            1,
+            1,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(64),
+            runnable -> {
+                var thread = new Thread(runnable, "ubiquia-dao-count-refresher");
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    /** Stop the background count refresher. */
+    @PreDestroy
+    public void shutdown() {
+        this.refreshExecutor.shutdownNow();
+    }
+
+    /**
+     * Parse the requested count mode, if any, from a servlet request.
+     *
+     * @param request The servlet request to parse.
+     * @return The requested count mode, defaulting to an exact count.
+     */
+    public CountMode getCountModeFrom(final HttpServletRequest request) {
+        var countMode = CountMode.EXACT;
+        var value = request.getParameter("count-mode");
+        if (Objects.nonNull(value)) {
+            countMode = CountMode.fromValue(value);
+            if (Objects.isNull(countMode)) {
+                throw new IllegalArgumentException("ERROR: Unrecognized count mode: " + value);
+            }
+        }
+        return countMode;
+    }
+
+    /**
+     * Get the number of records a page should fetch for a count mode.
+     *
+     * @param countMode The count mode.
+     * @param pageSize  The page size.
+     * @return The page size, plus one to detect a next page if the count may be skipped.
+     */
+    public int getFetchSize(final CountMode countMode, final int pageSize) {
+        var fetchSize = pageSize;
+        if (Objects.nonNull(countMode) && !CountMode.EXACT.equals(countMode)) {
+            fetchSize++;
+        }
+        return fetchSize;
+    }
+
+    /**
+     * Get the total number of records to report for a page, removing the extra record
+     * fetched to detect a next page, if any, from the records.
+     *
+     * @param countMode   The count mode.
+     * @param key         The key of the query's class, shape and parameter values.
+     * @param counter     The query's count query.
+     * @param pageRequest The page request.
+     * @param records     The records fetched for the page; modified in place.
+     * @return The total to report.
+     * @throws NoSuchFieldException Exceptions from clients passing invalid fields.
+     */
+    public Long getTotal(
+        final CountMode countMode,
+        final CountKey key,
+        final Counter counter,
+        final PageRequest pageRequest,
+        final List<?> records) throws NoSuchFieldException {
+
+        if (Objects.isNull(countMode) || CountMode.EXACT.equals(countMode)) {
+            return counter.count();
+        }
+
+        var pageSize = Math.max(1, pageRequest.getPageSize());
+        var hasNext = records.size() > pageSize;
+        while (records.size() > pageSize) {
+            records.remove(records.size() - 1);
+        }
+
+        var offset = (long) pageRequest.getPageNumber() * pageRequest.getPageSize();
+        var seen = offset + records.size() + (hasNext ? 1 : 0);
+
+        // A partial page is the last page, so its total is exact without counting.
+        if (CountMode.NONE.equals(countMode)
+            || (!hasNext && (!records.isEmpty() || offset == 0))) {
+            return seen;
+        }
+
+        Long count = null;
+        if (CountMode.CACHED.equals(countMode)) {
+            count = this.getCachedCount(key, counter);
+        } else {
+            count = this.getEstimatedCount(key, counter);
+        }
+        return Math.max(count, seen);
+    }
+
+    /**
+     * Build the cache key for a query shape and its values; the sort is not part of the key,
+     * since it does not change the count.
+     *
+     * @param shape  The query's shape.
+     * @param values The query's values, in the shape's canonical parameter order.
+     * @return The key.
+     */
+    public CountKey getKeyFor(final QueryShape shape, final List<String> values) {
+        var key = new StringBuilder();
+        for (var i = 0; i < values.size(); i++) {
+            var parameter = shape.getParameters().get(i);
+            key.append(i == 0 ? "" : "&")
+                .append(parameter.key())
+                .append(" ")
+                .append(parameter.operator())
+                .append(" ")
+                .append(values.get(i));
+        }
+        return new CountKey(shape.getRootClass(), key.toString());
+    }
+
+    /**
+     * Evict the cached counts a write to a class can change: those of the class and of its
+     * superclasses, whose queries count it too. If called within a transaction, they are
+     * evicted again once it commits, so that no count run mid-transaction outlives the write.
+     *
+     * @param clazz The class written to.
+     */
+    public void evict(final Class<?> clazz) {
+        this.evictNow(clazz);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        evictNow(clazz);
+                    }
+                });
+        }
+    }
+
+    private void evictNow(final Class<?> clazz) {
+        for (var c = clazz; Objects.nonNull(c) && c != Object.class; c = c.getSuperclass()) {
+            // Advance the generation first, so that counts already underway are not cached.
+            this.getGenerationOf(c).incrementAndGet();
+            this.cachedCounts.remove(c);
+        }
+    }
+
+    private AtomicLong getGenerationOf(final Class<?> clazz) {
+        return this.generations.computeIfAbsent(clazz, c -> new AtomicLong(0));
+    }
+
+    private CachedCount getCached(final CountKey key) {
+        var counts = this.cachedCounts.get(key.rootClass());
+        return Objects.nonNull(counts) ? counts.get(key.query()) : null;
+    }
+
+    private Long getCachedCount(final CountKey key, final Counter counter)
+        throws NoSuchFieldException {
+
+        var cached = this.getCached(key);
+        if (Objects.isNull(cached) || this.isStale(cached)) {
+            var generation = this.getGenerationOf(key.rootClass()).get();
+            cached = this.cache(key, generation, counter.count());
+        }
+        return cached.count();
+    }
+
+    private Long getEstimatedCount(final CountKey key, final Counter counter)
+        throws NoSuchFieldException {
+
+        var cached = this.getCached(key);
+        if (Objects.isNull(cached)) {
+            var generation = this.getGenerationOf(key.rootClass()).get();
+            cached = this.cache(key, generation, counter.count());
+        } else if (this.isStale(cached) && cached.refreshing().compareAndSet(false, true)) {
+            this.tryRefresh(key, counter, cached);
+        }
+        return cached.count();
+    }
+
+    private void tryRefresh(final CountKey key, final Counter counter, final CachedCount cached) {
+        try {
+            this.refreshExecutor.execute(() -> this.refresh(key, counter, cached));
+        } catch (RejectedExecutionException e) {
+            logger.debug("Count refresh queue is full; not refreshing {}...", key);
+            cached.refreshing().set(false);
+        }
+    }
+
+    private void refresh(final CountKey key, final Counter counter, final CachedCount cached) {
+        try {
+            var generation = this.getGenerationOf(key.rootClass()).get();
+            var count = this.transactionTemplate.execute(status -> {
+                try {
+                    return counter.count();
+                } catch (NoSuchFieldException e) {
+                    throw new IllegalArgumentException(e);
+                }
+            });
+            this.cache(key, generation, count);
+        } catch (Exception e) {
+            logger.warn("Could not refresh count for {}: {}", key, e.getMessage());
+            this.cachedCounts.computeIfPresent(key.rootClass(), (c, counts) -> {
+                counts.remove(key.query());
+                return counts.isEmpty() ? null : counts;
+            });
+        } finally {
+            cached.refreshing().set(false);
+        }
+    }
+
+    /**
+     * Cache a count, unless its class was written to since the count began or the cache is
+     * full.
+     *
+     * @param key        The key of the count.
+     * @param generation The generation of the key's class when the count began.
+     * @param count      The count.
+     * @return The count, whether or not it was cached.
+     */
+    private CachedCount cache(final CountKey key, final Long generation, final Long count) {
+        var cached = new CachedCount(count, System.currentTimeMillis(), new AtomicBoolean(false));
+        if (this.size() >= this.maxCachedCounts) {
+            this.cachedCounts.values().forEach(x -> x.values().removeIf(this::isStale));
+        }
+        var full = this.size() >= this.maxCachedCounts;
+        this.cachedCounts.compute(key.rootClass(), (c, counts) -> {
+            var updated = counts;
+            if (generation == this.getGenerationOf(c).get()
+                && (!full || (Objects.nonNull(counts) && counts.containsKey(key.query())))) {
+                updated = Objects.nonNull(counts) ? counts : new ConcurrentHashMap<>();
+                updated.put(key.query(), cached);
+            }
+            return updated;
+        });
+        return cached;
+    }
+
+    private int size() {
+        return this.cachedCounts.values().stream().mapToInt(Map::size).sum();
+    }
+
+    private boolean isStale(final CachedCount cached) {
+        return System.currentTimeMillis() - cached.countedAt() > this.ttlMilliseconds;
+    }
+}
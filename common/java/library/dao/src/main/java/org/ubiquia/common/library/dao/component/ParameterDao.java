@@ -4,10 +4,9 @@ import jakarta.persistence.EntityManager;
 import jakarta.persistence.criteria.*;
 import jakarta.transaction.Transactional;
 import java.lang.reflect.Field;
-import java.lang.reflect.ParameterizedType;
 import java.time.OffsetDateTime;
 import java.util.*;
-import org.apache.commons.lang3.reflect.FieldUtils;
+import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,12 +14,15 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Component;
+import org.ubiquia.common.library.dao.model.TagKeychain;
 import org.ubiquia.common.library.dao.service.builder.NestedPredicateBuilder;
 import org.ubiquia.common.library.dao.service.builder.NonNestedPredicateBuilder;
 import org.ubiquia.common.library.dao.service.logic.ClassDeriver;
+import org.ubiquia.common.library.dao.service.logic.ClassMetadataIndex;
 import org.ubiquia.common.library.dao.service.logic.EmbeddableDeriver;
 import org.ubiquia.common.library.dao.service.logic.EntityDeriver;
 import org.ubiquia.common.model.ubiquia.GenericPageImplementation;
+import org.ubiquia.common.model.ubiquia.dao.CountMode;
 import org.ubiquia.common.model.ubiquia.dao.QueryFilterParameter;
 import org.ubiquia.common.model.ubiquia.dao.QueryOperatorType;
 
@@ -38,15 +40,21 @@ public class ParameterDao<T> {
     @Autowired
     private ClassDeriver classDeriver;
     @Autowired
+    private ClassMetadataIndex classMetadataIndex;
+    @Autowired
     private EmbeddableDeriver embeddableDeriver;
     @Autowired
     private EntityDeriver entityDeriver;
     @Autowired
     private EntityManager entityManager;
     @Autowired
+    private KeysetPager keysetPager;
+    @Autowired
     private NestedPredicateBuilder nestedPredicateBuilder;
     @Autowired
     private NonNestedPredicateBuilder nonNestedPredicateBuilder;
+    @Autowired
+    private QueryShapePager queryShapePager;
 
     /**
      * Query a page of data from the database provided a list of parameters.
@@ -69,6 +77,146 @@ public class ParameterDao<T> {
         final List<String> sortByFields,
         final Class<T> clazz) throws NoSuchFieldException {
 
+        return this.getPage(
+            parameters,
+            page,
+            size,
+            sortDescending,
+            sortByFields,
+            CountMode.EXACT,
+            clazz);
+    }
+
+    /**
+     * Query a page of data from the database provided a list of parameters, determining the
+     * total number of matching records per the count mode.
+     *
+     * @param parameters     The parameters received to generate data from.
+     * @param page           The page number to retrieve.
+     * @param size           The size of the page.
+     * @param sortDescending Whether or not to sort descending.
+     * @param sortByFields   The fields to sort by.
+     * @param countMode      How to determine the total number of matching records.
+     * @param clazz          The class we're querying data for.
+     * @return A page of data retrieved from the database.
+     * @throws NoSuchFieldException Exceptions from clients passing invalid fields.
+     */
+    @Transactional
+    public Page<T> getPage(
+        final Map<String, String[]> parameters,
+        final int page,
+        final int size,
+        final Boolean sortDescending,
+        final List<String> sortByFields,
+        final CountMode countMode,
+        final Class<T> clazz) throws NoSuchFieldException {
+
+        var pageRequest = this.getPageRequest(sortByFields, sortDescending, page, size);
+
+        // Requests that differ only in their values share one compiled query.
+        Page<T> pageResponse = this.queryShapePager.getPage(
+            clazz,
+            this.getQueryFilterParametersFrom(parameters),
+            sortByFields,
+            sortDescending,
+            pageRequest,
+            countMode);
+
+        return pageResponse;
+    }
+
+    /**
+     * Stream every record matching a list of parameters, forward-only and read-only, fetching
+     * rows from the database a fetch size at a time. The stream must be consumed, and closed,
+     * within the caller's transaction.
+     *
+     * @param parameters     The parameters received to generate data from.
+     * @param sortDescending Whether or not to sort descending.
+     * @param sortByFields   The fields to sort by.
+     * @param fetchSize      The number of rows to fetch from the database at a time.
+     * @param clazz          The class we're querying data for.
+     * @return A stream of records.
+     * @throws NoSuchFieldException Exceptions from clients passing invalid fields.
+     */
+    public Stream<T> getStream(
+        final Map<String, String[]> parameters,
+        final Boolean sortDescending,
+        final List<String> sortByFields,
+        final Integer fetchSize,
+        final Class<T> clazz) throws NoSuchFieldException {
+
+        return this.queryShapePager.getStream(
+            clazz,
+            this.getQueryFilterParametersFrom(parameters),
+            sortByFields,
+            sortDescending,
+            fetchSize);
+    }
+
+    /**
+     * Query a page of projected rows: only the requested fields are selected, and rows are
+     * returned as maps keyed by field name without hydrating any entities. Relationships are
+     * only joined or loaded for the fields requested through them.
+     *
+     * @param parameters     The parameters received to generate data from.
+     * @param page           The page number to retrieve.
+     * @param size           The size of the page.
+     * @param sortDescending Whether or not to sort descending.
+     * @param sortByFields   The fields to sort by.
+     * @param fields         The field paths to select (i.e., "name" or "pets.color".)
+     * @param countMode      How to determine the total number of matching records.
+     * @param clazz          The class we're querying data for.
+     * @return A page of rows retrieved from the database.
+     * @throws NoSuchFieldException Exceptions from clients passing invalid fields.
+     */
+    @Transactional
+    public Page<Map<String, Object>> getPageProjection(
+        final Map<String, String[]> parameters,
+        final int page,
+        final int size,
+        final Boolean sortDescending,
+        final List<String> sortByFields,
+        final List<String> fields,
+        final CountMode countMode,
+        final Class<T> clazz) throws NoSuchFieldException {
+
+        var pageRequest = this.getPageRequest(sortByFields, sortDescending, page, size);
+
+        Page<Map<String, Object>> pageResponse = this.queryShapePager.getProjectedPage(
+            clazz,
+            this.getQueryFilterParametersFrom(parameters),
+            sortByFields,
+            sortDescending,
+            fields,
+            pageRequest,
+            countMode);
+
+        return pageResponse;
+    }
+
+    /**
+     * Get a page of data using keyset (cursor) pagination: the page after the record a cursor
+     * points to, or the first page if there is no cursor yet. Every page costs the same to
+     * query however deep it is, and no total count is run.
+     *
+     * @param parameters     The parameters received to generate data from.
+     * @param cursor         The next cursor of the previous page, or null/blank for the first.
+     * @param size           The size of the page.
+     * @param sortDescending Whether or not to sort descending.
+     * @param sortByFields   The fields to sort by; the ID is always the final tiebreaker.
+     * @param clazz          The class we're querying data for.
+     * @return A page of data with the cursor of the next page, if any.
+     * @throws NoSuchFieldException Exceptions from clients passing invalid fields.
+     */
+    @Transactional
+    public GenericPageImplementation<T> getPageAfter(
+        final Map<String, String[]> parameters,
+        final String cursor,
+        final int size,
+        final Boolean sortDescending,
+        final List<String> sortByFields,
+        final Class<T> clazz) throws NoSuchFieldException {
+
         var keychains = new ArrayList<>(parameters.keySet());
 
         var predicateClass = this.classDeriver.tryGetPredicateClass(clazz, keychains);
@@ -77,22 +225,29 @@ public class ParameterDao<T> {
         var criteriaQuery = criteriaBuilder.createQuery(predicateClass);
         var root = criteriaQuery.from(predicateClass);
 
-        this.trySetOrderBy(sortByFields, sortDescending, criteriaBuilder, root, criteriaQuery);
-        var pageRequest = this.getPageRequest(sortByFields, sortDescending, page, size);
-
-        var pageResponse = this.queryDatabase(
+        var predicates = this.getPredicates(
             parameters,
             criteriaBuilder,
             criteriaQuery,
             root,
-            pageRequest,
             predicateClass);
 
-        return pageResponse;
+        return this.keysetPager.getPage(
+            criteriaBuilder,
+            criteriaQuery,
+            root,
+            predicates,
+            predicateClass,
+            cursor,
+            size,
+            sortByFields,
+            Objects.nonNull(sortDescending) && sortDescending);
     }
 
     /**
-     * Return a paginated list of specifically-selected fields.
+     * Return a paginated list of specifically-selected fields. Rows are projected through the
+     * same compiled queries as {@link #getPageProjection}, with each row's values returned in
+     * the order their fields were requested.
      *
      * @param parameters        The parameters received to generate data from.
      * @param page              The page number to retrieve.
@@ -100,6 +255,7 @@ public class ParameterDao<T> {
      * @param sortDescending    Whether or not to sort descending.
      * @param sortByFields      The fields to sort by.
      * @param multiSelectFields The fields we're selecting for.
+     * @param countMode         How to determine the total number of matching records.
      * @param clazz             The class we're querying data for.
      * @return A page of objects retrieved from the database.
      * @throws NoSuchFieldException Exception from invalid fields in client request.
@@ -112,6 +268,7 @@ public class ParameterDao<T> {
         final Boolean sortDescending,
         final List<String> sortByFields,
         final List<String> multiSelectFields,
+        final CountMode countMode,
         final Class<T> clazz) throws NoSuchFieldException {
 
         if (multiSelectFields.isEmpty()) {
@@ -119,99 +276,28 @@ public class ParameterDao<T> {
                 + "1 multiselect field...");
         }
 
-        var keychains = new ArrayList<>(parameters.keySet());
-
-        var predicateClass = this.classDeriver.tryGetPredicateClass(clazz, keychains);
-
-        var criteriaBuilder = this.entityManager.getCriteriaBuilder();
-        var criteriaQuery = criteriaBuilder.createQuery(Object[].class);
-        var root = criteriaQuery.from(predicateClass);
-
-        var selections = new ArrayList<Selection<?>>();
-        for (var field : multiSelectFields) {
-            var selection = root.get(field);
-            selections.add(selection);
-        }
-        criteriaQuery.multiselect(selections);
-
-        this.trySetOrderBy(sortByFields, sortDescending, criteriaBuilder, root, criteriaQuery);
-        var pageRequest = this.getPageRequest(sortByFields, sortDescending, page, size);
-
-        var predicates = this.getPredicates(
-            parameters,
-            criteriaBuilder,
-            criteriaQuery,
-            root,
-            clazz);
-
-        // Create a "compound predicate" - a conjunction - from all the filtered parameters.
-        var conjunction = criteriaBuilder.and(predicates.toArray(new Predicate[predicates.size()]));
-        criteriaQuery.where(conjunction);
-
-        var listSize = pageRequest.getPageSize();
-        if (listSize <= 0) {
-            listSize = 1;
-        }
-
-        // Build our query results from our requested page.
-        var query = this.entityManager.createQuery(criteriaQuery)
-            .setFirstResult(pageRequest.getPageNumber() * pageRequest.getPageSize())
-            .setHint("org.hibernate.cacheable", true)
-            .setMaxResults(listSize);
-        var records = query.getResultList();
-
-        var count = this.getCount(parameters, clazz);
-        var paged = new GenericPageImplementation<>(records, pageRequest, count);
-        return paged;
-    }
-
-    /**
-     * Query the database provided the parameters.
-     *
-     * @param parameters      The parameters to use as predicates.
-     * @param criteriaBuilder The criteria builder.
-     * @param criteriaQuery   Our JPA query.
-     * @param root            The root-most class representing our table.
-     * @param pageRequest     The page request.
-     * @param clazz           The class we're querying data for.
-     * @return A page of data.
-     * @throws NoSuchFieldException Exceptions from clients passing invalid fields.
-     */
-    @Transactional
-    public Page<T> queryDatabase(
-        final Map<String, String[]> parameters,
-        final CriteriaBuilder criteriaBuilder,
-        final CriteriaQuery<?> criteriaQuery,
-        final Root<?> root,
-        final PageRequest pageRequest,
-        final Class<?> clazz) throws NoSuchFieldException {
-
-        var predicates = this.getPredicates(
+        var projected = this.getPageProjection(
             parameters,
-            criteriaBuilder,
-            criteriaQuery,
-            root,
+            page,
+            size,
+            sortDescending,
+            sortByFields,
+            multiSelectFields,
+            countMode,
             clazz);
 
-        // Create a "compound predicate" - a conjunction - from all the filtered parameters.
-        var conjunction = criteriaBuilder.and(predicates.toArray(new Predicate[predicates.size()]));
-        criteriaQuery.where(conjunction);
-
-        var listSize = pageRequest.getPageSize();
-        if (listSize <= 0) {
-            listSize = 1;
+        var records = new ArrayList<Object[]>(projected.getNumberOfElements());
+        for (var row : projected.getContent()) {
+            var record = new Object[multiSelectFields.size()];
+            for (var i = 0; i < multiSelectFields.size(); i++) {
+                record[i] = this.getProjectedValue(row, multiSelectFields.get(i));
+            }
+            records.add(record);
         }
-
-        // Build our query results from our requested page.
-        var query = this.entityManager.createQuery(criteriaQuery)
-            .setFirstResult(pageRequest.getPageNumber() * pageRequest.getPageSize())
-            .setHint("org.hibernate.cacheable", true)
-            .setMaxResults(listSize);
-        var records = query.getResultList();
-
-        var count = this.getCount(parameters, clazz);
-        var paged = new GenericPageImplementation<>(records, pageRequest, count);
-        return (GenericPageImplementation<T>) paged;
+        return new GenericPageImplementation<>(
+            records,
+            projected.getPageable(),
+            projected.getTotalElements());
     }
 
     /**
@@ -276,7 +362,20 @@ public class ParameterDao<T> {
             // Split the filter value to determine if it represents a nested query...
             var split = Arrays.asList(keychain.split("\\."));
 
-            if (split.size() > 1) {
+            var tag = TagKeychain.tryParse(this.getStringWithoutOperatorSymbols(keychain));
+            if (tag.isPresent()) {
+
+                // ...tags match their key and value on the same pair...
+                predicates.add(this.getPredicateForTag(
+                    criteriaBuilder,
+                    criteriaQuery,
+                    root,
+                    keychain,
+                    tag.get(),
+                    value,
+                    clazz));
+
+            } else if (split.size() > 1) {
 
                 // ...if it is a nested query, process it accordingly...
                 predicates.add(this.getPredicatesForNestedParameters(
@@ -322,12 +421,10 @@ public class ParameterDao<T> {
 
         Predicate predicate = null;
 
-        var fields = FieldUtils.getAllFieldsList(clazz);
         var keyWord = this.getStringWithoutOperatorSymbols(fieldKey);
-        var match = fields.stream().filter(x -> x.getName().equalsIgnoreCase(keyWord)).findFirst();
-        if (match.isPresent()) {
+        var field = this.classMetadataIndex.getMetadataFor(clazz).getField(keyWord);
+        if (Objects.nonNull(field)) {
 
-            var field = match.get();
             var filterParam = this.getQueryFilterParameter(fieldKey, value, keyWord);
 
             predicate = this.getPredicateForParameterHelper(
@@ -346,6 +443,66 @@ public class ParameterDao<T> {
         return predicate;
     }
 
+    /**
+     * Build a predicate matching records with a tag of the given key whose value matches the
+     * provided value, checked against a single pair so it can be answered by the tag index.
+     *
+     * @param criteriaBuilder The criteria builder.
+     * @param criteriaQuery   The JPA query.
+     * @param root            The root-most class representing the table we're querying.
+     * @param keychain        The keychain, with any operator symbols.
+     * @param tag             The parsed tag keychain.
+     * @param value           The value to match.
+     * @param clazz           The class we're querying.
+     * @return A predicate.
+     * @throws NoSuchFieldException Exceptions from clients passing invalid fields.
+     */
+    private Predicate getPredicateForTag(
+        final CriteriaBuilder criteriaBuilder,
+        final CriteriaQuery<?> criteriaQuery,
+        final Root<?> root,
+        final String keychain,
+        final TagKeychain tag,
+        final String value,
+        final Class<?> clazz) throws NoSuchFieldException {
+
+        this.classMetadataIndex.resolvePath(clazz, tag.getKeyKeychain());
+        var valueField = this.classMetadataIndex
+            .resolvePath(clazz, tag.getValueKeychain())
+            .getFinalField();
+
+        var subQuery = criteriaQuery.subquery(clazz);
+        var subRoot = subQuery.correlate(root);
+        var join = subRoot.join(tag.collection());
+        subQuery.where(
+            criteriaBuilder.equal(join.get(TagKeychain.KEY_FIELD), tag.key()),
+            this.getPredicateForParameterHelper(
+                criteriaBuilder,
+                valueField,
+                join,
+                this.getQueryFilterParameter(keychain, value, TagKeychain.VALUE_FIELD)));
+        return criteriaBuilder.exists(subQuery);
+    }
+
+    /**
+     * Convert a map of parameters into filter parameters with keys free of operator symbols.
+     *
+     * @param parameters The parameters received.
+     * @return The filter parameters.
+     */
+    private List<QueryFilterParameter> getQueryFilterParametersFrom(
+        final Map<String, String[]> parameters) {
+
+        var filterParameters = new ArrayList<QueryFilterParameter>();
+        for (var keychain : parameters.keySet()) {
+            filterParameters.add(this.getQueryFilterParameter(
+                keychain,
+                parameters.get(keychain)[0],
+                this.getStringWithoutOperatorSymbols(keychain)));
+        }
+        return filterParameters;
+    }
+
     /**
      * Helper method to get the parameter equivalent for a Query Filter.
      *
@@ -397,44 +554,10 @@ public class ParameterDao<T> {
         final Class<?> rootClass) throws NoSuchFieldException {
 
         // Determine the final class and field type for the last element of the keychain...
-        var currentClass = rootClass;
-        Class<?> previousClass = null;
-        Field finalField = null;
-
-        for (int i = 0; i < split.size(); i++) {
-            var fieldName = getStringWithoutOperatorSymbols(split.get(i));
-            var fieldOpt = FieldUtils.getAllFieldsList(currentClass).stream()
-                .filter(f -> f.getName().equalsIgnoreCase(fieldName))
-                .findFirst();
-
-            if (fieldOpt.isEmpty()) {
-                logger.debug("Field '{}' not found in '{}', checking subclasses...",
-                    fieldName, currentClass.getSimpleName());
-
-                currentClass = this.classDeriver.tryGetPredicateClass(currentClass, fieldName);
-
-                fieldOpt = FieldUtils.getAllFieldsList(currentClass).stream()
-                    .filter(f -> f.getName().equalsIgnoreCase(fieldName))
-                    .findFirst();
-
-                if (fieldOpt.isEmpty()) {
-                    throw new NoSuchFieldException("Field '" + fieldName + "' not found in "
-                        + currentClass.getSimpleName() + " or its subclasses.");
-                }
-            }
-
-            finalField = fieldOpt.get();
-
-            // ...if it's a collection, resolve the generic type for the next iteration...
-            if (Collection.class.isAssignableFrom(finalField.getType())) {
-                var collectionType = (ParameterizedType) finalField.getGenericType();
-                previousClass = currentClass;
-                currentClass = (Class<?>) collectionType.getActualTypeArguments()[0];
-            } else {
-                previousClass = currentClass;
-                currentClass = finalField.getType();
-            }
-        }
+        var fieldPath = this.classMetadataIndex.resolvePath(rootClass, keychain);
+        var currentClass = fieldPath.getTargetClass();
+        var previousClass = fieldPath.getFinalOwnerClass();
+        var finalField = fieldPath.getFinalField();
 
         // ...build the subquery using correlated joins...
         var subQuery = criteriaQuery.subquery(currentClass);
@@ -669,35 +792,23 @@ public class ParameterDao<T> {
     }
 
     /**
-     * Attempt to sort the order of our database query.
+     * Get the value of a field from a projected row, whose fields through relationships (i.e.,
+     * "owner.name") are nested under the relationship's name.
      *
-     * @param sortByFields    The fields to sort by.
-     * @param sortDescending  Whether or not to sort by descending.
-     * @param criteriaBuilder The criteria builder.
-     * @param root            The root-most class representing our root-most table.
-     * @param criteriaQuery   The JPA query.
+     * @param row   The projected row.
+     * @param field The field path.
+     * @return The field's value.
      */
-    private void trySetOrderBy(
-        final List<String> sortByFields,
-        final Boolean sortDescending,
-        final CriteriaBuilder criteriaBuilder,
-        final Root<?> root,
-        CriteriaQuery criteriaQuery) {
-
-        if (Objects.nonNull(sortByFields)) {
-            for (var sortByField : sortByFields) {
-                Order order = null;
-                if (sortDescending) {
-                    order = criteriaBuilder.desc(root.get(sortByField));
-                } else {
-                    order = criteriaBuilder.asc(root.get(sortByField));
-                }
-                criteriaQuery.orderBy(order);
+    private Object getProjectedValue(final Map<String, Object> row, final String field) {
+        Object value = row;
+        for (var segment : field.split("\\.")) {
+            if (value instanceof Map<?, ?> map) {
+                value = map.get(segment);
             }
         }
+        return value;
     }
 
-
     /**
      * Get a page request.
      *
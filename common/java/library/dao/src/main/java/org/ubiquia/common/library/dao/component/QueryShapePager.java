@@ -0,0 +1,261 @@
+package org.ubiquia.common.library.dao.component;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.ubiquia.common.library.dao.model.CompiledQuery;
+import org.ubiquia.common.library.dao.model.QueryShape;
+import org.ubiquia.common.library.dao.service.logic.QueryShapeCache;
+import org.ubiquia.common.model.ubiquia.GenericPageImplementation;
+import org.ubiquia.common.model.ubiquia.dao.CountMode;
+import org.ubiquia.common.model.ubiquia.dao.QueryFilterParameter;
+
+/**
+ * A component that runs page-number paginated queries for the DAOs through compiled query
+ * shapes: the request is normalized into its {@link QueryShape}, the shape's compiled select
+ * and count queries are fetched from the {@link QueryShapeCache}, and only the request's values
+ * are bound to them. Projections are returned as rows of nested maps keyed by field name, ready
+ * to be serialized or converted to DTOs without ever being hydrated into entities.
+ */
+@Component
+public class QueryShapePager {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PageCounter pageCounter;
+
+    @Autowired
+    private QueryShapeCache queryShapeCache;
+
+    /**
+     * Run a page-number paginated query.
+     *
+     * @param clazz       The class we're querying.
+     * @param parameters  The query's parameters, with keys free of operator symbols.
+     * @param sortBy      The fields to sort by.
+     * @param descending  Whether to sort descending.
+     * @param pageRequest The page request.
+     * @param countMode   How to determine the total number of matching records.
+     * @param <T>         The type of record.
+     * @return A page of records.
+     * @throws NoSuchFieldException Exceptions from clients passing invalid fields.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> GenericPageImplementation<T> getPage(
+        final Class<?> clazz,
+        final List<QueryFilterParameter> parameters,
+        final List<String> sortBy,
+        final Boolean descending,
+        final PageRequest pageRequest,
+        final CountMode countMode) throws NoSuchFieldException {
+
+        var canonical = this.getCanonicalOrderOf(parameters);
+        var shape = new QueryShape(clazz, canonical, sortBy, descending);
+        var values = QueryShape.getValuesOf(canonical);
+        var compiled = this.queryShapeCache.getCompiledQueryFor(shape);
+
+        var records = new ArrayList<T>((List<T>) this.getRecords(
+            compiled,
+            values,
+            pageRequest,
+            countMode));
+        var count = this.getTotal(shape, compiled, values, pageRequest, countMode, records);
+        return new GenericPageImplementation<>(records, pageRequest, count);
+    }
+
+    /**
+     * Stream every record matching a query forward-only and read-only, fetching rows from the
+     * database a fetch size at a time instead of materializing them. The stream must be
+     * consumed, and closed, within the transaction it was opened in.
+     *
+     * @param clazz      The class we're querying.
+     * @param parameters The query's parameters, with keys free of operator symbols.
+     * @param sortBy     The fields to sort by.
+     * @param descending Whether to sort descending.
+     * @param fetchSize  The number of rows to fetch from the database at a time.
+     * @param <T>        The type of record.
+     * @return A stream of records.
+     * @throws NoSuchFieldException Exceptions from clients passing invalid fields.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Stream<T> getStream(
+        final Class<?> clazz,
+        final List<QueryFilterParameter> parameters,
+        final List<String> sortBy,
+        final Boolean descending,
+        final Integer fetchSize) throws NoSuchFieldException {
+
+        var canonical = this.getCanonicalOrderOf(parameters);
+        var shape = new QueryShape(clazz, canonical, sortBy, descending);
+        var values = QueryShape.getValuesOf(canonical);
+        var compiled = this.queryShapeCache.getCompiledQueryFor(shape);
+
+        var query = compiled.createSelectQuery(this.entityManager, values)
+            .setHint("org.hibernate.fetchSize", fetchSize)
+            .setHint("org.hibernate.readOnly", true);
+        return (Stream<T>) query.getResultStream();
+    }
+
+    /**
+     * Run a page-number paginated projection query. Each row holds the record's ID and the
+     * requested fields, with dotted field paths nested (i.e., "owner.name" as
+     * {"owner": {"name": ...}}) and projected collections as lists.
+     *
+     * @param clazz       The class we're querying.
+     * @param parameters  The query's parameters, with keys free of operator symbols.
+     * @param sortBy      The fields to sort by.
+     * @param descending  Whether to sort descending.
+     * @param fields      The field paths to select.
+     * @param pageRequest The page request.
+     * @param countMode   How to determine the total number of matching records.
+     * @return A page of rows.
+     * @throws NoSuchFieldException Exceptions from clients passing invalid fields.
+     */
+    @SuppressWarnings("unchecked")
+    public GenericPageImplementation<Map<String, Object>> getProjectedPage(
+        final Class<?> clazz,
+        final List<QueryFilterParameter> parameters,
+        final List<String> sortBy,
+        final Boolean descending,
+        final List<String> fields,
+        final PageRequest pageRequest,
+        final CountMode countMode) throws NoSuchFieldException {
+
+        if (fields.isEmpty()) {
+            throw new IllegalArgumentException("ERROR: A projection requires at least "
+                + "1 field...");
+        }
+
+        var canonical = this.getCanonicalOrderOf(parameters);
+        var shape = new QueryShape(clazz, canonical, sortBy, descending, fields);
+        var values = QueryShape.getValuesOf(canonical);
+        var compiled = this.queryShapeCache.getCompiledQueryFor(shape);
+
+        var tuples = new ArrayList<Tuple>((List<Tuple>) this.getRecords(
+            compiled,
+            values,
+            pageRequest,
+            countMode));
+        var count = this.getTotal(shape, compiled, values, pageRequest, countMode, tuples);
+
+        var selectedFields = compiled.getSelectedFields();
+        var rows = new ArrayList<Map<String, Object>>(tuples.size());
+        var rowsById = new LinkedHashMap<Object, Map<String, Object>>();
+        for (var tuple : tuples) {
+            var row = new LinkedHashMap<String, Object>();
+            for (var i = 0; i < selectedFields.size(); i++) {
+                this.put(row, selectedFields.get(i), tuple.get(i));
+            }
+            rows.add(row);
+            rowsById.put(tuple.get(0), row);
+        }
+        this.tryLoadCollections(compiled, rowsById);
+
+        return new GenericPageImplementation<>(rows, pageRequest, count);
+    }
+
+    private List<QueryFilterParameter> getCanonicalOrderOf(
+        final List<QueryFilterParameter> parameters) {
+
+        var canonical = new ArrayList<>(parameters);
+        canonical.sort(QueryShape.CANONICAL_ORDER);
+        return canonical;
+    }
+
+    private List<?> getRecords(
+        final CompiledQuery compiled,
+        final List<String> values,
+        final PageRequest pageRequest,
+        final CountMode countMode) {
+
+        var listSize = pageRequest.getPageSize();
+        if (listSize <= 0) {
+            listSize = 1;
+        }
+
+        // Build our query results from our requested page.
+        var query = compiled.createSelectQuery(this.entityManager, values)
+            .setFirstResult(pageRequest.getPageNumber() * pageRequest.getPageSize())
+            .setHint("org.hibernate.cacheable", true)
+            .setMaxResults(this.pageCounter.getFetchSize(countMode, listSize));
+        return query.getResultList();
+    }
+
+    private Long getTotal(
+        final QueryShape shape,
+        final CompiledQuery compiled,
+        final List<String> values,
+        final PageRequest pageRequest,
+        final CountMode countMode,
+        final List<?> records) throws NoSuchFieldException {
+
+        return this.pageCounter.getTotal(
+            countMode,
+            this.pageCounter.getKeyFor(shape, values),
+            () -> compiled.createCountQuery(this.entityManager, values).getSingleResult(),
+            pageRequest,
+            records);
+    }
+
+    /**
+     * Load every projected collection of a page of rows, one query per collection.
+     *
+     * @param compiled The compiled projection.
+     * @param rowsById The page's rows by their record's ID.
+     */
+    @SuppressWarnings("unchecked")
+    private void tryLoadCollections(
+        final CompiledQuery compiled,
+        final Map<Object, Map<String, Object>> rowsById) {
+
+        for (var collectionQuery : compiled.getCollectionQueries()) {
+            for (var row : rowsById.values()) {
+                row.put(collectionQuery.field(), new ArrayList<>());
+            }
+            if (rowsById.isEmpty()) {
+                continue;
+            }
+
+            var elementFields = collectionQuery.elementFields();
+            var tuples = collectionQuery
+                .createQuery(this.entityManager, rowsById.keySet())
+                .getResultList();
+            for (var tuple : tuples) {
+                Object element = null;
+                if (elementFields.isEmpty()) {
+                    element = tuple.get(1);
+                } else {
+                    var map = new LinkedHashMap<String, Object>();
+                    for (var i = 0; i < elementFields.size(); i++) {
+                        this.put(map, elementFields.get(i), tuple.get(i + 1));
+                    }
+                    element = map;
+                }
+                var elements = (List<Object>) rowsById.get(tuple.get(0))
+                    .get(collectionQuery.field());
+                elements.add(element);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void put(final Map<String, Object> row, final String field, final Object value) {
+        var segments = field.split("\\.");
+        var current = row;
+        for (var i = 0; i < segments.length - 1; i++) {
+            current = (Map<String, Object>) current.computeIfAbsent(
+                segments[i],
+                x -> new LinkedHashMap<String, Object>());
+        }
+        current.put(segments[segments.length - 1], value);
+    }
+}
@@ -4,6 +4,8 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.transaction.Transactional;
 import java.lang.reflect.ParameterizedType;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -21,6 +23,8 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.ubiquia.common.library.api.interfaces.InterfaceEntityToDtoMapper;
 import org.ubiquia.common.library.api.interfaces.InterfaceLogger;
+import org.ubiquia.common.library.dao.component.NdjsonExporter;
+import org.ubiquia.common.library.dao.component.PageCounter;
 import org.ubiquia.common.library.dao.interfaces.InterfaceUbiquiaDaoController;
 import org.ubiquia.common.library.implementation.service.builder.UbiquiaIngressResponseBuilder;
 import org.ubiquia.common.library.implementation.service.telemetry.MicroMeterHelper;
@@ -52,6 +56,10 @@ public abstract class GenericUbiquiaDaoController<
     protected Class<T> persistedEntityClass;
     protected Class<D> persistedDtoClass;
     @Autowired
+    private NdjsonExporter ndjsonExporter;
+    @Autowired
+    private PageCounter pageCounter;
+    @Autowired
     private PageValidator pageValidator;
 
     /**
@@ -85,7 +93,11 @@ public abstract class GenericUbiquiaDaoController<
     }
 
     /**
-     * GET from this controller to query data from the database.
+     * GET from this controller to query data from the database. Passing a "cursor" parameter
+     * (blank for the first page, then each page's "nextCursor") opts into keyset pagination,
+     * which costs the same for every page however deep, in place of page numbers. Otherwise, a
+     * "count-mode" parameter of EXACT (the default), NONE, CACHED or ESTIMATED chooses how the
+     * total number of records is determined.
      *
      * @param page               The page number to retrieve.
      * @param size               The page size to retrieve.
@@ -98,7 +110,7 @@ public abstract class GenericUbiquiaDaoController<
      */
     @GetMapping("/query/params")
     public GenericPageImplementation<D> queryWithParams(
-        @RequestParam("page") final Integer page,
+        @RequestParam(value = "page", required = false, defaultValue = "0") final Integer page,
         @RequestParam("size") final Integer size,
         @RequestParam(value = "sort-descending", required = false,
             defaultValue = "true") final Boolean sortDescending,
@@ -128,7 +140,58 @@ public abstract class GenericUbiquiaDaoController<
     }
 
     /**
-     * Query for a model provided only an ID in the path.
+     * GET from this controller to export every record matching the query's parameters as
+     * newline-delimited JSON. Records are read forward-only from the database and written as
+     * they are read, so the export runs in constant memory however many records match, and
+     * no count is run.
+     *
+     * @param sortDescending      Whether or not to sort the results descending or ascending.
+     * @param sortByFields        The fields to sort by.
+     * @param httpServletRequest  The servlet request to use to parse the query.
+     * @param httpServletResponse The servlet response to write records to.
+     * @throws Exception Exceptions from bad client requests or from writing records.
+     */
+    @GetMapping(value = "/export/params", produces = NdjsonExporter.MEDIA_TYPE)
+    @Transactional
+    public void exportWithParams(
+        @RequestParam(value = "sort-descending", required = false,
+            defaultValue = "true") final Boolean sortDescending,
+        @RequestParam(value = "sort-by-fields", required = false,
+            defaultValue = "") final List<String> sortByFields,
+        HttpServletRequest httpServletRequest,
+        HttpServletResponse httpServletResponse)
+        throws Exception {
+
+        Timer.Sample sample = null;
+        if (Objects.nonNull(this.microMeterHelper)) {
+            sample = this.microMeterHelper.startSample();
+        }
+
+        this.getLogger().info("Received an export request by params...");
+        var map = this.getMapFromServletRequest(httpServletRequest);
+
+        var records = this.getDataAccessObject().getStream(
+            map,
+            sortDescending,
+            sortByFields,
+            this.ndjsonExporter.getFetchSize(),
+            this.persistedEntityClass);
+
+        httpServletResponse.setContentType(NdjsonExporter.MEDIA_TYPE);
+        var mapper = this.getDataTransferObjectMapper();
+        this.ndjsonExporter.export(
+            records,
+            httpServletResponse.getOutputStream(),
+            mapper::map);
+
+        if (Objects.nonNull(sample)) {
+            this.microMeterHelper.endSample(sample, "exportWithParams", this.tags);
+        }
+    }
+
+    /**
+     * Query for a model provided only an ID in the path. The model is looked up by its primary
+     * key rather than through a paginated query, so no count is run.
      *
      * @param id The ID to use to query the model.
      * @return The model if available, else a 204.
@@ -146,26 +209,15 @@ public abstract class GenericUbiquiaDaoController<
 
         this.getLogger().info("Received a GET request for ID: {}", id);
 
-        var parameterMap = new HashMap<String, String[]>();
-        var array = new String[1];
-        array[0] = id;
-        parameterMap.put("id", array);
-
-        var records = this.getDataAccessObject().getPage(
-            parameterMap,
-            0,
-            1,
-            true,
-            new ArrayList<>(),
-            this.persistedEntityClass);
+        var record = this.getDataAccessObject().findById(id, this.persistedEntityClass);
 
         ResponseEntity<D> response = null;
 
-        if (records.isEmpty()) {
+        if (record.isEmpty()) {
             response = ResponseEntity.status(HttpStatus.NO_CONTENT).build();
         } else {
-            var egress = this.convertPageHelper(records, this.getDataTransferObjectMapper());
-            response = ResponseEntity.status(HttpStatus.OK).body(egress.getContent().get(0));
+            var egress = this.getDataTransferObjectMapper().map(record.get());
+            response = ResponseEntity.status(HttpStatus.OK).body(egress);
         }
 
         if (Objects.nonNull(sample)) {
@@ -203,6 +255,10 @@ public abstract class GenericUbiquiaDaoController<
             records.getNumberOfElements(),
             records.getSort().isEmpty());
 
+        if (records instanceof GenericPageImplementation<T> page) {
+            convertedPage.setNextCursor(page.getNextCursor());
+        }
+
         return convertedPage;
     }
 
@@ -230,13 +286,26 @@ public abstract class GenericUbiquiaDaoController<
         var map = this.getMapFromServletRequest(httpServletRequest);
         this.getLogger().info("Received a query request by params...");
 
-        var records = this.getDataAccessObject().getPage(
-            map,
-            page,
-            size,
-            sortDescending,
-            sortByFields,
-            this.persistedEntityClass);
+        Page<T> records = null;
+        var cursor = httpServletRequest.getParameter("cursor");
+        if (Objects.nonNull(cursor)) {
+            records = this.getDataAccessObject().getPageAfter(
+                map,
+                cursor,
+                size,
+                sortDescending,
+                sortByFields,
+                this.persistedEntityClass);
+        } else {
+            records = this.getDataAccessObject().getPage(
+                map,
+                page,
+                size,
+                sortDescending,
+                sortByFields,
+                this.pageCounter.getCountModeFrom(httpServletRequest),
+                this.persistedEntityClass);
+        }
 
         var egress = this.convertPageHelper(records, this.getDataTransferObjectMapper());
         return egress;
@@ -271,5 +340,7 @@ public abstract class GenericUbiquiaDaoController<
         map.remove("sortByFields");
         map.remove("multiselectFields");
         map.remove("ignoreTokens");
+        map.remove("cursor");
+        map.remove("countMode");
     }
 }
@@ -0,0 +1,86 @@
+package org.ubiquia.common.library.dao.model;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable reflection metadata for a class that can be queried against: its fields keyed by
+ * lower-cased name, its subclasses, and which of those subclasses declare a given field.
+ */
+public class ClassMetadata {
+
+    private final Class<?> type;
+
+    private final Map<String, Field> fieldsByName;
+
+    private final Set<Class<?>> subclasses;
+
+    private final Map<String, List<Class<?>>> subclassesByFieldName;
+
+    private final Field idField;
+
+    /**
+     * Build metadata for a class.
+     *
+     * @param type                  The class.
+     * @param fieldsByName          The class's fields (including inherited) by lower-cased name.
+     * @param subclasses            Every subclass of the class.
+     * @param subclassesByFieldName For each lower-cased field name the class does not have, the
+     *                              subclasses that do.
+     * @param idField               The class's ID field, or null if it has none.
+     */
+    public ClassMetadata(
+        final Class<?> type,
+        final Map<String, Field> fieldsByName,
+        final Set<Class<?>> subclasses,
+        final Map<String, List<Class<?>>> subclassesByFieldName,
+        final Field idField) {
+
+        this.type = type;
+        this.fieldsByName = Map.copyOf(fieldsByName);
+        this.subclasses = Set.copyOf(subclasses);
+        this.subclassesByFieldName = Map.copyOf(subclassesByFieldName);
+        this.idField = idField;
+    }
+
+    public Class<?> getType() {
+        return this.type;
+    }
+
+    /**
+     * Get a field of the class by name, ignoring case.
+     *
+     * @param fieldName The name of the field.
+     * @return The field, or null if the class has no such field.
+     */
+    public Field getField(final String fieldName) {
+        return this.fieldsByName.get(fieldName.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Get the subclasses that have a field the class itself does not, ignoring case.
+     *
+     * @param fieldName The name of the field.
+     * @return The subclasses with the field, or an empty list if there are none.
+     */
+    public List<Class<?>> getSubclassesWithField(final String fieldName) {
+        return this.subclassesByFieldName.getOrDefault(
+            fieldName.toLowerCase(Locale.ROOT),
+            List.of());
+    }
+
+    public Map<String, Field> getFieldsByName() {
+        return this.fieldsByName;
+    }
+
+    public Set<Class<?>> getSubclasses() {
+        return this.subclasses;
+    }
+
+    public Field getIdField() {
+        return this.idField;
+    }
+}
@@ -0,0 +1,172 @@
+package org.ubiquia.common.library.dao.model;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * A query shape compiled into the HQL of a select query and a count query whose values are
+ * named parameters. Only immutable strings are kept, so one instance is shared by every
+ * request of its shape on any thread; each request creates its own queries from the HQL and
+ * binds its values to them, and Hibernate's query plan cache keeps the translation of each
+ * HQL string.
+ *
+ * <p>For projections the select query is a tuple query of the record's ID followed by the
+ * selected fields, and each collection the projection asks for is loaded by its own query for
+ * all of a page's IDs at once.</p>
+ */
+public class CompiledQuery {
+
+    /** The name of the parameter a collection query's page of IDs is bound to. */
+    public static final String IDS_PARAMETER = "ids";
+
+    private final Class<?> predicateClass;
+
+    private final Class<?> resultClass;
+
+    private final String selectHql;
+
+    private final String countHql;
+
+    private final List<String> parameterNames;
+
+    private final List<Function<String, Object>> converters;
+
+    private final Map<String, Object> constants;
+
+    private final List<String> selectedFields;
+
+    private final List<CollectionQuery> collectionQueries;
+
+    /**
+     * A query loading a projected collection's elements for a page of records: each tuple is a
+     * record's ID followed by one element's selected fields, or by the whole element if the
+     * projection named the collection itself. The page's IDs bind to {@link #IDS_PARAMETER}.
+     *
+     * @param field         The name of the collection field.
+     * @param elementFields The field paths selected from each element, if any.
+     * @param hql           The query's HQL.
+     */
+    public record CollectionQuery(String field, List<String> elementFields, String hql) {
+
+        /**
+         * Create the query for a page of records.
+         *
+         * @param entityManager The entity manager to create the query with.
+         * @param ids           The IDs of the page's records.
+         * @return The query.
+         */
+        public TypedQuery<Tuple> createQuery(
+            final EntityManager entityManager,
+            final Collection<?> ids) {
+
+            return entityManager.createQuery(this.hql, Tuple.class)
+                .setParameter(IDS_PARAMETER, ids);
+        }
+    }
+
+    /**
+     * Build a compiled query. The parameter name and converter lists are aligned with the
+     * shape's parameters and hold nulls for parameters without a bound value (i.e., null
+     * checks.)
+     *
+     * @param predicateClass    The class the queries select from.
+     * @param resultClass       The type of the select query's results.
+     * @param selectHql         The select query, with its predicates and orders.
+     * @param countHql          The count query, with the same predicates.
+     * @param parameterNames    The name of each shape parameter's query parameter.
+     * @param converters        The converter from a raw value to its bound type per parameter.
+     * @param constants         Values that are part of the shape (i.e., tag keys) by name.
+     * @param selectedFields    The field path of each element of a projection's tuples.
+     * @param collectionQueries The queries loading each projected collection.
+     */
+    public CompiledQuery(
+        final Class<?> predicateClass,
+        final Class<?> resultClass,
+        final String selectHql,
+        final String countHql,
+        final List<String> parameterNames,
+        final List<Function<String, Object>> converters,
+        final Map<String, Object> constants,
+        final List<String> selectedFields,
+        final List<CollectionQuery> collectionQueries) {
+
+        this.predicateClass = predicateClass;
+        this.resultClass = resultClass;
+        this.selectHql = selectHql;
+        this.countHql = countHql;
+        this.parameterNames = Collections.unmodifiableList(new ArrayList<>(parameterNames));
+        this.converters = Collections.unmodifiableList(new ArrayList<>(converters));
+        this.constants = Map.copyOf(constants);
+        this.selectedFields = List.copyOf(selectedFields);
+        this.collectionQueries = List.copyOf(collectionQueries);
+    }
+
+    /**
+     * Create a select query bound to a request's values.
+     *
+     * @param entityManager The entity manager to create the query with.
+     * @param values        The values, in the shape's canonical parameter order.
+     * @return The query.
+     */
+    public TypedQuery<?> createSelectQuery(
+        final EntityManager entityManager,
+        final List<String> values) {
+
+        return this.bind(entityManager.createQuery(this.selectHql, this.resultClass), values);
+    }
+
+    /**
+     * Create a count query bound to a request's values.
+     *
+     * @param entityManager The entity manager to create the query with.
+     * @param values        The values, in the shape's canonical parameter order.
+     * @return The query.
+     */
+    public TypedQuery<Long> createCountQuery(
+        final EntityManager entityManager,
+        final List<String> values) {
+
+        return this.bind(entityManager.createQuery(this.countHql, Long.class), values);
+    }
+
+    public Class<?> getPredicateClass() {
+        return this.predicateClass;
+    }
+
+    public String getSelectHql() {
+        return this.selectHql;
+    }
+
+    public String getCountHql() {
+        return this.countHql;
+    }
+
+    public List<String> getSelectedFields() {
+        return this.selectedFields;
+    }
+
+    public List<CollectionQuery> getCollectionQueries() {
+        return this.collectionQueries;
+    }
+
+    private <Q extends TypedQuery<?>> Q bind(final Q query, final List<String> values) {
+        for (var i = 0; i < this.parameterNames.size(); i++) {
+            var name = this.parameterNames.get(i);
+            if (Objects.nonNull(name)) {
+                query.setParameter(name, this.converters.get(i).apply(values.get(i)));
+            }
+        }
+        for (var constant : this.constants.entrySet()) {
+            query.setParameter(constant.getKey(), constant.getValue());
+        }
+        return query;
+    }
+}
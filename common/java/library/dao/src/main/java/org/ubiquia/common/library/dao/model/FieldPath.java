@@ -0,0 +1,66 @@
+package org.ubiquia.common.library.dao.model;
+
+import java.lang.reflect.Field;
+import java.util.List;
+
+/**
+ * A dotted keychain (i.e., "owner.pets.name") resolved against a root class: the field behind
+ * each segment, the class each segment was found on (which may be a subclass of the type the
+ * previous segment pointed to), and the type the final segment points to, with collections
+ * resolved to their element type.
+ */
+public class FieldPath {
+
+    private final Class<?> predicateClass;
+
+    private final List<Field> fields;
+
+    private final List<Class<?>> ownerClasses;
+
+    private final Class<?> targetClass;
+
+    /**
+     * Build a resolved field path.
+     *
+     * @param predicateClass The root class or, if the first segment is only declared on one of
+     *                       its subclasses, that subclass.
+     * @param fields         The field behind each segment.
+     * @param ownerClasses   The class each segment's field was resolved on.
+     * @param targetClass    The type of the final field, or its element type if a collection.
+     */
+    public FieldPath(
+        final Class<?> predicateClass,
+        final List<Field> fields,
+        final List<Class<?>> ownerClasses,
+        final Class<?> targetClass) {
+
+        this.predicateClass = predicateClass;
+        this.fields = List.copyOf(fields);
+        this.ownerClasses = List.copyOf(ownerClasses);
+        this.targetClass = targetClass;
+    }
+
+    public Class<?> getPredicateClass() {
+        return this.predicateClass;
+    }
+
+    public List<Field> getFields() {
+        return this.fields;
+    }
+
+    public List<Class<?>> getOwnerClasses() {
+        return this.ownerClasses;
+    }
+
+    public Class<?> getTargetClass() {
+        return this.targetClass;
+    }
+
+    public Field getFinalField() {
+        return this.fields.get(this.fields.size() - 1);
+    }
+
+    public Class<?> getFinalOwnerClass() {
+        return this.ownerClasses.get(this.ownerClasses.size() - 1);
+    }
+}
@@ -0,0 +1,53 @@
+package org.ubiquia.common.library.dao.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The position of a keyset ("cursor") paginated query: the sort the query was ordered by and
+ * the sort values and ID of the last record returned, so that the next page can "seek" to the
+ * records after it rather than counting past every earlier record with an offset. Clients only
+ * ever see it as an opaque, encoded token.
+ */
+public class KeysetCursor {
+
+    private List<String> sortBy = new ArrayList<>();
+
+    private Boolean descending = false;
+
+    private List<String> values = new ArrayList<>();
+
+    private String id;
+
+    public List<String> getSortBy() {
+        return sortBy;
+    }
+
+    public void setSortBy(List<String> sortBy) {
+        this.sortBy = sortBy;
+    }
+
+    public Boolean getDescending() {
+        return descending;
+    }
+
+    public void setDescending(Boolean descending) {
+        this.descending = descending;
+    }
+
+    public List<String> getValues() {
+        return values;
+    }
+
+    public void setValues(List<String> values) {
+        this.values = values;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+}
@@ -0,0 +1,197 @@
+package org.ubiquia.common.library.dao.model;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import org.ubiquia.common.model.ubiquia.dao.QueryFilterParameter;
+import org.ubiquia.common.model.ubiquia.dao.QueryOperatorType;
+
+/**
+ * The "shape" of a paginated query: the class queried, the field paths and operators of its
+ * parameters, its sort and, for projections, the fields it selects, without any of the values
+ * being compared against. Requests that
+ * differ only in their values share a shape, and so can share one compiled query that they
+ * only bind their values to.
+ *
+ * <p>Parameters are kept in a canonical order so that the order a client happened to send them
+ * in does not produce distinct shapes; values must be bound in that same order.</p>
+ */
+public final class QueryShape {
+
+    /** The canonical order of a shape's parameters. */
+    public static final Comparator<QueryFilterParameter> CANONICAL_ORDER = Comparator
+        .comparing(QueryFilterParameter::getKey)
+        .thenComparing(x -> String.valueOf(x.getOperator()))
+        .thenComparing(x -> ValueKind.of(x.getValue()));
+
+    private final Class<?> rootClass;
+
+    private final List<Parameter> parameters;
+
+    private final List<String> sortBy;
+
+    private final Boolean descending;
+
+    private final List<String> fields;
+
+    private final int hashCode;
+
+    /**
+     * What a parameter's value compares against: a bound value, or null or not-null checks,
+     * which are part of the shape because they compile to different predicates.
+     */
+    public enum ValueKind {
+        VALUE,
+        NULL,
+        NOT_NULL;
+
+        /**
+         * Get the kind of a raw parameter value.
+         *
+         * @param value The raw value.
+         * @return The kind of value.
+         */
+        public static ValueKind of(final String value) {
+            var kind = VALUE;
+            if (Objects.isNull(value) || value.equalsIgnoreCase("null")) {
+                kind = NULL;
+            } else if (value.equalsIgnoreCase("!null")) {
+                kind = NOT_NULL;
+            }
+            return kind;
+        }
+    }
+
+    /**
+     * One parameter of a query shape.
+     *
+     * @param key       The field path, without operator symbols (i.e., "pets.name".)
+     * @param operator  The operator.
+     * @param valueKind The kind of value compared against.
+     */
+    public record Parameter(String key, QueryOperatorType operator, ValueKind valueKind) {
+    }
+
+    /**
+     * Build a query shape.
+     *
+     * @param rootClass  The class queried.
+     * @param parameters The query's parameters, in canonical order.
+     * @param sortBy     The fields to sort by, if any.
+     * @param descending Whether the sort is descending.
+     */
+    public QueryShape(
+        final Class<?> rootClass,
+        final List<QueryFilterParameter> parameters,
+        final List<String> sortBy,
+        final Boolean descending) {
+
+        this(rootClass, parameters, sortBy, descending, List.of());
+    }
+
+    /**
+     * Build the shape of a projection query.
+     *
+     * @param rootClass  The class queried.
+     * @param parameters The query's parameters, in canonical order.
+     * @param sortBy     The fields to sort by, if any.
+     * @param descending Whether the sort is descending.
+     * @param fields     The field paths to select, or an empty list to select whole records.
+     */
+    public QueryShape(
+        final Class<?> rootClass,
+        final List<QueryFilterParameter> parameters,
+        final List<String> sortBy,
+        final Boolean descending,
+        final List<String> fields) {
+
+        this.rootClass = rootClass;
+        this.parameters = parameters.stream()
+            .map(x -> new Parameter(x.getKey(), x.getOperator(), ValueKind.of(x.getValue())))
+            .toList();
+        this.sortBy = Objects.isNull(sortBy) ? List.of() : List.copyOf(sortBy);
+        this.descending = Objects.nonNull(descending) && descending;
+        this.fields = Objects.isNull(fields) ? List.of() : List.copyOf(fields);
+        this.hashCode = Objects.hash(
+            this.rootClass,
+            this.parameters,
+            this.sortBy,
+            this.descending,
+            this.fields);
+    }
+
+    /**
+     * Get the values of a query's parameters in the order they bind to its shape.
+     *
+     * @param parameters The query's parameters, in canonical order.
+     * @return The values.
+     */
+    public static List<String> getValuesOf(final List<QueryFilterParameter> parameters) {
+        var values = new ArrayList<String>(parameters.size());
+        for (var parameter : parameters) {
+            values.add(parameter.getValue());
+        }
+        return values;
+    }
+
+    public Class<?> getRootClass() {
+        return this.rootClass;
+    }
+
+    public List<Parameter> getParameters() {
+        return this.parameters;
+    }
+
+    public List<String> getSortBy() {
+        return this.sortBy;
+    }
+
+    public Boolean getDescending() {
+        return this.descending;
+    }
+
+    public List<String> getFields() {
+        return this.fields;
+    }
+
+    /**
+     * Whether the shape selects fields rather than whole records.
+     *
+     * @return Whether the shape is a projection.
+     */
+    public boolean isProjection() {
+        return !this.fields.isEmpty();
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof QueryShape shape)) {
+            return false;
+        }
+        return this.hashCode == shape.hashCode
+            && this.rootClass.equals(shape.rootClass)
+            && this.parameters.equals(shape.parameters)
+            && this.sortBy.equals(shape.sortBy)
+            && this.descending.equals(shape.descending)
+            && this.fields.equals(shape.fields);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.hashCode;
+    }
+
+    @Override
+    public String toString() {
+        return this.rootClass.getSimpleName()
+            + this.parameters
+            + " sorted by "
+            + this.sortBy
+            + (this.descending ? " descending" : " ascending")
+            + (this.isProjection() ? " selecting " + this.fields : "");
+    }
+}
@@ -0,0 +1,57 @@
+package org.ubiquia.common.library.dao.model;
+
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * A keychain that filters on a tag, i.e., "ubiquiaTags[color]=red": the value of the key-value
+ * pair with a given key in a collection of key-value pairs. Unlike filtering on
+ * "ubiquiaTags.key" and "ubiquiaTags.value" separately, both conditions apply to the same
+ * pair, so the filter compiles to a single existence check against the pair's (key, value,
+ * owner) index.
+ *
+ * @param collection The name of the collection of key-value pairs (i.e., "ubiquiaTags".)
+ * @param key        The key of the pair.
+ */
+public record TagKeychain(String collection, String key) {
+
+    /** The field of a pair holding its key. */
+    public static final String KEY_FIELD = "key";
+
+    /** The field of a pair holding its value. */
+    public static final String VALUE_FIELD = "value";
+
+    private static final Pattern PATTERN = Pattern.compile("^([A-Za-z_$][\\w$]*)\\[(.+)]$");
+
+    /**
+     * Parse a keychain, free of operator symbols, as a tag keychain.
+     *
+     * @param keychain The keychain.
+     * @return The tag keychain, or empty if the keychain does not address a tag.
+     */
+    public static Optional<TagKeychain> tryParse(final String keychain) {
+        var matcher = PATTERN.matcher(keychain);
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        return Optional.of(new TagKeychain(matcher.group(1), matcher.group(2)));
+    }
+
+    /**
+     * Get the dotted keychain of the pairs' keys (i.e., "ubiquiaTags.key".)
+     *
+     * @return The keychain.
+     */
+    public String getKeyKeychain() {
+        return this.collection + "." + KEY_FIELD;
+    }
+
+    /**
+     * Get the dotted keychain of the pairs' values (i.e., "ubiquiaTags.value".)
+     *
+     * @return The keychain.
+     */
+    public String getValueKeychain() {
+        return this.collection + "." + VALUE_FIELD;
+    }
+}
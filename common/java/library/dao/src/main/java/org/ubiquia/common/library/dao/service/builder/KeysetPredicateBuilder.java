@@ -0,0 +1,281 @@
+package org.ubiquia.common.library.dao.service.builder;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import java.lang.reflect.Field;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.ubiquia.common.library.dao.model.KeysetCursor;
+import org.ubiquia.common.library.dao.service.logic.ClassMetadataIndex;
+import org.ubiquia.common.model.ubiquia.dao.QueryFilterParameter;
+import org.ubiquia.common.model.ubiquia.dao.QueryOperatorType;
+
+/**
+ * A builder service for the ordering and "seek" predicates of keyset (cursor) paginated
+ * queries. Records are ordered by the requested sort fields with the ID as a final tiebreaker,
+ * so the order is total and stable, and the seek predicate selects only the records after a
+ * cursor's position in that order.
+ *
+ * <p>Records can only be sorted by fields of the types in {@link #SORTABLE_TYPES} or of enum
+ * types; enums are compared as they are stored (i.e., by ordinal unless mapped as strings), so
+ * the seek predicate agrees with the order.</p>
+ */
+@Service
+public class KeysetPredicateBuilder {
+
+    /** The non-enum types of the fields records can be sorted by. */
+    public static final Set<Class<?>> SORTABLE_TYPES = Set.of(
+        OffsetDateTime.class,
+        String.class,
+        Integer.class,
+        Long.class,
+        Float.class,
+        Double.class,
+        Boolean.class);
+
+    @Autowired
+    private ClassMetadataIndex classMetadataIndex;
+
+    @Autowired
+    private NonNestedPredicateBuilder nonNestedPredicateBuilder;
+
+    /**
+     * Build the orders of a keyset query.
+     *
+     * @param criteriaBuilder The criteria builder.
+     * @param path            The root query.
+     * @param clazz           The class we're querying.
+     * @param sortBy          The fields to sort by.
+     * @param descending      Whether to sort descending.
+     * @return The orders, ending with the ID.
+     */
+    public List<Order> getOrders(
+        final CriteriaBuilder criteriaBuilder,
+        final Path<?> path,
+        final Class<?> clazz,
+        final List<String> sortBy,
+        final Boolean descending) {
+
+        var orders = new ArrayList<Order>();
+        for (var key : this.getKeysFor(clazz, sortBy)) {
+            orders.add(descending
+                ? criteriaBuilder.desc(path.get(key))
+                : criteriaBuilder.asc(path.get(key)));
+        }
+        return orders;
+    }
+
+    /**
+     * Build the predicate selecting the records after a cursor, i.e. for keys (a, b, id):
+     * (a &gt; ?) or (a = ? and b &gt; ?) or (a = ? and b = ? and id &gt; ?).
+     *
+     * @param criteriaBuilder The criteria builder.
+     * @param path            The root query.
+     * @param clazz           The class we're querying.
+     * @param cursor          The cursor to seek past.
+     * @return The seek predicate.
+     */
+    public Predicate getSeekPredicate(
+        final CriteriaBuilder criteriaBuilder,
+        final Path<?> path,
+        final Class<?> clazz,
+        final KeysetCursor cursor) {
+
+        var keys = this.getKeysFor(clazz, cursor.getSortBy());
+        var values = new ArrayList<>(cursor.getValues());
+        values.add(cursor.getId());
+
+        var operator = cursor.getDescending()
+            ? QueryOperatorType.LESS_THAN
+            : QueryOperatorType.GREATER_THAN;
+
+        var metadata = this.classMetadataIndex.getMetadataFor(clazz);
+        var disjunction = new ArrayList<Predicate>();
+        for (var i = 0; i < keys.size(); i++) {
+            var conjunction = new ArrayList<Predicate>();
+            for (var j = 0; j < i; j++) {
+                conjunction.add(this.getComparison(
+                    criteriaBuilder,
+                    path,
+                    metadata.getField(keys.get(j)),
+                    keys.get(j),
+                    QueryOperatorType.EQUAL,
+                    values.get(j)));
+            }
+            conjunction.add(this.getComparison(
+                criteriaBuilder,
+                path,
+                metadata.getField(keys.get(i)),
+                keys.get(i),
+                operator,
+                values.get(i)));
+            disjunction.add(criteriaBuilder.and(conjunction.toArray(new Predicate[0])));
+        }
+        return criteriaBuilder.or(disjunction.toArray(new Predicate[0]));
+    }
+
+    /**
+     * Get the fields a keyset query is sorted by ahead of its ID tiebreaker.
+     *
+     * @param clazz  The class we're querying.
+     * @param sortBy The fields the client asked to sort by.
+     * @return The sort fields, less the ID if it was among them.
+     * @throws IllegalArgumentException If a field is unknown or of a type records cannot be
+     *                                  sorted by.
+     */
+    public List<String> getSortFieldsFor(final Class<?> clazz, final List<String> sortBy) {
+        var idField = this.getIdFieldFor(clazz);
+        var metadata = this.classMetadataIndex.getMetadataFor(clazz);
+        var sortFields = new ArrayList<String>();
+        if (Objects.nonNull(sortBy)) {
+            for (var sortByField : sortBy) {
+                if (!sortByField.equals(idField.getName())) {
+                    this.validateSortField(metadata.getField(sortByField), sortByField);
+                    sortFields.add(sortByField);
+                }
+            }
+        }
+        return sortFields;
+    }
+
+    private List<String> getKeysFor(final Class<?> clazz, final List<String> sortBy) {
+        var keys = this.getSortFieldsFor(clazz, sortBy);
+        keys.add(this.getIdFieldFor(clazz).getName());
+        return keys;
+    }
+
+    private Field getIdFieldFor(final Class<?> clazz) {
+        var idField = this.classMetadataIndex.getMetadataFor(clazz).getIdField();
+        if (Objects.isNull(idField)) {
+            throw new IllegalArgumentException("ERROR: Cannot page "
+                + clazz.getSimpleName()
+                + " by cursor; it has no ID field to order by.");
+        }
+        return idField;
+    }
+
+    private void validateSortField(final Field field, final String key) {
+        if (Objects.isNull(field)) {
+            throw new IllegalArgumentException("ERROR: Cannot sort by unknown field " + key);
+        }
+        if (!field.getType().isEnum() && !SORTABLE_TYPES.contains(field.getType())) {
+            throw new IllegalArgumentException("ERROR: Unsupported type for cursor sort field "
+                + key
+                + ": "
+                + field.getType().getSimpleName());
+        }
+    }
+
+    private Predicate getComparison(
+        final CriteriaBuilder criteriaBuilder,
+        final Path<?> path,
+        final Field field,
+        final String key,
+        final QueryOperatorType operator,
+        final String value) {
+
+        this.validateSortField(field, key);
+
+        var parameter = new QueryFilterParameter();
+        parameter.setKey(key);
+        parameter.setOperator(operator);
+        parameter.setValue(value);
+
+        Predicate predicate = null;
+        var type = field.getType();
+        if (type.equals(OffsetDateTime.class)) {
+            predicate = this.nonNestedPredicateBuilder.getPredicateHelperDate(
+                criteriaBuilder,
+                path,
+                parameter);
+        } else if (type.equals(String.class)) {
+            predicate = this.nonNestedPredicateBuilder.getPredicateHelperString(
+                criteriaBuilder,
+                path,
+                parameter);
+        } else if (type.equals(Integer.class)) {
+            predicate = this.nonNestedPredicateBuilder.getPredicateHelperInteger(
+                criteriaBuilder,
+                path,
+                parameter);
+        } else if (type.equals(Float.class)) {
+            predicate = this.nonNestedPredicateBuilder.getPredicateHelperFloat(
+                criteriaBuilder,
+                path,
+                parameter);
+        } else if (type.equals(Double.class)) {
+            predicate = this.nonNestedPredicateBuilder.getPredicateHelperDouble(
+                criteriaBuilder,
+                path,
+                parameter);
+        } else if (type.equals(Long.class)) {
+            predicate = this.getComparableComparison(
+                criteriaBuilder,
+                path.get(key),
+                operator,
+                Long.valueOf(value));
+        } else if (type.equals(Boolean.class)) {
+            predicate = this.getComparableComparison(
+                criteriaBuilder,
+                path.get(key),
+                operator,
+                Boolean.valueOf(value));
+        } else {
+            predicate = this.getComparableComparison(
+                criteriaBuilder,
+                path.get(key),
+                operator,
+                this.getEnumValue(type, value));
+        }
+        return predicate;
+    }
+
+    /**
+     * Compare a field with a value of its own type; the non-nested predicate builder has no
+     * range operators for longs, booleans, or enums.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private Predicate getComparableComparison(
+        final CriteriaBuilder criteriaBuilder,
+        final Expression expression,
+        final QueryOperatorType operator,
+        final Comparable value) {
+
+        Predicate predicate = null;
+        switch (operator) {
+
+            case EQUAL: {
+                predicate = criteriaBuilder.equal(expression, value);
+            }
+            break;
+
+            case GREATER_THAN: {
+                predicate = criteriaBuilder.greaterThan(expression, value);
+            }
+            break;
+
+            case LESS_THAN: {
+                predicate = criteriaBuilder.lessThan(expression, value);
+            }
+            break;
+
+            default:
+                throw new IllegalArgumentException("ERROR: Unsupported operator type: "
+                    + operator);
+        }
+        return predicate;
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private Comparable getEnumValue(final Class<?> type, final String value) {
+        return Enum.valueOf((Class) type, value);
+    }
+}
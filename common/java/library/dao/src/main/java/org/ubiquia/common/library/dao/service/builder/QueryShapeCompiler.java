@@ -0,0 +1,564 @@
+package org.ubiquia.common.library.dao.service.builder;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.AbstractQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.ParameterExpression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import java.lang.reflect.Field;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import org.hibernate.query.sqm.tree.SqmStatement;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.ubiquia.common.library.dao.model.CompiledQuery;
+import org.ubiquia.common.library.dao.model.QueryShape;
+import org.ubiquia.common.library.dao.model.TagKeychain;
+import org.ubiquia.common.library.dao.service.logic.ClassDeriver;
+import org.ubiquia.common.library.dao.service.logic.ClassMetadataIndex;
+import org.ubiquia.common.model.ubiquia.dao.QueryOperatorType;
+
+/**
+ * A builder service that compiles a {@link QueryShape} into HQL whose compared values are
+ * named parameters. The predicates are built as criteria the same way the DAOs build them per
+ * request - direct fields against the root, dotted keychains through correlated subqueries or
+ * embeddable paths - except that each value is a parameter bound per execution. The criteria
+ * trees are then rendered to HQL and dropped, so nothing mutable outlives the compilation.
+ *
+ * <p>Projection shapes select their fields as tuples instead of whole records, so nothing is
+ * hydrated into entities: relationships are left-joined only for the fields asked for through
+ * them (i.e., "owner.name"), and collections (i.e., "pets.name" or "ubiquiaTags") are loaded
+ * only when named, by one query per collection for the whole page.</p>
+ */
+@Service
+public class QueryShapeCompiler {
+
+    private static final String COUNT_ALIAS = "countRoot";
+
+    @Autowired
+    private ClassDeriver classDeriver;
+
+    @Autowired
+    private ClassMetadataIndex classMetadataIndex;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    /**
+     * Compile a query shape.
+     *
+     * @param shape The shape.
+     * @return The compiled select and count queries.
+     * @throws NoSuchFieldException Exceptions from clients passing invalid fields.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public CompiledQuery compile(final QueryShape shape) throws NoSuchFieldException {
+
+        var keychains = shape.getParameters().stream().map(QueryShape.Parameter::key).toList();
+        var predicateClass = this.classDeriver.tryGetPredicateClass(
+            shape.getRootClass(),
+            keychains);
+
+        var criteriaBuilder = this.entityManager.getCriteriaBuilder();
+        var converters = new ArrayList<Function<String, Object>>();
+
+        CriteriaQuery<?> selectQuery = null;
+        Root<?> root = null;
+        var selectedFields = new ArrayList<String>();
+        var collectionQueries = new ArrayList<CompiledQuery.CollectionQuery>();
+        if (shape.isProjection()) {
+            var tupleQuery = criteriaBuilder.createTupleQuery();
+            root = tupleQuery.from(predicateClass);
+            tupleQuery.multiselect(this.getSelections(
+                criteriaBuilder,
+                root,
+                predicateClass,
+                shape,
+                selectedFields,
+                collectionQueries));
+            selectQuery = tupleQuery;
+        } else {
+            var entityQuery = criteriaBuilder.createQuery(predicateClass);
+            root = entityQuery.from(predicateClass);
+            // HQL is rendered from the selection, so even an entity query selects explicitly.
+            entityQuery.select((Root) root);
+            selectQuery = entityQuery;
+        }
+
+        var selectParameters = new ArrayList<ParameterExpression<?>>();
+        var constants = new LinkedHashMap<String, Object>();
+        selectQuery.where(this.getPredicates(
+            criteriaBuilder,
+            selectQuery,
+            root,
+            predicateClass,
+            shape,
+            selectParameters,
+            converters,
+            constants));
+        selectQuery.orderBy(this.getOrders(criteriaBuilder, root, shape));
+
+        var countQuery = criteriaBuilder.createQuery(Long.class);
+        var countRoot = countQuery.from(predicateClass);
+        countRoot.alias(COUNT_ALIAS);
+        countQuery
+            .select(criteriaBuilder.count(countRoot))
+            .where(this.getPredicates(
+                criteriaBuilder,
+                countQuery,
+                countRoot,
+                predicateClass,
+                shape,
+                new ArrayList<>(),
+                new ArrayList<>(),
+                new LinkedHashMap<>()));
+
+        // Both queries name their parameters by shape position, so one set of names binds both.
+        var parameterNames = selectParameters
+            .stream()
+            .map(x -> Objects.isNull(x) ? null : x.getName())
+            .toList();
+        return new CompiledQuery(
+            predicateClass,
+            shape.isProjection() ? Tuple.class : predicateClass,
+            this.toHql(selectQuery),
+            this.toCountHql(countQuery),
+            parameterNames,
+            converters,
+            constants,
+            selectedFields,
+            collectionQueries);
+    }
+
+    private List<Selection<?>> getSelections(
+        final CriteriaBuilder criteriaBuilder,
+        final Root<?> root,
+        final Class<?> predicateClass,
+        final QueryShape shape,
+        final List<String> selectedFields,
+        final List<CompiledQuery.CollectionQuery> collectionQueries)
+        throws NoSuchFieldException {
+
+        var idField = this.classMetadataIndex.getMetadataFor(predicateClass).getIdField();
+        if (Objects.isNull(idField)) {
+            throw new IllegalArgumentException("ERROR: Cannot project "
+                + predicateClass.getSimpleName()
+                + "; it has no ID field.");
+        }
+
+        // Every row carries its ID, which is also what projected collections are loaded by.
+        var selections = new ArrayList<Selection<?>>();
+        selections.add(root.get(idField.getName()));
+        selectedFields.add(idField.getName());
+
+        var joins = new HashMap<String, From<?, ?>>();
+        var collectionFields = new LinkedHashMap<Field, List<String>>();
+        for (var field : shape.getFields()) {
+            var fieldPath = this.classMetadataIndex.resolvePath(predicateClass, field);
+            if (!fieldPath.getPredicateClass().equals(predicateClass)) {
+                throw new IllegalArgumentException("ERROR: Cannot project field "
+                    + field
+                    + "; it is only declared on "
+                    + fieldPath.getPredicateClass().getSimpleName());
+            }
+
+            var fields = fieldPath.getFields();
+            if (this.isCollection(fields.get(0))) {
+                collectionFields
+                    .computeIfAbsent(fields.get(0), x -> new ArrayList<>())
+                    .add(this.getNameOf(fields.subList(1, fields.size())));
+            } else if (!selectedFields.contains(this.getNameOf(fields))) {
+                selections.add(this.getProjectedPath(root, fields, field, joins));
+                selectedFields.add(this.getNameOf(fields));
+            }
+        }
+
+        for (var entry : collectionFields.entrySet()) {
+            collectionQueries.add(this.compileCollectionQuery(
+                criteriaBuilder,
+                predicateClass,
+                idField,
+                entry.getKey(),
+                entry.getValue()));
+        }
+        return selections;
+    }
+
+    private Path<?> getProjectedPath(
+        final Root<?> root,
+        final List<Field> fields,
+        final String field,
+        final Map<String, From<?, ?>> joins) {
+
+        From<?, ?> from = root;
+        Path<?> path = root;
+        var prefix = new StringBuilder();
+        for (var i = 0; i < fields.size(); i++) {
+            var segment = fields.get(i);
+            this.validateProjectedSegment(segment, i == fields.size() - 1, field);
+            prefix.append(i == 0 ? "" : ".").append(segment.getName());
+
+            // Relationships are left-joined, so records without one still come back.
+            if (i < fields.size() - 1 && this.classMetadataIndex.isEntityClass(segment.getType())
+                && path == from) {
+                var join = joins.get(prefix.toString());
+                if (Objects.isNull(join)) {
+                    join = from.join(segment.getName(), JoinType.LEFT);
+                    joins.put(prefix.toString(), join);
+                }
+                from = join;
+                path = join;
+            } else {
+                path = path.get(segment.getName());
+            }
+        }
+        return path;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private CompiledQuery.CollectionQuery compileCollectionQuery(
+        final CriteriaBuilder criteriaBuilder,
+        final Class<?> predicateClass,
+        final Field idField,
+        final Field collectionField,
+        final List<String> elementFields) throws NoSuchFieldException {
+
+        var query = criteriaBuilder.createTupleQuery();
+        var root = query.from(predicateClass);
+        var join = root.join(collectionField.getName());
+
+        var selections = new ArrayList<Selection<?>>();
+        selections.add(root.get(idField.getName()));
+
+        // Naming the collection itself selects whole elements, so it wins over any subfields.
+        var selectedElementFields = new ArrayList<String>();
+        if (elementFields.contains("")) {
+            if (this.classMetadataIndex.isEntityClass(
+                this.classMetadataIndex.resolvePath(predicateClass, collectionField.getName())
+                    .getTargetClass())) {
+                throw new IllegalArgumentException("ERROR: Cannot project relationship "
+                    + collectionField.getName()
+                    + " as a whole; project its fields instead (i.e., "
+                    + collectionField.getName()
+                    + ".name.)");
+            }
+            selections.add(join);
+        } else {
+            for (var elementField : elementFields) {
+                var fields = this.classMetadataIndex
+                    .resolvePath(predicateClass, collectionField.getName() + "." + elementField)
+                    .getFields();
+                Path<?> path = join;
+                for (var i = 1; i < fields.size(); i++) {
+                    this.validateProjectedSegment(
+                        fields.get(i),
+                        i == fields.size() - 1,
+                        collectionField.getName() + "." + elementField);
+                    path = path.get(fields.get(i).getName());
+                }
+                var name = this.getNameOf(fields.subList(1, fields.size()));
+                if (!selectedElementFields.contains(name)) {
+                    selections.add(path);
+                    selectedElementFields.add(name);
+                }
+            }
+        }
+
+        ParameterExpression<Collection> ids = criteriaBuilder.parameter(
+            Collection.class,
+            CompiledQuery.IDS_PARAMETER);
+        query.multiselect(selections).where(root.get(idField.getName()).in((Expression) ids));
+        return new CompiledQuery.CollectionQuery(
+            collectionField.getName(),
+            selectedElementFields,
+            this.toHql(query));
+    }
+
+    private void validateProjectedSegment(
+        final Field segment,
+        final boolean last,
+        final String field) {
+
+        if (this.isCollection(segment)) {
+            throw new IllegalArgumentException("ERROR: Cannot project field "
+                + field
+                + "; only collections of the queried class itself can be projected.");
+        }
+        if (last && this.classMetadataIndex.isEntityClass(segment.getType())) {
+            throw new IllegalArgumentException("ERROR: Cannot project relationship "
+                + field
+                + " as a whole; project its fields instead (i.e., "
+                + field
+                + ".name.)");
+        }
+    }
+
+    private boolean isCollection(final Field field) {
+        return Collection.class.isAssignableFrom(field.getType());
+    }
+
+    private String getNameOf(final List<Field> fields) {
+        return String.join(".", fields.stream().map(Field::getName).toList());
+    }
+
+    private Predicate[] getPredicates(
+        final CriteriaBuilder criteriaBuilder,
+        final AbstractQuery<?> query,
+        final Root<?> root,
+        final Class<?> predicateClass,
+        final QueryShape shape,
+        final List<ParameterExpression<?>> parameters,
+        final List<Function<String, Object>> converters,
+        final Map<String, Object> constants) throws NoSuchFieldException {
+
+        var predicates = new ArrayList<Predicate>();
+        for (var parameter : shape.getParameters()) {
+            var tag = TagKeychain.tryParse(parameter.key());
+            if (tag.isPresent()) {
+                predicates.add(this.getTagPredicate(
+                    criteriaBuilder,
+                    query,
+                    root,
+                    predicateClass,
+                    tag.get(),
+                    parameter,
+                    parameters,
+                    converters,
+                    constants));
+            } else if (parameter.key().contains(".")) {
+                predicates.add(this.getNestedPredicate(
+                    criteriaBuilder,
+                    query,
+                    root,
+                    predicateClass,
+                    parameter,
+                    parameters,
+                    converters));
+            } else {
+                var field = this.classMetadataIndex
+                    .getMetadataFor(predicateClass)
+                    .getField(parameter.key());
+                if (Objects.isNull(field)) {
+                    throw new NoSuchFieldException("ERROR: Could not match filter param "
+                        + parameter.key()
+                        + " to any field in "
+                        + predicateClass);
+                }
+                predicates.add(this.getCondition(
+                    criteriaBuilder,
+                    root.get(parameter.key()),
+                    field,
+                    parameter,
+                    parameters,
+                    converters));
+            }
+        }
+        return predicates.toArray(new Predicate[0]);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Predicate getNestedPredicate(
+        final CriteriaBuilder criteriaBuilder,
+        final AbstractQuery<?> query,
+        final Root<?> root,
+        final Class<?> predicateClass,
+        final QueryShape.Parameter parameter,
+        final List<ParameterExpression<?>> parameters,
+        final List<Function<String, Object>> converters) throws NoSuchFieldException {
+
+        var split = parameter.key().split("\\.");
+        var fieldPath = this.classMetadataIndex.resolvePath(predicateClass, parameter.key());
+        var currentClass = fieldPath.getTargetClass();
+        var finalField = fieldPath.getFinalField();
+
+        // Fields of embeddables are columns of the root's own table, so no subquery is needed.
+        if (this.classMetadataIndex.isEmbeddableClass(fieldPath.getFinalOwnerClass())) {
+            Path<?> path = root;
+            for (var segment : split) {
+                path = path.get(segment);
+            }
+            return this.getCondition(
+                criteriaBuilder,
+                path,
+                finalField,
+                parameter,
+                parameters,
+                converters);
+        }
+
+        var subQuery = query.subquery(currentClass);
+        Root<?> subRoot = null;
+        if (this.classMetadataIndex.isEntityClass(currentClass)) {
+            subRoot = subQuery.from(currentClass);
+        } else {
+            subRoot = subQuery.correlate(root);
+        }
+
+        var join = subRoot.join(split[0]);
+        for (var i = 1; i < split.length - 1; i++) {
+            join = join.join(split[i]);
+        }
+
+        subQuery.select((Expression) criteriaBuilder.literal(1)).where(this.getCondition(
+            criteriaBuilder,
+            join.get(split[split.length - 1]),
+            finalField,
+            parameter,
+            parameters,
+            converters));
+        return criteriaBuilder.exists(subQuery);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Predicate getTagPredicate(
+        final CriteriaBuilder criteriaBuilder,
+        final AbstractQuery<?> query,
+        final Root<?> root,
+        final Class<?> predicateClass,
+        final TagKeychain tag,
+        final QueryShape.Parameter parameter,
+        final List<ParameterExpression<?>> parameters,
+        final List<Function<String, Object>> converters,
+        final Map<String, Object> constants) throws NoSuchFieldException {
+
+        this.classMetadataIndex.resolvePath(predicateClass, tag.getKeyKeychain());
+        var valueField = this.classMetadataIndex
+            .resolvePath(predicateClass, tag.getValueKeychain())
+            .getFinalField();
+
+        // The tag key is part of the shape, but is still bound rather than written into the HQL.
+        var key = criteriaBuilder.parameter(String.class, "k" + constants.size());
+        constants.put(key.getName(), tag.key());
+
+        // The key and value are matched on the same pair, in one lookup of the tag index.
+        var subQuery = query.subquery(predicateClass);
+        var subRoot = subQuery.correlate(root);
+        var join = subRoot.join(tag.collection());
+        subQuery.select((Expression) criteriaBuilder.literal(1)).where(
+            criteriaBuilder.equal(join.get(TagKeychain.KEY_FIELD), key),
+            this.getCondition(
+                criteriaBuilder,
+                join.get(TagKeychain.VALUE_FIELD),
+                valueField,
+                parameter,
+                parameters,
+                converters));
+        return criteriaBuilder.exists(subQuery);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Predicate getCondition(
+        final CriteriaBuilder criteriaBuilder,
+        final Path<?> path,
+        final Field field,
+        final QueryShape.Parameter parameter,
+        final List<ParameterExpression<?>> parameters,
+        final List<Function<String, Object>> converters) {
+
+        if (QueryShape.ValueKind.NULL.equals(parameter.valueKind())) {
+            parameters.add(null);
+            converters.add(null);
+            return criteriaBuilder.isNull(path);
+        } else if (QueryShape.ValueKind.NOT_NULL.equals(parameter.valueKind())) {
+            parameters.add(null);
+            converters.add(null);
+            return criteriaBuilder.isNotNull(path);
+        }
+
+        var type = field.getType();
+        var operator = parameter.operator();
+        var comparable = !type.isEnum() && !type.equals(Boolean.class);
+        if ((!comparable && !QueryOperatorType.EQUAL.equals(operator))
+            || (QueryOperatorType.LIKE.equals(operator) && !type.equals(String.class))) {
+            throw new IllegalArgumentException("ERROR: Unsupported operator type for "
+                + type.getSimpleName()
+                + ": "
+                + operator);
+        }
+
+        var value = criteriaBuilder.parameter(type, "p" + parameters.size());
+        parameters.add(value);
+        converters.add(this.getConverterFor(type, parameter.key()));
+
+        Expression expression = path;
+        return switch (operator) {
+            case EQUAL -> criteriaBuilder.equal(expression, value);
+            case LESS_THAN -> criteriaBuilder.lessThan(expression, (Expression) value);
+            case LESS_THAN_OR_EQUAL_TO ->
+                criteriaBuilder.lessThanOrEqualTo(expression, (Expression) value);
+            case GREATER_THAN -> criteriaBuilder.greaterThan(expression, (Expression) value);
+            case GREATER_THAN_OR_EQUAL_TO ->
+                criteriaBuilder.greaterThanOrEqualTo(expression, (Expression) value);
+            case LIKE -> criteriaBuilder.like(expression, (Expression) value);
+        };
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Function<String, Object> getConverterFor(final Class<?> type, final String key) {
+        Function<String, Object> converter = null;
+        if (type.equals(OffsetDateTime.class)) {
+            converter = OffsetDateTime::parse;
+        } else if (type.equals(String.class)) {
+            converter = x -> x;
+        } else if (type.equals(Boolean.class)) {
+            converter = Boolean::valueOf;
+        } else if (type.equals(Integer.class)) {
+            converter = Integer::valueOf;
+        } else if (type.equals(Float.class)) {
+            converter = Float::valueOf;
+        } else if (type.equals(Double.class)) {
+            converter = Double::valueOf;
+        } else if (type.isEnum()) {
+            // Java Enums are capitalized
+            converter = x -> Enum.valueOf((Class) type, x.toUpperCase(Locale.ROOT));
+        } else {
+            throw new IllegalArgumentException("ERROR: Unsupported type for filter param "
+                + key
+                + ": "
+                + type.getSimpleName());
+        }
+        return converter;
+    }
+
+    private String toHql(final CriteriaQuery<?> query) {
+        return ((SqmStatement<?>) query).toHqlString();
+    }
+
+    private String toCountHql(final CriteriaQuery<Long> query) {
+        // Hibernate renders count(x) back to HQL as "count()", so restore its argument.
+        return this.toHql(query).replaceFirst(
+            "^select count\\(\\)",
+            "select count(" + COUNT_ALIAS + ")");
+    }
+
+    private List<Order> getOrders(
+        final CriteriaBuilder criteriaBuilder,
+        final Root<?> root,
+        final QueryShape shape) {
+
+        var orders = new ArrayList<Order>();
+        for (var sortByField : shape.getSortBy()) {
+            orders.add(shape.getDescending()
+                ? criteriaBuilder.desc(root.get(sortByField))
+                : criteriaBuilder.asc(root.get(sortByField)));
+        }
+        return orders;
+    }
+}
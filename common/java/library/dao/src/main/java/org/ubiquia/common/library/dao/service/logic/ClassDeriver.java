@@ -1,15 +1,9 @@
 package org.ubiquia.common.library.dao.service.logic;
 
-import static org.reflections.scanners.Scanners.SubTypes;
-
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
-import org.apache.commons.lang3.reflect.FieldUtils;
-import org.reflections.Reflections;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.ubiquia.common.library.dao.model.TagKeychain;
 import org.ubiquia.common.model.ubiquia.dao.QueryFilter;
 
 /**
@@ -18,15 +12,8 @@ import org.ubiquia.common.model.ubiquia.dao.QueryFilter;
 @Service
 public class ClassDeriver {
 
-    private static final Logger logger = LoggerFactory.getLogger(ClassDeriver.class);
-    private final Reflections reflections;
-
-    /**
-     * Initialize the ClassDeriver with a Reflections scanner scoped to the ubiquia package.
-     */
-    public ClassDeriver() {
-        this.reflections = new Reflections("org.ubiquia");
-    }
+    @Autowired
+    private ClassMetadataIndex classMetadataIndex;
 
     /**
      * Attempt to build our predicate class from a base class.
@@ -39,62 +26,12 @@ public class ClassDeriver {
     public Class<?> tryGetPredicateClass(Class<?> clazz, QueryFilter queryFilter)
         throws NoSuchFieldException {
 
-        Class predicateClass = clazz;
-
-        var candidateClasses = new ArrayList<Class>();
-        var fields = FieldUtils.getAllFieldsList(clazz);
-
-        for (var param : queryFilter.getParameters()) {
-            var split = Arrays.asList(param.getKey().split("\\."));
-            var fieldName = split.get(0);
-
-            var match = fields.stream().filter(x ->
-                x.getName().equalsIgnoreCase(fieldName)).findFirst();
-            if (match.isEmpty()) {
-                logger.debug("Could not match field name {} of class {} to any field;"
-                        + " checking subclasses...",
-                    fieldName,
-                    clazz.getSimpleName());
-
-                var subclasses = this.reflections.get(SubTypes.of(clazz).asClass());
-                for (var sub : subclasses) {
-                    fields = FieldUtils.getAllFieldsList(sub);
-                    var subField = fields.stream()
-                        .filter(x -> x.getName().equalsIgnoreCase(fieldName))
-                        .findFirst();
-                    if (subField.isPresent()) {
-                        candidateClasses.add(sub);
-                    }
-                }
-
-                if (candidateClasses.size() > 1) {
-                    throw new IllegalArgumentException("ERROR: Found multiple subclasses of "
-                        + " parent class "
-                        + clazz.getSimpleName()
-                        + " with field named "
-                        + fieldName
-                        + "; no way of knowing which class was intended."
-                        + " Candidate classes: "
-                        + candidateClasses
-                    );
-                } else if (candidateClasses.size() == 1) {
-                    logger.debug("Found field name {} in subclass {} of parent class {}; "
-                            + "assuming this class as predicate...",
-                        fieldName,
-                        clazz,
-                        candidateClasses.get(0).getSimpleName());
-                    predicateClass = candidateClasses.get(0);
-                } else {
-                    throw new NoSuchFieldException("ERROR: Could not match key word "
-                        + param.getKey()
-                        + " to any field in "
-                        + clazz.getSimpleName()
-                        + " or sub classes.");
-                }
-            }
-        }
-
-        return predicateClass;
+        var keychains = queryFilter
+            .getParameters()
+            .stream()
+            .map(x -> x.getKey())
+            .toList();
+        return this.tryGetPredicateClass(clazz, keychains);
     }
 
     /**
@@ -107,62 +44,24 @@ public class ClassDeriver {
      */
     public Class<?> tryGetPredicateClass(Class<?> clazz, List<String> keychains)
         throws NoSuchFieldException {
-        Class predicateClass = clazz;
-
-        var candidateClasses = new ArrayList<Class>();
-
-        var fields = FieldUtils.getAllFieldsList(clazz);
 
-        for (var param : keychains) {
-            var split = Arrays.asList(param.split("\\."));
-            var fieldName = this.getStringWithoutOperatorSymbols(split.get(0));
-
-            var match = fields.stream().filter(x ->
-                x.getName().equalsIgnoreCase(fieldName)).findFirst();
-            if (match.isEmpty()) {
-                logger.debug("Could not match field name {} of class {} to any field;"
-                        + " checking subclasses...",
-                    fieldName,
-                    clazz.getSimpleName());
-
-                var subclasses = this.reflections.get(SubTypes.of(clazz).asClass());
-                for (var sub : subclasses) {
-                    fields = FieldUtils.getAllFieldsList(sub);
-                    var subField = fields.stream().filter(x ->
-                            x.getName().equalsIgnoreCase(fieldName))
-                        .findFirst();
-                    if (subField.isPresent()) {
-                        candidateClasses.add(sub);
-                    }
-                }
-
-                if (candidateClasses.size() > 1) {
-                    throw new IllegalArgumentException("ERROR: Found multiple subclasses of "
-                        + " parent class "
-                        + clazz.getSimpleName()
-                        + " with field named "
-                        + fieldName
-                        + "; no way of knowing which class was intended."
-                        + " Candidate classes: "
-                        + candidateClasses
-                    );
-                } else if (candidateClasses.size() == 1) {
-                    logger.debug("Found field name {} in subclass {} of parent class {};"
-                            + " assuming this class as predicate...",
-                        fieldName,
-                        clazz,
-                        candidateClasses.get(0).getSimpleName());
-                    predicateClass = candidateClasses.get(0);
-                } else {
-                    throw new NoSuchFieldException("ERROR: Could not match key word "
-                        + param
-                        + " to any field in "
-                        + clazz.getSimpleName()
-                        + " or sub classes.");
-                }
+        Class<?> predicateClass = clazz;
+        for (var keychain : keychains) {
+            var derived = this.tryGetPredicateClass(clazz, keychain);
+            if (derived.equals(clazz)) {
+                continue;
+            }
+            if (!predicateClass.equals(clazz) && !predicateClass.equals(derived)) {
+                throw new IllegalArgumentException("ERROR: Keychains of parent class "
+                    + clazz.getSimpleName()
+                    + " match fields in different subclasses "
+                    + predicateClass.getSimpleName()
+                    + " and "
+                    + derived.getSimpleName()
+                    + "; no way of knowing which class was intended.");
             }
+            predicateClass = derived;
         }
-
         return predicateClass;
     }
 
@@ -176,61 +75,18 @@ public class ClassDeriver {
      */
     public Class<?> tryGetPredicateClass(Class<?> clazz, String keychain)
         throws NoSuchFieldException {
-        Class predicateClass = clazz;
-
-        var candidateClasses = new ArrayList<Class>();
-
-        var fields = FieldUtils.getAllFieldsList(clazz);
 
-        var split = Arrays.asList(keychain.split("\\."));
-        var fieldName = this.getStringWithoutOperatorSymbols(split.get(0));
-
-        var match = fields.stream().filter(x ->
-            x.getName().equalsIgnoreCase(fieldName)).findFirst();
-        if (match.isEmpty()) {
-            logger.debug("Could not match field name {} of class {} to any field;"
-                    + " checking subclasses...",
-                fieldName,
-                clazz.getSimpleName());
-
-            var subclasses = this.reflections.get(SubTypes.of(clazz).asClass());
-            for (var sub : subclasses) {
-                fields = FieldUtils.getAllFieldsList(sub);
-                var subField = fields.stream().filter(x ->
-                        x.getName().equalsIgnoreCase(fieldName))
-                    .findFirst();
-                if (subField.isPresent()) {
-                    candidateClasses.add(sub);
-                }
-            }
-
-            if (candidateClasses.size() > 1) {
-                throw new IllegalArgumentException("ERROR: Found multiple subclasses of "
-                    + " parent class "
-                    + clazz.getSimpleName()
-                    + " with field named "
-                    + fieldName
-                    + "; no way of knowing which class was intended."
-                    + " Candidate classes: "
-                    + candidateClasses
-                );
-            } else if (candidateClasses.size() == 1) {
-                logger.debug("Found field name {} in subclass {} of parent class {};"
-                        + " assuming this class as predicate...",
-                    fieldName,
-                    clazz,
-                    candidateClasses.get(0).getSimpleName());
-                predicateClass = candidateClasses.get(0);
-            } else {
-                throw new NoSuchFieldException("ERROR: Could not match key word "
-                    + keychain
-                    + " to any field in "
-                    + clazz.getSimpleName()
-                    + " or sub classes.");
-            }
+        // Tag keys may contain periods, so tag keychains are resolved by their collection.
+        var tag = TagKeychain.tryParse(this.getStringWithoutOperatorSymbols(keychain));
+        if (tag.isPresent()) {
+            return this.classMetadataIndex.resolvePredicateClass(
+                clazz,
+                tag.get().collection(),
+                keychain);
         }
 
-        return predicateClass;
+        var fieldName = this.getStringWithoutOperatorSymbols(keychain.split("\\.")[0]);
+        return this.classMetadataIndex.resolvePredicateClass(clazz, fieldName, keychain);
     }
 
     /**
@@ -0,0 +1,313 @@
+package org.ubiquia.common.library.dao.service.logic;
+
+import static org.reflections.scanners.Scanners.SubTypes;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Id;
+import jakarta.persistence.metamodel.ManagedType;
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.reflections.Reflections;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.ubiquia.common.library.dao.model.ClassMetadata;
+import org.ubiquia.common.library.dao.model.FieldPath;
+
+/**
+ * An index of the reflection metadata that query predicates are built from: every JPA entity
+ * and embeddable's fields, subclasses and which subclasses declare which fields. It is built
+ * once at startup from the JPA metamodel and a single classpath scan so that resolving a query
+ * parameter never has to walk class hierarchies or scan the classpath.
+ *
+ * <p>Dotted keychains (i.e., "owner.pets.name") are resolved segment by segment against the
+ * index the first time they are seen and memoized per root class, so every later request with
+ * the same keychain resolves with a single map lookup.</p>
+ */
+@Service
+public class ClassMetadataIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClassMetadataIndex.class);
+
+    @Value("${ubiquia.dao.metadata.scan-package:org.ubiquia}")
+    private String scanPackage;
+
+    @Value("${ubiquia.dao.metadata.max-cached-paths:10000}")
+    private Integer maxCachedPaths;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Reflections reflections;
+
+    private Set<Class<?>> entityClasses = Set.of();
+
+    private Set<Class<?>> embeddableClasses = Set.of();
+
+    private Map<Class<?>, ClassMetadata> indexedMetadata = Map.of();
+
+    private final Map<Class<?>, ClassMetadata> unindexedMetadata = new ConcurrentHashMap<>();
+
+    private final Map<Class<?>, Map<String, FieldPath>> resolvedPaths = new ConcurrentHashMap<>();
+
+    /** Build the index from the JPA metamodel. */
+    @PostConstruct
+    public void init() {
+        var metamodel = this.entityManager.getMetamodel();
+        this.build(
+            metamodel.getEntities().stream().map(ManagedType::getJavaType).toList(),
+            metamodel.getEmbeddables().stream().map(ManagedType::getJavaType).toList(),
+            new Reflections(this.scanPackage));
+    }
+
+    /**
+     * Build the index for a set of entity and embeddable classes.
+     *
+     * @param entities    The entity classes.
+     * @param embeddables The embeddable classes.
+     * @param reflections A classpath scan used to find subclasses.
+     */
+    public void build(
+        final Collection<? extends Class<?>> entities,
+        final Collection<? extends Class<?>> embeddables,
+        final Reflections reflections) {
+
+        logger.info("Building class metadata index for {} entities and {} embeddables...",
+            entities.size(),
+            embeddables.size());
+        final var start = System.currentTimeMillis();
+
+        this.reflections = reflections;
+        this.entityClasses = Set.copyOf(entities);
+        this.embeddableClasses = Set.copyOf(embeddables);
+
+        var indexed = new HashMap<Class<?>, ClassMetadata>();
+        for (var clazz : this.entityClasses) {
+            indexed.put(clazz, this.buildMetadataFor(clazz));
+        }
+        for (var clazz : this.embeddableClasses) {
+            indexed.put(clazz, this.buildMetadataFor(clazz));
+        }
+        this.indexedMetadata = Map.copyOf(indexed);
+        this.unindexedMetadata.clear();
+        this.resolvedPaths.clear();
+
+        logger.info("...built class metadata index for {} classes in {} ms.",
+            this.indexedMetadata.size(),
+            System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Determine whether a class is a JPA entity.
+     *
+     * @param clazz The class.
+     * @return True if the class is an entity.
+     */
+    public boolean isEntityClass(final Class<?> clazz) {
+        return this.entityClasses.contains(clazz);
+    }
+
+    /**
+     * Determine whether a class is a JPA embeddable.
+     *
+     * @param clazz The class.
+     * @return True if the class is an embeddable.
+     */
+    public boolean isEmbeddableClass(final Class<?> clazz) {
+        return this.embeddableClasses.contains(clazz);
+    }
+
+    /**
+     * Get the metadata for a class; classes that are neither entities nor embeddables (i.e.,
+     * the type a keychain points past) are built on first use and then cached.
+     *
+     * @param clazz The class.
+     * @return The class's metadata.
+     */
+    public ClassMetadata getMetadataFor(final Class<?> clazz) {
+        var metadata = this.indexedMetadata.get(clazz);
+        if (Objects.isNull(metadata)) {
+            metadata = this.unindexedMetadata.computeIfAbsent(clazz, this::buildMetadataFor);
+        }
+        return metadata;
+    }
+
+    /**
+     * Resolve the class predicates for a field should be built against: the class itself if it
+     * has the field, otherwise the one subclass that does.
+     *
+     * @param clazz     The base class.
+     * @param fieldName The name of the field, without operator symbols.
+     * @param keychain  The keychain the field came from, for error messages.
+     * @return Either the base class or a subclass.
+     * @throws NoSuchFieldException If neither the class nor any subclass has the field.
+     */
+    public Class<?> resolvePredicateClass(
+        final Class<?> clazz,
+        final String fieldName,
+        final String keychain)
+        throws NoSuchFieldException {
+
+        var metadata = this.getMetadataFor(clazz);
+        if (Objects.nonNull(metadata.getField(fieldName))) {
+            return clazz;
+        }
+
+        logger.debug("Could not match field name {} of class {} to any field;"
+                + " checking subclasses...",
+            fieldName,
+            clazz.getSimpleName());
+
+        var candidateClasses = metadata.getSubclassesWithField(fieldName);
+        if (candidateClasses.size() > 1) {
+            throw new IllegalArgumentException("ERROR: Found multiple subclasses of "
+                + " parent class "
+                + clazz.getSimpleName()
+                + " with field named "
+                + fieldName
+                + "; no way of knowing which class was intended."
+                + " Candidate classes: "
+                + candidateClasses
+            );
+        } else if (candidateClasses.isEmpty()) {
+            throw new NoSuchFieldException("ERROR: Could not match key word "
+                + keychain
+                + " to any field in "
+                + clazz.getSimpleName()
+                + " or sub classes.");
+        }
+
+        logger.debug("Found field name {} in subclass {} of parent class {};"
+                + " assuming this class as predicate...",
+            fieldName,
+            candidateClasses.get(0).getSimpleName(),
+            clazz.getSimpleName());
+        return candidateClasses.get(0);
+    }
+
+    /**
+     * Resolve a dotted keychain against a root class.
+     *
+     * @param rootClass The class the keychain starts from.
+     * @param keychain  The keychain, optionally with operator symbols (i.e., "owner.age>".)
+     * @return The resolved path.
+     * @throws NoSuchFieldException If a segment matches no field of its class or subclasses.
+     */
+    public FieldPath resolvePath(final Class<?> rootClass, final String keychain)
+        throws NoSuchFieldException {
+
+        var key = keychain.replaceAll("[<>*]", "").toLowerCase(Locale.ROOT);
+        var paths = this.resolvedPaths.computeIfAbsent(
+            rootClass,
+            x -> new ConcurrentHashMap<>());
+
+        var path = paths.get(key);
+        if (Objects.isNull(path)) {
+            path = this.buildPath(rootClass, key, keychain);
+
+            // Only keychains that resolve are cached, but they can be arbitrarily deep through
+            // cyclic relationships, so stop caching rather than grow without bound.
+            if (paths.size() < this.maxCachedPaths) {
+                paths.putIfAbsent(key, path);
+            }
+        }
+        return path;
+    }
+
+    private FieldPath buildPath(
+        final Class<?> rootClass,
+        final String key,
+        final String keychain)
+        throws NoSuchFieldException {
+
+        var segments = key.split("\\.");
+        var fields = new ArrayList<Field>(segments.length);
+        var ownerClasses = new ArrayList<Class<?>>(segments.length);
+
+        Class<?> currentClass = rootClass;
+        Class<?> predicateClass = rootClass;
+        for (var i = 0; i < segments.length; i++) {
+            var field = this.getMetadataFor(currentClass).getField(segments[i]);
+            if (Objects.isNull(field)) {
+                currentClass = this.resolvePredicateClass(currentClass, segments[i], keychain);
+                field = this.getMetadataFor(currentClass).getField(segments[i]);
+            }
+            if (i == 0) {
+                predicateClass = currentClass;
+            }
+
+            fields.add(field);
+            ownerClasses.add(currentClass);
+            currentClass = this.getTargetClassOf(field);
+        }
+
+        return new FieldPath(predicateClass, fields, ownerClasses, currentClass);
+    }
+
+    private Class<?> getTargetClassOf(final Field field) {
+        var target = field.getType();
+        if (Collection.class.isAssignableFrom(target)
+            && field.getGenericType() instanceof ParameterizedType parameterized
+            && parameterized.getActualTypeArguments()[0] instanceof Class<?> element) {
+            target = element;
+        }
+        return target;
+    }
+
+    private ClassMetadata buildMetadataFor(final Class<?> clazz) {
+        var fieldsByName = this.getFieldsByName(clazz);
+
+        Set<Class<?>> subclasses = Set.of();
+        if (Objects.nonNull(this.reflections)) {
+            subclasses = new LinkedHashSet<>(this.reflections.get(SubTypes.of(clazz).asClass()));
+        }
+
+        var subclassesByFieldName = new HashMap<String, List<Class<?>>>();
+        for (var sub : subclasses) {
+            for (var fieldName : this.getFieldsByName(sub).keySet()) {
+                if (!fieldsByName.containsKey(fieldName)) {
+                    subclassesByFieldName
+                        .computeIfAbsent(fieldName, x -> new ArrayList<>())
+                        .add(sub);
+                }
+            }
+        }
+
+        return new ClassMetadata(
+            clazz,
+            fieldsByName,
+            subclasses,
+            subclassesByFieldName.entrySet().stream().collect(Collectors.toMap(
+                Map.Entry::getKey,
+                x -> List.copyOf(x.getValue()))),
+            fieldsByName.values().stream()
+                .filter(x -> x.isAnnotationPresent(Id.class))
+                .findFirst()
+                .orElse(null));
+    }
+
+    private Map<String, Field> getFieldsByName(final Class<?> clazz) {
+        // Fields come back most-derived first, so a redeclared field shadows its parent's.
+        var fieldsByName = new LinkedHashMap<String, Field>();
+        for (var field : FieldUtils.getAllFieldsList(clazz)) {
+            fieldsByName.putIfAbsent(field.getName().toLowerCase(Locale.ROOT), field);
+        }
+        return fieldsByName;
+    }
+}
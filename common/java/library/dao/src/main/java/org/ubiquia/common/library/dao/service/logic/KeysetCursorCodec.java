@@ -0,0 +1,117 @@
+package org.ubiquia.common.library.dao.service.logic;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.ubiquia.common.library.dao.model.KeysetCursor;
+
+/**
+ * A service that encodes keyset cursors into the opaque continuation tokens handed to clients,
+ * and decodes and validates the tokens clients send back.
+ */
+@Service
+public class KeysetCursorCodec {
+
+    @Autowired
+    private ClassMetadataIndex classMetadataIndex;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Build the cursor pointing just past a record.
+     *
+     * @param record     The last record of a page.
+     * @param sortBy     The fields the page was sorted by.
+     * @param descending Whether the page was sorted descending.
+     * @return The cursor.
+     * @throws IllegalArgumentException If the record has a null sort value; cursors can only
+     *                                  seek past non-null values.
+     */
+    public KeysetCursor buildCursorAfter(
+        final Object record,
+        final List<String> sortBy,
+        final Boolean descending) {
+
+        var metadata = this.classMetadataIndex.getMetadataFor(record.getClass());
+
+        var cursor = new KeysetCursor();
+        cursor.setSortBy(new ArrayList<>(sortBy));
+        cursor.setDescending(descending);
+        try {
+            for (var sortByField : sortBy) {
+                var value = FieldUtils.readField(metadata.getField(sortByField), record, true);
+                if (Objects.isNull(value)) {
+                    throw new IllegalArgumentException("ERROR: Cannot build a cursor past a "
+                        + "record with a null value for sort field "
+                        + sortByField
+                        + "; cursor pagination requires non-null sort fields.");
+                }
+                cursor.getValues().add(value instanceof Enum<?> e ? e.name() : value.toString());
+            }
+            cursor.setId(String.valueOf(
+                FieldUtils.readField(metadata.getIdField(), record, true)));
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("ERROR: Could not read the sort values of "
+                + record.getClass().getSimpleName(), e);
+        }
+        return cursor;
+    }
+
+    /**
+     * Encode a cursor as an opaque, URL-safe token.
+     *
+     * @param cursor The cursor.
+     * @return The token.
+     */
+    public String encode(final KeysetCursor cursor) {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(
+                this.objectMapper.writeValueAsBytes(cursor));
+        } catch (IOException e) {
+            throw new IllegalStateException("ERROR: Could not encode cursor.", e);
+        }
+    }
+
+    /**
+     * Decode a token and verify it was issued for a query with the same sort.
+     *
+     * @param token      The token from the client.
+     * @param sortBy     The fields the query is sorted by.
+     * @param descending Whether the query is sorted descending.
+     * @return The cursor.
+     * @throws IllegalArgumentException If the token is malformed or was issued for another sort.
+     */
+    public KeysetCursor decode(
+        final String token,
+        final List<String> sortBy,
+        final Boolean descending) {
+
+        KeysetCursor cursor = null;
+        try {
+            cursor = this.objectMapper.readValue(
+                Base64.getUrlDecoder().decode(token),
+                KeysetCursor.class);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("ERROR: Invalid cursor: " + token);
+        }
+
+        if (!cursor.getSortBy().equals(sortBy)
+            || !cursor.getDescending().equals(descending)
+            || cursor.getValues().size() != sortBy.size()
+            || Objects.isNull(cursor.getId())) {
+            throw new IllegalArgumentException("ERROR: Cursor was not issued for a query "
+                + "sorted by "
+                + sortBy
+                + (descending ? " descending" : " ascending")
+                + "; the sort cannot change between pages.");
+        }
+        return cursor;
+    }
+}
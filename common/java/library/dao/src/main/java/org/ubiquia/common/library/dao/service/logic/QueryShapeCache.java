@@ -0,0 +1,120 @@
+package org.ubiquia.common.library.dao.service.logic;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PostConstruct;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.ubiquia.common.library.dao.model.CompiledQuery;
+import org.ubiquia.common.library.dao.model.QueryShape;
+import org.ubiquia.common.library.dao.service.builder.QueryShapeCompiler;
+
+/**
+ * A cache of compiled queries keyed by their {@link QueryShape}, so that each distinct shape
+ * of paginated query is compiled once and every later request of that shape only binds its
+ * values. Because the same HQL strings are executed every time, Hibernate's query plan cache
+ * also reuses its translation of them.
+ *
+ * <p>Lookups are published as "ubiquia.dao.query.shape.cache" (tagged hit/miss) alongside a
+ * "ubiquia.dao.query.shape.cache.size" gauge.</p>
+ */
+@Service
+public class QueryShapeCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryShapeCache.class);
+
+    @Value("${ubiquia.dao.query-shape.max-cached-shapes:1000}")
+    private Integer maxCachedShapes;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private QueryShapeCompiler queryShapeCompiler;
+
+    private final Map<QueryShape, CompiledQuery> compiledQueries = new ConcurrentHashMap<>();
+
+    private Counter hitCounter;
+
+    private Counter missCounter;
+
+    /** Registers the cache's metrics. */
+    @PostConstruct
+    public void init() {
+        if (Objects.isNull(this.meterRegistry)) {
+            this.meterRegistry = new SimpleMeterRegistry();
+        }
+        this.hitCounter = Counter.builder("ubiquia.dao.query.shape.cache")
+            .description("Paginated query shapes served from the compiled query cache.")
+            .tag("result", "hit")
+            .register(this.meterRegistry);
+        this.missCounter = Counter.builder("ubiquia.dao.query.shape.cache")
+            .description("Paginated query shapes served from the compiled query cache.")
+            .tag("result", "miss")
+            .register(this.meterRegistry);
+        Gauge.builder("ubiquia.dao.query.shape.cache.size", this.compiledQueries, Map::size)
+            .description("Distinct paginated query shapes compiled.")
+            .register(this.meterRegistry);
+    }
+
+    /**
+     * Get the compiled query for a shape, compiling it on first use.
+     *
+     * @param shape The shape.
+     * @return The compiled query.
+     * @throws NoSuchFieldException Exceptions from clients passing invalid fields.
+     */
+    public CompiledQuery getCompiledQueryFor(final QueryShape shape) throws NoSuchFieldException {
+        var compiled = this.compiledQueries.get(shape);
+        if (Objects.nonNull(compiled)) {
+            this.hitCounter.increment();
+            return compiled;
+        }
+
+        this.missCounter.increment();
+        compiled = this.queryShapeCompiler.compile(shape);
+        logger.debug("Compiled query shape {}...", shape);
+
+        // Shapes come from client requests, so stop caching rather than grow without bound.
+        if (this.compiledQueries.size() < this.maxCachedShapes) {
+            var existing = this.compiledQueries.putIfAbsent(shape, compiled);
+            if (Objects.nonNull(existing)) {
+                compiled = existing;
+            }
+        }
+        return compiled;
+    }
+
+    /**
+     * Get the fraction of lookups served from the cache.
+     *
+     * @return The hit rate, or zero before any lookups.
+     */
+    public double getHitRate() {
+        var hits = this.hitCounter.count();
+        var total = hits + this.missCounter.count();
+        return total == 0 ? 0 : hits / total;
+    }
+
+    /**
+     * Get the number of compiled shapes.
+     *
+     * @return The number of compiled shapes.
+     */
+    public int size() {
+        return this.compiledQueries.size();
+    }
+
+    /** Evict every compiled shape. */
+    public void clear() {
+        this.compiledQueries.clear();
+    }
+}
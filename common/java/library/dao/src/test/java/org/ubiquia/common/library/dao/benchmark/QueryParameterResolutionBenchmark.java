@@ -0,0 +1,117 @@
+package org.ubiquia.common.library.dao.benchmark;
+
+import static org.reflections.scanners.Scanners.SubTypes;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.reflections.Reflections;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.ubiquia.common.library.dao.model.entity.Animal;
+import org.ubiquia.common.library.dao.model.entity.Cat;
+import org.ubiquia.common.library.dao.model.entity.Dachschund;
+import org.ubiquia.common.library.dao.model.entity.Dog;
+import org.ubiquia.common.library.dao.model.entity.Person;
+import org.ubiquia.common.library.dao.model.entity.Poodle;
+import org.ubiquia.common.library.dao.service.logic.ClassMetadataIndex;
+import org.ubiquia.common.model.ubiquia.embeddable.SemanticVersion;
+
+/**
+ * JMH benchmark of resolving a query parameter's keychain to its field: the per-request
+ * reflection walk the DAOs used to do ("legacy") versus a lookup in the ClassMetadataIndex.
+ * Run with ./gradlew :common:java:library:dao:jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class QueryParameterResolutionBenchmark {
+
+    @Param({"name", "landShark", "owner.age", "pets.whiskersCount", "owner.pets.owner.name"})
+    private String keychain;
+
+    private ClassMetadataIndex classMetadataIndex;
+
+    private Reflections reflections;
+
+    /** Builds the index once, as the application would at startup. */
+    @Setup
+    public void setup() {
+        this.reflections = new Reflections("org.ubiquia.common.library.dao.model");
+        this.classMetadataIndex = new ClassMetadataIndex();
+        ReflectionTestUtils.setField(this.classMetadataIndex, "maxCachedPaths", 10_000);
+        this.classMetadataIndex.build(
+            List.of(Animal.class, Cat.class, Dog.class, Poodle.class, Dachschund.class,
+                Person.class),
+            List.of(SemanticVersion.class),
+            this.reflections);
+    }
+
+    /** Resolves the keychain by walking the classes reflectively. */
+    @Benchmark
+    public Field legacy() throws NoSuchFieldException {
+        return this.resolveWithReflection(this.getRootClass(), this.keychain);
+    }
+
+    /** Resolves the keychain from the index. */
+    @Benchmark
+    public Field indexed() throws NoSuchFieldException {
+        return this.classMetadataIndex
+            .resolvePath(this.getRootClass(), this.keychain)
+            .getFinalField();
+    }
+
+    private Class<?> getRootClass() {
+        return this.keychain.startsWith("pets") ? Person.class : Animal.class;
+    }
+
+    /** The resolution the DAOs did per request before the index existed. */
+    private Field resolveWithReflection(final Class<?> rootClass, final String keychain)
+        throws NoSuchFieldException {
+
+        Class<?> currentClass = rootClass;
+        Field finalField = null;
+        for (var segment : keychain.split("\\.")) {
+            var fieldName = segment.replaceAll("[<>*]", "");
+            var field = this.findField(currentClass, fieldName);
+            if (field == null) {
+                for (var sub : this.reflections.get(SubTypes.of(currentClass).asClass())) {
+                    field = this.findField(sub, fieldName);
+                    if (field != null) {
+                        currentClass = sub;
+                        break;
+                    }
+                }
+                if (field == null) {
+                    throw new NoSuchFieldException(fieldName);
+                }
+            }
+
+            finalField = field;
+            if (Collection.class.isAssignableFrom(field.getType())) {
+                var collectionType = (ParameterizedType) field.getGenericType();
+                currentClass = (Class<?>) collectionType.getActualTypeArguments()[0];
+            } else {
+                currentClass = field.getType();
+            }
+        }
+        return finalField;
+    }
+
+    private Field findField(final Class<?> clazz, final String fieldName) {
+        return FieldUtils.getAllFieldsList(clazz).stream()
+            .filter(x -> x.getName().equalsIgnoreCase(fieldName))
+            .findFirst()
+            .orElse(null);
+    }
+}
@@ -0,0 +1,175 @@
+package org.ubiquia.common.library.dao.benchmark;
+
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.ubiquia.common.library.dao.Application;
+import org.ubiquia.common.library.dao.component.QueryShapePager;
+import org.ubiquia.common.library.dao.model.QueryShape;
+import org.ubiquia.common.library.dao.model.entity.Person;
+import org.ubiquia.common.library.dao.service.DummyFactory;
+import org.ubiquia.common.library.dao.service.builder.QueryShapeCompiler;
+import org.ubiquia.common.library.dao.service.logic.QueryShapeCache;
+import org.ubiquia.common.model.ubiquia.dao.CountMode;
+import org.ubiquia.common.model.ubiquia.dao.QueryFilterParameter;
+import org.ubiquia.common.model.ubiquia.dao.QueryOperatorType;
+
+/**
+ * JMH benchmark of paginated queries from many concurrent clients over 20 distinct query
+ * shapes: compiling each request's criteria queries ("compiledPerRequest", as the DAOs did
+ * before query shapes were cached) versus binding values to the cached compiled shape.
+ * Run with ./gradlew :common:java:library:dao:jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+public class QueryShapeCacheBenchmark {
+
+    private static final int PAGE_SIZE = 10;
+
+    private ConfigurableApplicationContext context;
+
+    private EntityManager entityManager;
+
+    private QueryShapeCompiler queryShapeCompiler;
+
+    private QueryShapeCache queryShapeCache;
+
+    private QueryShapePager queryShapePager;
+
+    private List<List<QueryFilterParameter>> requests;
+
+    /** Each benchmark thread cycles through the shapes on its own. */
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private int next = 0;
+
+        int next(final int size) {
+            this.next = (this.next + 1) % size;
+            return this.next;
+        }
+    }
+
+    /** Starts the test application against its in-memory database and seeds it. */
+    @Setup(Level.Trial)
+    public void setup() {
+        this.context = new SpringApplicationBuilder(Application.class)
+            .properties("logging.level.root=WARN")
+            .run();
+        this.entityManager = this.context.getBean(EntityManager.class);
+        this.queryShapeCompiler = this.context.getBean(QueryShapeCompiler.class);
+        this.queryShapeCache = this.context.getBean(QueryShapeCache.class);
+        this.queryShapePager = this.context.getBean(QueryShapePager.class);
+
+        var dummyFactory = this.context.getBean(DummyFactory.class);
+        var people = new ArrayList<Person>();
+        for (var i = 0; i < 200; i++) {
+            people.add(dummyFactory.generatePersonWithPets());
+        }
+        this.requests = this.buildRequests(people.get(0));
+        this.queryShapeCache.clear();
+    }
+
+    /** Stops the test application. */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.context.close();
+    }
+
+    /** Compiles the criteria queries of every request. */
+    @Benchmark
+    public Object compiledPerRequest(final Cursor cursor) throws NoSuchFieldException {
+        var canonical = new ArrayList<>(this.requests.get(cursor.next(this.requests.size())));
+        canonical.sort(QueryShape.CANONICAL_ORDER);
+        var shape = new QueryShape(Person.class, canonical, List.of("createdAt"), false);
+        var values = QueryShape.getValuesOf(canonical);
+
+        var compiled = this.queryShapeCompiler.compile(shape);
+        return compiled.createSelectQuery(this.entityManager, values)
+            .setMaxResults(PAGE_SIZE + 1)
+            .getResultList();
+    }
+
+    /** Binds the request's values to its cached shape. */
+    @Benchmark
+    public Object cachedShape(final Cursor cursor) throws NoSuchFieldException {
+        return this.queryShapePager.getPage(
+            Person.class,
+            this.requests.get(cursor.next(this.requests.size())),
+            List.of("createdAt"),
+            false,
+            PageRequest.of(0, PAGE_SIZE),
+            CountMode.NONE);
+    }
+
+    /** Twenty distinct shapes over root, nested and embedded fields. */
+    private List<List<QueryFilterParameter>> buildRequests(final Person person) {
+        var name = person.getName();
+        var age = person.getAge().toString();
+        var color = person.getPets().get(0).getColor().toString();
+
+        var requests = new ArrayList<List<QueryFilterParameter>>();
+        requests.add(List.of(this.param("name", QueryOperatorType.EQUAL, name)));
+        requests.add(List.of(this.param("name", QueryOperatorType.LIKE, "%a%")));
+        requests.add(List.of(this.param("age", QueryOperatorType.EQUAL, age)));
+        requests.add(List.of(this.param("age", QueryOperatorType.GREATER_THAN, "0")));
+        requests.add(List.of(this.param("age", QueryOperatorType.LESS_THAN, age)));
+        requests.add(List.of(this.param("floatValue", QueryOperatorType.GREATER_THAN, "0")));
+        requests.add(List.of(this.param("doubleValue", QueryOperatorType.LESS_THAN, "1e9")));
+        requests.add(List.of(this.param("nullValue", QueryOperatorType.EQUAL, "null")));
+        requests.add(List.of(this.param("nullValue", QueryOperatorType.EQUAL, "!null")));
+        requests.add(List.of(this.param("hairColor", QueryOperatorType.EQUAL, "BLACK")));
+        requests.add(List.of(this.param("version.major", QueryOperatorType.EQUAL, "1")));
+        requests.add(List.of(this.param("pets.color", QueryOperatorType.EQUAL, color)));
+        requests.add(List.of(this.param("pets.weight", QueryOperatorType.GREATER_THAN, "0")));
+        requests.add(List.of(this.param("pets.name", QueryOperatorType.LIKE, "%e%")));
+        requests.add(List.of(
+            this.param("name", QueryOperatorType.EQUAL, name),
+            this.param("age", QueryOperatorType.EQUAL, age)));
+        requests.add(List.of(
+            this.param("age", QueryOperatorType.GREATER_THAN_OR_EQUAL_TO, "0"),
+            this.param("age", QueryOperatorType.LESS_THAN_OR_EQUAL_TO, age)));
+        requests.add(List.of(
+            this.param("name", QueryOperatorType.LIKE, "%a%"),
+            this.param("pets.color", QueryOperatorType.EQUAL, color)));
+        requests.add(List.of(
+            this.param("version.major", QueryOperatorType.EQUAL, "1"),
+            this.param("version.minor", QueryOperatorType.EQUAL, "2")));
+        requests.add(List.of(
+            this.param("pets.vaccinated", QueryOperatorType.EQUAL, "true"),
+            this.param("age", QueryOperatorType.GREATER_THAN, "0")));
+        requests.add(List.of(
+            this.param("name", QueryOperatorType.EQUAL, name),
+            this.param("pets.color", QueryOperatorType.EQUAL, color),
+            this.param("version.patch", QueryOperatorType.EQUAL, "3")));
+        return requests;
+    }
+
+    private QueryFilterParameter param(
+        final String key,
+        final QueryOperatorType operator,
+        final String value) {
+
+        var parameter = new QueryFilterParameter();
+        parameter.setKey(key);
+        parameter.setOperator(operator);
+        parameter.setValue(value);
+        return parameter;
+    }
+}
@@ -0,0 +1,191 @@
+package org.ubiquia.common.library.dao.component;
+
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.ubiquia.common.library.dao.model.entity.Person;
+import org.ubiquia.common.library.dao.model.enums.Color;
+import org.ubiquia.common.library.dao.service.DummyFactory;
+import org.ubiquia.common.library.dao.service.TestHelper;
+import org.ubiquia.common.model.ubiquia.dao.CountMode;
+
+/**
+ * Integration tests for {@link BulkUpdater} updating records through {@link EntityDao}.
+ */
+@SpringBootTest(properties = "ubiquia.dao.bulk-update.chunk-size=2")
+@Transactional
+public class BulkUpdaterTest {
+
+    @Autowired
+    private EntityDao<Person> personDataAccessObject;
+
+    @Autowired
+    private DummyFactory dummyFactory;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PageCounter pageCounter;
+
+    @Autowired
+    private TestHelper testHelper;
+
+    /**
+     * Reset database state before each test.
+     */
+    @BeforeEach
+    public void setup() {
+        this.testHelper.clearState();
+    }
+
+    @Test
+    public void assertBulkUpdatesWithParams_isValid() throws Exception {
+        var people = new ArrayList<Person>();
+        for (var i = 0; i < 5; i++) {
+            var person = this.dummyFactory.generatePersonWithPets();
+            person.setAge(i < 3 ? 20 : 40);
+            people.add(person);
+        }
+        this.entityManager.flush();
+
+        var params = new HashMap<String, String[]>();
+        params.put("age", new String[] {"20"});
+        var assignments = new LinkedHashMap<String, String>();
+        assignments.put("name", "updated");
+        assignments.put("hairColor", "white");
+        assignments.put("version.major", "9");
+        assignments.put("nullValue", "null");
+
+        var before = OffsetDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        var updated = this.personDataAccessObject.update(
+            params,
+            null,
+            assignments,
+            Person.class);
+
+        Assertions.assertEquals(3, updated);
+        for (var person : people) {
+            var record = this.entityManager.find(Person.class, person.getId());
+            if (record.getAge().equals(20)) {
+                Assertions.assertEquals("updated", record.getName());
+                Assertions.assertEquals(Color.WHITE, record.getHairColor());
+                Assertions.assertEquals(9, record.getVersion().getMajor());
+                Assertions.assertNull(record.getNullValue());
+                // Sync tracking relies on the update timestamp moving.
+                Assertions.assertFalse(record.getUpdatedAt().isBefore(before));
+            } else {
+                Assertions.assertEquals(person.getName(), record.getName());
+            }
+        }
+    }
+
+    @Test
+    public void assertBulkUpdatesWithIds_isValid() throws Exception {
+        var first = this.dummyFactory.generatePersonWithPets();
+        final var second = this.dummyFactory.generatePersonWithPets();
+        var third = this.dummyFactory.generatePersonWithPets();
+
+        var assignments = new LinkedHashMap<String, String>();
+        assignments.put("age", "77");
+
+        var updated = this.personDataAccessObject.update(
+            new HashMap<>(),
+            List.of(first.getId(), third.getId()),
+            assignments,
+            Person.class);
+
+        Assertions.assertEquals(2, updated);
+        Assertions.assertEquals(77, this.entityManager.find(Person.class, first.getId()).getAge());
+        Assertions.assertEquals(77, this.entityManager.find(Person.class, third.getId()).getAge());
+        Assertions.assertNotEquals(
+            77,
+            this.entityManager.find(Person.class, second.getId()).getAge());
+
+        // Parameters further restrict the IDs.
+        var params = new HashMap<String, String[]>();
+        params.put("name", new String[] {second.getName()});
+        updated = this.personDataAccessObject.update(
+            params,
+            List.of(first.getId(), second.getId()),
+            assignments,
+            Person.class);
+
+        Assertions.assertEquals(1, updated);
+        Assertions.assertEquals(77, this.entityManager.find(Person.class, second.getId()).getAge());
+    }
+
+    @Test
+    public void assertBulkUpdateEvictsCachedCounts_isValid() throws Exception {
+        this.pageCounter.evict(Person.class);
+        var people = new ArrayList<Person>();
+        for (var i = 0; i < 5; i++) {
+            var person = this.dummyFactory.generatePersonWithPets();
+            person.setAge(20);
+            people.add(person);
+        }
+        this.entityManager.flush();
+
+        var params = new HashMap<String, String[]>();
+        params.put("age", new String[] {"20"});
+        var records = this.personDataAccessObject.getPage(
+            params,
+            0,
+            1,
+            false,
+            new ArrayList<>(),
+            CountMode.CACHED,
+            Person.class);
+        Assertions.assertEquals(5, records.getTotalElements());
+
+        var assignments = new LinkedHashMap<String, String>();
+        assignments.put("age", "40");
+        this.personDataAccessObject.update(
+            new HashMap<>(),
+            List.of(people.get(0).getId(), people.get(1).getId()),
+            assignments,
+            Person.class);
+
+        records = this.personDataAccessObject.getPage(
+            params,
+            0,
+            1,
+            false,
+            new ArrayList<>(),
+            CountMode.CACHED,
+            Person.class);
+        Assertions.assertEquals(3, records.getTotalElements());
+    }
+
+    @Test
+    public void assertBulkUpdateWithoutFilter_isInvalid() {
+        var assignments = new LinkedHashMap<String, String>();
+        assignments.put("age", "77");
+
+        Assertions.assertThrows(IllegalArgumentException.class, () ->
+            this.personDataAccessObject.update(
+                new HashMap<>(),
+                null,
+                assignments,
+                Person.class));
+
+        var idAssignment = new LinkedHashMap<String, String>();
+        idAssignment.put("id", "abc");
+        Assertions.assertThrows(IllegalArgumentException.class, () ->
+            this.personDataAccessObject.update(
+                new HashMap<>(),
+                List.of("abc"),
+                idAssignment,
+                Person.class));
+    }
+}
@@ -0,0 +1,100 @@
+package org.ubiquia.common.library.dao.component;
+
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.ubiquia.common.library.dao.model.entity.Person;
+import org.ubiquia.common.library.dao.service.DummyFactory;
+import org.ubiquia.common.library.dao.service.TestHelper;
+
+
+/**
+ * Integration tests for {@link NdjsonExporter} streaming records from {@link EntityDao}.
+ */
+@SpringBootTest(properties = "ubiquia.dao.export.fetch-size=2")
+@Transactional
+public class NdjsonExporterTest {
+
+    @Autowired
+    private EntityDao<Person> personDataAccessObject;
+
+    @Autowired
+    private DummyFactory dummyFactory;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private NdjsonExporter ndjsonExporter;
+
+    @Autowired
+    private TestHelper testHelper;
+
+    /**
+     * Reset database state before each test.
+     */
+    @BeforeEach
+    public void setup() {
+        this.testHelper.clearState();
+    }
+
+    @Test
+    public void assertExportsEveryRecord_isValid() throws Exception {
+        var people = new ArrayList<Person>();
+        for (var i = 0; i < 4; i++) {
+            people.add(this.dummyFactory.generatePersonWithPets());
+        }
+
+        var records = this.personDataAccessObject.getStream(
+            new HashMap<>(),
+            false,
+            new ArrayList<>(),
+            this.ndjsonExporter.getFetchSize(),
+            Person.class);
+
+        var outputStream = new ByteArrayOutputStream();
+        var written = this.ndjsonExporter.export(records, outputStream, Person::getName);
+
+        Assertions.assertEquals(4, written);
+        var lines = outputStream.toString(StandardCharsets.UTF_8).lines().toList();
+        Assertions.assertEquals(4, lines.size());
+        for (var person : people) {
+            Assertions.assertTrue(lines.contains("\"" + person.getName() + "\""));
+        }
+
+        // Every full batch is let go of as soon as it is written.
+        Assertions.assertFalse(this.entityManager.contains(people.get(0)));
+    }
+
+    @Test
+    public void assertExportsFilteredRecords_isValid() throws Exception {
+        var person = this.dummyFactory.generatePersonWithPets();
+        this.dummyFactory.generatePersonWithPets();
+
+        var params = new HashMap<String, String[]>();
+        params.put("name", new String[] {person.getName()});
+
+        var records = this.personDataAccessObject.getStream(
+            params,
+            false,
+            new ArrayList<>(),
+            this.ndjsonExporter.getFetchSize(),
+            Person.class);
+
+        var outputStream = new ByteArrayOutputStream();
+        var written = this.ndjsonExporter.export(records, outputStream, Person::getId);
+
+        Assertions.assertEquals(1, written);
+        Assertions.assertEquals(
+            "\"" + person.getId() + "\"\n",
+            outputStream.toString(StandardCharsets.UTF_8));
+    }
+}
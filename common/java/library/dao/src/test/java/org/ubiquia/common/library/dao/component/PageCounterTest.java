@@ -0,0 +1,118 @@
+package org.ubiquia.common.library.dao.component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.ubiquia.common.library.dao.model.entity.Animal;
+import org.ubiquia.common.library.dao.model.entity.Person;
+import org.ubiquia.common.model.ubiquia.dao.CountMode;
+
+/**
+ * Tests for the estimated counts of {@link PageCounter}.
+ */
+@SpringBootTest(properties = "ubiquia.dao.count.ttl-milliseconds=1")
+public class PageCounterTest {
+
+    @Autowired
+    private PageCounter pageCounter;
+
+    @Test
+    public void assertRefreshesCountRejectedByFullQueue_isValid() throws Exception {
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+
+        // Cache a count for the refresher to block on, one for each queue slot, and one more.
+        for (var i = 0; i < 66; i++) {
+            this.getTotal(this.getKeyFor(Animal.class, "full-queue-" + i), () -> 10L);
+        }
+        Thread.sleep(10);
+
+        this.getTotal(this.getKeyFor(Animal.class, "full-queue-0"), () -> {
+            started.countDown();
+            await(release);
+            return 10L;
+        });
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+        var refreshes = new AtomicInteger(0);
+        for (var i = 1; i < 66; i++) {
+            this.getTotal(this.getKeyFor(Animal.class, "full-queue-" + i), () -> {
+                refreshes.incrementAndGet();
+                return 10L;
+            });
+        }
+        release.countDown();
+
+        // Once the queue drains, the rejected count is refreshed by the next stale request.
+        this.awaitCount(refreshes, 64);
+        Thread.sleep(10);
+        this.getTotal(this.getKeyFor(Animal.class, "full-queue-65"), () -> {
+            refreshes.incrementAndGet();
+            return 10L;
+        });
+        this.awaitCount(refreshes, 65);
+    }
+
+    @Test
+    public void assertRefreshRacingEvictionIsNotCached_isValid() throws Exception {
+        var key = this.getKeyFor(Person.class, "eviction");
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+
+        this.getTotal(key, () -> 5L);
+        Thread.sleep(10);
+
+        // Refresh the stale count, and write to its class while the refresh is counting.
+        Assertions.assertEquals(5L, this.getTotal(key, () -> {
+            started.countDown();
+            await(release);
+            return 5L;
+        }));
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+        this.pageCounter.evict(Person.class);
+        release.countDown();
+        Thread.sleep(200);
+
+        // The refresh counted before the write, so its count was discarded rather than cached.
+        Assertions.assertEquals(8L, this.getTotal(key, () -> 8L));
+    }
+
+    private PageCounter.CountKey getKeyFor(final Class<?> rootClass, final String query) {
+        return new PageCounter.CountKey(rootClass, query);
+    }
+
+    private Long getTotal(final PageCounter.CountKey key, final PageCounter.Counter counter)
+        throws NoSuchFieldException {
+
+        // A full page with a record beyond it, so that the total cannot be inferred.
+        var records = new ArrayList<>(List.of("first", "next"));
+        return this.pageCounter.getTotal(
+            CountMode.ESTIMATED,
+            key,
+            counter,
+            PageRequest.of(0, 1),
+            records);
+    }
+
+    private void awaitCount(final AtomicInteger count, final int expected) throws Exception {
+        var deadline = System.currentTimeMillis() + 5000;
+        while (count.get() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertEquals(expected, count.get());
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -4,6 +4,10 @@ import jakarta.transaction.Transactional;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,6 +18,7 @@ import org.ubiquia.common.library.dao.model.entity.Cat;
 import org.ubiquia.common.library.dao.model.entity.Person;
 import org.ubiquia.common.library.dao.service.DummyFactory;
 import org.ubiquia.common.library.dao.service.TestHelper;
+import org.ubiquia.common.model.ubiquia.dao.CountMode;
 
 
 /**
@@ -32,6 +37,9 @@ public class ParameterDaoTest {
     @Autowired
     private DummyFactory dummyFactory;
 
+    @Autowired
+    private PageCounter pageCounter;
+
     @Autowired
     private TestHelper testHelper;
 
@@ -286,6 +294,34 @@ public class ParameterDaoTest {
         Assertions.assertEquals(person.getName(), records.getContent().get(0)[1]);
     }
 
+    @Test
+    public void assertMultiselectsRelationshipFieldsWithoutCount_isValid()
+        throws NoSuchFieldException {
+
+        var person = this.dummyFactory.generatePersonWithPets();
+        this.dummyFactory.generatePersonWithPets();
+
+        var params = new HashMap<String, String[]>();
+        params.put("owner.name", new String[] {person.getName()});
+        var records = this.animalDataAccessObject.getPageMultiselect(
+            params,
+            0,
+            1,
+            false,
+            new ArrayList<>(),
+            List.of("owner.name", "name"),
+            CountMode.NONE,
+            Animal.class);
+
+        Assertions.assertEquals(1, records.getContent().size());
+        Assertions.assertTrue(records.hasNext());
+        Assertions.assertEquals(person.getName(), records.getContent().get(0)[0]);
+        Assertions.assertTrue(person
+            .getPets()
+            .stream()
+            .anyMatch(x -> x.getName().equals(records.getContent().get(0)[1])));
+    }
+
     @Test
     public void assertMultiselectFieldsWithNestedField_isValid() throws NoSuchFieldException {
 
@@ -310,6 +346,78 @@ public class ParameterDaoTest {
         Assertions.assertEquals(person.getName(), records.getContent().get(0)[1]);
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void assertProjectsFields_isValid() throws NoSuchFieldException {
+        var person = this.dummyFactory.generatePersonWithPets();
+
+        var params = new HashMap<String, String[]>();
+        params.put("name", new String[] {person.getName()});
+
+        var fields = new ArrayList<String>();
+        fields.add("name");
+        fields.add("version.major");
+        fields.add("pets.color");
+
+        var records = this.personDataAccessObject.getPageProjection(
+            params,
+            0,
+            1,
+            false,
+            new ArrayList<>(),
+            fields,
+            CountMode.EXACT,
+            Person.class);
+
+        Assertions.assertEquals(1, records.getTotalElements());
+        var row = records.getContent().get(0);
+        Assertions.assertEquals(person.getId(), row.get("id"));
+        Assertions.assertEquals(person.getName(), row.get("name"));
+        Assertions.assertEquals(1, ((Map<String, Object>) row.get("version")).get("major"));
+
+        var pets = (List<Map<String, Object>>) row.get("pets");
+        Assertions.assertEquals(person.getPets().size(), pets.size());
+        Assertions.assertTrue(pets.stream().allMatch(x -> x.containsKey("color")));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void assertProjectsRelationshipFields_isValid() throws NoSuchFieldException {
+        var person = this.dummyFactory.generatePersonWithPets();
+
+        var fields = new ArrayList<String>();
+        fields.add("owner.name");
+
+        var records = this.animalDataAccessObject.getPageProjection(
+            new HashMap<>(),
+            0,
+            20,
+            false,
+            new ArrayList<>(),
+            fields,
+            CountMode.EXACT,
+            Animal.class);
+
+        Assertions.assertEquals(person.getPets().size(), records.getTotalElements());
+        for (var row : records.getContent()) {
+            var owner = (Map<String, Object>) row.get("owner");
+            Assertions.assertEquals(person.getName(), owner.get("name"));
+        }
+
+        fields.clear();
+        fields.add("owner");
+        Assertions.assertThrows(IllegalArgumentException.class, () ->
+            this.animalDataAccessObject.getPageProjection(
+                new HashMap<>(),
+                0,
+                20,
+                false,
+                new ArrayList<>(),
+                fields,
+                CountMode.EXACT,
+                Animal.class));
+    }
+
     @Test
     public void assertQueriesForStringDataAndSortsByAscending_isValid()
         throws NoSuchFieldException, InterruptedException {
@@ -364,4 +472,256 @@ public class ParameterDaoTest {
                 Person.class)
         );
     }
+
+    @Test
+    public void assertQueriesForTagData_isValid() throws NoSuchFieldException {
+        var person = this.dummyFactory.generatePersonWithPets();
+        this.dummyFactory.generatePersonWithPets();
+        var pet = person.getPets().get(0);
+        var tags = new ArrayList<>(pet.getSetTags());
+
+        var params = new HashMap<String, String[]>();
+        params.put("setTags[" + tags.get(0).getKey() + "]", new String[] {tags.get(0).getValue()});
+
+        var records = this.animalDataAccessObject.getPage(
+            params,
+            0,
+            10,
+            false,
+            new ArrayList<>(),
+            Animal.class);
+        Assertions.assertEquals(1, records.getTotalElements());
+        Assertions.assertEquals(pet.getId(), records.getContent().get(0).getId());
+
+        var keysetRecords = this.animalDataAccessObject.getPageAfter(
+            params,
+            null,
+            10,
+            false,
+            new ArrayList<>(),
+            Animal.class);
+        Assertions.assertEquals(1, keysetRecords.getContent().size());
+        Assertions.assertEquals(pet.getId(), keysetRecords.getContent().get(0).getId());
+
+        // The key and value must match on the same tag.
+        params.put("setTags[" + tags.get(0).getKey() + "]", new String[] {tags.get(1).getValue()});
+        records = this.animalDataAccessObject.getPage(
+            params,
+            0,
+            10,
+            false,
+            new ArrayList<>(),
+            Animal.class);
+        Assertions.assertEquals(0, records.getTotalElements());
+    }
+
+    @Test
+    public void assertPagesThroughAllRecordsByCursor_isValid() throws NoSuchFieldException {
+        for (var i = 0; i < 25; i++) {
+            this.dummyFactory.generatePersonWithPets();
+        }
+
+        var sortBy = new ArrayList<String>();
+        sortBy.add("age");
+
+        var ids = new HashSet<String>();
+        var ages = new ArrayList<Integer>();
+        var pages = 0;
+        var cursor = "";
+        while (Objects.nonNull(cursor)) {
+            var records = this.personDataAccessObject.getPageAfter(
+                new HashMap<>(),
+                cursor,
+                10,
+                false,
+                sortBy,
+                Person.class);
+            for (var person : records.getContent()) {
+                ids.add(person.getId());
+                ages.add(person.getAge());
+            }
+            cursor = records.getNextCursor();
+            Assertions.assertEquals(Objects.nonNull(cursor), records.hasNext());
+            pages++;
+        }
+
+        Assertions.assertEquals(3, pages);
+        Assertions.assertEquals(25, ids.size());
+        for (var i = 1; i < ages.size(); i++) {
+            Assertions.assertTrue(ages.get(i - 1) <= ages.get(i));
+        }
+    }
+
+    @Test
+    public void assertPagesByEnumAndBooleanCursor_isValid() throws NoSuchFieldException {
+        for (var i = 0; i < 5; i++) {
+            this.dummyFactory.generatePersonWithPets();
+        }
+
+        var sortBy = new ArrayList<String>();
+        sortBy.add("color");
+        sortBy.add("vaccinated");
+
+        var ids = new HashSet<String>();
+        var records = 0;
+        var cursor = "";
+        while (Objects.nonNull(cursor)) {
+            var page = this.animalDataAccessObject.getPageAfter(
+                new HashMap<>(),
+                cursor,
+                4,
+                false,
+                sortBy,
+                Animal.class);
+            for (var animal : page.getContent()) {
+                ids.add(animal.getId());
+                records++;
+            }
+            cursor = page.getNextCursor();
+        }
+
+        Assertions.assertEquals(15, records);
+        Assertions.assertEquals(15, ids.size());
+    }
+
+    @Test
+    public void assertCursorSortByRelationship_throwsException() {
+        this.dummyFactory.generatePersonWithPets();
+
+        var sortBy = new ArrayList<String>();
+        sortBy.add("owner");
+
+        Assertions.assertThrows(
+            IllegalArgumentException.class,
+            () -> this.animalDataAccessObject.getPageAfter(
+                new HashMap<>(),
+                "",
+                1,
+                false,
+                sortBy,
+                Animal.class));
+    }
+
+    @Test
+    public void assertCursorFromAnotherSort_throwsException() throws NoSuchFieldException {
+        for (var i = 0; i < 3; i++) {
+            this.dummyFactory.generatePersonWithPets();
+        }
+
+        var sortBy = new ArrayList<String>();
+        sortBy.add("age");
+
+        var records = this.personDataAccessObject.getPageAfter(
+            new HashMap<>(),
+            "",
+            1,
+            false,
+            sortBy,
+            Person.class);
+
+        Assertions.assertThrows(
+            IllegalArgumentException.class,
+            () -> this.personDataAccessObject.getPageAfter(
+                new HashMap<>(),
+                records.getNextCursor(),
+                1,
+                true,
+                sortBy,
+                Person.class));
+        Assertions.assertThrows(
+            IllegalArgumentException.class,
+            () -> this.personDataAccessObject.getPageAfter(
+                new HashMap<>(),
+                "not-a-cursor",
+                1,
+                false,
+                sortBy,
+                Person.class));
+    }
+
+    @Test
+    public void assertPagesWithoutCount_isValid() throws NoSuchFieldException {
+        for (var i = 0; i < 25; i++) {
+            this.dummyFactory.generatePersonWithPets();
+        }
+
+        var first = this.personDataAccessObject.getPage(
+            new HashMap<>(),
+            0,
+            10,
+            false,
+            new ArrayList<>(),
+            CountMode.NONE,
+            Person.class);
+        Assertions.assertEquals(10, first.getContent().size());
+        Assertions.assertTrue(first.hasNext());
+
+        var last = this.personDataAccessObject.getPage(
+            new HashMap<>(),
+            2,
+            10,
+            false,
+            new ArrayList<>(),
+            CountMode.NONE,
+            Person.class);
+        Assertions.assertEquals(5, last.getContent().size());
+        Assertions.assertFalse(last.hasNext());
+        Assertions.assertEquals(25, last.getTotalElements());
+    }
+
+    @Test
+    public void assertReusesCachedCount_isValid() throws NoSuchFieldException {
+        this.pageCounter.evict(Person.class);
+        for (var i = 0; i < 5; i++) {
+            this.dummyFactory.generatePersonWithPets();
+        }
+
+        var records = this.personDataAccessObject.getPage(
+            new HashMap<>(),
+            0,
+            2,
+            false,
+            new ArrayList<>(),
+            CountMode.CACHED,
+            Person.class);
+        Assertions.assertEquals(5, records.getTotalElements());
+
+        for (var i = 0; i < 3; i++) {
+            this.dummyFactory.generatePersonWithPets();
+        }
+
+        records = this.personDataAccessObject.getPage(
+            new HashMap<>(),
+            0,
+            2,
+            false,
+            new ArrayList<>(),
+            CountMode.CACHED,
+            Person.class);
+        Assertions.assertEquals(5, records.getTotalElements());
+
+        this.pageCounter.evict(Person.class);
+        records = this.personDataAccessObject.getPage(
+            new HashMap<>(),
+            0,
+            2,
+            false,
+            new ArrayList<>(),
+            CountMode.CACHED,
+            Person.class);
+        Assertions.assertEquals(8, records.getTotalElements());
+    }
+
+    @Test
+    public void assertFindsById_isValid() {
+        var person = this.dummyFactory.generatePersonWithPets();
+
+        var record = this.personDataAccessObject.findById(person.getId(), Person.class);
+
+        Assertions.assertTrue(record.isPresent());
+        Assertions.assertEquals(person.getName(), record.get().getName());
+        Assertions.assertTrue(this.personDataAccessObject
+            .findById("not-an-id", Person.class)
+            .isEmpty());
+    }
 }
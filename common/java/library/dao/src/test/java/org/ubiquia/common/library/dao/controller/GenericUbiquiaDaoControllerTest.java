@@ -15,6 +15,7 @@ import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.http.HttpServletRequest;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Optional;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -28,6 +29,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.ubiquia.common.library.api.interfaces.InterfaceEntityToDtoMapper;
 import org.ubiquia.common.library.dao.component.EntityDao;
+import org.ubiquia.common.library.dao.component.PageCounter;
 import org.ubiquia.common.library.implementation.service.telemetry.MicroMeterHelper;
 import org.ubiquia.common.library.implementation.service.visitor.PageValidator;
 import org.ubiquia.common.model.ubiquia.dto.FlowEvent;
@@ -81,6 +83,9 @@ public class GenericUbiquiaDaoControllerTest {
     @Mock
     private PageValidator pageValidator;
 
+    @Mock
+    private PageCounter pageCounter;
+
     @Mock
     private ObjectMapper objectMapper;
 
@@ -102,6 +107,7 @@ public class GenericUbiquiaDaoControllerTest {
         ReflectionTestUtils.setField(this.controller, "tags", new ArrayList<>());
         ReflectionTestUtils.setField(this.controller, "pageValidator", this.pageValidator);
         ReflectionTestUtils.setField(this.controller, "objectMapper", this.objectMapper);
+        ReflectionTestUtils.setField(this.controller, "pageCounter", this.pageCounter);
     }
 
     @Test
@@ -110,7 +116,8 @@ public class GenericUbiquiaDaoControllerTest {
 
         when(this.microMeterHelper.startSample()).thenReturn(this.timerSample);
         when(this.httpServletRequest.getParameterMap()).thenReturn(new HashMap<>());
-        when(this.entityDao.getPage(anyMap(), anyInt(), anyInt(), anyBoolean(), anyList(), any()))
+        when(this.entityDao.getPage(
+            anyMap(), anyInt(), anyInt(), anyBoolean(), anyList(), any(), any()))
             .thenReturn(new PageImpl<>(new ArrayList<>(), PageRequest.of(0, 1), 0));
         when(this.objectMapper.valueToTree(any())).thenReturn(NullNode.getInstance());
         when(this.mapper.map(anyList())).thenReturn(new ArrayList<>());
@@ -127,8 +134,7 @@ public class GenericUbiquiaDaoControllerTest {
         throws NoSuchFieldException, JsonProcessingException {
 
         when(this.microMeterHelper.startSample()).thenReturn(this.timerSample);
-        when(this.entityDao.getPage(anyMap(), anyInt(), anyInt(), anyBoolean(), anyList(), any()))
-            .thenReturn(new PageImpl<>(new ArrayList<>(), PageRequest.of(0, 1), 0));
+        when(this.entityDao.findById(any(), any())).thenReturn(Optional.empty());
 
         this.controller.queryModelWithId("test-id");
 
@@ -143,7 +149,8 @@ public class GenericUbiquiaDaoControllerTest {
 
         ReflectionTestUtils.setField(this.controller, "microMeterHelper", null);
         when(this.httpServletRequest.getParameterMap()).thenReturn(new HashMap<>());
-        when(this.entityDao.getPage(anyMap(), anyInt(), anyInt(), anyBoolean(), anyList(), any()))
+        when(this.entityDao.getPage(
+            anyMap(), anyInt(), anyInt(), anyBoolean(), anyList(), any(), any()))
             .thenReturn(new PageImpl<>(new ArrayList<>(), PageRequest.of(0, 1), 0));
         when(this.objectMapper.valueToTree(any())).thenReturn(NullNode.getInstance());
         when(this.mapper.map(anyList())).thenReturn(new ArrayList<>());
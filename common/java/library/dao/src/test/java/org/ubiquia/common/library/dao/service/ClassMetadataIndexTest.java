@@ -0,0 +1,69 @@
+package org.ubiquia.common.library.dao.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.ubiquia.common.library.dao.model.entity.Animal;
+import org.ubiquia.common.library.dao.model.entity.Cat;
+import org.ubiquia.common.library.dao.model.entity.Dachschund;
+import org.ubiquia.common.library.dao.model.entity.Dog;
+import org.ubiquia.common.library.dao.model.entity.Person;
+import org.ubiquia.common.library.dao.model.entity.Poodle;
+import org.ubiquia.common.library.dao.service.logic.ClassMetadataIndex;
+import org.ubiquia.common.model.ubiquia.embeddable.SemanticVersion;
+
+
+/** Integration tests for {@link ClassMetadataIndex} field and keychain resolution. */
+@SpringBootTest
+public class ClassMetadataIndexTest {
+
+    @Autowired
+    private ClassMetadataIndex classMetadataIndex;
+
+    @Test
+    public void assertIndexesEntitiesAndSubclasses_isValid() {
+        Assertions.assertTrue(this.classMetadataIndex.isEntityClass(Animal.class));
+        Assertions.assertTrue(this.classMetadataIndex.isEmbeddableClass(SemanticVersion.class));
+        Assertions.assertFalse(this.classMetadataIndex.isEntityClass(String.class));
+
+        var metadata = this.classMetadataIndex.getMetadataFor(Animal.class);
+        Assertions.assertTrue(metadata.getSubclasses().contains(Poodle.class));
+        Assertions.assertNotNull(metadata.getField("VACCINATED"));
+        Assertions.assertEquals(
+            Cat.class,
+            metadata.getSubclassesWithField("whiskersCount").get(0));
+        Assertions.assertEquals(
+            2,
+            this.classMetadataIndex
+                .getMetadataFor(Dog.class)
+                .getSubclassesWithField("apexPredator")
+                .size());
+    }
+
+    @Test
+    public void assertResolvesNestedKeychains_isValid() throws NoSuchFieldException {
+        var path = this.classMetadataIndex.resolvePath(Person.class, "pets.whiskersCount>");
+
+        Assertions.assertEquals(Person.class, path.getPredicateClass());
+        Assertions.assertEquals(Cat.class, path.getFinalOwnerClass());
+        Assertions.assertEquals(Integer.class, path.getTargetClass());
+        Assertions.assertEquals("whiskersCount", path.getFinalField().getName());
+        Assertions.assertSame(
+            path,
+            this.classMetadataIndex.resolvePath(Person.class, "PETS.whiskersCount"));
+
+        var subclassPath = this.classMetadataIndex.resolvePath(Animal.class, "landShark");
+        Assertions.assertEquals(Dachschund.class, subclassPath.getPredicateClass());
+    }
+
+    @Test
+    public void assertUnknownKeychain_throwsException() {
+        Assertions.assertThrows(
+            NoSuchFieldException.class,
+            () -> this.classMetadataIndex.resolvePath(Person.class, "pets.wingspan"));
+        Assertions.assertThrows(
+            IllegalArgumentException.class,
+            () -> this.classMetadataIndex.resolvePath(Person.class, "pets.apexPredator"));
+    }
+}
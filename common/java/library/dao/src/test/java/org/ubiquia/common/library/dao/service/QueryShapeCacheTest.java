@@ -0,0 +1,128 @@
+package org.ubiquia.common.library.dao.service;
+
+import jakarta.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.ubiquia.common.library.dao.component.EntityDao;
+import org.ubiquia.common.library.dao.model.QueryShape;
+import org.ubiquia.common.library.dao.model.entity.Person;
+import org.ubiquia.common.library.dao.service.logic.QueryShapeCache;
+import org.ubiquia.common.model.ubiquia.dao.QueryFilterParameter;
+import org.ubiquia.common.model.ubiquia.dao.QueryOperatorType;
+
+
+/** Integration tests for {@link QueryShapeCache} and the query shapes it is keyed by. */
+@SpringBootTest
+@Transactional
+public class QueryShapeCacheTest {
+
+    @Autowired
+    private EntityDao<Person> personDataAccessObject;
+
+    @Autowired
+    private DummyFactory dummyFactory;
+
+    @Autowired
+    private QueryShapeCache queryShapeCache;
+
+    @Autowired
+    private TestHelper testHelper;
+
+    /**
+     * Reset database and cache state before each test.
+     */
+    @BeforeEach
+    public void setup() {
+        this.testHelper.clearState();
+        this.queryShapeCache.clear();
+    }
+
+    @Test
+    public void assertReusesCompiledShape_isValid() throws NoSuchFieldException {
+        var first = this.dummyFactory.generatePersonWithPets();
+        var second = this.dummyFactory.generatePersonWithPets();
+
+        var hitRates = new ArrayList<Double>();
+        for (var person : List.of(first, second)) {
+            var params = new HashMap<String, String[]>();
+            params.put("name", new String[] {person.getName()});
+            params.put("pets.color", new String[] {person.getPets().get(0).getColor().toString()});
+
+            var records = this.personDataAccessObject.getPage(
+                params,
+                0,
+                1,
+                false,
+                new ArrayList<>(),
+                Person.class);
+
+            Assertions.assertEquals(1, records.getTotalElements());
+            Assertions.assertEquals(person.getId(), records.getContent().get(0).getId());
+            hitRates.add(this.queryShapeCache.getHitRate());
+        }
+
+        // The hit counters span the whole context, so only the second lookup's effect is known.
+        Assertions.assertEquals(1, this.queryShapeCache.size());
+        Assertions.assertTrue(hitRates.get(1) > hitRates.get(0));
+    }
+
+    @Test
+    public void assertDistinguishesShapes_isValid() throws NoSuchFieldException {
+        var person = this.dummyFactory.generatePersonWithPets();
+
+        var equalParams = new HashMap<String, String[]>();
+        equalParams.put("age", new String[] {person.getAge().toString()});
+        var greaterParams = new HashMap<String, String[]>();
+        greaterParams.put("age>", new String[] {Integer.toString(person.getAge() - 1)});
+        var nullParams = new HashMap<String, String[]>();
+        nullParams.put("nullValue", new String[] {"null"});
+
+        for (var params : List.of(equalParams, greaterParams, nullParams)) {
+            var records = this.personDataAccessObject.getPage(
+                params,
+                0,
+                1,
+                false,
+                new ArrayList<>(),
+                Person.class);
+            Assertions.assertEquals(1, records.getTotalElements());
+        }
+
+        Assertions.assertEquals(3, this.queryShapeCache.size());
+    }
+
+    @Test
+    public void assertShapeIgnoresParameterOrder_isValid() {
+        var name = new QueryFilterParameter();
+        name.setKey("name");
+        name.setValue("Alice");
+        name.setOperator(QueryOperatorType.EQUAL);
+
+        var age = new QueryFilterParameter();
+        age.setKey("age");
+        age.setValue("30");
+        age.setOperator(QueryOperatorType.GREATER_THAN);
+
+        var forward = new ArrayList<>(List.of(name, age));
+        var backward = new ArrayList<>(List.of(age, name));
+        forward.sort(QueryShape.CANONICAL_ORDER);
+        backward.sort(QueryShape.CANONICAL_ORDER);
+
+        var sortBy = List.of("createdAt");
+        Assertions.assertEquals(
+            new QueryShape(Person.class, forward, sortBy, false),
+            new QueryShape(Person.class, backward, sortBy, false));
+        Assertions.assertEquals(
+            QueryShape.getValuesOf(forward),
+            QueryShape.getValuesOf(backward));
+        Assertions.assertNotEquals(
+            new QueryShape(Person.class, forward, sortBy, false),
+            new QueryShape(Person.class, forward, sortBy, true));
+    }
+}
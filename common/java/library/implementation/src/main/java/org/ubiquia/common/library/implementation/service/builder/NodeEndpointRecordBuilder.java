@@ -84,6 +84,45 @@ public class NodeEndpointRecordBuilder {
         return new EndpointRecord(path, RequestMethod.GET);
     }
 
+    /**
+     * Build the queue batch-pop endpoint record for a node.
+     *
+     * @param graphName The name of the graph.
+     * @param nodeName  The name of the node.
+     * @return An {@link EndpointRecord} for the batch-pop endpoint.
+     */
+    public EndpointRecord getPopBatchEndpointFor(final String graphName, final String nodeName) {
+        var path = this.getBasePathFor(graphName, nodeName) + "/queue/pop/batch";
+        return new EndpointRecord(path, RequestMethod.GET);
+    }
+
+    /**
+     * Build the queue-stream endpoint record for a node.
+     *
+     * @param graphName The name of the graph.
+     * @param nodeName  The name of the node.
+     * @return An {@link EndpointRecord} for the stream endpoint.
+     */
+    public EndpointRecord getStreamEndpointFor(final String graphName, final String nodeName) {
+        var path = this.getBasePathFor(graphName, nodeName) + "/queue/stream";
+        return new EndpointRecord(path, RequestMethod.GET);
+    }
+
+    /**
+     * Build the queue-acknowledge endpoint record for a node.
+     *
+     * @param graphName The name of the graph.
+     * @param nodeName  The name of the node.
+     * @return An {@link EndpointRecord} for the acknowledge endpoint.
+     */
+    public EndpointRecord getAcknowledgeEndpointFor(
+        final String graphName,
+        final String nodeName) {
+
+        var path = this.getBasePathFor(graphName, nodeName) + "/queue/acknowledge";
+        return new EndpointRecord(path, RequestMethod.POST);
+    }
+
     /**
      * Build the base URL path for a node within a graph.
      *
@@ -34,7 +34,20 @@ public abstract class AbstractDomainModelEntity {
     @UpdateTimestamp
     private OffsetDateTime ubiquiaUpdatedAt = null;
 
+    // Tag filters and distinct key/value lookups seek on (key, value, owner); loading an
+    // entity's tags seeks on the owner. The names are the ones the default naming produced.
     @ElementCollection
+    @CollectionTable(
+        name = "abstract_domain_model_entity_ubiquia_tags",
+        joinColumns = @JoinColumn(name = "abstract_domain_model_entity_ubiquia_id"),
+        indexes = {
+            @Index(
+                name = "idx_domain_tag_key_value_owner",
+                columnList = "pair_key, pair_value, abstract_domain_model_entity_ubiquia_id"),
+            @Index(
+                name = "idx_domain_tag_owner",
+                columnList = "abstract_domain_model_entity_ubiquia_id")
+        })
     @Valid
     private Set<KeyValuePair> ubiquiaTags = null;
 
@@ -23,6 +23,8 @@ public class GenericPageImplementation<T> extends PageImpl<T> {
 
     private long totalElements;
 
+    private String nextCursor;
+
     /**
      * Constructor.
      *
@@ -72,6 +74,19 @@ public class GenericPageImplementation<T> extends PageImpl<T> {
         return super.getContent();
     }
 
+    /**
+     * Get the continuation token of the next page of a cursor-paginated query.
+     *
+     * @return The token, or null if this is the last page or the query was not cursor-paginated.
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
     /**
      * Constructor.
      *
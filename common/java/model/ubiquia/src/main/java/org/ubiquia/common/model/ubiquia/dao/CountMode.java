@@ -0,0 +1,54 @@
+package org.ubiquia.common.model.ubiquia.dao;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * An enum defining how a paginated query determines its total number of records.
+ *
+ * <ul>
+ *     <li>EXACT - run a count query alongside every page.</li>
+ *     <li>NONE - skip the count; the page only knows whether there is a next page.</li>
+ *     <li>CACHED - reuse an exact count of the same query until it is older than the TTL.</li>
+ *     <li>ESTIMATED - serve the last count of the same query, however old, refreshing it in
+ *     the background once it is older than the TTL.</li>
+ * </ul>
+ */
+public enum CountMode {
+
+    EXACT("EXACT"),
+
+    NONE("NONE"),
+
+    CACHED("CACHED"),
+
+    ESTIMATED("ESTIMATED");
+
+    private String value;
+
+    CountMode(String value) {
+        this.value = value;
+    }
+
+    /**
+     * Method to map from a string to an Enum.
+     *
+     * @param text The string value to map from.
+     * @return The enum value of the string.
+     */
+    @JsonCreator
+    public static CountMode fromValue(String text) {
+        for (CountMode b : CountMode.values()) {
+            if (String.valueOf(b.value).equalsIgnoreCase(text)) {
+                return b;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    @JsonValue
+    public String toString() {
+        return String.valueOf(value);
+    }
+}
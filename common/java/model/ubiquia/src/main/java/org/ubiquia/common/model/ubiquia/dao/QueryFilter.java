@@ -24,6 +24,10 @@ public class QueryFilter {
 
     private Integer pageSize = 1;
 
+    private String cursor = null;
+
+    private CountMode countMode = CountMode.EXACT;
+
     /**
      * Get sort.
      *
@@ -92,4 +96,32 @@ public class QueryFilter {
     public void setPageSize(Integer pageSize) {
         this.pageSize = pageSize;
     }
+
+    /**
+     * Get cursor: the next cursor of a previous page to keyset-paginate from, blank for the
+     * first keyset page, or null to paginate by page number.
+     *
+     * @return cursor
+     **/
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    /**
+     * Get countMode: how the total number of matching records is determined for page-number
+     * pagination.
+     *
+     * @return countMode
+     **/
+    public CountMode getCountMode() {
+        return countMode;
+    }
+
+    public void setCountMode(CountMode countMode) {
+        this.countMode = countMode;
+    }
 }
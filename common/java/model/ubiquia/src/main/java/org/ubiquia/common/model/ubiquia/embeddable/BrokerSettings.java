@@ -2,6 +2,7 @@ package org.ubiquia.common.model.ubiquia.embeddable;
 
 
 import jakarta.persistence.Embeddable;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.validation.annotation.Validated;
 import org.ubiquia.common.model.ubiquia.enums.BrokerType;
@@ -15,6 +16,22 @@ public class BrokerSettings {
 
     private String topic;
 
+    private String consumerGroupId;
+
+    private Integer maxPollRecords;
+
+    private Integer consumerConcurrency;
+
+    private Integer lingerMilliseconds;
+
+    private Integer batchSizeBytes;
+
+    private String compressionType;
+
+    private String acks;
+
+    private Boolean idempotence;
+
     @NotNull
     public BrokerType getType() {
         return type;
@@ -32,4 +49,121 @@ public class BrokerSettings {
     public void setTopic(String topic) {
         this.topic = topic;
     }
+
+    /**
+     * The consumer group a subscribe node's consumers join. If unset, the node gets a group of
+     * its own, named after its graph and itself.
+     *
+     * @return The consumer group ID.
+     */
+    public String getConsumerGroupId() {
+        return consumerGroupId;
+    }
+
+    public void setConsumerGroupId(String consumerGroupId) {
+        this.consumerGroupId = consumerGroupId;
+    }
+
+    /**
+     * The most records a subscribe node processes, and persists, as one batch. If unset, the
+     * flow service's default is used.
+     *
+     * @return The maximum number of records per poll.
+     */
+    @Min(1)
+    public Integer getMaxPollRecords() {
+        return maxPollRecords;
+    }
+
+    public void setMaxPollRecords(Integer maxPollRecords) {
+        this.maxPollRecords = maxPollRecords;
+    }
+
+    /**
+     * How many consumers a subscribe node runs in this flow service; consumers beyond the
+     * topic's partition count sit idle. If unset, the flow service's default is used.
+     *
+     * @return The number of consumers.
+     */
+    @Min(1)
+    public Integer getConsumerConcurrency() {
+        return consumerConcurrency;
+    }
+
+    public void setConsumerConcurrency(Integer consumerConcurrency) {
+        this.consumerConcurrency = consumerConcurrency;
+    }
+
+    /**
+     * How long a publish node's producer waits for more records to batch with one that is ready
+     * to send. If unset, the flow service's default is used.
+     *
+     * @return The linger, in milliseconds.
+     */
+    @Min(0)
+    public Integer getLingerMilliseconds() {
+        return lingerMilliseconds;
+    }
+
+    public void setLingerMilliseconds(Integer lingerMilliseconds) {
+        this.lingerMilliseconds = lingerMilliseconds;
+    }
+
+    /**
+     * The most bytes a publish node's producer batches per topic partition before sending. If
+     * unset, the flow service's default is used.
+     *
+     * @return The batch size, in bytes.
+     */
+    @Min(0)
+    public Integer getBatchSizeBytes() {
+        return batchSizeBytes;
+    }
+
+    public void setBatchSizeBytes(Integer batchSizeBytes) {
+        this.batchSizeBytes = batchSizeBytes;
+    }
+
+    /**
+     * How a publish node's producer compresses its batches ("none", "gzip", "snappy", "lz4" or
+     * "zstd".) If unset, the flow service's default is used.
+     *
+     * @return The compression type.
+     */
+    public String getCompressionType() {
+        return compressionType;
+    }
+
+    public void setCompressionType(String compressionType) {
+        this.compressionType = compressionType;
+    }
+
+    /**
+     * How many broker acknowledgements a publish node's producer waits for before a record
+     * counts as delivered ("0", "1" or "all".) If unset, the flow service's default is used.
+     *
+     * @return The acks.
+     */
+    public String getAcks() {
+        return acks;
+    }
+
+    public void setAcks(String acks) {
+        this.acks = acks;
+    }
+
+    /**
+     * Whether a publish node's producer is idempotent, so that its retries never duplicate
+     * records. Idempotence requires acks of "all", and is turned off for other acks. If unset,
+     * the flow service's default is used.
+     *
+     * @return Whether the producer is idempotent.
+     */
+    public Boolean getIdempotence() {
+        return idempotence;
+    }
+
+    public void setIdempotence(Boolean idempotence) {
+        this.idempotence = idempotence;
+    }
 }
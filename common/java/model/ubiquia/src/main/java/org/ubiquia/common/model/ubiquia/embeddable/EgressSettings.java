@@ -17,6 +17,12 @@ public class EgressSettings {
 
     private Integer egressConcurrency = 1;
 
+    private Long timeoutMilliseconds;
+
+    private Integer maxRetries;
+
+    private Boolean retryAmbiguousFailures = false;
+
     @NotNull
     public EgressType getEgressType() {
         return egressType;
@@ -43,4 +49,51 @@ public class EgressSettings {
     public void setEgressConcurrency(Integer egressConcurrency) {
         this.egressConcurrency = egressConcurrency;
     }
+
+    /**
+     * How long to wait for the component to respond before giving up on an attempt. If
+     * unset, the flow service's default is used.
+     *
+     * @return The timeout in milliseconds.
+     */
+    @Min(1)
+    public Long getTimeoutMilliseconds() {
+        return timeoutMilliseconds;
+    }
+
+    public void setTimeoutMilliseconds(Long timeoutMilliseconds) {
+        this.timeoutMilliseconds = timeoutMilliseconds;
+    }
+
+    /**
+     * How many times to retry a request that failed before the component could have acted on
+     * it (i.e., could not connect, or got a 503.) If unset, the flow service's default is used.
+     *
+     * @return The maximum number of retries.
+     */
+    @Min(0)
+    public Integer getMaxRetries() {
+        return maxRetries;
+    }
+
+    public void setMaxRetries(Integer maxRetries) {
+        this.maxRetries = maxRetries;
+    }
+
+    /**
+     * Whether to also retry requests that may have reached the component before failing
+     * (i.e., timed out, failed after connecting, or got a 502/504.) Retrying these can repeat
+     * the component's side effects, so only enable this for components whose endpoints are
+     * idempotent.
+     *
+     * @return Whether to retry ambiguous failures.
+     */
+    @NotNull
+    public Boolean getRetryAmbiguousFailures() {
+        return retryAmbiguousFailures;
+    }
+
+    public void setRetryAmbiguousFailures(Boolean retryAmbiguousFailures) {
+        this.retryAmbiguousFailures = retryAmbiguousFailures;
+    }
 }
@@ -2,8 +2,10 @@ package org.ubiquia.common.model.ubiquia.embeddable;
 
 
 import jakarta.persistence.Embeddable;
+import jakarta.validation.constraints.Min;
 import java.util.ArrayList;
 import java.util.List;
+import org.ubiquia.common.model.ubiquia.enums.MergeTimeoutPolicy;
 
 /** NodeSettings model. */
 @Embeddable
@@ -29,6 +31,10 @@ public class NodeSettings {
 
     private List<String> outputStampKeychains = new ArrayList<>();
 
+    private Long mergeTimeoutMilliseconds;
+
+    private MergeTimeoutPolicy mergeTimeoutPolicy;
+
     public Boolean getPersistInputPayload() {
         return persistInputPayload;
     }
@@ -109,4 +115,33 @@ public class NodeSettings {
     public void setStimulateFrequencyMilliseconds(Long stimulateFrequencyMilliseconds) {
         this.stimulateFrequencyMilliseconds = stimulateFrequencyMilliseconds;
     }
+
+    /**
+     * How long a merge node waits, from the first upstream message of a flow, for the rest
+     * to arrive. If unset, the flow service's default is used.
+     *
+     * @return The timeout in milliseconds.
+     */
+    @Min(1)
+    public Long getMergeTimeoutMilliseconds() {
+        return mergeTimeoutMilliseconds;
+    }
+
+    public void setMergeTimeoutMilliseconds(Long mergeTimeoutMilliseconds) {
+        this.mergeTimeoutMilliseconds = mergeTimeoutMilliseconds;
+    }
+
+    /**
+     * What a merge node does with a flow whose upstream messages did not all arrive in time.
+     * If unset, the flow service's default is used.
+     *
+     * @return The timeout policy.
+     */
+    public MergeTimeoutPolicy getMergeTimeoutPolicy() {
+        return mergeTimeoutPolicy;
+    }
+
+    public void setMergeTimeoutPolicy(MergeTimeoutPolicy mergeTimeoutPolicy) {
+        this.mergeTimeoutPolicy = mergeTimeoutPolicy;
+    }
 }
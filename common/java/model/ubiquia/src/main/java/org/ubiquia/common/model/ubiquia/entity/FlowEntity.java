@@ -9,6 +9,7 @@ import org.springframework.validation.annotation.Validated;
 /** FlowEntity model. */
 @Validated
 @Entity
+@Table(indexes = @Index(name = "idx_flow_graph", columnList = "graph_flow_join_id"))
 public class FlowEntity extends AbstractModelEntity {
 
     @NotNull
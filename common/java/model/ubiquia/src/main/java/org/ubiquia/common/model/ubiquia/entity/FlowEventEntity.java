@@ -14,6 +14,10 @@ import org.ubiquia.common.model.ubiquia.embeddable.KeyValuePair;
 /** FlowEventEntity model. */
 @Validated
 @Entity
+@Table(indexes = {
+    @Index(name = "idx_flow_event_flow", columnList = "flow_event_join_id"),
+    @Index(name = "idx_flow_event_node", columnList = "node_event_join_id")
+})
 public class FlowEventEntity extends AbstractModelEntity {
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -3,11 +3,31 @@ package org.ubiquia.common.model.ubiquia.entity;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
+import java.time.OffsetDateTime;
+import java.util.Objects;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
-/** FlowMessageEntity model. */
+/**
+ * FlowMessageEntity model.
+ *
+ * <p>Inbox reads filter by target node and order by queue time, and merges look up a node's
+ * messages by flow. Both the queue time and the flow ID are therefore denormalized onto this
+ * table so that those reads are served by this table's indexes alone, rather than joining the
+ * base table (for createdAt) or the event table (for the flow).</p>
+ */
 @Entity
+@Table(indexes = {
+    @Index(
+        name = "idx_flow_message_target_node_queued_at",
+        columnList = "message_target_node_join_id, queued_at"),
+    @Index(
+        name = "idx_flow_message_target_node_flow",
+        columnList = "message_target_node_join_id, message_flow_id"),
+    @Index(
+        name = "idx_flow_message_event",
+        columnList = "message_events_join_id")
+})
 public class FlowMessageEntity extends AbstractModelEntity {
 
     @ManyToOne(fetch = FetchType.EAGER)
@@ -23,6 +43,28 @@ public class FlowMessageEntity extends AbstractModelEntity {
     @JdbcTypeCode(SqlTypes.LONGVARCHAR)
     private String payload;
 
+    private String leaseOwner;
+
+    private OffsetDateTime leaseExpiresAt;
+
+    @Column(name = "queued_at", nullable = false, updatable = false)
+    private OffsetDateTime queuedAt;
+
+    @Column(name = "message_flow_id", updatable = false, length = 36)
+    private String flowId;
+
+    @PrePersist
+    private void denormalize() {
+        if (Objects.isNull(this.queuedAt)) {
+            this.queuedAt = OffsetDateTime.now();
+        }
+        if (Objects.isNull(this.flowId)
+            && Objects.nonNull(this.flowEvent)
+            && Objects.nonNull(this.flowEvent.getFlow())) {
+            this.flowId = this.flowEvent.getFlow().getId();
+        }
+    }
+
     @NotNull
     public FlowEventEntity getFlowEvent() {
         return flowEvent;
@@ -48,4 +90,56 @@ public class FlowMessageEntity extends AbstractModelEntity {
     public void setPayload(String payload) {
         this.payload = payload;
     }
+
+    /**
+     * The flow service instance currently holding a lease on this message, if any.
+     *
+     * @return leaseOwner
+     **/
+    public String getLeaseOwner() {
+        return leaseOwner;
+    }
+
+    public void setLeaseOwner(String leaseOwner) {
+        this.leaseOwner = leaseOwner;
+    }
+
+    /**
+     * When the current lease on this message expires; after this, any instance may claim it.
+     *
+     * @return leaseExpiresAt
+     **/
+    public OffsetDateTime getLeaseExpiresAt() {
+        return leaseExpiresAt;
+    }
+
+    public void setLeaseExpiresAt(OffsetDateTime leaseExpiresAt) {
+        this.leaseExpiresAt = leaseExpiresAt;
+    }
+
+    /**
+     * When this message was queued; inbox reads are ordered by this.
+     *
+     * @return queuedAt
+     **/
+    public OffsetDateTime getQueuedAt() {
+        return queuedAt;
+    }
+
+    public void setQueuedAt(OffsetDateTime queuedAt) {
+        this.queuedAt = queuedAt;
+    }
+
+    /**
+     * The ID of the flow this message's event belongs to.
+     *
+     * @return flowId
+     **/
+    public String getFlowId() {
+        return flowId;
+    }
+
+    public void setFlowId(String flowId) {
+        this.flowId = flowId;
+    }
 }
@@ -10,6 +10,10 @@ import org.hibernate.annotations.CreationTimestamp;
 
 /** SyncEntity model. */
 @Entity
+@Table(indexes = {
+    @Index(name = "idx_sync_model", columnList = "model_sync_join_id"),
+    @Index(name = "idx_sync_source_agent", columnList = "sync_agent_join_id")
+})
 public class SyncEntity {
 
     @Id
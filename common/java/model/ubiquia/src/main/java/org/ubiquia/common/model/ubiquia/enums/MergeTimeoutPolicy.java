@@ -0,0 +1,41 @@
+package org.ubiquia.common.model.ubiquia.enums;
+
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/** What a merge node does with a join that times out before every upstream message arrives. */
+public enum MergeTimeoutPolicy {
+
+    DISCARD("DISCARD"),
+
+    MERGE_PARTIAL("MERGE_PARTIAL");
+
+    private String value;
+
+    MergeTimeoutPolicy(String value) {
+        this.value = value;
+    }
+
+    /**
+     * Method to map from a string to an Enum.
+     *
+     * @param text The string value to map from.
+     * @return The enum value of the string.
+     */
+    @JsonCreator
+    public static MergeTimeoutPolicy fromValue(String text) {
+        for (MergeTimeoutPolicy b : MergeTimeoutPolicy.values()) {
+            if (String.valueOf(b.value).equals(text)) {
+                return b;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    @JsonValue
+    public String toString() {
+        return String.valueOf(value);
+    }
+}
@@ -0,0 +1,31 @@
+package org.ubiquia.common.model.ubiquia.node;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.ubiquia.common.model.ubiquia.dto.FlowEvent;
+
+/**
+ * A special egress model for queue adapters popping several messages at once.
+ */
+public class QueueNodeBatchEgress {
+
+    private Long queuedRecords;
+
+    private List<FlowEvent> flowEvents = new ArrayList<>();
+
+    public Long getQueuedRecords() {
+        return queuedRecords;
+    }
+
+    public void setQueuedRecords(Long queuedRecords) {
+        this.queuedRecords = queuedRecords;
+    }
+
+    public List<FlowEvent> getFlowEvents() {
+        return flowEvents;
+    }
+
+    public void setFlowEvents(List<FlowEvent> flowEvents) {
+        this.flowEvents = flowEvents;
+    }
+}
@@ -0,0 +1,29 @@
+package org.ubiquia.common.model.ubiquia.node;
+
+import org.ubiquia.common.model.ubiquia.dto.FlowEvent;
+
+/**
+ * A message streamed from a queue adapter; clients acknowledge it by its message ID.
+ */
+public class QueueNodeMessage {
+
+    private String messageId;
+
+    private FlowEvent flowEvent;
+
+    public String getMessageId() {
+        return messageId;
+    }
+
+    public void setMessageId(String messageId) {
+        this.messageId = messageId;
+    }
+
+    public FlowEvent getFlowEvent() {
+        return flowEvent;
+    }
+
+    public void setFlowEvent(FlowEvent flowEvent) {
+        this.flowEvent = flowEvent;
+    }
+}
@@ -15,6 +15,7 @@ import org.springframework.web.client.RestTemplate;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.ubiquia.core.flow.service.registry.ComponentHttpClientRegistry;
 
 /** Spring configuration class providing shared beans for the flow service. */
 @Configuration
@@ -24,13 +25,16 @@ public class Config implements WebMvcConfigurer {
     protected static final Logger logger = LoggerFactory.getLogger(Config.class);
 
     /**
-     * Rest template bean.
+     * Rest template bean. Requests are routed to a dedicated connection pool per target
+     * component.
      *
+     * @param componentHttpClientRegistry The registry of per-component pools.
      * @return our REST template.
      */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(
+        final ComponentHttpClientRegistry componentHttpClientRegistry) {
+        return new RestTemplate(componentHttpClientRegistry);
     }
 
     /**
@@ -7,8 +7,6 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.ScheduledThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,7 +20,10 @@ import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.client.RestTemplate;
 import org.ubiquia.common.library.implementation.service.mapper.FlowMessageDtoMapper;
 import org.ubiquia.core.flow.repository.FlowMessageRepository;
+import org.ubiquia.core.flow.service.io.broker.kafka.KafkaOutboxRelay;
+import org.ubiquia.core.flow.service.logic.node.NodeTypeLogic;
 import org.ubiquia.core.flow.service.manager.NodeManager;
+import org.ubiquia.core.flow.service.scheduler.NodeScheduler;
 
 /** Relays orphaned flow messages to peer agents when a node's target is not local. */
 @Component
@@ -40,9 +41,18 @@ public class FlowEgressRelay {
     @Autowired
     private FlowMessageRepository flowMessageRepository;
 
+    @Autowired(required = false)
+    private KafkaOutboxRelay kafkaOutboxRelay;
+
     @Autowired
     private NodeManager nodeManager;
 
+    @Autowired
+    private NodeScheduler nodeScheduler;
+
+    @Autowired
+    private NodeTypeLogic nodeTypeLogic;
+
     @Autowired
     private RestTemplate restTemplate;
 
@@ -55,12 +65,11 @@ public class FlowEgressRelay {
     /** Starts the scheduled poll-and-forward task. */
     @PostConstruct
     public void start() {
-        var executor = new ScheduledThreadPoolExecutor(1);
-        this.pollTask = executor.scheduleAtFixedRate(
+        this.pollTask = this.nodeScheduler.schedule(
+            "flowEgressRelay",
             this::tryPollAndForward,
             POLL_FREQUENCY_MS,
-            POLL_FREQUENCY_MS,
-            TimeUnit.MILLISECONDS);
+            POLL_FREQUENCY_MS);
         logger.info("FlowEgressRelay started.");
     }
 
@@ -92,7 +101,7 @@ public class FlowEgressRelay {
 
     private void forwardOrphanedMessages(final Set<String> peers) {
         var localNodeIds = this.nodeManager.getLocalNodeIds();
-        var sort = Sort.by("createdAt").ascending();
+        var sort = Sort.by("queuedAt").ascending();
         var pageRequest = PageRequest.of(0, INBOX_PAGE_SIZE).withSort(sort);
         var allMessages = this.flowMessageRepository.findAll(pageRequest);
         var page = localNodeIds.isEmpty()
@@ -115,6 +124,12 @@ public class FlowEgressRelay {
         headers.setContentType(MediaType.APPLICATION_JSON);
 
         for (var message : page.getContent()) {
+            // Whichever instance runs the target node consumes these from the node's topic.
+            if (Objects.nonNull(this.kafkaOutboxRelay)
+                && this.nodeTypeLogic.isKafkaRelayedNodeType(
+                    message.getTargetNode().getNodeType())) {
+                continue;
+            }
             try {
                 var dto = this.flowMessageDtoMapper.map(message);
                 var openSet = new HashSet<>(peers);
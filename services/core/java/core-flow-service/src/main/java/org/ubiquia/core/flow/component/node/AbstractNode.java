@@ -22,8 +22,10 @@ import org.ubiquia.core.flow.model.node.NodeContext;
 import org.ubiquia.core.flow.repository.FlowMessageRepository;
 import org.ubiquia.core.flow.service.builder.FlowBuilder;
 import org.ubiquia.core.flow.service.builder.FlowEventBuilder;
+import org.ubiquia.core.flow.service.builder.PayloadBuilder;
 import org.ubiquia.core.flow.service.builder.StimulatedPayloadBuilder;
 import org.ubiquia.core.flow.service.calculator.BackPressureCalculator;
+import org.ubiquia.core.flow.service.calculator.NodeConcurrencyCalculator;
 import org.ubiquia.core.flow.service.command.node.NodeInboxPollCommand;
 import org.ubiquia.core.flow.service.command.node.NodeProcessInboxMessageCommand;
 import org.ubiquia.core.flow.service.decorator.node.NodeDecorator;
@@ -53,6 +55,8 @@ public abstract class AbstractNode implements InterfaceLogger {
     @Autowired
     protected NodeInboxPollingLogic nodeInboxPollingLogic;
     @Autowired
+    protected NodeConcurrencyCalculator nodeConcurrencyCalculator;
+    @Autowired
     protected BackPressureCalculator backPressureCalculator;
     @Autowired
     protected FlowBuilder flowBuilder;
@@ -67,6 +71,8 @@ public abstract class AbstractNode implements InterfaceLogger {
     @Autowired
     protected ObjectMapper objectMapper;
     @Autowired
+    protected PayloadBuilder payloadBuilder;
+    @Autowired
     protected PayloadModelValidator payloadModelValidator;
     @Autowired
     protected RestTemplate restTemplate;
@@ -131,10 +137,11 @@ public abstract class AbstractNode implements InterfaceLogger {
 
         this.getLogger().info("Node {} received a payload to push to component...",
             this.getNodeContext().getNodeName());
-        this.payloadModelValidator.tryValidateInputPayloadFor(inputPayload, this);
-        var event = this.flowEventBuilder.makeFlowAndEventFrom(inputPayload, this);
+        var payload = this.payloadBuilder.fromJson(inputPayload);
+        this.payloadModelValidator.tryValidateInputPayloadFor(payload, this);
+        var event = this.flowEventBuilder.makeFlowAndEventFrom(payload, this);
 
-        this.nodePayloadOrchestrator.forwardPayload(event, this, inputPayload);
+        this.nodePayloadOrchestrator.forwardPayload(event, this, payload);
         var egress = this.flowEventDtoMapper.map(event);
         this.getLogger().info("...finished processing input payload.");
         var response = ResponseEntity.accepted().body(egress);
@@ -159,7 +166,8 @@ public abstract class AbstractNode implements InterfaceLogger {
         this.getLogger().info("Stimulating component with dummy input payload...");
 
         try {
-            var stimulatePayload = this.stimulatedPayloadBuilder.buildStimulatedPayloadFor(this);
+            var stimulatePayload = this.payloadBuilder.fromJson(
+                this.stimulatedPayloadBuilder.buildStimulatedPayloadFor(this));
             var event = this.flowEventBuilder.makeFlowAndEventFrom(stimulatePayload, this);
             this.nodePayloadOrchestrator.forwardPayload(event, this, stimulatePayload);
         } catch (Exception e) {
@@ -174,14 +182,31 @@ public abstract class AbstractNode implements InterfaceLogger {
         }
     }
 
-    /** Polls the inbox for pending messages and processes them if eligible. */
+    /**
+     * Polls the inbox for pending messages and processes them if eligible.
+     *
+     * @return Whether the poll claimed a full page of messages, so that more may be waiting.
+     */
     @Transactional
-    public void tryPollInbox() {
+    public Boolean tryPollInbox() {
 
+        var fullPage = false;
         if (this.nodeInboxPollingLogic.isValidToPollInbox(this)) {
+            var pageSize = this.nodeConcurrencyCalculator.getInboxQueryPageSizeFor(this);
             var messages = this.nodeInboxPollCommand.tryPollInboxFor(this);
             this.tryProcessInboxMessages(messages);
+            fullPage = !messages.isEmpty() && messages.size() >= pageSize;
         }
+        return fullPage;
+    }
+
+    /**
+     * Processes messages relayed to this node over Kafka (in the KAFKA outbox mode) as though
+     * they had been claimed from its inbox.
+     */
+    @Transactional
+    public void tryProcessRelayedMessages(final List<FlowMessage> messages) {
+        this.tryProcessInboxMessages(messages);
     }
 
     /** Returns the current back-pressure state for this node. */
@@ -30,7 +30,9 @@ public class MergeNode extends AbstractNode {
     @Override
     public void initializeBehavior() throws GenerationException, JsonProcessingException {
         super.initializeBehavior();
+        this.mergeNodeCommand.registerJoinBufferFor(this);
         super.nodeDecorator.initializeInboxPollingFor(this);
+        super.nodeDecorator.initializeMergeJoinSweepFor(this);
         super.nodeDecorator.initializeBackPressurePollingFor(this);
         super.nodeDecorator.initializeOutputLogicFor(this);
         super.nodeDecorator.registerBackpressureEndpointFor(this);
@@ -44,4 +46,9 @@ public class MergeNode extends AbstractNode {
             this.mergeNodeCommand.tryProcessMessageFor(message, this);
         }
     }
-}
\ No newline at end of file
+
+    /** Resolves joins that timed out waiting on their upstream messages. */
+    public void trySweepJoins() {
+        this.mergeNodeCommand.trySweepJoinsFor(this);
+    }
+}
@@ -74,19 +74,17 @@ public class PollNode extends AbstractNode {
             response.getStatusCode());
 
         try {
-            var stringifiedPayload = super
-                .objectMapper
-                .writeValueAsString(response.getBody());
-            super.payloadModelValidator.tryValidateInputPayloadFor(stringifiedPayload, this);
-            super.stamper.tryStampInputs(flowEvent, stringifiedPayload);
+            var payload = super.payloadBuilder.fromValue(response.getBody());
+            super.payloadModelValidator.tryValidateInputPayloadFor(payload, this);
+            super.stamper.tryStampInputs(flowEvent, payload, nodeContext);
 
             if (nodeContext.getNodeSettings().getPersistInputPayload()) {
-                flowEvent.setInputPayload(stringifiedPayload);
+                flowEvent.setInputPayload(payload.asJson());
             }
 
             super
                 .nodePayloadOrchestrator
-                .forwardPayload(flowEvent, this, stringifiedPayload);
+                .forwardPayload(flowEvent, this, payload);
         } catch (Exception e) {
             logger.error("Could not successfully forward polled response to agent: {}",
                 e.getMessage());
@@ -42,8 +42,6 @@ public class PublishNode extends AbstractNode {
 
     @Override
     protected void tryProcessInboxMessages(List<FlowMessage> messages) {
-        for (var message : messages) {
-            this.brokerEgress.tryPublishFor(message, this);
-        }
+        this.brokerEgress.tryPublishFor(messages, this);
     }
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package org.ubiquia.core.flow.component.node;
 
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import java.util.List;
 import net.jimblackler.jsonschemafriend.GenerationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -9,10 +10,19 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Scope;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.ubiquia.common.model.ubiquia.node.QueueNodeBatchEgress;
 import org.ubiquia.common.model.ubiquia.node.QueueNodeEgress;
 import org.ubiquia.core.flow.service.command.node.QueueAdapterCommand;
+import org.ubiquia.core.flow.service.io.QueueNodeStreamer;
 
-/** A node that acts as a queue, supporting peek and pop operations on buffered messages. */
+/**
+ * A node that acts as a queue, supporting peek and pop operations on buffered messages, batch
+ * and long-polling pops, and streaming with acknowledgements.
+ */
 @Component
 @Scope("prototype")
 public class QueueNode extends AbstractNode {
@@ -22,6 +32,9 @@ public class QueueNode extends AbstractNode {
     @Autowired
     private QueueAdapterCommand queueAdapterCommand;
 
+    @Autowired
+    private QueueNodeStreamer queueNodeStreamer;
+
     @Override
     public Logger getLogger() {
         return logger;
@@ -32,6 +45,9 @@ public class QueueNode extends AbstractNode {
         super.initializeBehavior();
         super.nodeDecorator.registerPeekEndpointFor(this);
         super.nodeDecorator.registerPopEndpointFor(this);
+        super.nodeDecorator.registerPopBatchEndpointFor(this);
+        super.nodeDecorator.registerStreamEndpointFor(this);
+        super.nodeDecorator.registerAcknowledgeEndpointFor(this);
         super.nodeDecorator.initializeBackPressurePollingFor(this);
         super.nodeDecorator.registerBackpressureEndpointFor(this);
         this.getLogger().info("...{} node initialization complete...",
@@ -47,4 +63,26 @@ public class QueueNode extends AbstractNode {
     public ResponseEntity<QueueNodeEgress> pop() throws Exception {
         return this.queueAdapterCommand.popFor(this);
     }
+
+    /**
+     * Removes and returns up to the requested number of queued messages, waiting up to the
+     * requested time for messages to arrive if the queue is empty.
+     */
+    public DeferredResult<ResponseEntity<QueueNodeBatchEgress>> popBatch(
+        @RequestParam(name = "count", defaultValue = "100") final Integer count,
+        @RequestParam(name = "waitMilliseconds", defaultValue = "0") final Long waitMilliseconds) {
+        return this.queueAdapterCommand.popBatchFor(this, count, waitMilliseconds);
+    }
+
+    /** Streams queued messages as server-sent events until they are acknowledged. */
+    public SseEmitter stream(
+        @RequestParam(name = "batchSize", defaultValue = "100") final Integer batchSize) {
+        return this.queueNodeStreamer.open(this, batchSize);
+    }
+
+    /** Removes streamed messages from the queue by their message IDs. */
+    public ResponseEntity<Integer> acknowledge(@RequestBody final List<String> messageIds)
+        throws Exception {
+        return ResponseEntity.accepted().body(this.queueNodeStreamer.acknowledge(this, messageIds));
+    }
 }
\ No newline at end of file
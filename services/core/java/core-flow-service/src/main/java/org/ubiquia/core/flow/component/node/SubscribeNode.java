@@ -2,28 +2,28 @@ package org.ubiquia.core.flow.component.node;
 
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import io.micrometer.core.instrument.Timer;
-import jakarta.validation.constraints.NotNull;
-import java.util.Objects;
+import java.util.List;
 import net.jimblackler.jsonschemafriend.GenerationException;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Scope;
-import org.springframework.kafka.listener.MessageListener;
 import org.springframework.stereotype.Component;
+import org.ubiquia.core.flow.service.command.node.SubscribeNodeCommand;
 
 /**
  * A node that subscribes to a broker topic and forwards received messages into the flow pipeline.
  */
 @Component
 @Scope("prototype")
-public class SubscribeNode
-    extends AbstractNode
-    implements MessageListener<String, String> {
+public class SubscribeNode extends AbstractNode {
 
     private static final Logger logger = LoggerFactory.getLogger(SubscribeNode.class);
 
+    @Autowired
+    private SubscribeNodeCommand subscribeNodeCommand;
+
     @Override
     public Logger getLogger() {
         return logger;
@@ -40,31 +40,8 @@ public class SubscribeNode
             this.getNodeContext().getNodeType());
     }
 
-    @Override
-    public void onMessage(@NotNull ConsumerRecord<String, String> message) {
-        this.getLogger().info("Received a message over broker; processing...");
-
-        Timer.Sample sample = null;
-        if (Objects.nonNull(this.microMeterHelper)) {
-            sample = this.microMeterHelper.startSample();
-        }
-
-        try {
-            var inputPayload = message.value();
-            super.payloadModelValidator.tryValidateInputPayloadFor(inputPayload, this);
-            var event = super.flowEventBuilder.makeFlowAndEventFrom(inputPayload, this);
-            super.nodePayloadOrchestrator.forwardPayload(event, this, inputPayload);
-        } catch (Exception e) {
-            logger.error("Could not process incoming message: {} ", message);
-            logger.error("Reason: {} ", e.getMessage());
-        }
-
-        if (Objects.nonNull(sample)) {
-            super.microMeterHelper.endSample(
-                sample,
-                "onMessage",
-                this.getNodeContext().getTags());
-        }
-        this.getLogger().info("...finished processing incoming message.");
+    /** Processes a poll's worth of records received over broker as one batch. */
+    public void onMessages(final List<ConsumerRecord<String, String>> messages) {
+        this.subscribeNodeCommand.tryProcessRecordsFor(messages, this);
     }
-}
\ No newline at end of file
+}
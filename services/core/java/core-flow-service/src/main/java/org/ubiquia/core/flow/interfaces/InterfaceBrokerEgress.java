@@ -1,7 +1,7 @@
 package org.ubiquia.core.flow.interfaces;
 
 
-import com.fasterxml.jackson.core.JsonProcessingException;
+import java.util.concurrent.CompletableFuture;
 import org.ubiquia.core.flow.component.node.AbstractNode;
 
 /**
@@ -10,12 +10,13 @@ import org.ubiquia.core.flow.component.node.AbstractNode;
 public interface InterfaceBrokerEgress {
 
     /**
-     * Attempt to publish the provided payload over any configured broker.
+     * Attempt to publish the provided payload over any configured broker without waiting for
+     * the broker to acknowledge it.
      *
      * @param payload The payload to publish.
      * @param adapter The adapter doing the publishing.
-     * @throws JsonProcessingException Exceptions from JSON.
+     * @return A future that completes once the broker acknowledges the payload, or completes
+     *     exceptionally if it could not be delivered.
      */
-    void tryPublishPayload(final String payload, final AbstractNode adapter)
-        throws JsonProcessingException;
+    CompletableFuture<?> tryPublishPayload(final String payload, final AbstractNode adapter);
 }
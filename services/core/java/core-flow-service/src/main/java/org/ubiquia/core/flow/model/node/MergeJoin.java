@@ -0,0 +1,99 @@
+package org.ubiquia.core.flow.model.node;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.ubiquia.common.model.ubiquia.dto.FlowMessage;
+
+/**
+ * The upstream messages a merge node has received so far for one flow, keyed by the name of
+ * the node each came from.
+ */
+public class MergeJoin {
+
+    private final String flowId;
+
+    private final OffsetDateTime deadline;
+
+    private final Set<String> expectedSources;
+
+    private final Map<String, FlowMessage> messagesBySource = new LinkedHashMap<>();
+
+    private final Set<String> messageIds = new HashSet<>();
+
+    /**
+     * Start a join for a flow.
+     *
+     * @param flowId          The ID of the flow.
+     * @param deadline        When the join gives up waiting on its remaining sources.
+     * @param expectedSources The names of the nodes the join waits to hear from.
+     */
+    public MergeJoin(
+        final String flowId,
+        final OffsetDateTime deadline,
+        final Set<String> expectedSources) {
+        this.flowId = flowId;
+        this.deadline = deadline;
+        this.expectedSources = expectedSources;
+    }
+
+    public String getFlowId() {
+        return flowId;
+    }
+
+    public OffsetDateTime getDeadline() {
+        return deadline;
+    }
+
+    public Set<String> getExpectedSources() {
+        return expectedSources;
+    }
+
+    public Map<String, FlowMessage> getMessagesBySource() {
+        return Collections.unmodifiableMap(this.messagesBySource);
+    }
+
+    public List<String> getMessageIds() {
+        return new ArrayList<>(this.messageIds);
+    }
+
+    /**
+     * Add a message from a source that has not yet been heard from.
+     *
+     * @param source  The name of the node the message came from.
+     * @param message The message.
+     */
+    public void add(final String source, final FlowMessage message) {
+        this.messagesBySource.put(source, message);
+        this.messageIds.add(message.getId());
+    }
+
+    /**
+     * Whether a message has already been received from a source.
+     *
+     * @param source The name of the node.
+     * @return Whether a message from the node is held.
+     */
+    public Boolean hasSource(final String source) {
+        return this.messagesBySource.containsKey(source);
+    }
+
+    /**
+     * Whether a message is already held by this join.
+     *
+     * @param messageId The ID of the message.
+     * @return Whether the message is held.
+     */
+    public Boolean hasMessage(final String messageId) {
+        return this.messageIds.contains(messageId);
+    }
+
+    public Boolean isComplete() {
+        return this.messagesBySource.keySet().containsAll(this.expectedSources);
+    }
+}
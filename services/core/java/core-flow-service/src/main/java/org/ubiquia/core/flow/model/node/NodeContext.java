@@ -4,11 +4,13 @@ import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
 import org.ubiquia.common.model.ubiquia.dto.Component;
 import org.ubiquia.common.model.ubiquia.dto.Graph;
 import org.ubiquia.common.model.ubiquia.embeddable.*;
 import org.ubiquia.common.model.ubiquia.enums.NodeType;
+import org.ubiquia.core.flow.model.stamp.StampExtractor;
 
 /**
  * A class that maintains several data points for adapters.
@@ -41,7 +43,9 @@ public class NodeContext {
     private List<KeyValuePair> tags = new ArrayList<>();
     private List<ScheduledFuture> tasks = new ArrayList<>();
     private URI endpointUri;
-    private Integer openMessages = 0;
+    private final AtomicInteger openMessages = new AtomicInteger(0);
+    private StampExtractor inputStampExtractor;
+    private StampExtractor outputStampExtractor;
 
     public String getNodeName() {
         return nodeName;
@@ -140,11 +144,17 @@ public class NodeContext {
     }
 
     public Integer getOpenMessages() {
-        return openMessages;
+        return openMessages.get();
     }
 
+    /** Sets the in-flight message counter without replacing it. */
     public void setOpenMessages(Integer openMessages) {
-        this.openMessages = openMessages;
+        this.openMessages.set(openMessages);
+    }
+
+    /** The live in-flight message counter; updated from both node and HTTP response threads. */
+    public AtomicInteger getOpenMessageCounter() {
+        return openMessages;
     }
 
     public NodeSettings getNodeSettings() {
@@ -178,4 +188,20 @@ public class NodeContext {
     public void setGraph(Graph graph) {
         this.graph = graph;
     }
+
+    public StampExtractor getInputStampExtractor() {
+        return inputStampExtractor;
+    }
+
+    public void setInputStampExtractor(StampExtractor inputStampExtractor) {
+        this.inputStampExtractor = inputStampExtractor;
+    }
+
+    public StampExtractor getOutputStampExtractor() {
+        return outputStampExtractor;
+    }
+
+    public void setOutputStampExtractor(StampExtractor outputStampExtractor) {
+        this.outputStampExtractor = outputStampExtractor;
+    }
 }
@@ -0,0 +1,123 @@
+package org.ubiquia.core.flow.model.payload;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Read-only views of a JSON tree as the plain Java maps, lists and scalars that JSON Schema
+ * validation walks. Containers are wrapped rather than copied, and their children are only
+ * wrapped as they are visited, so validating a tree never materializes a second copy of it.
+ */
+final class JsonNodeDocument {
+
+    private JsonNodeDocument() {
+    }
+
+    /**
+     * Get a view of a JSON node.
+     *
+     * @param node The node to view.
+     * @return A map view of an object, a list view of an array, or the node's scalar value.
+     */
+    static Object of(final JsonNode node) {
+        if (Objects.isNull(node) || node.isNull() || node.isMissingNode()) {
+            return null;
+        }
+        if (node.isObject()) {
+            return new ObjectView(node);
+        }
+        if (node.isArray()) {
+            return new ArrayView(node);
+        }
+        if (node.isNumber()) {
+            return node.numberValue();
+        }
+        if (node.isBoolean()) {
+            return node.booleanValue();
+        }
+        return node.asText();
+    }
+
+    /** A map view of an object node. */
+    private static final class ObjectView extends AbstractMap<String, Object> {
+
+        private final JsonNode node;
+
+        private ObjectView(final JsonNode node) {
+            this.node = node;
+        }
+
+        @Override
+        public Object get(final Object key) {
+            return key instanceof String field ? JsonNodeDocument.of(this.node.get(field)) : null;
+        }
+
+        @Override
+        public boolean containsKey(final Object key) {
+            return key instanceof String field && this.node.has(field);
+        }
+
+        @Override
+        public int size() {
+            return this.node.size();
+        }
+
+        @Override
+        public Set<Map.Entry<String, Object>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Map.Entry<String, Object>> iterator() {
+                    var fields = ObjectView.this.node.properties().iterator();
+                    return new Iterator<>() {
+                        @Override
+                        public boolean hasNext() {
+                            return fields.hasNext();
+                        }
+
+                        @Override
+                        public Map.Entry<String, Object> next() {
+                            var field = fields.next();
+                            return new SimpleImmutableEntry<>(
+                                field.getKey(),
+                                JsonNodeDocument.of(field.getValue()));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return ObjectView.this.node.size();
+                }
+            };
+        }
+    }
+
+    /** A list view of an array node. */
+    private static final class ArrayView extends AbstractList<Object> {
+
+        private final JsonNode node;
+
+        private ArrayView(final JsonNode node) {
+            this.node = node;
+        }
+
+        @Override
+        public Object get(final int index) {
+            if (index < 0 || index >= this.node.size()) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return JsonNodeDocument.of(this.node.get(index));
+        }
+
+        @Override
+        public int size() {
+            return this.node.size();
+        }
+    }
+}
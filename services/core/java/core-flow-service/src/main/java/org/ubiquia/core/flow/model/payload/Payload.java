@@ -0,0 +1,134 @@
+package org.ubiquia.core.flow.model.payload;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * A JSON payload as it moves through a single node "hop." A payload is created from whatever
+ * form it arrives in (raw JSON from a push, broker or inbox; a deserialized body from an HTTP
+ * response; a tree built by a merge) and converts lazily to the other forms the first time
+ * they are asked for, remembering the result. Raw JSON is therefore parsed at most once per
+ * hop no matter how many stamps or validations use it, and serialized only when a caller
+ * needs text at a database or HTTP boundary.
+ *
+ * <p>Payloads are not thread-safe and are not meant to outlive the hop that created them.</p>
+ */
+public class Payload {
+
+    private final ObjectMapper objectMapper;
+
+    private String json;
+
+    private JsonNode tree;
+
+    private Object value;
+
+    private Payload(final ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Create a payload from raw JSON.
+     *
+     * @param objectMapper The mapper to use for conversions.
+     * @param json         The raw JSON.
+     * @return A new payload.
+     */
+    public static Payload fromJson(final ObjectMapper objectMapper, final String json) {
+        var payload = new Payload(objectMapper);
+        payload.json = json;
+        return payload;
+    }
+
+    /**
+     * Create a payload from a JSON tree.
+     *
+     * @param objectMapper The mapper to use for conversions.
+     * @param tree         The JSON tree.
+     * @return A new payload.
+     */
+    public static Payload fromTree(final ObjectMapper objectMapper, final JsonNode tree) {
+        var payload = new Payload(objectMapper);
+        payload.tree = tree;
+        return payload;
+    }
+
+    /**
+     * Create a payload from an already-deserialized value (i.e., maps, lists and scalars from
+     * an HTTP response body.)
+     *
+     * @param objectMapper The mapper to use for conversions.
+     * @param value        The deserialized value.
+     * @return A new payload.
+     */
+    public static Payload fromValue(final ObjectMapper objectMapper, final Object value) {
+        var payload = new Payload(objectMapper);
+        payload.value = value;
+        return payload;
+    }
+
+    /**
+     * Get the payload as raw JSON, serializing it if it did not arrive as text.
+     *
+     * @return The raw JSON.
+     * @throws JsonProcessingException Exceptions from serializing the payload.
+     */
+    public String asJson() throws JsonProcessingException {
+        if (Objects.isNull(this.json)) {
+            this.json = Objects.nonNull(this.tree)
+                ? this.objectMapper.writeValueAsString(this.tree)
+                : this.objectMapper.writeValueAsString(this.value);
+        }
+        return this.json;
+    }
+
+    /**
+     * Get the payload as a JSON tree, parsing or converting it on first use.
+     *
+     * @return The JSON tree.
+     * @throws JsonProcessingException Exceptions from parsing the payload.
+     */
+    public JsonNode asTree() throws JsonProcessingException {
+        if (Objects.isNull(this.tree)) {
+            this.tree = Objects.nonNull(this.json)
+                ? this.objectMapper.readTree(this.json)
+                : this.objectMapper.valueToTree(this.value);
+        }
+        return this.tree;
+    }
+
+    /**
+     * Get a streaming parser over the payload. If the payload has already been parsed into a
+     * tree the parser walks that tree; otherwise it streams over the raw JSON without building
+     * one.
+     *
+     * @return A new parser positioned before the payload's first token.
+     * @throws IOException Exceptions from creating the parser.
+     */
+    public JsonParser asParser() throws IOException {
+        if (Objects.nonNull(this.tree)) {
+            return this.tree.traverse(this.objectMapper);
+        }
+        return this.objectMapper.getFactory().createParser(this.asJson());
+    }
+
+    /**
+     * Get the payload as plain Java maps, lists and scalars (the form JSON Schema validation
+     * works on.) A payload that arrived deserialized is returned as-is; otherwise this is a
+     * read-only view over the payload's tree, so raw JSON is parsed at most once and the tree
+     * is never copied.
+     *
+     * @return The payload as a document.
+     * @throws JsonProcessingException Exceptions from parsing the payload.
+     */
+    public Object asDocument() throws JsonProcessingException {
+        if (Objects.nonNull(this.value)) {
+            return this.value;
+        }
+        return JsonNodeDocument.of(this.asTree());
+    }
+}
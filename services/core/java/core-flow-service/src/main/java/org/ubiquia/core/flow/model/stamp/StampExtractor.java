@@ -0,0 +1,233 @@
+package org.ubiquia.core.flow.model.stamp;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A set of stamp keychains compiled once (when a node is deployed) into paths that can all be
+ * extracted from a payload in a single streaming pass, without building a JSON tree.
+ *
+ * <p>Two keychain syntaxes are supported:</p>
+ * <ul>
+ *     <li>Dot notation ({@code owner.address.city}): each key is a field name. Arrays met
+ *     anywhere along the path are fanned out, applying the rest of the path to every element;
+ *     the stamp is then the list of values found (i.e., {@code [a, b]}).</li>
+ *     <li>JSON Pointer ({@code /owners/0/name}): numeric segments index into arrays, other
+ *     segments are field names, and {@code ~0}/{@code ~1} escape {@code ~} and {@code /}.</li>
+ * </ul>
+ *
+ * <p>Only scalar values are stamped. A keychain whose path does not exist in a payload simply
+ * yields no stamp rather than failing the payload.</p>
+ */
+public class StampExtractor {
+
+    private static final StampExtractor EMPTY = new StampExtractor(List.of());
+
+    private final List<CompiledKeychain> keychains;
+
+    private StampExtractor(final List<CompiledKeychain> keychains) {
+        this.keychains = keychains;
+    }
+
+    /**
+     * Compile a collection of keychains.
+     *
+     * @param keychains The keychains to compile; may be null.
+     * @return A compiled extractor.
+     */
+    public static StampExtractor compile(final Collection<String> keychains) {
+        if (Objects.isNull(keychains) || keychains.isEmpty()) {
+            return EMPTY;
+        }
+        var compiled = new ArrayList<CompiledKeychain>();
+        for (var keychain : keychains) {
+            compiled.add(CompiledKeychain.compile(keychain));
+        }
+        return new StampExtractor(List.copyOf(compiled));
+    }
+
+    public boolean isEmpty() {
+        return this.keychains.isEmpty();
+    }
+
+    /**
+     * Extract every compiled keychain from the payload the parser is positioned before.
+     *
+     * @param parser A parser over the payload; it is closed once extraction is complete.
+     * @return The stamps found, keyed by keychain, in compilation order.
+     * @throws JsonProcessingException Exceptions from parsing the payload.
+     */
+    public Map<String, String> extract(final JsonParser parser) throws JsonProcessingException {
+
+        var results = new ArrayList<Result>(this.keychains.size());
+        var cursors = new ArrayList<Cursor>(this.keychains.size());
+        for (var keychain : this.keychains) {
+            var result = new Result();
+            results.add(result);
+            cursors.add(new Cursor(keychain, 0, result));
+        }
+
+        try (parser) {
+            if (Objects.nonNull(parser.nextToken())) {
+                this.visit(parser, cursors);
+            }
+        } catch (JsonProcessingException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        var stamps = new LinkedHashMap<String, String>();
+        for (var i = 0; i < this.keychains.size(); i++) {
+            var result = results.get(i);
+            if (result.multiple) {
+                stamps.put(this.keychains.get(i).keychain, result.values.toString());
+            } else if (!result.values.isEmpty()) {
+                stamps.put(this.keychains.get(i).keychain, result.values.get(0));
+            }
+        }
+        return stamps;
+    }
+
+    /**
+     * Visit the value the parser is currently on, advancing any cursors that match it and
+     * skipping the value entirely once no cursor can match inside it.
+     */
+    private void visit(final JsonParser parser, final List<Cursor> cursors) throws IOException {
+
+        if (cursors.isEmpty()) {
+            parser.skipChildren();
+            return;
+        }
+
+        var token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                var fieldName = parser.currentName();
+                var matching = new ArrayList<Cursor>();
+                for (var cursor : cursors) {
+                    if (cursor.matchesField(fieldName)) {
+                        matching.add(cursor.advance());
+                    }
+                }
+                parser.nextToken();
+                this.visit(parser, matching);
+            }
+        } else if (token == JsonToken.START_ARRAY) {
+            var index = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                var matching = new ArrayList<Cursor>();
+                for (var cursor : cursors) {
+                    if (cursor.keychain.pointer) {
+                        if (cursor.matchesIndex(index)) {
+                            matching.add(cursor.advance());
+                        }
+                    } else {
+                        cursor.result.multiple = true;
+                        matching.add(cursor);
+                    }
+                }
+                this.visit(parser, matching);
+                index++;
+            }
+        } else if (token.isScalarValue()) {
+            for (var cursor : cursors) {
+                if (cursor.isComplete()) {
+                    cursor.result.values.add(token == JsonToken.VALUE_NULL
+                        ? null
+                        : parser.getValueAsString());
+                }
+            }
+        }
+    }
+
+    /** A keychain split into its path segments. */
+    private static final class CompiledKeychain {
+
+        private final String keychain;
+
+        private final String[] segments;
+
+        private final int[] indexes;
+
+        private final boolean pointer;
+
+        private CompiledKeychain(
+            final String keychain,
+            final String[] segments,
+            final boolean pointer) {
+
+            this.keychain = keychain;
+            this.segments = segments;
+            this.pointer = pointer;
+            this.indexes = new int[segments.length];
+            for (var i = 0; i < segments.length; i++) {
+                this.indexes[i] = pointer ? parseIndex(segments[i]) : -1;
+            }
+        }
+
+        private static CompiledKeychain compile(final String keychain) {
+            if (keychain.startsWith("/")) {
+                var raw = keychain.substring(1).split("/", -1);
+                var segments = new String[raw.length];
+                for (var i = 0; i < raw.length; i++) {
+                    segments[i] = raw[i].replace("~1", "/").replace("~0", "~");
+                }
+                return new CompiledKeychain(keychain, segments, true);
+            }
+            return new CompiledKeychain(keychain, keychain.split("\\."), false);
+        }
+
+        private static int parseIndex(final String segment) {
+            if (segment.isEmpty() || segment.length() > 9) {
+                return -1;
+            }
+            for (var i = 0; i < segment.length(); i++) {
+                if (!Character.isDigit(segment.charAt(i))) {
+                    return -1;
+                }
+            }
+            if (segment.length() > 1 && segment.charAt(0) == '0') {
+                return -1;
+            }
+            return Integer.parseInt(segment);
+        }
+    }
+
+    /** A position within a keychain while walking a payload. */
+    private record Cursor(CompiledKeychain keychain, int position, Result result) {
+
+        private boolean isComplete() {
+            return this.position == this.keychain.segments.length;
+        }
+
+        private boolean matchesField(final String fieldName) {
+            return !this.isComplete() && this.keychain.segments[this.position].equals(fieldName);
+        }
+
+        private boolean matchesIndex(final int index) {
+            return !this.isComplete() && this.keychain.indexes[this.position] == index;
+        }
+
+        private Cursor advance() {
+            return new Cursor(this.keychain, this.position + 1, this.result);
+        }
+    }
+
+    /** The values found for a keychain. */
+    private static final class Result {
+
+        private final List<String> values = new ArrayList<>();
+
+        private boolean multiple = false;
+    }
+}
@@ -1,11 +1,21 @@
 package org.ubiquia.core.flow.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.time.OffsetDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.ubiquia.common.library.api.repository.AbstractEntityRepository;
 import org.ubiquia.common.model.ubiquia.entity.FlowMessageEntity;
+import org.ubiquia.common.model.ubiquia.enums.NodeType;
 
 /** Spring Data repository for flow message entities. */
 public interface FlowMessageRepository extends AbstractEntityRepository<FlowMessageEntity> {
@@ -18,11 +28,131 @@ public interface FlowMessageRepository extends AbstractEntityRepository<FlowMess
         Pageable pageable,
         final String targetNodeId);
 
-    /** Returns all messages for the given target node within a specific flow. */
-    List<FlowMessageEntity> findAllByTargetNodeIdAndFlowEventFlowId(
+    /**
+     * Returns the oldest message for the given target node whether or not it is leased,
+     * without locking it (i.e., to peek at the head of a queue).
+     */
+    Optional<FlowMessageEntity> findFirstByTargetNodeIdOrderByQueuedAtAsc(
+        final String targetNodeId);
+
+    /**
+     * Returns the oldest messages for the given target node that are not currently leased
+     * (or whose lease has expired), locking them for update. The lock timeout hint of -2 is
+     * Hibernate's "SKIP LOCKED", so concurrent claimers skip each other's rows on dialects
+     * that support it rather than blocking.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT m FROM FlowMessageEntity m "
+        + "WHERE m.targetNode.id = :targetNodeId "
+        + "AND (m.leaseExpiresAt IS NULL OR m.leaseExpiresAt < :now) "
+        + "ORDER BY m.queuedAt ASC")
+    List<FlowMessageEntity> findClaimableByTargetNodeId(
+        @Param("targetNodeId") final String targetNodeId,
+        @Param("now") final OffsetDateTime now,
+        Pageable pageable);
+
+    /**
+     * Returns the oldest messages targeting nodes of the given types that are not currently
+     * leased (or whose lease has expired), locking them for update and skipping rows other
+     * claimers hold, as in {@link #findClaimableByTargetNodeId}.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT m FROM FlowMessageEntity m "
+        + "WHERE m.targetNode.nodeType IN :nodeTypes "
+        + "AND (m.leaseExpiresAt IS NULL OR m.leaseExpiresAt < :now) "
+        + "ORDER BY m.queuedAt ASC")
+    List<FlowMessageEntity> findClaimableByTargetNodeTypes(
+        @Param("nodeTypes") final Collection<NodeType> nodeTypes,
+        @Param("now") final OffsetDateTime now,
+        Pageable pageable);
+
+    /** Returns all messages for the given target node leased by the given owner. */
+    List<FlowMessageEntity> findAllByTargetNodeIdAndLeaseOwner(
+        final String targetNodeId,
+        final String leaseOwner);
+
+    /** Returns the given messages, provided they are for the given target node. */
+    List<FlowMessageEntity> findAllByIdInAndTargetNodeId(
+        final Collection<String> ids,
+        final String targetNodeId);
+
+    /**
+     * Returns all messages for the given target node within a specific flow, using the
+     * message's denormalized flow ID rather than joining through its event.
+     */
+    List<FlowMessageEntity> findAllByTargetNodeIdAndFlowId(
         final String targetNodeId,
         final String flowId);
 
+    /**
+     * Returns all messages for the given target node within a specific flow, locking them for
+     * update so that only one claimer resolves the flow's merge at a time.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT m FROM FlowMessageEntity m "
+        + "WHERE m.targetNode.id = :targetNodeId "
+        + "AND m.flowId = :flowId "
+        + "ORDER BY m.queuedAt ASC")
+    List<FlowMessageEntity> lockAllByTargetNodeIdAndFlowId(
+        @Param("targetNodeId") final String targetNodeId,
+        @Param("flowId") final String flowId);
+
+    /**
+     * Extends the lease on the given messages, provided they are still leased by the given
+     * owner.
+     *
+     * @return The number of messages whose lease was extended.
+     */
+    @Modifying
+    @Query("UPDATE FlowMessageEntity m "
+        + "SET m.leaseExpiresAt = :leaseExpiresAt "
+        + "WHERE m.id IN :ids "
+        + "AND m.leaseOwner = :leaseOwner")
+    int extendLeases(
+        @Param("ids") final Collection<String> ids,
+        @Param("leaseOwner") final String leaseOwner,
+        @Param("leaseExpiresAt") final OffsetDateTime leaseExpiresAt);
+
+    /**
+     * Deletes the given messages in one statement.
+     *
+     * @return The number of messages deleted.
+     */
+    @Modifying
+    @Query("DELETE FROM FlowMessageEntity m WHERE m.id IN :ids")
+    int deleteAllByIds(@Param("ids") final Collection<String> ids);
+
+    /**
+     * Deletes the given messages in one statement, provided they target the given node (i.e.,
+     * when a queue consumer acknowledges streamed messages.)
+     *
+     * @return The number of messages deleted.
+     */
+    @Modifying
+    @Query("DELETE FROM FlowMessageEntity m "
+        + "WHERE m.id IN :ids "
+        + "AND m.targetNode.id = :targetNodeId")
+    int deleteAllByIdsAndTargetNodeId(
+        @Param("ids") final Collection<String> ids,
+        @Param("targetNodeId") final String targetNodeId);
+
+    /**
+     * Releases the lease on the given messages, provided they are still leased by the given
+     * owner, so that they can be claimed again immediately.
+     *
+     * @return The number of messages released.
+     */
+    @Modifying
+    @Query("UPDATE FlowMessageEntity m "
+        + "SET m.leaseOwner = NULL, m.leaseExpiresAt = NULL "
+        + "WHERE m.id IN :ids "
+        + "AND m.leaseOwner = :leaseOwner")
+    int releaseLeases(
+        @Param("ids") final Collection<String> ids,
+        @Param("leaseOwner") final String leaseOwner);
+
     /** Returns a page of messages whose target node is not in the provided set of node IDs. */
     Page<FlowMessageEntity> findAllByTargetNodeIdNotIn(
         Collection<String> localNodeIds,
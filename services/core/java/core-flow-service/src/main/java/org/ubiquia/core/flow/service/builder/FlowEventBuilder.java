@@ -1,7 +1,6 @@
 package org.ubiquia.core.flow.service.builder;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.transaction.Transactional;
 import java.time.OffsetDateTime;
 import java.util.HashSet;
@@ -17,6 +16,7 @@ import org.ubiquia.common.model.ubiquia.entity.FlowEventEntity;
 import org.ubiquia.core.flow.component.node.AbstractNode;
 import org.ubiquia.core.flow.component.node.MergeNode;
 import org.ubiquia.core.flow.component.node.PollNode;
+import org.ubiquia.core.flow.model.payload.Payload;
 import org.ubiquia.core.flow.repository.FlowEventRepository;
 import org.ubiquia.core.flow.repository.FlowRepository;
 import org.ubiquia.core.flow.repository.NodeRepository;
@@ -41,7 +41,7 @@ public class FlowEventBuilder {
     private FlowEventRepository flowEventRepository;
 
     @Autowired
-    private ObjectMapper objectMapper;
+    private PayloadBuilder payloadBuilder;
 
     @Autowired
     private StamperVisitor stamperVisitor;
@@ -73,21 +73,30 @@ public class FlowEventBuilder {
         return flowEvent;
     }
 
-    /** Creates a new flow and event record for the given input payload and node. */
+    /** Creates a new flow and event record for the given raw input payload and node. */
     @Transactional
     public FlowEventEntity makeFlowAndEventFrom(
         final String inputPayload,
         final AbstractNode node)
         throws JsonProcessingException {
+        return this.makeFlowAndEventFrom(this.payloadBuilder.fromJson(inputPayload), node);
+    }
+
+    /** Creates a new flow and event record for the given input payload and node. */
+    @Transactional
+    public FlowEventEntity makeFlowAndEventFrom(
+        final Payload inputPayload,
+        final AbstractNode node)
+        throws JsonProcessingException {
 
         var flowEvent = this.getEventHelper(node);
 
         var nodeContext = node.getNodeContext();
         if (nodeContext.getNodeSettings().getPersistInputPayload()) {
-            flowEvent.setInputPayload(inputPayload);
+            flowEvent.setInputPayload(inputPayload.asJson());
         }
 
-        this.stamperVisitor.tryStampInputs(flowEvent, inputPayload);
+        this.stamperVisitor.tryStampInputs(flowEvent, inputPayload, nodeContext);
 
         var flowEntity = this.flowBuilder.makeFlowFrom(node);
         flowEvent.setFlow(flowEntity);
@@ -102,7 +111,7 @@ public class FlowEventBuilder {
     /** Creates a new event record for a merge node using an existing flow ID. */
     @Transactional
     public FlowEventEntity makeEventFrom(
-        final String mergedPayload,
+        final Payload mergedPayload,
         final String flowId,
         final MergeNode node)
         throws Exception {
@@ -123,10 +132,10 @@ public class FlowEventBuilder {
 
         var nodeContext = node.getNodeContext();
         if (nodeContext.getNodeSettings().getPersistInputPayload()) {
-            flowEvent.setInputPayload(mergedPayload);
+            flowEvent.setInputPayload(mergedPayload.asJson());
         }
 
-        this.stamperVisitor.tryStampInputs(flowEvent, mergedPayload);
+        this.stamperVisitor.tryStampInputs(flowEvent, mergedPayload, nodeContext);
         flowEvent = this.flowEventRepository.save(flowEvent);
 
         return flowEvent;
@@ -138,6 +147,43 @@ public class FlowEventBuilder {
         final FlowMessage flowMessage,
         final AbstractNode node)
         throws Exception {
+        var inputPayload = this.payloadBuilder.fromJson(flowMessage.getPayload());
+        return this.makeEventFrom(flowMessage, inputPayload, node);
+    }
+
+    /**
+     * Creates a new event record linked to the flow carried by the given flow message, reusing
+     * the message's already-parsed payload.
+     */
+    @Transactional
+    public FlowEventEntity makeEventFrom(
+        final FlowMessage flowMessage,
+        final Payload inputPayload,
+        final AbstractNode node)
+        throws Exception {
+
+        var flowEvent = this.buildEventFrom(flowMessage, inputPayload, node);
+
+        var flowEntity = flowEvent.getFlow();
+        flowEntity.getFlowEvents().add(flowEvent);
+        this.flowRepository.save(flowEntity);
+
+        flowEvent = this.flowEventRepository.save(flowEvent);
+
+        return flowEvent;
+    }
+
+    /**
+     * Builds, without persisting, an event linked to the flow carried by the given flow
+     * message (i.e., to hand a queue consumer an event that is only recorded once the consumer
+     * acknowledges it).
+     */
+    @Transactional
+    public FlowEventEntity buildEventFrom(
+        final FlowMessage flowMessage,
+        final Payload inputPayload,
+        final AbstractNode node)
+        throws Exception {
 
         var flowEvent = this.getEventHelper(node);
 
@@ -149,21 +195,14 @@ public class FlowEventBuilder {
                 + flow.getId());
         }
 
-        var flowEntity = flowRecord.get();
-
-        flowEvent.setFlow(flowEntity);
-        flowEntity.getFlowEvents().add(flowEvent);
-        this.flowRepository.save(flowEntity);
-
-        var inputPayload = flowMessage.getPayload();
+        flowEvent.setFlow(flowRecord.get());
 
         var nodeContext = node.getNodeContext();
         if (nodeContext.getNodeSettings().getPersistInputPayload()) {
-            flowEvent.setInputPayload(inputPayload);
+            flowEvent.setInputPayload(flowMessage.getPayload());
         }
 
-        this.stamperVisitor.tryStampInputs(flowEvent, inputPayload);
-        flowEvent = this.flowEventRepository.save(flowEvent);
+        this.stamperVisitor.tryStampInputs(flowEvent, inputPayload, nodeContext);
 
         return flowEvent;
     }
@@ -0,0 +1,30 @@
+package org.ubiquia.core.flow.service.builder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.ubiquia.core.flow.model.payload.Payload;
+
+/** Builds payloads bound to the application's object mapper. */
+@Service
+public class PayloadBuilder {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /** Builds a payload from raw JSON. */
+    public Payload fromJson(final String json) {
+        return Payload.fromJson(this.objectMapper, json);
+    }
+
+    /** Builds a payload from a JSON tree. */
+    public Payload fromTree(final JsonNode tree) {
+        return Payload.fromTree(this.objectMapper, tree);
+    }
+
+    /** Builds a payload from an already-deserialized value, such as an HTTP response body. */
+    public Payload fromValue(final Object value) {
+        return Payload.fromValue(this.objectMapper, value);
+    }
+}
@@ -21,6 +21,7 @@ import org.ubiquia.core.flow.component.node.AbstractNode;
 import org.ubiquia.core.flow.service.decorator.node.override.NodeOverrideDecorator;
 import org.ubiquia.core.flow.service.logic.node.NodePassthroughLogic;
 import org.ubiquia.core.flow.service.logic.node.NodeTypeLogic;
+import org.ubiquia.core.flow.service.registry.ComponentHttpClientRegistry;
 
 /** Builds and decorates {@link org.ubiquia.core.flow.component.node.AbstractNode} instances. */
 @Service
@@ -28,6 +29,8 @@ public class NodeBuilder {
 
     private static final Logger logger = LoggerFactory.getLogger(NodeBuilder.class);
     @Autowired
+    private ComponentHttpClientRegistry componentHttpClientRegistry;
+    @Autowired
     private NodeDtoMapper nodeDtoMapper;
     @Autowired
     private NodeContextBuilder nodeContextBuilder;
@@ -86,6 +89,11 @@ public class NodeBuilder {
         context.setTags(tags);
 
         this.trySetNodeEndpoint(node, nodeDatabaseData);
+        if (Objects.nonNull(context.getEndpointUri())) {
+            this.componentHttpClientRegistry.registerNode(
+                context.getNodeId(),
+                context.getEndpointUri());
+        }
         node.initializeBehavior();
 
         logger.info("...built node...");
@@ -16,6 +16,7 @@ import org.ubiquia.common.model.ubiquia.dto.Node;
 import org.ubiquia.common.model.ubiquia.embeddable.GraphDeployment;
 import org.ubiquia.common.model.ubiquia.entity.GraphEntity;
 import org.ubiquia.core.flow.model.node.NodeContext;
+import org.ubiquia.core.flow.model.stamp.StampExtractor;
 import org.ubiquia.core.flow.repository.ComponentRepository;
 import org.ubiquia.core.flow.service.logic.node.NodeTypeLogic;
 
@@ -54,6 +55,10 @@ public class NodeContextBuilder {
         context.setNodeId(node.getId());
         context.setNodeType(node.getNodeType());
         context.setNodeSettings(node.getNodeSettings());
+        context.setInputStampExtractor(
+            StampExtractor.compile(node.getNodeSettings().getInputStampKeychains()));
+        context.setOutputStampExtractor(
+            StampExtractor.compile(node.getNodeSettings().getOutputStampKeychains()));
         context.setBackpressurePollRatePerMinute(
             this.getBackPressurePollRatePerMinute(node));
         context.setBrokerSettings(node.getBrokerSettings());
@@ -1,7 +1,9 @@
 package org.ubiquia.core.flow.service.calculator;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.ubiquia.common.model.ubiquia.enums.NodeType;
 import org.ubiquia.core.flow.component.node.AbstractNode;
 import org.ubiquia.core.flow.service.logic.node.NodeTypeLogic;
 
@@ -9,6 +11,12 @@ import org.ubiquia.core.flow.service.logic.node.NodeTypeLogic;
 @Service
 public class NodeConcurrencyCalculator {
 
+    @Value("${ubiquia.broker.publish.claim-batch-size:1000}")
+    private Integer publishClaimBatchSize;
+
+    @Value("${ubiquia.broker.publish.max-in-flight:10000}")
+    private Integer publishMaxInFlight;
+
     @Autowired
     private NodeTypeLogic nodeTypeLogic;
 
@@ -30,8 +38,15 @@ public class NodeConcurrencyCalculator {
             // I know what you're thinking: "but what if the page size is 0?"
             // This scenario is guarded against during the inboxPolling process
             // via the adapterInboxPollingLogic.
-            pageSize = adapterContext.getEgressSettings().getEgressConcurrency()
-                - adapterContext.getOpenMessages();
+            pageSize = Math.max(0, adapterContext.getEgressSettings().getEgressConcurrency()
+                - adapterContext.getOpenMessages());
+        } else if (adapterContext.getNodeType().equals(NodeType.PUBLISH)) {
+
+            // Publish nodes hand whole pages to their producer without waiting on the broker,
+            // and are only bounded by how many of their messages await acknowledgement.
+            pageSize = Math.max(0, Math.min(
+                this.publishClaimBatchSize,
+                this.publishMaxInFlight - adapterContext.getOpenMessages()));
         } else {
             pageSize = 1;
         }
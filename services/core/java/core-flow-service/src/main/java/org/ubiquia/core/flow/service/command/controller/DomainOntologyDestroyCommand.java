@@ -8,6 +8,7 @@ import org.springframework.stereotype.Service;
 import org.ubiquia.common.library.api.interfaces.InterfaceLogger;
 import org.ubiquia.common.model.ubiquia.entity.DomainOntologyEntity;
 import org.ubiquia.core.flow.repository.*;
+import org.ubiquia.core.flow.service.registry.SchemaRegistry;
 
 /** Deletes a domain ontology and all its associated graphs, components, and nodes. */
 @Service
@@ -31,6 +32,9 @@ public class DomainOntologyDestroyCommand implements InterfaceLogger {
     @Autowired
     private GraphRepository graphRepository;
 
+    @Autowired
+    private SchemaRegistry schemaRegistry;
+
     public Logger getLogger() {
         return logger;
     }
@@ -52,6 +56,7 @@ public class DomainOntologyDestroyCommand implements InterfaceLogger {
         this.graphRepository.deleteAll(domainOntology.getGraphs());
         this.domainDataContractRepository.delete(domainOntology.getDomainDataContract());
         this.domainOntologyRepository.delete(domainOntology);
+        this.schemaRegistry.evictDomainOntology(domainOntology.getId());
 
         logger.info("...deleted domain ontology named {} with version {}.",
             domainOntology.getName(),
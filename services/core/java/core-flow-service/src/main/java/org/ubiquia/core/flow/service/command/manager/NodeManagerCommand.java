@@ -1,6 +1,7 @@
 package org.ubiquia.core.flow.service.command.manager;
 
 import java.util.List;
+import java.util.Objects;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,6 +9,15 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
 import org.ubiquia.common.library.api.interfaces.InterfaceLogger;
 import org.ubiquia.core.flow.component.node.AbstractNode;
+import org.ubiquia.core.flow.service.io.ComponentEgress;
+import org.ubiquia.core.flow.service.io.Inbox;
+import org.ubiquia.core.flow.service.io.InboxDispatcher;
+import org.ubiquia.core.flow.service.io.MergeJoinBuffer;
+import org.ubiquia.core.flow.service.io.QueueNodeStreamer;
+import org.ubiquia.core.flow.service.io.broker.BrokerEgress;
+import org.ubiquia.core.flow.service.io.broker.kafka.KafkaInbox;
+import org.ubiquia.core.flow.service.registry.ComponentHttpClientRegistry;
+import org.ubiquia.core.flow.service.registry.SchemaRegistry;
 
 /** Manages node lifecycle teardown, cancelling tasks and unregistering request mappings. */
 @Service
@@ -15,9 +25,36 @@ public class NodeManagerCommand implements InterfaceLogger {
 
     private static final Logger logger = LoggerFactory.getLogger(NodeManagerCommand.class);
 
+    @Autowired
+    private BrokerEgress brokerEgress;
+
+    @Autowired
+    private ComponentEgress componentEgress;
+
+    @Autowired
+    private ComponentHttpClientRegistry componentHttpClientRegistry;
+
+    @Autowired
+    private Inbox inbox;
+
+    @Autowired
+    private InboxDispatcher inboxDispatcher;
+
+    @Autowired(required = false)
+    private KafkaInbox kafkaInbox;
+
+    @Autowired
+    private MergeJoinBuffer mergeJoinBuffer;
+
+    @Autowired
+    private QueueNodeStreamer queueNodeStreamer;
+
     @Autowired
     private RequestMappingHandlerMapping requestMappingHandlerMapping;
 
+    @Autowired
+    private SchemaRegistry schemaRegistry;
+
     public Logger getLogger() {
         return logger;
     }
@@ -43,6 +80,17 @@ public class NodeManagerCommand implements InterfaceLogger {
             task.cancel(true);
         }
         nodeContext.getTasks().clear();
+        this.inboxDispatcher.deregister(node);
+        if (Objects.nonNull(this.kafkaInbox)) {
+            this.kafkaInbox.deregister(nodeContext.getNodeId());
+        }
+        this.inbox.releaseLeasesFor(node);
+        this.schemaRegistry.evictNode(nodeContext.getNodeId());
+        this.componentEgress.evictNode(nodeContext.getNodeId());
+        this.brokerEgress.evictNode(nodeContext.getNodeId());
+        this.mergeJoinBuffer.evictNode(nodeContext.getNodeId());
+        this.queueNodeStreamer.closeAllFor(nodeContext.getNodeId());
+        this.componentHttpClientRegistry.evictNode(nodeContext.getNodeId());
 
         for (var mappingInfo : nodeContext.getRegisteredMappingInfos()) {
             logger.debug("...unregistering mapping info: {}...", mappingInfo);
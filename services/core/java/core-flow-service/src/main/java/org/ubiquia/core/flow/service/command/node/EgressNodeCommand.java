@@ -20,6 +20,7 @@ import org.ubiquia.core.flow.component.node.EgressNode;
 import org.ubiquia.core.flow.repository.FlowEventRepository;
 import org.ubiquia.core.flow.repository.FlowMessageRepository;
 import org.ubiquia.core.flow.service.builder.FlowEventBuilder;
+import org.ubiquia.core.flow.service.builder.PayloadBuilder;
 import org.ubiquia.core.flow.service.orchestrator.NodePayloadOrchestrator;
 import org.ubiquia.core.flow.service.visitor.validator.PayloadModelValidator;
 
@@ -49,6 +50,9 @@ public class EgressNodeCommand implements InterfaceLogger {
     private MicroMeterHelper microMeterHelper;
     @Autowired
     private ObjectMapper objectMapper;
+    @Autowired
+    private PayloadBuilder payloadBuilder;
+
     @Autowired
     private PayloadModelValidator payloadModelValidator;
 
@@ -68,14 +72,14 @@ public class EgressNodeCommand implements InterfaceLogger {
         }
 
         try {
-            var inputPayload = flowMessage.getPayload();
+            var inputPayload = this.payloadBuilder.fromJson(flowMessage.getPayload());
             this.payloadModelValidator
                 .tryValidateInputPayloadFor(inputPayload, node);
             var flowEvent = this
                 .flowEventBuilder
-                .makeEventFrom(flowMessage, node);
+                .makeEventFrom(flowMessage, inputPayload, node);
 
-            this.tryEgressPayload(flowEvent, node, inputPayload);
+            this.tryEgressPayload(flowEvent, node, flowMessage.getPayload());
         } catch (Exception e) {
             this.getLogger().error("ERROR: Could not process inbox message: {}",
                 e.getMessage());
@@ -1,28 +1,41 @@
 package org.ubiquia.core.flow.service.command.node;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micrometer.core.instrument.Timer;
 import jakarta.transaction.Transactional;
-import java.util.HashMap;
+import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.ubiquia.common.library.api.interfaces.InterfaceLogger;
 import org.ubiquia.common.library.implementation.service.telemetry.MicroMeterHelper;
 import org.ubiquia.common.model.ubiquia.dto.FlowMessage;
 import org.ubiquia.common.model.ubiquia.entity.FlowMessageEntity;
+import org.ubiquia.common.model.ubiquia.entity.NodeEntity;
+import org.ubiquia.common.model.ubiquia.enums.MergeTimeoutPolicy;
 import org.ubiquia.core.flow.component.node.MergeNode;
+import org.ubiquia.core.flow.model.node.MergeJoin;
+import org.ubiquia.core.flow.model.payload.Payload;
 import org.ubiquia.core.flow.repository.FlowMessageRepository;
 import org.ubiquia.core.flow.repository.NodeRepository;
 import org.ubiquia.core.flow.service.builder.FlowEventBuilder;
+import org.ubiquia.core.flow.service.builder.PayloadBuilder;
+import org.ubiquia.core.flow.service.io.Inbox;
+import org.ubiquia.core.flow.service.io.MergeJoinBuffer;
 import org.ubiquia.core.flow.service.orchestrator.NodePayloadOrchestrator;
 
 /**
- * A service that exposes adapter type logic.
+ * A service that exposes merge node logic: upstream messages are correlated by flow in the
+ * {@link MergeJoinBuffer}, and a flow's messages are merged and forwarded once every upstream
+ * node has been heard from, or once its join times out.
  */
 @Service
 public class MergeNodeCommand implements InterfaceLogger {
@@ -44,6 +57,18 @@ public class MergeNodeCommand implements InterfaceLogger {
     @Autowired
     private FlowMessageRepository flowMessageRepository;
 
+    @Autowired
+    private Inbox inbox;
+
+    @Autowired
+    private MergeJoinBuffer mergeJoinBuffer;
+
+    @Autowired
+    private PayloadBuilder payloadBuilder;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     @Autowired(required = false)
     private MicroMeterHelper microMeterHelper;
 
@@ -52,6 +77,24 @@ public class MergeNodeCommand implements InterfaceLogger {
         return logger;
     }
 
+    /** Registers a merge node with the join buffer, resolving its upstream nodes once. */
+    @Transactional
+    public void registerJoinBufferFor(final MergeNode node) {
+        var nodeContext = node.getNodeContext();
+        var targetNode = this
+            .nodeRepository
+            .findById(nodeContext.getNodeId())
+            .orElseThrow(() -> new IllegalStateException("ERROR: No node with ID "
+                + nodeContext.getNodeId()));
+
+        var upstreamNodeNames = targetNode
+            .getUpstreamNodes()
+            .stream()
+            .map(NodeEntity::getName)
+            .collect(Collectors.toSet());
+        this.mergeJoinBuffer.register(nodeContext, upstreamNodeNames);
+    }
+
     /** Processes a merge node inbox message, merging all upstream payloads when complete. */
     @Transactional
     public void tryProcessMessageFor(final FlowMessage message, final MergeNode node) {
@@ -62,52 +105,51 @@ public class MergeNodeCommand implements InterfaceLogger {
         }
 
         var nodeContext = node.getNodeContext();
+        var flowId = message.getFlowEvent().getFlow().getId();
 
+        MergeJoinBuffer.Offer offer = null;
         try {
-            var messages = this
-                .flowMessageRepository
-                .findAllByTargetNodeIdAndFlowEventFlowId(
-                    nodeContext.getNodeId(),
-                    message.getFlowEvent().getFlow().getId());
-
-            if (!messages.isEmpty()) {
-
-                var targetNodeRecord = this
-                    .nodeRepository
-                    .findById(nodeContext.getNodeId());
-                var targetNode = targetNodeRecord.get();
-
-                var upstreamNodes = targetNode.getUpstreamNodes();
-                if (messages.size() == upstreamNodes.size()) {
-
+            offer = this.mergeJoinBuffer.offer(nodeContext.getNodeId(), message);
+            switch (offer.arrival()) {
+                case BUFFERED, REDELIVERED -> {
+                    this.getLogger().debug("{} has {} of {} upstream messages with flow id {}; "
+                            + "waiting for the rest...",
+                        nodeContext.getNodeName(),
+                        offer.join().getMessagesBySource().size(),
+                        offer.join().getExpectedSources().size(),
+                        flowId);
+                    this.inbox.extendLeasesFor(
+                        List.of(message.getId()),
+                        offer.join().getDeadline());
+                }
+                case COMPLETE -> {
                     this.getLogger().info("{} has all {} upstream messages "
                             + "with flow id {}; processing...",
                         nodeContext.getNodeName(),
-                        messages.size(),
-                        message.getFlowEvent().getFlow().getId());
-
-                    var merged = this.mergeMessages(messages);
-
-                    var event = this
-                        .flowEventBuilder
-                        .makeEventFrom(merged, message.getFlowEvent().getFlow().getId(), node);
-
-                    this.nodePayloadOrchestrator.forwardPayload(event, node, merged);
-
-                    this.flowMessageRepository.deleteAll(messages);
-                } else {
-                    this.getLogger().debug(" {} has only {} messages with flow id {}; "
-                            + "not processing...",
+                        offer.join().getMessagesBySource().size(),
+                        flowId);
+                    this.forward(
+                        flowId,
+                        this.getPayloadsOf(offer.join()),
+                        offer.join().getExpectedSources(),
+                        node);
+                    this.flowMessageRepository.deleteAllByIds(offer.join().getMessageIds());
+                }
+                default -> {
+                    this.getLogger().warn("{} dropped a {} message from {} with flow id {}.",
                         nodeContext.getNodeName(),
-                        messages.size(),
-                        message.getFlowEvent().getFlow().getId());
+                        offer.arrival(),
+                        message.getFlowEvent().getNode().getName(),
+                        flowId);
+                    this.flowMessageRepository.deleteAllByIds(List.of(message.getId()));
                 }
-            } else {
-                throw new RuntimeException("ERROR: Somehow, the messages list is empty!");
             }
         } catch (Exception e) {
             this.getLogger().error("ERROR: Could not process inbox message: {}",
                 e.getMessage());
+            if (Objects.nonNull(offer) && Objects.nonNull(offer.join())) {
+                this.mergeJoinBuffer.release(nodeContext.getNodeId(), offer.join());
+            }
         }
 
         if (Objects.nonNull(sample)) {
@@ -117,16 +159,120 @@ public class MergeNodeCommand implements InterfaceLogger {
         }
     }
 
-    private String mergeMessages(final List<FlowMessageEntity> messages)
-        throws JsonProcessingException {
+    /**
+     * Resolve a merge node's joins that have timed out (or been evicted), each in its own
+     * transaction, according to the node's timeout policy.
+     */
+    public void trySweepJoinsFor(final MergeNode node) {
+        var nodeContext = node.getNodeContext();
+        var expired = this.mergeJoinBuffer.expire(nodeContext.getNodeId(), OffsetDateTime.now());
+        for (var join : expired) {
+            try {
+                this.transactionTemplate.executeWithoutResult(status ->
+                    this.resolveExpired(join, node));
+            } catch (Exception e) {
+                this.getLogger().error("ERROR: Could not resolve expired merge of flow {}: {}",
+                    join.getFlowId(),
+                    e.getMessage());
+                this.mergeJoinBuffer.release(nodeContext.getNodeId(), join);
+            }
+        }
+    }
 
-        var mergedMap = new HashMap<String, Object>();
+    /**
+     * Resolve an expired join against the flow message table rather than the buffer, since
+     * the rest of the flow may have been claimed by another instance.
+     */
+    private void resolveExpired(final MergeJoin join, final MergeNode node) {
+        var nodeContext = node.getNodeContext();
+        var messages = this
+            .flowMessageRepository
+            .lockAllByTargetNodeIdAndFlowId(nodeContext.getNodeId(), join.getFlowId());
+
+        if (messages.isEmpty()) {
+            this.getLogger().debug("...merge of flow {} was already resolved...",
+                join.getFlowId());
+            return;
+        }
+
+        var payloads = new LinkedHashMap<String, String>();
         for (var message : messages) {
-            var sourceNodeName = message.getFlowEvent().getNode().getName();
-            mergedMap.put(sourceNodeName, message.getPayload());
+            payloads.putIfAbsent(message.getFlowEvent().getNode().getName(), message.getPayload());
+        }
+
+        if (payloads.keySet().containsAll(join.getExpectedSources())) {
+            this.getLogger().info("{} has all {} upstream messages with flow id {}; "
+                    + "processing...",
+                nodeContext.getNodeName(),
+                payloads.size(),
+                join.getFlowId());
+            this.forward(join.getFlowId(), payloads, join.getExpectedSources(), node);
+        } else if (this.mergeJoinBuffer.getTimeoutPolicyFor(nodeContext.getNodeId())
+            .equals(MergeTimeoutPolicy.MERGE_PARTIAL)) {
+            this.getLogger().warn("{} timed out with {} of {} upstream messages with flow id {}; "
+                    + "merging what arrived...",
+                nodeContext.getNodeName(),
+                payloads.size(),
+                join.getExpectedSources().size(),
+                join.getFlowId());
+            this.forward(join.getFlowId(), payloads, join.getExpectedSources(), node);
+        } else {
+            this.getLogger().warn("{} timed out with {} of {} upstream messages with flow id {}; "
+                    + "discarding them...",
+                nodeContext.getNodeName(),
+                payloads.size(),
+                join.getExpectedSources().size(),
+                join.getFlowId());
         }
 
-        var mergedString = this.objectMapper.writeValueAsString(mergedMap);
-        return mergedString;
+        this.flowMessageRepository.deleteAllByIds(
+            messages.stream().map(FlowMessageEntity::getId).toList());
+    }
+
+    private void forward(
+        final String flowId,
+        final Map<String, String> payloads,
+        final Set<String> expectedSources,
+        final MergeNode node) {
+
+        try {
+            var merged = this.mergeMessages(payloads, expectedSources);
+            var event = this.flowEventBuilder.makeEventFrom(merged, flowId, node);
+            this.nodePayloadOrchestrator.forwardPayload(event, node, merged);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Map<String, String> getPayloadsOf(final MergeJoin join) {
+        var payloads = new LinkedHashMap<String, String>();
+        for (var entry : join.getMessagesBySource().entrySet()) {
+            payloads.put(entry.getKey(), entry.getValue().getPayload());
+        }
+        return payloads;
+    }
+
+    /**
+     * Merge upstream payloads into a single payload keyed by source node name; upstream nodes
+     * that were not heard from (i.e., when merging a timed-out join) are merged as null. The
+     * merged payload is built as a tree so that stamping it does not re-parse it; it is
+     * serialized only once, when it is persisted or sent on.
+     */
+    private Payload mergeMessages(
+        final Map<String, String> payloads,
+        final Set<String> expectedSources) {
+
+        var merged = this.objectMapper.createObjectNode();
+        for (var entry : payloads.entrySet()) {
+            merged.put(entry.getKey(), entry.getValue());
+        }
+        for (var source : expectedSources) {
+            if (!merged.has(source)) {
+                merged.putNull(source);
+            }
+        }
+        return this.payloadBuilder.fromTree(merged);
     }
 }
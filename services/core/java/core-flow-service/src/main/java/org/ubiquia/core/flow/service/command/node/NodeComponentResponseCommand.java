@@ -1,13 +1,13 @@
 package org.ubiquia.core.flow.service.command.node;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import java.time.OffsetDateTime;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.ubiquia.common.model.ubiquia.entity.FlowEventEntity;
 import org.ubiquia.core.flow.component.node.AbstractNode;
+import org.ubiquia.core.flow.service.builder.PayloadBuilder;
 import org.ubiquia.core.flow.service.io.Outbox;
 import org.ubiquia.core.flow.service.visitor.StamperVisitor;
 import org.ubiquia.core.flow.service.visitor.validator.PayloadModelValidator;
@@ -19,7 +19,7 @@ import org.ubiquia.core.flow.service.visitor.validator.PayloadModelValidator;
 public class NodeComponentResponseCommand {
 
     @Autowired
-    private ObjectMapper objectMapper;
+    private PayloadBuilder payloadBuilder;
 
     @Autowired
     private Outbox outbox;
@@ -38,25 +38,28 @@ public class NodeComponentResponseCommand {
         throws JsonProcessingException {
 
         var success = true;
-        var stringifiedPayload = this.objectMapper.writeValueAsString(response.getBody());
+
+        // The body was already deserialized by the HTTP client; validate and stamp it as-is
+        // and only serialize it once for persistence and the outbox.
+        var payload = this.payloadBuilder.fromValue(response.getBody());
 
         try {
             this.payloadModelValidator.tryValidateOutputPayloadFor(
-                stringifiedPayload,
+                payload,
                 node);
         } catch (Exception e) {
             success = false;
         }
 
-        this.stamperVisitor.tryStampOutputs(flowEventEntity, stringifiedPayload);
+        this.stamperVisitor.tryStampOutputs(flowEventEntity, payload, node.getNodeContext());
 
         if (node.getNodeContext().getNodeSettings().getPersistOutputPayload()) {
-            flowEventEntity.setOutputPayload(stringifiedPayload);
+            flowEventEntity.setOutputPayload(payload.asJson());
         }
         flowEventEntity.getFlowEventTimes().setEventCompleteTime(OffsetDateTime.now());
 
         if (success) {
-            this.outbox.tryQueueMessage(flowEventEntity, stringifiedPayload);
+            this.outbox.tryQueueMessage(flowEventEntity, payload.asJson());
         }
     }
 }
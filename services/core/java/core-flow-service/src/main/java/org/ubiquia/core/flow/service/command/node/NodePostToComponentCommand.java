@@ -8,18 +8,16 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestClientResponseException;
 import org.springframework.web.client.RestTemplate;
-import org.springframework.web.reactive.function.client.WebClient;
 import org.ubiquia.common.library.api.interfaces.InterfaceLogger;
 import org.ubiquia.common.model.ubiquia.entity.FlowEventEntity;
 import org.ubiquia.core.flow.component.node.AbstractNode;
-import org.ubiquia.core.flow.repository.FlowEventRepository;
-import org.ubiquia.core.flow.service.visitor.NodeOpenMessageVisitor;
+import org.ubiquia.core.flow.service.io.ComponentEgress;
 
 /**
  * A service that exposes various methods common to all adapters.
@@ -33,17 +31,11 @@ public class NodePostToComponentCommand implements InterfaceLogger {
     private NodeComponentResponseCommand nodeComponentResponseCommand;
 
     @Autowired
-    private NodeOpenMessageVisitor nodeOpenMessageVisitor;
-
-    @Autowired
-    private FlowEventRepository flowEventRepository;
+    private ComponentEgress componentEgress;
 
     @Autowired
     private RestTemplate restTemplate;
 
-    @Autowired
-    private WebClient webClient;
-
     public Logger getLogger() {
         return logger;
     }
@@ -94,51 +86,19 @@ public class NodePostToComponentCommand implements InterfaceLogger {
         this.nodeComponentResponseCommand.processComponentResponse(flowEventEntity, node, response);
     }
 
-    /** Posts a payload asynchronously to the component and processes the response reactively. */
-    @Transactional
+    /**
+     * Posts a payload asynchronously to the component; the response is processed by the
+     * ComponentEgress once it arrives.
+     */
     public void tryPostInputToComponentAsynchronously(
         FlowEventEntity flowEventEntity,
         final AbstractNode node,
         final Object inputPayload) {
 
-        var nodeContext = node.getNodeContext();
-        logger.info("POSTing payload asynchronously to URI: {}...",
-            nodeContext.getEndpointUri());
-
-        this.nodeOpenMessageVisitor.incrementOpenMessagesFor(node);
-        var eventTimes = flowEventEntity.getFlowEventTimes();
-        this.webClient
-            .post()
-            .uri(nodeContext.getEndpointUri())
-            .bodyValue(inputPayload)
-            .retrieve()
-            .toEntity(Object.class)
-            .doOnNext(response -> {
-                this.nodeOpenMessageVisitor.decrementOpenMessagesFor(node);
-                eventTimes.setComponentResponseTime(OffsetDateTime.now());
-                flowEventEntity.setHttpResponseCode(response.getStatusCode().value());
-                logger.info("...got response code {} from component for flow with id {}...",
-                    response.getStatusCode(),
-                    flowEventEntity.getFlow().getId());
-                try {
-                    this
-                        .nodeComponentResponseCommand
-                        .processComponentResponse(flowEventEntity, node, response);
-                } catch (Exception e) {
-                    logger.error("ERROR processing component response: {}", e.getMessage());
-                }
-            })
-            .doOnError(error -> {
-                if (error instanceof HttpStatusCodeException errorCast) {
-                    flowEventEntity.setHttpResponseCode(errorCast.getStatusCode().value());
-                }
-                logger.error("ERROR response when POSTing to component: {} ",
-                    error.getMessage());
-                eventTimes.setComponentResponseTime(OffsetDateTime.now());
-                eventTimes.setEventCompleteTime(OffsetDateTime.now());
-                this.nodeOpenMessageVisitor.decrementOpenMessagesFor(node);
-                this.flowEventRepository.save(flowEventEntity);
-            })
-            .subscribe();
+        this.componentEgress.sendAsynchronously(
+            flowEventEntity,
+            node,
+            HttpMethod.POST,
+            inputPayload);
     }
 }
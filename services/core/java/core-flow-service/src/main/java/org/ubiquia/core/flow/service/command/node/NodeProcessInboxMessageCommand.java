@@ -9,6 +9,7 @@ import org.ubiquia.common.model.ubiquia.dto.FlowMessage;
 import org.ubiquia.core.flow.component.node.AbstractNode;
 import org.ubiquia.core.flow.repository.FlowMessageRepository;
 import org.ubiquia.core.flow.service.builder.FlowEventBuilder;
+import org.ubiquia.core.flow.service.builder.PayloadBuilder;
 import org.ubiquia.core.flow.service.orchestrator.NodePayloadOrchestrator;
 import org.ubiquia.core.flow.service.visitor.validator.PayloadModelValidator;
 
@@ -31,6 +32,9 @@ public class NodeProcessInboxMessageCommand {
     @Autowired
     private FlowMessageRepository flowMessageRepository;
 
+    @Autowired
+    private PayloadBuilder payloadBuilder;
+
     @Autowired
     private PayloadModelValidator payloadModelValidator;
 
@@ -45,17 +49,18 @@ public class NodeProcessInboxMessageCommand {
         final AbstractNode node) {
 
         try {
+            var payload = this.payloadBuilder.fromJson(message.getPayload());
             this
                 .payloadModelValidator
-                .tryValidateInputPayloadFor(message.getPayload(), node);
+                .tryValidateInputPayloadFor(payload, node);
 
             var flowEvent = this
                 .flowEventBuilder
-                .makeEventFrom(message, node);
+                .makeEventFrom(message, payload, node);
 
             this
                 .nodePayloadOrchestrator
-                .forwardPayload(flowEvent, node, message.getPayload());
+                .forwardPayload(flowEvent, node, payload);
 
         } catch (Exception e) {
             this.getLogger().error("ERROR: {} could not process inbox message: {}",
@@ -12,12 +12,10 @@ import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
-import org.springframework.web.reactive.function.client.WebClient;
 import org.ubiquia.common.library.api.interfaces.InterfaceLogger;
 import org.ubiquia.common.model.ubiquia.entity.FlowEventEntity;
 import org.ubiquia.core.flow.component.node.AbstractNode;
-import org.ubiquia.core.flow.repository.FlowEventRepository;
-import org.ubiquia.core.flow.service.visitor.NodeOpenMessageVisitor;
+import org.ubiquia.core.flow.service.io.ComponentEgress;
 import org.ubiquia.core.flow.service.visitor.validator.PayloadModelValidator;
 
 /**
@@ -32,10 +30,7 @@ public class NodePutToComponentCommand implements InterfaceLogger {
     private NodeComponentResponseCommand nodeComponentResponseCommand;
 
     @Autowired
-    private NodeOpenMessageVisitor nodeOpenMessageVisitor;
-
-    @Autowired
-    private FlowEventRepository flowEventRepository;
+    private ComponentEgress componentEgress;
 
     @Autowired
     private PayloadModelValidator payloadModelValidator;
@@ -43,9 +38,6 @@ public class NodePutToComponentCommand implements InterfaceLogger {
     @Autowired
     private RestTemplate restTemplate;
 
-    @Autowired
-    private WebClient webClient;
-
     public Logger getLogger() {
         return logger;
     }
@@ -91,54 +83,19 @@ public class NodePutToComponentCommand implements InterfaceLogger {
         return response;
     }
 
-    /** Sends an asynchronous PUT to the component and processes the response reactively. */
-    @Transactional
+    /**
+     * Sends an asynchronous PUT to the component; the response is processed by the
+     * ComponentEgress once it arrives.
+     */
     public void tryPutInputToComponentAsynchronously(
         FlowEventEntity flowEventEntity,
         final AbstractNode adapter,
         final Object inputPayload) {
 
-        var adapterContext = adapter.getNodeContext();
-        logger.info("POSTing payload asynchronously to URI: {}...",
-            adapterContext.getEndpointUri());
-
-        this.nodeOpenMessageVisitor.incrementOpenMessagesFor(adapter);
-        var eventTimes = flowEventEntity.getFlowEventTimes();
-        this.webClient
-            .put()
-            .uri(adapterContext.getEndpointUri())
-            .bodyValue(inputPayload)
-            .retrieve()
-            .toEntity(Object.class)
-            .subscribe(
-                response -> {
-                    this.nodeOpenMessageVisitor.decrementOpenMessagesFor(adapter);
-                    eventTimes.setComponentResponseTime(OffsetDateTime.now());
-                    eventTimes.setEventCompleteTime(OffsetDateTime.now());
-                    flowEventEntity.setHttpResponseCode(response.getStatusCode().value());
-                    logger.info("...got response code {} from agent for batch id {}...",
-                        response.getStatusCode(),
-                        flowEventEntity.getFlow().getId());
-                    try {
-                        this.nodeComponentResponseCommand.processComponentResponse(
-                            flowEventEntity,
-                            adapter,
-                            response);
-                    } catch (Exception e) {
-                        logger.error("ERROR processing agent response: {}", e.getMessage());
-                    }
-                },
-                error -> {
-                    if (error instanceof HttpStatusCodeException errorCast) {
-                        flowEventEntity.setHttpResponseCode(errorCast.getStatusCode().value());
-                    } else {
-                        logger.error("ERROR response: {} ", error.getMessage());
-                    }
-                    eventTimes.setComponentResponseTime(OffsetDateTime.now());
-                    eventTimes.setEventCompleteTime(OffsetDateTime.now());
-                    this.nodeOpenMessageVisitor.decrementOpenMessagesFor(adapter);
-                    this.flowEventRepository.save(flowEventEntity);
-                }
-            );
+        this.componentEgress.sendAsynchronously(
+            flowEventEntity,
+            adapter,
+            HttpMethod.PUT,
+            inputPayload);
     }
 }
@@ -2,27 +2,54 @@ package org.ubiquia.core.flow.service.command.node;
 
 import io.micrometer.core.instrument.Timer;
 import jakarta.transaction.Transactional;
+import java.nio.charset.StandardCharsets;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
+import java.util.UUID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.ubiquia.common.library.api.interfaces.InterfaceLogger;
 import org.ubiquia.common.library.implementation.service.mapper.FlowEventDtoMapper;
+import org.ubiquia.common.library.implementation.service.mapper.FlowMessageDtoMapper;
 import org.ubiquia.common.library.implementation.service.telemetry.MicroMeterHelper;
+import org.ubiquia.common.model.ubiquia.dto.FlowEvent;
 import org.ubiquia.common.model.ubiquia.dto.FlowMessage;
+import org.ubiquia.common.model.ubiquia.node.QueueNodeBatchEgress;
 import org.ubiquia.common.model.ubiquia.node.QueueNodeEgress;
+import org.ubiquia.common.model.ubiquia.node.QueueNodeMessage;
 import org.ubiquia.core.flow.component.node.QueueNode;
+import org.ubiquia.core.flow.model.payload.Payload;
 import org.ubiquia.core.flow.repository.FlowEventRepository;
 import org.ubiquia.core.flow.repository.FlowMessageRepository;
 import org.ubiquia.core.flow.service.builder.FlowEventBuilder;
+import org.ubiquia.core.flow.service.builder.PayloadBuilder;
 import org.ubiquia.core.flow.service.io.Inbox;
+import org.ubiquia.core.flow.service.io.InboxDispatcher;
 import org.ubiquia.core.flow.service.visitor.validator.PayloadModelValidator;
 
 /**
  * A service that exposes adapter type logic.
+ *
+ * <p>Besides popping one message at a time, queue consumers can pop up to
+ * "ubiquia.queue.max-batch-size" messages in one request, which claims them in one query and
+ * deletes them in one statement. A batch pop can also wait (up to
+ * "ubiquia.queue.max-wait-milliseconds") for messages to arrive when the queue is empty; the
+ * request is parked rather than holding a servlet thread, and wakes as soon as a message is
+ * committed for the node.</p>
+ *
+ * <p>Messages streamed to a consumer are only claimed, so a message whose lease expires before
+ * it is acknowledged is streamed again. Their events are therefore only recorded when they are
+ * acknowledged, under an ID derived from the message's ID: every delivery of a message carries
+ * the same event ID, and the event is recorded once however often the message is delivered.</p>
  */
 @Service
 public class QueueAdapterCommand implements InterfaceLogger {
@@ -38,18 +65,36 @@ public class QueueAdapterCommand implements InterfaceLogger {
     @Autowired
     private FlowEventRepository flowEventRepository;
 
+    @Autowired
+    private FlowMessageDtoMapper flowMessageDtoMapper;
+
     @Autowired
     private FlowMessageRepository flowMessageRepository;
 
     @Autowired
     private Inbox inbox;
 
+    @Autowired
+    private InboxDispatcher inboxDispatcher;
+
     @Autowired(required = false)
     private MicroMeterHelper microMeterHelper;
 
+    @Autowired
+    private PayloadBuilder payloadBuilder;
+
     @Autowired
     private PayloadModelValidator payloadModelValidator;
 
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${ubiquia.queue.max-batch-size:1000}")
+    private Integer maxBatchSize;
+
+    @Value("${ubiquia.queue.max-wait-milliseconds:30000}")
+    private Long maxWaitMilliseconds;
+
     public Logger getLogger() {
         return logger;
     }
@@ -74,8 +119,9 @@ public class QueueAdapterCommand implements InterfaceLogger {
         QueueNodeEgress egress = null;
         var message = this.inbox.tryQueryInboxMessagesFor(node);
         if (Objects.nonNull(message)) {
-            this.payloadModelValidator.tryValidateOutputPayloadFor(message.getPayload(), node);
-            egress = this.getEgressFrom(message, node);
+            var payload = this.payloadBuilder.fromJson(message.getPayload());
+            this.payloadModelValidator.tryValidateOutputPayloadFor(payload, node);
+            egress = this.getEgressFrom(message, payload, node);
         } else {
             egress = this.getEmptyEgress();
         }
@@ -106,10 +152,11 @@ public class QueueAdapterCommand implements InterfaceLogger {
 
         ResponseEntity<QueueNodeEgress> response = null;
         QueueNodeEgress egress = null;
-        var message = this.inbox.tryQueryInboxMessagesFor(node);
+        var message = this.inbox.tryClaimInboxMessageFor(node);
         if (Objects.nonNull(message)) {
-            this.payloadModelValidator.tryValidateOutputPayloadFor(message.getPayload(), node);
-            egress = this.getEgressFrom(message, node);
+            var payload = this.payloadBuilder.fromJson(message.getPayload());
+            this.payloadModelValidator.tryValidateOutputPayloadFor(payload, node);
+            egress = this.getEgressFrom(message, payload, node);
             var count = this.flowMessageRepository.countByTargetNodeId(context.getNodeId());
             egress.setQueuedRecords(count - 1);
             this.flowMessageRepository.deleteById(message.getId());
@@ -124,19 +171,207 @@ public class QueueAdapterCommand implements InterfaceLogger {
         return response;
     }
 
+    /**
+     * Pops up to the requested number of queued messages, optionally waiting for messages to
+     * arrive if the queue is empty. The messages are only removed from the queue if they are
+     * handed to the consumer; a consumer that goes away while waiting pops nothing.
+     *
+     * @param node             The queue to pop from.
+     * @param count            The maximum number of messages to pop.
+     * @param waitMilliseconds How long to wait for messages if the queue is empty.
+     * @return The popped messages, once there are any or the wait is over.
+     */
+    public DeferredResult<ResponseEntity<QueueNodeBatchEgress>> popBatchFor(
+        final QueueNode node,
+        final Integer count,
+        final Long waitMilliseconds) {
+
+        var context = node.getNodeContext();
+        var limit = Math.clamp(count, 1, this.maxBatchSize);
+        var wait = Math.clamp(waitMilliseconds, 0L, this.maxWaitMilliseconds);
+
+        this.getLogger()
+            .info("Node {} for graph {} received a pop request for up to {} messages...",
+                context.getNodeName(),
+                context.getGraph().getName(),
+                limit);
+
+        var longPoll = new LongPoll(
+            node,
+            limit,
+            wait > 0 ? new DeferredResult<>(wait) : new DeferredResult<>());
+
+        if (wait > 0) {
+            // Listen before the first attempt so that a message committed in between is not
+            // missed; the attempts are serialized, so a signal can never pop a second batch.
+            Runnable listener = new Runnable() {
+                @Override
+                public void run() {
+                    if (!QueueAdapterCommand.this.tryPopBatchFor(longPoll, false)) {
+                        QueueAdapterCommand.this.inboxDispatcher.listenOnce(
+                            context.getNodeId(),
+                            this);
+                    }
+                }
+            };
+            this.inboxDispatcher.listenOnce(context.getNodeId(), listener);
+            longPoll.result.onTimeout(() -> this.tryPopBatchFor(longPoll, true));
+            longPoll.result.onCompletion(() -> {
+                synchronized (longPoll) {
+                    longPoll.done = true;
+                }
+                this.inboxDispatcher.unlisten(context.getNodeId(), listener);
+            });
+        }
+        this.tryPopBatchFor(longPoll, wait == 0);
+        return longPoll.result;
+    }
+
+    /**
+     * Claims up to the provided number of queued messages without removing them from the
+     * queue, so that they can be streamed to a consumer and acknowledged later. Their events
+     * are built but not recorded until they are acknowledged.
+     *
+     * @param node  The queue to claim messages from.
+     * @param limit The maximum number of messages to claim.
+     * @return The claimed messages, oldest first.
+     */
+    @Transactional
+    public List<QueueNodeMessage> claimMessagesFor(final QueueNode node, final Integer limit)
+        throws Exception {
+
+        var claimed = this.inbox.tryClaimInboxMessagesFor(node, limit);
+        var messages = new ArrayList<QueueNodeMessage>(claimed.size());
+        for (var message : claimed) {
+            var payload = this.payloadBuilder.fromJson(message.getPayload());
+            this.payloadModelValidator.tryValidateOutputPayloadFor(payload, node);
+
+            var event = this.flowEventBuilder.buildEventFrom(message, payload, node);
+            event.setId(this.getEventIdFor(message.getId()));
+            event.getFlowEventTimes().setPayloadEgressedTime(OffsetDateTime.now());
+
+            var queueNodeMessage = new QueueNodeMessage();
+            queueNodeMessage.setMessageId(message.getId());
+            queueNodeMessage.setFlowEvent(this.flowEventDtoMapper.map(event));
+            messages.add(queueNodeMessage);
+        }
+        return messages;
+    }
+
+    /**
+     * Removes acknowledged messages from the queue, recording their events. Messages that
+     * were already acknowledged are no longer queued, so they record nothing.
+     *
+     * @param node       The queue the messages were claimed from.
+     * @param messageIds The IDs of the messages.
+     * @return The number of messages removed.
+     */
+    @Transactional
+    public Integer acknowledgeFor(final QueueNode node, final Collection<String> messageIds)
+        throws Exception {
+
+        if (messageIds.isEmpty()) {
+            return 0;
+        }
+
+        var nodeId = node.getNodeContext().getNodeId();
+        var acknowledgedAt = OffsetDateTime.now();
+        for (var entity : this.flowMessageRepository.findAllByIdInAndTargetNodeId(
+            messageIds,
+            nodeId)) {
+
+            var message = this.flowMessageDtoMapper.map(entity);
+            var payload = this.payloadBuilder.fromJson(message.getPayload());
+            var event = this.flowEventBuilder.buildEventFrom(message, payload, node);
+            event.setId(this.getEventIdFor(message.getId()));
+            event.getFlowEventTimes().setPayloadEgressedTime(acknowledgedAt);
+            event.getFlow().getFlowEvents().add(event);
+            this.flowEventRepository.save(event);
+        }
+        return this.flowMessageRepository.deleteAllByIdsAndTargetNodeId(messageIds, nodeId);
+    }
+
+    /**
+     * Make one attempt to pop a batch for a waiting consumer. The batch is popped in a
+     * transaction that is rolled back if the consumer has gone away by the time the batch is
+     * handed over, so that its messages stay queued.
+     *
+     * @param longPoll The waiting consumer.
+     * @param last     Whether to hand over the batch even if it is empty.
+     * @return Whether the consumer is done waiting.
+     */
+    private Boolean tryPopBatchFor(final LongPoll longPoll, final Boolean last) {
+        synchronized (longPoll) {
+            if (longPoll.done) {
+                return true;
+            }
+            try {
+                this.transactionTemplate.executeWithoutResult(status -> {
+                    var egress = this.popBatch(longPoll.node, longPoll.limit);
+                    if (egress.getFlowEvents().isEmpty() && !last) {
+                        status.setRollbackOnly();
+                    } else if (longPoll.result.setResult(ResponseEntity.accepted().body(egress))) {
+                        longPoll.done = true;
+                    } else {
+                        status.setRollbackOnly();
+                    }
+                });
+            } catch (Exception e) {
+                this.getLogger().error("ERROR: Could not pop batch for node {}: {}",
+                    longPoll.node.getNodeContext().getNodeName(),
+                    e.getMessage());
+                longPoll.result.setErrorResult(e);
+                longPoll.done = true;
+            }
+            return longPoll.done;
+        }
+    }
+
+    private QueueNodeBatchEgress popBatch(final QueueNode node, final Integer limit) {
+
+        var context = node.getNodeContext();
+
+        Timer.Sample sample = null;
+        if (Objects.nonNull(this.microMeterHelper)) {
+            sample = this.microMeterHelper.startSample();
+        }
+
+        var egress = new QueueNodeBatchEgress();
+        try {
+            var messages = this.inbox.tryClaimInboxMessagesFor(node, limit);
+            var messageIds = new ArrayList<String>(messages.size());
+            for (var message : messages) {
+                var payload = this.payloadBuilder.fromJson(message.getPayload());
+                this.payloadModelValidator.tryValidateOutputPayloadFor(payload, node);
+                egress.getFlowEvents().add(this.getEventFrom(message, payload, node));
+                messageIds.add(message.getId());
+            }
+            if (!messageIds.isEmpty()) {
+                this.flowMessageRepository.deleteAllByIds(messageIds);
+            }
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        egress.setQueuedRecords(this.flowMessageRepository.countByTargetNodeId(
+            context.getNodeId()));
+
+        if (Objects.nonNull(sample)) {
+            this.microMeterHelper.endSample(sample, "popBatch", context.getTags());
+        }
+        return egress;
+    }
+
     @Transactional
     private QueueNodeEgress getEgressFrom(
         final FlowMessage message,
+        final Payload payload,
         final QueueNode node)
         throws Exception {
 
         var egress = new QueueNodeEgress();
-        var event = this.flowEventBuilder.makeEventFrom(message, node);
-        event.getFlowEventTimes().setPayloadEgressedTime(OffsetDateTime.now());
-        event = this.flowEventRepository.save(event);
-
-        var eventDto = this.flowEventDtoMapper.map(event);
-        egress.setFlowEvent(eventDto);
+        egress.setFlowEvent(this.getEventFrom(message, payload, node));
 
         var count = this.flowMessageRepository.countByTargetNodeId(node
             .getNodeContext()
@@ -145,9 +380,49 @@ public class QueueAdapterCommand implements InterfaceLogger {
         return egress;
     }
 
+    private FlowEvent getEventFrom(
+        final FlowMessage message,
+        final Payload payload,
+        final QueueNode node)
+        throws Exception {
+
+        var event = this.flowEventBuilder.makeEventFrom(message, payload, node);
+        event.getFlowEventTimes().setPayloadEgressedTime(OffsetDateTime.now());
+        event = this.flowEventRepository.save(event);
+        return this.flowEventDtoMapper.map(event);
+    }
+
+    /** Get the ID of the event a streamed message records once it is acknowledged. */
+    private String getEventIdFor(final String messageId) {
+        return UUID
+            .nameUUIDFromBytes(messageId.getBytes(StandardCharsets.UTF_8))
+            .toString();
+    }
+
     private QueueNodeEgress getEmptyEgress() {
         var egress = new QueueNodeEgress();
         egress.setQueuedRecords(0L);
         return egress;
     }
+
+    /** A consumer waiting on a batch pop. */
+    private static class LongPoll {
+
+        private final QueueNode node;
+
+        private final Integer limit;
+
+        private final DeferredResult<ResponseEntity<QueueNodeBatchEgress>> result;
+
+        private Boolean done = false;
+
+        private LongPoll(
+            final QueueNode node,
+            final Integer limit,
+            final DeferredResult<ResponseEntity<QueueNodeBatchEgress>> result) {
+            this.node = node;
+            this.limit = limit;
+            this.result = result;
+        }
+    }
 }
@@ -0,0 +1,135 @@
+package org.ubiquia.core.flow.service.command.node;
+
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.ubiquia.common.library.api.interfaces.InterfaceLogger;
+import org.ubiquia.common.library.implementation.service.telemetry.MicroMeterHelper;
+import org.ubiquia.core.flow.component.node.SubscribeNode;
+import org.ubiquia.core.flow.model.payload.Payload;
+import org.ubiquia.core.flow.service.builder.FlowEventBuilder;
+import org.ubiquia.core.flow.service.builder.PayloadBuilder;
+import org.ubiquia.core.flow.service.logic.node.NodePassthroughLogic;
+import org.ubiquia.core.flow.service.orchestrator.NodePayloadOrchestrator;
+import org.ubiquia.core.flow.service.visitor.validator.PayloadModelValidator;
+
+/**
+ * A service that exposes subscribe node logic: each poll's worth of broker records is processed
+ * as one batch, and returns only once the batch is durable, so that the consumer's offsets are
+ * committed after (and never before) the records are persisted.
+ */
+@Service
+public class SubscribeNodeCommand implements InterfaceLogger {
+
+    private static final Logger logger = LoggerFactory.getLogger(SubscribeNodeCommand.class);
+
+    @Autowired
+    private FlowEventBuilder flowEventBuilder;
+
+    @Autowired(required = false)
+    private MicroMeterHelper microMeterHelper;
+
+    @Autowired
+    private NodePassthroughLogic nodePassthroughLogic;
+
+    @Autowired
+    private NodePayloadOrchestrator nodePayloadOrchestrator;
+
+    @Autowired
+    private PayloadBuilder payloadBuilder;
+
+    @Autowired
+    private PayloadModelValidator payloadModelValidator;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Override
+    public Logger getLogger() {
+        return logger;
+    }
+
+    /**
+     * Process a poll's worth of records for a subscribe node. Records that cannot be parsed or
+     * are invalid are logged and skipped. For passthrough nodes, every valid record's flow,
+     * event and outbox messages are written in one transaction (and so flushed as JDBC
+     * batches); otherwise, each record is forwarded to the node's component in turn.
+     *
+     * @param records The records.
+     * @param node    The node the records were received by.
+     * @throws IllegalStateException If a passthrough node's batch could not be persisted, so
+     *                               that the records are redelivered rather than committed.
+     */
+    public void tryProcessRecordsFor(
+        final List<ConsumerRecord<String, String>> records,
+        final SubscribeNode node) {
+
+        var nodeContext = node.getNodeContext();
+        this.getLogger().info("Node {} received {} message(s) over broker; processing...",
+            nodeContext.getNodeName(),
+            records.size());
+
+        Timer.Sample sample = null;
+        if (Objects.nonNull(this.microMeterHelper)) {
+            sample = this.microMeterHelper.startSample();
+        }
+
+        var payloads = new ArrayList<Payload>(records.size());
+        for (var record : records) {
+            try {
+                var inputPayload = this.payloadBuilder.fromJson(record.value());
+                this.payloadModelValidator.tryValidateInputPayloadFor(inputPayload, node);
+                payloads.add(inputPayload);
+            } catch (Exception e) {
+                logger.error("Could not process incoming message at offset {} of {}-{}: {}",
+                    record.offset(),
+                    record.topic(),
+                    record.partition(),
+                    e.getMessage());
+            }
+        }
+
+        if (this.nodePassthroughLogic.isPassthrough(node)) {
+            this.transactionTemplate.executeWithoutResult(status -> {
+                for (var inputPayload : payloads) {
+                    this.tryForward(inputPayload, node);
+                }
+            });
+        } else {
+            // Records already sent on to the component cannot be rolled back, so a failed
+            // record is logged rather than having the whole batch redelivered.
+            for (var inputPayload : payloads) {
+                try {
+                    this.tryForward(inputPayload, node);
+                } catch (Exception e) {
+                    logger.error("Could not forward incoming message: {}", e.getMessage());
+                }
+            }
+        }
+
+        if (Objects.nonNull(sample)) {
+            this.microMeterHelper.endSample(sample, "onMessages", nodeContext.getTags());
+        }
+        this.getLogger().info("...finished processing {} of {} incoming message(s).",
+            payloads.size(),
+            records.size());
+    }
+
+    private void tryForward(final Payload inputPayload, final SubscribeNode node) {
+        try {
+            var event = this.flowEventBuilder.makeFlowAndEventFrom(inputPayload, node);
+            this.nodePayloadOrchestrator.forwardPayload(event, node, inputPayload);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -3,8 +3,7 @@ package org.ubiquia.core.flow.service.decorator.node;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import java.lang.reflect.Method;
 import java.util.Arrays;
-import java.util.concurrent.ScheduledThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
+import java.util.Objects;
 import net.jimblackler.jsonschemafriend.GenerationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -15,11 +14,17 @@ import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
 import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
 import org.ubiquia.common.library.implementation.service.builder.NodeEndpointRecordBuilder;
 import org.ubiquia.core.flow.component.node.AbstractNode;
+import org.ubiquia.core.flow.component.node.MergeNode;
 import org.ubiquia.core.flow.component.node.PollNode;
 import org.ubiquia.core.flow.component.node.QueueNode;
 import org.ubiquia.core.flow.component.node.SubscribeNode;
 import org.ubiquia.core.flow.service.builder.StimulatedPayloadBuilder;
 import org.ubiquia.core.flow.service.decorator.node.broker.NodeBrokerDecorator;
+import org.ubiquia.core.flow.service.io.InboxDispatcher;
+import org.ubiquia.core.flow.service.io.MergeJoinBuffer;
+import org.ubiquia.core.flow.service.io.broker.kafka.KafkaInbox;
+import org.ubiquia.core.flow.service.logic.node.NodeTypeLogic;
+import org.ubiquia.core.flow.service.scheduler.NodeScheduler;
 import org.ubiquia.core.flow.service.visitor.validator.PayloadModelValidator;
 
 
@@ -39,9 +44,24 @@ public class NodeDecorator {
     @Autowired
     private NodeBrokerDecorator nodeBrokerDecorator;
 
+    @Autowired
+    private InboxDispatcher inboxDispatcher;
+
+    @Autowired(required = false)
+    private KafkaInbox kafkaInbox;
+
+    @Autowired
+    private MergeJoinBuffer mergeJoinBuffer;
+
     @Autowired
     private NodeEndpointRecordBuilder nodeEndpointRecordBuilder;
 
+    @Autowired
+    private NodeScheduler nodeScheduler;
+
+    @Autowired
+    private NodeTypeLogic nodeTypeLogic;
+
     @Autowired
     private PayloadModelValidator payloadModelValidator;
 
@@ -64,13 +84,11 @@ public class NodeDecorator {
             nodeContext.getNodeName(),
             nodeContext.getGraph().getName());
 
-        var executor = new ScheduledThreadPoolExecutor(1);
-        var task = executor.scheduleAtFixedRate(
+        this.nodeScheduler.scheduleFor(
+            nodeContext,
+            "pollToSampleBackPressure",
             node::pollToSampleBackPressure,
-            nodeContext.getNodeSettings().getBackpressurePollFrequencyMilliseconds(),
-            nodeContext.getNodeSettings().getBackpressurePollFrequencyMilliseconds(),
-            TimeUnit.MILLISECONDS);
-        nodeContext.getTasks().add(task);
+            nodeContext.getNodeSettings().getBackpressurePollFrequencyMilliseconds());
         logger.info("...completed back pressure polling initialization...");
     }
 
@@ -88,7 +106,10 @@ public class NodeDecorator {
     }
 
     /**
-     * Initialize the adapter so that it begins polling for incoming messages.
+     * Initialize the adapter so that it begins polling for incoming messages. If inbox push
+     * dispatch is enabled, the node is instead registered with the dispatcher and only polls
+     * the database as a slow recovery sweep. If the outbox relays the node's messages over
+     * Kafka, the node instead consumes them from its topic and does not poll the database.
      *
      * @param node The adapter to initialize.
      */
@@ -100,16 +121,52 @@ public class NodeDecorator {
             nodeContext.getGraph().getName());
 
         this.payloadModelValidator.tryInitializeInputPayloadSchema(nodeContext);
-        var executor = new ScheduledThreadPoolExecutor(1);
-        var task = executor.scheduleAtFixedRate(
-            node::tryPollInbox,
-            nodeContext.getNodeSettings().getInboxPollFrequencyMilliseconds(),
-            nodeContext.getNodeSettings().getInboxPollFrequencyMilliseconds(),
-            TimeUnit.MILLISECONDS);
-        nodeContext.getTasks().add(task);
+        if (Objects.nonNull(this.kafkaInbox)
+            && this.nodeTypeLogic.isKafkaRelayedNodeType(nodeContext.getNodeType())) {
+            logger.info("...outbox relays over Kafka; registering node with Kafka inbox...");
+            this.kafkaInbox.register(node);
+        } else if (this.inboxDispatcher.isEnabled()) {
+            logger.info("...push dispatch enabled; registering node with inbox dispatcher...");
+            this.inboxDispatcher.register(node);
+            var nodeId = nodeContext.getNodeId();
+            var sweepFrequency = Math.max(
+                nodeContext.getNodeSettings().getInboxPollFrequencyMilliseconds(),
+                this.inboxDispatcher.getRecoverySweepFrequencyMilliseconds());
+            this.nodeScheduler.scheduleFor(
+                nodeContext,
+                "inboxRecoverySweep",
+                () -> this.inboxDispatcher.signal(nodeId),
+                sweepFrequency);
+        } else {
+            this.nodeScheduler.scheduleFor(
+                nodeContext,
+                "tryPollInbox",
+                node::tryPollInbox,
+                nodeContext.getNodeSettings().getInboxPollFrequencyMilliseconds());
+        }
         logger.info("...completed inbox polling initialization...");
     }
 
+    /**
+     * Initialize a merge node so that it periodically resolves joins that have timed out
+     * waiting on their upstream messages.
+     *
+     * @param node The merge node to initialize.
+     */
+    public void initializeMergeJoinSweepFor(MergeNode node) {
+        var nodeContext = node.getNodeContext();
+        logger.info("...Initializing merge join sweeps for node {} of graph {}...",
+            nodeContext.getNodeName(),
+            nodeContext.getGraph().getName());
+
+        this.nodeScheduler.scheduleFor(
+            nodeContext,
+            "trySweepJoins",
+            node::trySweepJoins,
+            this.mergeJoinBuffer.getSweepFrequencyMilliseconds());
+        logger.info("...completed merge join sweep initialization...");
+    }
+
     /**
      * Initialize a poll adapter so that it begins polling its target endpoint.
      *
@@ -125,13 +182,11 @@ public class NodeDecorator {
 
         this.payloadModelValidator.tryInitializeInputPayloadSchema(nodeContext);
 
-        var executor = new ScheduledThreadPoolExecutor(1);
-        var task = executor.scheduleAtFixedRate(
+        this.nodeScheduler.scheduleFor(
+            nodeContext,
+            "tryPollEndpoint",
             node::tryPollEndpoint,
-            nodeContext.getPollSettings().getPollFrequencyInMilliseconds(),
-            nodeContext.getPollSettings().getPollFrequencyInMilliseconds(),
-            TimeUnit.MILLISECONDS);
-        nodeContext.getTasks().add(task);
+            nodeContext.getPollSettings().getPollFrequencyInMilliseconds());
         logger.info("...completed polling initialization...");
     }
 
@@ -148,13 +203,11 @@ public class NodeDecorator {
                 nodeContext.getGraph().getName());
 
             this.stimulatedPayloadBuilder.initializeSchema(nodeContext.getNodeId());
-            var executor = new ScheduledThreadPoolExecutor(1);
-            var task = executor.scheduleAtFixedRate(
+            this.nodeScheduler.scheduleFor(
+                nodeContext,
+                "stimulateComponent",
                 node::stimulateComponent,
-                nodeContext.getNodeSettings().getStimulateFrequencyMilliseconds(),
-                nodeContext.getNodeSettings().getStimulateFrequencyMilliseconds(),
-                TimeUnit.MILLISECONDS);
-            nodeContext.getTasks().add(task);
+                nodeContext.getNodeSettings().getStimulateFrequencyMilliseconds());
             logger.info("...completed stimulation initialization...");
         } else {
             logger.debug("...node not configured for input stimulation; "
@@ -256,6 +309,87 @@ public class NodeDecorator {
         this.requestMappingHandlerMapping.registerMapping(mappingInfo, node, method);
     }
 
+    /**
+     * Create an endpoint for an adapter so that clients can pop several messages at once,
+     * optionally waiting for them to arrive.
+     *
+     * @param node The adapter to create an endpoint for.
+     * @throws RuntimeException Exceptions from creating the endpoints.
+     */
+    public void registerPopBatchEndpointFor(QueueNode node) throws RuntimeException {
+
+        var nodeContext = node.getNodeContext();
+
+        var endpointRecord = this
+            .nodeEndpointRecordBuilder
+            .getPopBatchEndpointFor(
+                nodeContext.getGraph().getName(),
+                nodeContext.getNodeName());
+        logger.info("...generating endpoint: {}", endpointRecord.path());
+        var mappingInfo = RequestMappingInfo
+            .paths(endpointRecord.path())
+            .methods(endpointRecord.method())
+            .produces(MediaType.APPLICATION_JSON_VALUE)
+            .build();
+        var method = this.getMethodFrom(node, "popBatch");
+        nodeContext.getRegisteredMappingInfos().add(mappingInfo);
+        this.requestMappingHandlerMapping.registerMapping(mappingInfo, node, method);
+    }
+
+    /**
+     * Create an endpoint for an adapter so that clients can stream its messages as
+     * server-sent events.
+     *
+     * @param node The adapter to create an endpoint for.
+     * @throws RuntimeException Exceptions from creating the endpoints.
+     */
+    public void registerStreamEndpointFor(QueueNode node) throws RuntimeException {
+
+        var nodeContext = node.getNodeContext();
+
+        var endpointRecord = this
+            .nodeEndpointRecordBuilder
+            .getStreamEndpointFor(
+                nodeContext.getGraph().getName(),
+                nodeContext.getNodeName());
+        logger.info("...generating endpoint: {}", endpointRecord.path());
+        var mappingInfo = RequestMappingInfo
+            .paths(endpointRecord.path())
+            .methods(endpointRecord.method())
+            .produces(MediaType.TEXT_EVENT_STREAM_VALUE)
+            .build();
+        var method = this.getMethodFrom(node, "stream");
+        nodeContext.getRegisteredMappingInfos().add(mappingInfo);
+        this.requestMappingHandlerMapping.registerMapping(mappingInfo, node, method);
+    }
+
+    /**
+     * Create an endpoint for an adapter so that clients can acknowledge streamed messages.
+     *
+     * @param node The adapter to create an endpoint for.
+     * @throws RuntimeException Exceptions from creating the endpoints.
+     */
+    public void registerAcknowledgeEndpointFor(QueueNode node) throws RuntimeException {
+
+        var nodeContext = node.getNodeContext();
+
+        var endpointRecord = this
+            .nodeEndpointRecordBuilder
+            .getAcknowledgeEndpointFor(
+                nodeContext.getGraph().getName(),
+                nodeContext.getNodeName());
+        logger.info("...generating endpoint: {}", endpointRecord.path());
+        var mappingInfo = RequestMappingInfo
+            .paths(endpointRecord.path())
+            .methods(endpointRecord.method())
+            .consumes(MediaType.APPLICATION_JSON_VALUE)
+            .produces(MediaType.APPLICATION_JSON_VALUE)
+            .build();
+        var method = this.getMethodFrom(node, "acknowledge");
+        nodeContext.getRegisteredMappingInfos().add(mappingInfo);
+        this.requestMappingHandlerMapping.registerMapping(mappingInfo, node, method);
+    }
+
     /**
      * Create an endpoint for an adapter so that clients can push data to it.
      *
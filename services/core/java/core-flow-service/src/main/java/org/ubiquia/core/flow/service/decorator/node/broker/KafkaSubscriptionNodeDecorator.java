@@ -1,23 +1,39 @@
 package org.ubiquia.core.flow.service.decorator.node.broker;
 
 import java.util.Arrays;
+import java.util.Objects;
+import java.util.Properties;
 import java.util.concurrent.atomic.AtomicLong;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.config.ContainerPostProcessor;
 import org.springframework.kafka.config.KafkaListenerContainerFactory;
 import org.springframework.kafka.config.KafkaListenerEndpoint;
 import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
 import org.springframework.kafka.config.MethodKafkaListenerEndpoint;
+import org.springframework.kafka.listener.AbstractMessageListenerContainer;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
 import org.springframework.messaging.handler.annotation.support.DefaultMessageHandlerMethodFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.util.backoff.FixedBackOff;
 import org.ubiquia.core.flow.component.node.SubscribeNode;
 
 
 /**
  * This is a decorator service that is used to specifically add Kafka subscriptions to
  * adapters.
+ *
+ * <p>Subscriptions are batch listeners: each poll (of up to the node's maxPollRecords) is
+ * handed to the node as one batch, and the poll's offsets are committed only once the node has
+ * finished with it; a poll the node fails to persist is retried every
+ * "ubiquia.broker.kafka.subscription.retry-backoff-milliseconds" until it succeeds. Each node
+ * consumes in a consumer group of its own (unless its broker settings name one), so that
+ * rebalancing one node's consumers does not disturb another's.</p>
  */
 @ConditionalOnProperty(
     value = "ubiquia.broker.kafka.enabled",
@@ -36,6 +52,18 @@ public class KafkaSubscriptionNodeDecorator {
     @Autowired
     private KafkaListenerEndpointRegistry kafkaListenerEndpointRegistry;
 
+    @Value("${ubiquia.broker.kafka.subscription.max-poll-records:500}")
+    private Integer defaultMaxPollRecords;
+
+    @Value("${ubiquia.broker.kafka.subscription.concurrency:1}")
+    private Integer defaultConcurrency;
+
+    @Value("${ubiquia.broker.kafka.subscription.group-id-prefix:ubiquia}")
+    private String groupIdPrefix;
+
+    @Value("${ubiquia.broker.kafka.subscription.retry-backoff-milliseconds:1000}")
+    private Long retryBackoffMilliseconds;
+
     /**
      * Initialize an adapter to have a subscription to a Kafka topic.
      *
@@ -63,12 +91,12 @@ public class KafkaSubscriptionNodeDecorator {
 
         var match = methods
             .stream()
-            .filter(x -> x.getName().contains("onMessage"))
+            .filter(x -> x.getName().equals("onMessages"))
             .findFirst();
 
         if (match.isEmpty()) {
             throw new RuntimeException("ERROR: Unable to initialize - could not find an "
-                + "'onMessage' method!");
+                + "'onMessages' method!");
         }
 
         var kafkaListenerEndpoint = this.getMethodKafkaListenerFor(node);
@@ -86,31 +114,87 @@ public class KafkaSubscriptionNodeDecorator {
      */
     private MethodKafkaListenerEndpoint<String, String> getMethodKafkaListenerFor(
         final SubscribeNode node) {
+        var brokerSettings = node.getNodeContext().getBrokerSettings();
+        var maxPollRecords = Objects.nonNull(brokerSettings.getMaxPollRecords())
+            ? brokerSettings.getMaxPollRecords()
+            : this.defaultMaxPollRecords;
+        final var concurrency = Objects.nonNull(brokerSettings.getConsumerConcurrency())
+            ? brokerSettings.getConsumerConcurrency()
+            : this.defaultConcurrency;
+
+        var consumerProperties = new Properties();
+        consumerProperties.setProperty(
+            ConsumerConfig.MAX_POLL_RECORDS_CONFIG,
+            maxPollRecords.toString());
+        consumerProperties.setProperty(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+
         var kafkaListenerEndpoint = new MethodKafkaListenerEndpoint<String, String>();
         kafkaListenerEndpoint.setId(this.generateListenerIdFor(node));
-        kafkaListenerEndpoint.setGroupId("ubiquia-nodes");
+        kafkaListenerEndpoint.setGroupId(this.getGroupIdFor(node));
         kafkaListenerEndpoint.setAutoStartup(true);
-        kafkaListenerEndpoint.setTopics(node
-            .getNodeContext()
-            .getBrokerSettings()
-            .getTopic());
+        kafkaListenerEndpoint.setBatchListener(true);
+        kafkaListenerEndpoint.setConcurrency(concurrency);
+        kafkaListenerEndpoint.setConsumerProperties(consumerProperties);
+        ContainerPostProcessor<String, String, AbstractMessageListenerContainer<String, String>>
+            postProcessor = container -> {
+                container.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+                // The default handler gives up on a batch after ten attempts and commits it
+                // anyway, which would drop records that were never persisted.
+                container.setCommonErrorHandler(new DefaultErrorHandler(new FixedBackOff(
+                    this.retryBackoffMilliseconds,
+                    FixedBackOff.UNLIMITED_ATTEMPTS)));
+            };
+        kafkaListenerEndpoint.setContainerPostProcessor(postProcessor);
+        kafkaListenerEndpoint.setTopics(brokerSettings.getTopic());
         kafkaListenerEndpoint.setMessageHandlerMethodFactory(
             new DefaultMessageHandlerMethodFactory());
+
+        logger.info("...subscribing node {} to topic {} as group {} with {} consumer(s) of up "
+                + "to {} records per poll...",
+            node.getNodeContext().getNodeName(),
+            brokerSettings.getTopic(),
+            kafkaListenerEndpoint.getGroupId(),
+            concurrency,
+            maxPollRecords);
         return kafkaListenerEndpoint;
     }
 
     /**
-     * Generate a Kafka listener ID for the provided adapter.
+     * Get the consumer group for the provided adapter: the one named in its broker settings,
+     * or else one of its own, named after its graph and itself.
+     *
+     * @param node The adapter to get a consumer group for.
+     * @return The consumer group ID.
+     */
+    private String getGroupIdFor(final SubscribeNode node) {
+        var context = node.getNodeContext();
+        var groupId = context.getBrokerSettings().getConsumerGroupId();
+        if (Objects.isNull(groupId)) {
+            groupId = this.groupIdPrefix
+                + "-"
+                + context.getGraph().getName().toLowerCase()
+                + "-"
+                + context.getNodeName().toLowerCase();
+        }
+        return groupId;
+    }
+
+    /**
+     * Generate a Kafka listener ID for the provided adapter, named after its component (or
+     * after the adapter itself, for passthrough adapters that have none.)
      *
      * @param adapter The adapter to generate an ID for.
      * @return An id.
      */
     private String generateListenerIdFor(final SubscribeNode adapter) {
         var context = adapter.getNodeContext();
+        var name = Objects.nonNull(context.getComponent())
+            ? context.getComponent().getName()
+            : context.getNodeName();
         var id = context
             .getGraph().getName()
             + "-"
-            + context.getComponent().getName()
+            + name
             + "-"
             + endpointIdIndex.getAndIncrement();
         return id;
@@ -0,0 +1,390 @@
+package org.ubiquia.core.flow.service.io;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.net.ConnectException;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.ubiquia.common.library.api.interfaces.InterfaceLogger;
+import org.ubiquia.common.model.ubiquia.entity.FlowEventEntity;
+import org.ubiquia.core.flow.component.node.AbstractNode;
+import org.ubiquia.core.flow.repository.FlowEventRepository;
+import org.ubiquia.core.flow.service.command.node.NodeComponentResponseCommand;
+import org.ubiquia.core.flow.service.visitor.NodeOpenMessageVisitor;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+/**
+ * A service that sends payloads to components asynchronously without tying up a thread per
+ * request, so that thousands of component calls can be in flight per flow service instance.
+ *
+ * <ul>
+ *     <li>Each node may have at most its "egress concurrency" requests in flight; requests
+ *     beyond that wait in a per-node queue and are started as responses come back.</li>
+ *     <li>Requests are only sent once the transaction that created their event commits, and
+ *     hold on to the event's ID rather than the entity itself.</li>
+ *     <li>Responses are handled on a dedicated, bounded scheduler (never on the HTTP client's
+ *     event loop), each in its own short transaction that reloads the event.</li>
+ *     <li>Each attempt is bounded by the node's (or the service's default) timeout. Failures
+ *     the component cannot have acted on (connection failures, 503) are retried with backoff;
+ *     failures it may have acted on (timeouts, failures after connecting, 502/504) are only
+ *     retried if the node opts in, as retrying them may repeat the component's side
+ *     effects.</li>
+ * </ul>
+ */
+@Service
+public class ComponentEgress implements InterfaceLogger {
+
+    private static final Logger logger = LoggerFactory.getLogger(ComponentEgress.class);
+
+    @Value("${ubiquia.egress.response-threads:8}")
+    private Integer responseThreads;
+
+    @Value("${ubiquia.egress.response-queue-capacity:100000}")
+    private Integer responseQueueCapacity;
+
+    @Value("${ubiquia.egress.timeout-milliseconds:30000}")
+    private Long defaultTimeoutMilliseconds;
+
+    @Value("${ubiquia.egress.retry.max-retries:2}")
+    private Integer defaultMaxRetries;
+
+    @Value("${ubiquia.egress.retry.backoff-milliseconds:250}")
+    private Long retryBackoffMilliseconds;
+
+    @Autowired
+    private FlowEventRepository flowEventRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private NodeComponentResponseCommand nodeComponentResponseCommand;
+
+    @Autowired
+    private NodeOpenMessageVisitor nodeOpenMessageVisitor;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private WebClient webClient;
+
+    private final Map<String, NodeEgressLane> lanes = new ConcurrentHashMap<>();
+
+    private final AtomicInteger inFlight = new AtomicInteger(0);
+
+    private Scheduler responseScheduler;
+
+    private Counter successCounter;
+
+    private Counter errorCounter;
+
+    @Override
+    public Logger getLogger() {
+        return logger;
+    }
+
+    /** Starts the response scheduler and binds metrics. */
+    @PostConstruct
+    public void start() {
+        this.responseScheduler = Schedulers.newBoundedElastic(
+            this.responseThreads,
+            this.responseQueueCapacity,
+            "ubiquia-egress-response",
+            60,
+            true);
+
+        Gauge.builder("ubiquia.egress.in-flight", this.inFlight, AtomicInteger::get)
+            .description("Asynchronous component requests currently in flight.")
+            .register(this.meterRegistry);
+        this.successCounter = Counter.builder("ubiquia.egress.responses")
+            .tag("result", "success")
+            .register(this.meterRegistry);
+        this.errorCounter = Counter.builder("ubiquia.egress.responses")
+            .tag("result", "error")
+            .register(this.meterRegistry);
+    }
+
+    /** Disposes of the response scheduler. */
+    @PreDestroy
+    public void teardown() {
+        logger.info("Tearing down ComponentEgress...");
+        this.responseScheduler.dispose();
+        logger.info("...ComponentEgress torn down.");
+    }
+
+    /**
+     * Send a payload to a node's component asynchronously. The node's open message count is
+     * incremented immediately and decremented once the response (or final error) has been
+     * handled.
+     *
+     * @param flowEventEntity The (persisted) event the payload belongs to.
+     * @param node            The node whose component to send to.
+     * @param method          The HTTP method to send with.
+     * @param inputPayload    The payload to send.
+     */
+    public void sendAsynchronously(
+        final FlowEventEntity flowEventEntity,
+        final AbstractNode node,
+        final HttpMethod method,
+        final Object inputPayload) {
+
+        var nodeContext = node.getNodeContext();
+        logger.info("Queueing asynchronous {} of payload to URI: {}...",
+            method,
+            nodeContext.getEndpointUri());
+
+        flowEventEntity.getFlowEventTimes().setPayloadSentToComponentTime(OffsetDateTime.now());
+        this.nodeOpenMessageVisitor.incrementOpenMessagesFor(node);
+
+        var request = new EgressRequest(flowEventEntity.getId(), node, method, inputPayload);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        ComponentEgress.this.enqueue(request);
+                    }
+
+                    @Override
+                    public void afterCompletion(int status) {
+                        if (status != STATUS_COMMITTED) {
+                            ComponentEgress.this.nodeOpenMessageVisitor
+                                .decrementOpenMessagesFor(node);
+                        }
+                    }
+                });
+        } else {
+            this.enqueue(request);
+        }
+    }
+
+    /**
+     * Forget a node's lane (i.e., when the node is torn down.) Requests already in flight
+     * still complete.
+     *
+     * @param nodeId The ID of the node.
+     */
+    public void evictNode(final String nodeId) {
+        this.lanes.remove(nodeId);
+    }
+
+    private void enqueue(final EgressRequest request) {
+        var nodeContext = request.node.getNodeContext();
+        var lane = this.lanes.computeIfAbsent(
+            nodeContext.getNodeId(),
+            id -> new NodeEgressLane(nodeContext.getEgressSettings().getEgressConcurrency()));
+        lane.pending.add(request);
+        this.drain(lane);
+    }
+
+    /**
+     * Start as many of a lane's pending requests as it has permits for. Called both when a
+     * request is queued and when one completes, so a pending request is never stranded.
+     */
+    private void drain(final NodeEgressLane lane) {
+        while (!lane.pending.isEmpty() && lane.permits.tryAcquire()) {
+            var request = lane.pending.poll();
+            if (Objects.isNull(request)) {
+                lane.permits.release();
+                continue;
+            }
+            try {
+                this.send(request, lane);
+            } catch (Exception e) {
+                logger.error("ERROR: Could not send request for event {}: {}",
+                    request.flowEventId,
+                    e.getMessage());
+                this.complete(request, lane);
+            }
+        }
+    }
+
+    private void send(final EgressRequest request, final NodeEgressLane lane) {
+
+        var nodeContext = request.node.getNodeContext();
+        var egressSettings = nodeContext.getEgressSettings();
+        var timeout = Duration.ofMillis(Objects.nonNull(egressSettings.getTimeoutMilliseconds())
+            ? egressSettings.getTimeoutMilliseconds()
+            : this.defaultTimeoutMilliseconds);
+        var maxRetries = Objects.nonNull(egressSettings.getMaxRetries())
+            ? egressSettings.getMaxRetries()
+            : this.defaultMaxRetries;
+        var retryAmbiguousFailures = Boolean.TRUE.equals(
+            egressSettings.getRetryAmbiguousFailures());
+
+        this.inFlight.incrementAndGet();
+        this.webClient
+            .method(request.method)
+            .uri(nodeContext.getEndpointUri())
+            .bodyValue(request.inputPayload)
+            .retrieve()
+            .toEntity(Object.class)
+            .timeout(timeout)
+            .retryWhen(Retry
+                .backoff(maxRetries, Duration.ofMillis(this.retryBackoffMilliseconds))
+                .filter(error -> this.isRetryable(error, retryAmbiguousFailures))
+                .doBeforeRetry(signal -> logger.warn(
+                    "...retrying request for event {} after: {}...",
+                    request.flowEventId,
+                    signal.failure().getMessage()))
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+            .map(response -> new TimedResponse(response, OffsetDateTime.now()))
+            .publishOn(this.responseScheduler)
+            .subscribe(
+                response -> {
+                    try {
+                        this.handleResponse(request, response);
+                    } finally {
+                        this.complete(request, lane);
+                    }
+                },
+                error -> {
+                    try {
+                        this.handleError(request, error);
+                    } finally {
+                        this.complete(request, lane);
+                    }
+                });
+    }
+
+    private void handleResponse(final EgressRequest request, final TimedResponse response) {
+        logger.info("...got response code {} from component for event {}...",
+            response.response.getStatusCode(),
+            request.flowEventId);
+        this.successCounter.increment();
+        try {
+            this.transactionTemplate.executeWithoutResult(status -> {
+                var flowEventEntity = this.flowEventRepository
+                    .findById(request.flowEventId)
+                    .orElseThrow(() -> new IllegalStateException(
+                        "No flow event with id " + request.flowEventId));
+                flowEventEntity.getFlowEventTimes().setComponentResponseTime(response.time);
+                flowEventEntity.setHttpResponseCode(response.response.getStatusCode().value());
+                try {
+                    this.nodeComponentResponseCommand.processComponentResponse(
+                        flowEventEntity,
+                        request.node,
+                        response.response);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        } catch (Exception e) {
+            logger.error("ERROR processing component response for event {}: {}",
+                request.flowEventId,
+                e.getMessage());
+        }
+    }
+
+    private void handleError(final EgressRequest request, final Throwable error) {
+        logger.error("ERROR response when sending event {} to component: {}",
+            request.flowEventId,
+            error.getMessage());
+        this.errorCounter.increment();
+        try {
+            this.transactionTemplate.executeWithoutResult(status -> {
+                var flowEventEntity = this.flowEventRepository.findById(request.flowEventId);
+                if (flowEventEntity.isPresent()) {
+                    var event = flowEventEntity.get();
+                    if (error instanceof WebClientResponseException cast) {
+                        event.setHttpResponseCode(cast.getStatusCode().value());
+                    }
+                    var now = OffsetDateTime.now();
+                    event.getFlowEventTimes().setComponentResponseTime(now);
+                    event.getFlowEventTimes().setEventCompleteTime(now);
+                }
+            });
+        } catch (Exception e) {
+            logger.error("ERROR recording component failure for event {}: {}",
+                request.flowEventId,
+                e.getMessage());
+        }
+    }
+
+    private void complete(final EgressRequest request, final NodeEgressLane lane) {
+        this.inFlight.decrementAndGet();
+        this.nodeOpenMessageVisitor.decrementOpenMessagesFor(request.node);
+        lane.permits.release();
+        this.drain(lane);
+    }
+
+    /**
+     * Determine whether a failed attempt may be retried. Attempts that never reached the
+     * component, or that it turned away unprocessed (503), are always retryable; attempts it
+     * may have processed are only retryable if the node allows it.
+     */
+    private Boolean isRetryable(final Throwable error, final Boolean retryAmbiguousFailures) {
+        if (this.failedToConnect(error)) {
+            return true;
+        }
+        if (error instanceof WebClientResponseException cast) {
+            var code = cast.getStatusCode().value();
+            return code == 503 || (retryAmbiguousFailures && (code == 502 || code == 504));
+        }
+        return retryAmbiguousFailures
+            && (error instanceof TimeoutException || error instanceof WebClientRequestException);
+    }
+
+    private Boolean failedToConnect(final Throwable error) {
+        var cause = error;
+        while (Objects.nonNull(cause)) {
+            if (cause instanceof ConnectException || cause instanceof UnknownHostException) {
+                return true;
+            }
+            cause = cause.getCause();
+        }
+        return false;
+    }
+
+    /** A request waiting for, or holding, one of its node's permits. */
+    private record EgressRequest(
+        String flowEventId,
+        AbstractNode node,
+        HttpMethod method,
+        Object inputPayload) {
+    }
+
+    /** A component response along with when it arrived. */
+    private record TimedResponse(ResponseEntity<Object> response, OffsetDateTime time) {
+    }
+
+    /** A node's in-flight permits and the requests waiting for one. */
+    private static class NodeEgressLane {
+
+        private final Semaphore permits;
+
+        private final Queue<EgressRequest> pending = new ConcurrentLinkedQueue<>();
+
+        private NodeEgressLane(final Integer egressConcurrency) {
+            this.permits = new Semaphore(egressConcurrency);
+        }
+    }
+}
@@ -2,16 +2,21 @@ package org.ubiquia.core.flow.service.io;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import jakarta.transaction.Transactional;
+import java.time.Duration;
+import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.ubiquia.common.library.implementation.service.mapper.FlowMessageDtoMapper;
 import org.ubiquia.common.model.ubiquia.dto.FlowMessage;
+import org.ubiquia.common.model.ubiquia.entity.FlowMessageEntity;
 import org.ubiquia.core.flow.component.node.AbstractNode;
 import org.ubiquia.core.flow.component.node.QueueNode;
 import org.ubiquia.core.flow.repository.FlowMessageRepository;
@@ -21,6 +26,13 @@ import org.ubiquia.core.flow.service.calculator.NodeConcurrencyCalculator;
 /**
  * A serviced dedicated to polling for incoming messages from the database on behalf
  * of adapters.
+ *
+ * <p>Messages are "claimed" rather than simply read: a claim takes a time-bound lease on the
+ * oldest unleased messages for a node (skipping rows locked by concurrent claimers where the
+ * database supports it) and commits immediately. Processing a message acknowledges it by
+ * deleting it; a lease that is never acknowledged simply expires and the message becomes
+ * claimable again. This lets several flow service instances, or several workers, drain the
+ * same node's inbox without processing a message twice.</p>
  */
 @Service
 @Transactional
@@ -35,9 +47,23 @@ public class Inbox {
     private NodeRepository nodeRepository;
     @Autowired
     private FlowMessageRepository flowMessageRepository;
+    @Value("${ubiquia.inbox.lease.duration-milliseconds:60000}")
+    private Long leaseDurationMilliseconds;
+
+    private final String leaseOwner = UUID.randomUUID().toString();
+
+    public String getLeaseOwner() {
+        return this.leaseOwner;
+    }
+
+    public Long getLeaseDurationMilliseconds() {
+        return this.leaseDurationMilliseconds;
+    }
 
     /**
-     * Try to query an inbox message for a queue adapter.
+     * Try to query an inbox message for a queue adapter without claiming it. The peek neither
+     * locks rows nor skips leased messages, so it returns the head of the queue even while the
+     * head is claimed, and never blocks claimers.
      *
      * @param node The adapter to query a message for.
      * @return An event associated with the query.
@@ -50,58 +76,163 @@ public class Inbox {
         logger.debug("Querying inbox records for node {}...",
             nodeContext.getNodeName());
 
-        var sort = Sort.by("createdAt").ascending();
-
-        var pageRequest = PageRequest
-            .of(0, 1)
-            .withSort(sort);
-
-        var query = this
+        var head = this
             .flowMessageRepository
-            .findAllByTargetNodeId(pageRequest, nodeContext.getNodeId());
+            .findFirstByTargetNodeIdOrderByQueuedAtAsc(nodeContext.getNodeId());
 
         FlowMessage flowMessage = null;
-        if (query.hasContent()) {
-            logger.debug("queried message with ID: {}", query.getContent().get(0).getId());
-            flowMessage = this.flowMessageDtoMapper.map(query.getContent().get(0));
+        if (head.isPresent()) {
+            logger.debug("queried message with ID: {}", head.get().getId());
+            flowMessage = this.flowMessageDtoMapper.map(head.get());
         }
 
         return flowMessage;
     }
 
     /**
-     * Provided an adapter, query the inbox for any of the adapter's inbox messages.
+     * Provided an adapter, claim the oldest of the adapter's inbox messages. The claim is
+     * committed in its own transaction so that other claimers see the lease right away.
      *
      * @param node The adapter to query for.
      * @throws JsonProcessingException Exceptions from parsing payloads.
      */
-    @Transactional
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
     public List<FlowMessage> tryQueryInboxMessagesFor(final AbstractNode node)
         throws JsonProcessingException {
 
-        var nodeContext = node.getNodeContext();
-        logger.debug("Querying inbox records for node {}...",
-            nodeContext.getNodeName());
-
-        var sort = Sort.by("createdAt").ascending();
         var pageSize = this.nodeConcurrencyCalculator.getInboxQueryPageSizeFor(node);
-        var pageRequest = PageRequest
-            .of(0, pageSize)
-            .withSort(sort);
-
-        var query = this
-            .flowMessageRepository
-            .findAllByTargetNodeId(pageRequest, nodeContext.getNodeId());
+        var claimed = this.claim(node, pageSize);
 
         var messages = new ArrayList<FlowMessage>();
-        for (var flowMessageEntity : query.getContent()) {
-            logger.debug("queried message with ID: {}", flowMessageEntity.getId());
+        for (var flowMessageEntity : claimed) {
+            logger.debug("claimed message with ID: {}", flowMessageEntity.getId());
             var flowMessages = this.flowMessageDtoMapper.map(flowMessageEntity);
             messages.add(flowMessages);
         }
-        logger.debug("...queried first {} records of {} total inbox records...",
-            messages.size(),
-            query.getTotalElements());
+        logger.debug("...claimed {} inbox records...", messages.size());
         return messages;
     }
+
+    /**
+     * Try to claim the next inbox message for a queue adapter so that it can be popped.
+     *
+     * @param node The adapter to claim a message for.
+     * @return The claimed message, or null if the queue is empty.
+     * @throws JsonProcessingException Exceptions from parsing payloads.
+     */
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public FlowMessage tryClaimInboxMessageFor(final QueueNode node)
+        throws JsonProcessingException {
+
+        var claimed = this.claim(node, 1);
+
+        FlowMessage flowMessage = null;
+        if (!claimed.isEmpty()) {
+            flowMessage = this.flowMessageDtoMapper.map(claimed.get(0));
+        }
+        return flowMessage;
+    }
+
+    /**
+     * Try to claim up to the provided number of a queue adapter's oldest inbox messages in a
+     * single query, so that they can be popped or streamed together.
+     *
+     * @param node  The adapter to claim messages for.
+     * @param limit The maximum number of messages to claim.
+     * @return The claimed messages, oldest first; empty if the queue is empty.
+     * @throws JsonProcessingException Exceptions from parsing payloads.
+     */
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public List<FlowMessage> tryClaimInboxMessagesFor(final QueueNode node, final Integer limit)
+        throws JsonProcessingException {
+
+        var claimed = this.claim(node, limit);
+
+        var messages = new ArrayList<FlowMessage>(claimed.size());
+        for (var flowMessageEntity : claimed) {
+            messages.add(this.flowMessageDtoMapper.map(flowMessageEntity));
+        }
+        logger.debug("...claimed {} queued records...", messages.size());
+        return messages;
+    }
+
+    /**
+     * Release any leases this instance holds on the provided node's messages so that they can
+     * be claimed again immediately (i.e., when the node is torn down.)
+     *
+     * @param node The node to release leases for.
+     */
+    public void releaseLeasesFor(final AbstractNode node) {
+        var nodeContext = node.getNodeContext();
+        var leased = this
+            .flowMessageRepository
+            .findAllByTargetNodeIdAndLeaseOwner(nodeContext.getNodeId(), this.leaseOwner);
+
+        if (!leased.isEmpty()) {
+            logger.info("...releasing {} leased inbox message(s) for node {}...",
+                leased.size(),
+                nodeContext.getNodeName());
+            for (var message : leased) {
+                message.setLeaseOwner(null);
+                message.setLeaseExpiresAt(null);
+            }
+            this.flowMessageRepository.saveAll(leased);
+        }
+    }
+
+    /**
+     * Release this instance's leases on the provided messages so that they can be claimed
+     * again immediately (i.e., when a queue stream closes before its messages are
+     * acknowledged.)
+     *
+     * @param messageIds The IDs of the messages.
+     */
+    public void releaseLeasesFor(final Collection<String> messageIds) {
+        if (!messageIds.isEmpty()) {
+            this.flowMessageRepository.releaseLeases(messageIds, this.leaseOwner);
+        }
+    }
+
+    /**
+     * Extend this instance's leases on the provided messages until a lease's duration past the
+     * given time, so that messages held in memory (i.e., by a merge node awaiting the rest of a
+     * flow) are not claimed again while they are held, but still are if this instance dies.
+     *
+     * @param messageIds The IDs of the messages.
+     * @param heldUntil  When the messages will be released or acknowledged by.
+     */
+    public void extendLeasesFor(
+        final Collection<String> messageIds,
+        final OffsetDateTime heldUntil) {
+
+        if (!messageIds.isEmpty()) {
+            this.flowMessageRepository.extendLeases(
+                messageIds,
+                this.leaseOwner,
+                heldUntil.plus(Duration.ofMillis(this.leaseDurationMilliseconds)));
+        }
+    }
+
+    private List<FlowMessageEntity> claim(final AbstractNode node, final Integer limit) {
+
+        var nodeContext = node.getNodeContext();
+        logger.debug("Claiming up to {} inbox records for node {}...",
+            limit,
+            nodeContext.getNodeName());
+
+        var now = OffsetDateTime.now();
+        var claimable = this
+            .flowMessageRepository
+            .findClaimableByTargetNodeId(
+                nodeContext.getNodeId(),
+                now,
+                PageRequest.of(0, limit));
+
+        var expiry = now.plus(Duration.ofMillis(this.leaseDurationMilliseconds));
+        for (var message : claimable) {
+            message.setLeaseOwner(this.leaseOwner);
+            message.setLeaseExpiresAt(expiry);
+        }
+        return this.flowMessageRepository.saveAll(claimable);
+    }
 }
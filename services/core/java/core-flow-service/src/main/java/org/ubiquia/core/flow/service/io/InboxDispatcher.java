@@ -0,0 +1,210 @@
+package org.ubiquia.core.flow.service.io;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.ubiquia.common.library.api.interfaces.InterfaceLogger;
+import org.ubiquia.core.flow.component.node.AbstractNode;
+import org.ubiquia.core.flow.service.scheduler.NodeScheduler;
+
+/**
+ * A service that "pushes" inbox work to nodes as soon as messages are committed for them,
+ * rather than having every node poll the database on a fixed timer. When enabled, nodes
+ * register themselves here and the Outbox signals them once their messages are durable; the
+ * per-node database poll is then only used as a slow recovery sweep (i.e., for messages
+ * written by other instances or signals lost across a restart.)
+ *
+ * <p>Each registered node is drained by at most one worker at a time. Signals are also handed to
+ * one-shot listeners, whether or not push dispatch is enabled, so that queue consumers waiting
+ * on a node (i.e., long-polling or streaming) wake as soon as a message is committed.</p>
+ */
+@Service
+public class InboxDispatcher implements InterfaceLogger {
+
+    private static final Logger logger = LoggerFactory.getLogger(InboxDispatcher.class);
+
+    @Value("${ubiquia.inbox.push-dispatch.enabled:false}")
+    private Boolean enabled;
+
+    @Value("${ubiquia.inbox.push-dispatch.recovery-sweep-frequency-milliseconds:30000}")
+    private Long recoverySweepFrequencyMilliseconds;
+
+    @Autowired
+    private NodeScheduler nodeScheduler;
+
+    private final Map<String, NodeDispatchEntry> entries = new ConcurrentHashMap<>();
+
+    private final Map<String, Set<Runnable>> listeners = new ConcurrentHashMap<>();
+
+    @Override
+    public Logger getLogger() {
+        return logger;
+    }
+
+    public Boolean isEnabled() {
+        return this.enabled;
+    }
+
+    public Long getRecoverySweepFrequencyMilliseconds() {
+        return this.recoverySweepFrequencyMilliseconds;
+    }
+
+    /**
+     * Register a node so that it is drained whenever it is signaled.
+     *
+     * @param node The node to register.
+     */
+    public void register(final AbstractNode node) {
+        var nodeContext = node.getNodeContext();
+        logger.debug("...registering node {} for inbox push dispatch...",
+            nodeContext.getNodeName());
+        this.entries.put(nodeContext.getNodeId(), new NodeDispatchEntry(node));
+    }
+
+    /**
+     * Deregister a node so that it no longer receives signals.
+     *
+     * @param node The node to deregister.
+     */
+    public void deregister(final AbstractNode node) {
+        this.entries.remove(node.getNodeContext().getNodeId());
+    }
+
+    /**
+     * Run a listener on the worker pool the next time a node is signaled. The listener is
+     * forgotten once it runs; listeners that want every signal must listen again.
+     *
+     * @param nodeId   The ID of the node to listen to.
+     * @param listener The listener.
+     */
+    public void listenOnce(final String nodeId, final Runnable listener) {
+        this.listeners.compute(nodeId, (id, waiting) -> {
+            var updated = Objects.nonNull(waiting)
+                ? waiting
+                : ConcurrentHashMap.<Runnable>newKeySet();
+            updated.add(listener);
+            return updated;
+        });
+    }
+
+    /**
+     * Forget a listener that has not yet run (i.e., because its consumer went away.)
+     *
+     * @param nodeId   The ID of the node the listener listens to.
+     * @param listener The listener.
+     */
+    public void unlisten(final String nodeId, final Runnable listener) {
+        this.listeners.computeIfPresent(nodeId, (id, waiting) -> {
+            waiting.remove(listener);
+            return waiting.isEmpty() ? null : waiting;
+        });
+    }
+
+    /**
+     * Signal that a node may have work waiting in its inbox. This is a no-op for nodes
+     * that are not registered locally and have no listeners.
+     *
+     * @param nodeId The ID of the node to signal.
+     */
+    public void signal(final String nodeId) {
+        if (Objects.isNull(nodeId)) {
+            return;
+        }
+        var waiting = this.listeners.remove(nodeId);
+        if (Objects.nonNull(waiting)) {
+            waiting.forEach(this.nodeScheduler::execute);
+        }
+        var entry = this.entries.get(nodeId);
+        if (Objects.nonNull(entry) && entry.signals.getAndIncrement() == 0) {
+            this.nodeScheduler.execute(() -> this.drain(entry));
+        }
+    }
+
+    /**
+     * Signal the provided nodes once the current transaction commits, so that the signaled
+     * nodes are guaranteed to see the messages written for them. If there is no active
+     * transaction, the nodes are signaled immediately.
+     *
+     * @param nodeIds The IDs of the nodes to signal.
+     */
+    public void signalAfterCommit(final Collection<String> nodeIds) {
+        if ((this.entries.isEmpty() && this.listeners.isEmpty()) || nodeIds.isEmpty()) {
+            return;
+        }
+
+        var targets = List.copyOf(nodeIds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        targets.forEach(InboxDispatcher.this::signal);
+                    }
+                });
+        } else {
+            targets.forEach(this::signal);
+        }
+    }
+
+    /**
+     * Poll a node's inbox until every outstanding signal has been answered. Signals are
+     * coalesced: one poll answers every signal raised before it started, and the node keeps
+     * polling for as long as its polls come back with a full page, since more messages are
+     * likely waiting. Signals that arrive while a node is being drained are picked up by the
+     * same worker, so a node never polls concurrently with itself.
+     *
+     * @param entry The entry of the node to drain.
+     */
+    private void drain(final NodeDispatchEntry entry) {
+        var answered = entry.signals.get();
+        do {
+            while (this.tryPoll(entry)) {
+                logger.debug("...node {} polled a full page; polling again...",
+                    entry.node.getNodeContext().getNodeName());
+            }
+            // Signals raised while polling keep the count above zero, and are answered next.
+            answered = entry.signals.addAndGet(-answered);
+        } while (answered > 0);
+    }
+
+    /**
+     * Poll a node's inbox once.
+     *
+     * @param entry The entry of the node to poll.
+     * @return Whether the poll claimed a full page of messages.
+     */
+    private Boolean tryPoll(final NodeDispatchEntry entry) {
+        var fullPage = false;
+        try {
+            fullPage = entry.node.tryPollInbox();
+        } catch (Exception e) {
+            logger.error("ERROR: Could not drain inbox for node {}: {}",
+                entry.node.getNodeContext().getNodeName(),
+                e.getMessage());
+        }
+        return fullPage;
+    }
+
+    /** A registered node along with its count of outstanding signals. */
+    private static class NodeDispatchEntry {
+
+        private final AbstractNode node;
+
+        private final AtomicInteger signals = new AtomicInteger(0);
+
+        private NodeDispatchEntry(final AbstractNode node) {
+            this.node = node;
+        }
+    }
+}
@@ -0,0 +1,344 @@
+package org.ubiquia.core.flow.service.io;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.ubiquia.common.library.api.interfaces.InterfaceLogger;
+import org.ubiquia.common.model.ubiquia.dto.FlowMessage;
+import org.ubiquia.common.model.ubiquia.enums.MergeTimeoutPolicy;
+import org.ubiquia.core.flow.model.node.MergeJoin;
+import org.ubiquia.core.flow.model.node.NodeContext;
+
+/**
+ * A service that correlates merge nodes' upstream messages in memory, per node and per flow,
+ * so that each arrival costs a map lookup rather than a query for every message of its flow.
+ *
+ * <p>The flow message table stays the source of truth: buffered messages are not deleted
+ * until their join is resolved, and their inbox leases are extended until the join's deadline
+ * so that another claimer only picks them up if this instance goes away. A join resolves when
+ * a message has arrived from every upstream node, or once the node's merge timeout passes from
+ * its first message (or when the node holds more than "ubiquia.merge.max-pending-joins" joins,
+ * oldest first), at which point the node's timeout policy applies. Flows that were resolved
+ * are remembered for "ubiquia.merge.late-arrival-retention-milliseconds" so that messages
+ * arriving after their join are dropped rather than opening a join that can never complete.</p>
+ *
+ * <p>Pending joins are published per node as "ubiquia.merge.pending-joins", and joins and
+ * dropped arrivals as "ubiquia.merge.joins" and "ubiquia.merge.arrivals" (tagged by result.)</p>
+ */
+@Service
+public class MergeJoinBuffer implements InterfaceLogger {
+
+    private static final Logger logger = LoggerFactory.getLogger(MergeJoinBuffer.class);
+
+    @Value("${ubiquia.merge.timeout-milliseconds:300000}")
+    private Long defaultTimeoutMilliseconds;
+
+    @Value("${ubiquia.merge.timeout-policy:DISCARD}")
+    private MergeTimeoutPolicy defaultTimeoutPolicy;
+
+    @Value("${ubiquia.merge.max-pending-joins:10000}")
+    private Integer maxPendingJoins;
+
+    @Value("${ubiquia.merge.late-arrival-retention-milliseconds:300000}")
+    private Long lateArrivalRetentionMilliseconds;
+
+    @Value("${ubiquia.merge.sweep-frequency-milliseconds:1000}")
+    private Long sweepFrequencyMilliseconds;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, NodeJoins> nodes = new ConcurrentHashMap<>();
+
+    private Counter completedCounter;
+
+    private Counter expiredCounter;
+
+    private Counter duplicateCounter;
+
+    private Counter lateCounter;
+
+    /** What became of a message offered to the buffer. */
+    public enum Arrival {
+        /** The message was held until the rest of its flow arrives. */
+        BUFFERED,
+        /** The message was already held (i.e., it was claimed again after its lease expired). */
+        REDELIVERED,
+        /** Another message from the same upstream node is already held for the flow. */
+        DUPLICATE,
+        /** The message's flow was already resolved. */
+        LATE,
+        /** The message completed its flow's join. */
+        COMPLETE
+    }
+
+    /**
+     * The result of offering a message to the buffer.
+     *
+     * @param arrival What became of the message.
+     * @param join    The message's join, or null if the message was dropped.
+     */
+    public record Offer(Arrival arrival, MergeJoin join) {
+    }
+
+    @Override
+    public Logger getLogger() {
+        return logger;
+    }
+
+    /** Binds the buffer's metrics. */
+    @PostConstruct
+    public void init() {
+        this.completedCounter = Counter.builder("ubiquia.merge.joins")
+            .description("Merge joins resolved, by whether every upstream message arrived.")
+            .tag("result", "complete")
+            .register(this.meterRegistry);
+        this.expiredCounter = Counter.builder("ubiquia.merge.joins")
+            .description("Merge joins resolved, by whether every upstream message arrived.")
+            .tag("result", "expired")
+            .register(this.meterRegistry);
+        this.duplicateCounter = Counter.builder("ubiquia.merge.arrivals")
+            .description("Upstream messages a merge node dropped.")
+            .tag("result", "duplicate")
+            .register(this.meterRegistry);
+        this.lateCounter = Counter.builder("ubiquia.merge.arrivals")
+            .description("Upstream messages a merge node dropped.")
+            .tag("result", "late")
+            .register(this.meterRegistry);
+    }
+
+    public Long getSweepFrequencyMilliseconds() {
+        return this.sweepFrequencyMilliseconds;
+    }
+
+    /**
+     * Start buffering joins for a merge node.
+     *
+     * @param nodeContext     The context of the merge node.
+     * @param expectedSources The names of the node's upstream nodes.
+     */
+    public void register(final NodeContext nodeContext, final Set<String> expectedSources) {
+        var settings = nodeContext.getNodeSettings();
+        var timeout = Duration.ofMillis(Objects.nonNull(settings.getMergeTimeoutMilliseconds())
+            ? settings.getMergeTimeoutMilliseconds()
+            : this.defaultTimeoutMilliseconds);
+        var policy = Objects.nonNull(settings.getMergeTimeoutPolicy())
+            ? settings.getMergeTimeoutPolicy()
+            : this.defaultTimeoutPolicy;
+
+        this.evictNode(nodeContext.getNodeId());
+        var joins = new NodeJoins(Set.copyOf(expectedSources), timeout, policy);
+        joins.gauge = Gauge.builder("ubiquia.merge.pending-joins", joins.size, AtomicInteger::get)
+            .description("Flows a merge node is waiting on upstream messages for.")
+            .tag("node", nodeContext.getNodeName())
+            .tag("graph", nodeContext.getGraph().getName())
+            .register(this.meterRegistry);
+        this.nodes.put(nodeContext.getNodeId(), joins);
+
+        logger.info("...buffering merges of {} upstream node(s) for node {} with a {} ms "
+                + "timeout ({})...",
+            expectedSources.size(),
+            nodeContext.getNodeName(),
+            timeout.toMillis(),
+            policy);
+    }
+
+    /**
+     * Stop buffering joins for a merge node (i.e., when it is torn down.) Its held messages
+     * remain in the flow message table.
+     *
+     * @param nodeId The ID of the node.
+     */
+    public void evictNode(final String nodeId) {
+        var joins = this.nodes.remove(nodeId);
+        if (Objects.nonNull(joins)) {
+            this.meterRegistry.remove(joins.gauge);
+        }
+    }
+
+    /**
+     * Offer an upstream message to its flow's join.
+     *
+     * @param nodeId  The ID of the merge node.
+     * @param message The message.
+     * @return What became of the message.
+     */
+    public Offer offer(final String nodeId, final FlowMessage message) {
+        var joins = this.getJoinsFor(nodeId);
+        var flowId = message.getFlowEvent().getFlow().getId();
+        var source = message.getFlowEvent().getNode().getName();
+
+        synchronized (joins) {
+            if (joins.resolved.containsKey(flowId)) {
+                this.lateCounter.increment();
+                return new Offer(Arrival.LATE, null);
+            }
+
+            var join = joins.pending.get(flowId);
+            if (Objects.isNull(join)) {
+                // Deadlines run from when the message was queued, so that they hold across
+                // restarts that rebuild the buffer from the flow message table.
+                var arrivedAt = Objects.nonNull(message.getCreatedAt())
+                    ? message.getCreatedAt()
+                    : OffsetDateTime.now();
+                join = new MergeJoin(
+                    flowId,
+                    arrivedAt.plus(joins.timeout),
+                    joins.expectedSources);
+                joins.pending.put(flowId, join);
+                joins.size.incrementAndGet();
+            }
+
+            if (join.hasMessage(message.getId())) {
+                return new Offer(Arrival.REDELIVERED, join);
+            }
+            if (join.hasSource(source)) {
+                this.duplicateCounter.increment();
+                return new Offer(Arrival.DUPLICATE, null);
+            }
+
+            join.add(source, message);
+            if (join.isComplete()) {
+                this.resolve(joins, join);
+                this.completedCounter.increment();
+                return new Offer(Arrival.COMPLETE, join);
+            }
+            return new Offer(Arrival.BUFFERED, join);
+        }
+    }
+
+    /**
+     * Remove and return a merge node's joins that have passed their deadline, along with its
+     * oldest joins while it holds more than the maximum.
+     *
+     * @param nodeId The ID of the merge node.
+     * @param now    The current time.
+     * @return The expired joins, oldest first.
+     */
+    public List<MergeJoin> expire(final String nodeId, final OffsetDateTime now) {
+        var joins = this.getJoinsFor(nodeId);
+        var expired = new ArrayList<MergeJoin>();
+
+        synchronized (joins) {
+            var iterator = joins.pending.values().iterator();
+            while (iterator.hasNext()) {
+                var join = iterator.next();
+                if (join.getDeadline().isBefore(now)
+                    || joins.pending.size() > this.maxPendingJoins) {
+                    iterator.remove();
+                    joins.size.decrementAndGet();
+                    joins.resolved.put(join.getFlowId(), System.currentTimeMillis());
+                    expired.add(join);
+                }
+            }
+
+            // Resolved flows are kept in the order they were resolved in, so only the head
+            // needs checking.
+            var cutoff = System.currentTimeMillis() - this.lateArrivalRetentionMilliseconds;
+            var resolved = joins.resolved.values().iterator();
+            while (resolved.hasNext() && resolved.next() < cutoff) {
+                resolved.remove();
+            }
+        }
+
+        this.expiredCounter.increment(expired.size());
+        return expired;
+    }
+
+    /**
+     * Forget a join entirely, without treating its flow as resolved, so that its messages
+     * rebuild it when they are claimed again (i.e., because resolving it failed.)
+     *
+     * @param nodeId The ID of the merge node.
+     * @param join   The join.
+     */
+    public void release(final String nodeId, final MergeJoin join) {
+        var joins = this.nodes.get(nodeId);
+        if (Objects.nonNull(joins)) {
+            synchronized (joins) {
+                if (joins.pending.remove(join.getFlowId(), join)) {
+                    joins.size.decrementAndGet();
+                }
+                joins.resolved.remove(join.getFlowId());
+            }
+        }
+    }
+
+    /**
+     * Get the timeout policy of a merge node.
+     *
+     * @param nodeId The ID of the merge node.
+     * @return The policy.
+     */
+    public MergeTimeoutPolicy getTimeoutPolicyFor(final String nodeId) {
+        return this.getJoinsFor(nodeId).policy;
+    }
+
+    /**
+     * Get the number of flows a merge node is waiting on.
+     *
+     * @param nodeId The ID of the merge node.
+     * @return The number of pending joins.
+     */
+    public Integer getPendingJoinCountFor(final String nodeId) {
+        return this.getJoinsFor(nodeId).size.get();
+    }
+
+    private void resolve(final NodeJoins joins, final MergeJoin join) {
+        joins.pending.remove(join.getFlowId());
+        joins.size.decrementAndGet();
+        joins.resolved.put(join.getFlowId(), System.currentTimeMillis());
+    }
+
+    private NodeJoins getJoinsFor(final String nodeId) {
+        var joins = this.nodes.get(nodeId);
+        if (Objects.isNull(joins)) {
+            throw new IllegalStateException("ERROR: No merge joins are buffered for node "
+                + nodeId);
+        }
+        return joins;
+    }
+
+    /** A merge node's pending joins, oldest first, and recently resolved flows. */
+    private static class NodeJoins {
+
+        private final Set<String> expectedSources;
+
+        private final Duration timeout;
+
+        private final MergeTimeoutPolicy policy;
+
+        private final Map<String, MergeJoin> pending = new LinkedHashMap<>();
+
+        private final Map<String, Long> resolved = new LinkedHashMap<>();
+
+        private final AtomicInteger size = new AtomicInteger(0);
+
+        private Gauge gauge;
+
+        private NodeJoins(
+            final Set<String> expectedSources,
+            final Duration timeout,
+            final MergeTimeoutPolicy policy) {
+            this.expectedSources = expectedSources;
+            this.timeout = timeout;
+            this.policy = policy;
+        }
+    }
+}
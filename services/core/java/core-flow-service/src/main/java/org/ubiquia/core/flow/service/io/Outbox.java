@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.transaction.Transactional;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
@@ -17,6 +18,7 @@ import org.ubiquia.common.model.ubiquia.entity.NodeEntity;
 import org.ubiquia.core.flow.repository.FlowEventRepository;
 import org.ubiquia.core.flow.repository.FlowMessageRepository;
 import org.ubiquia.core.flow.repository.NodeRepository;
+import org.ubiquia.core.flow.service.io.broker.kafka.KafkaOutboxRelay;
 
 /**
  * This is a service dedicated to sending message to the database on behalf of adapters so that
@@ -33,6 +35,10 @@ public class Outbox {
     @Autowired
     private FlowMessageRepository flowMessageRepository;
     @Autowired
+    private InboxDispatcher inboxDispatcher;
+    @Autowired(required = false)
+    private KafkaOutboxRelay kafkaOutboxRelay;
+    @Autowired
     private ObjectMapper objectMapper;
 
     /**
@@ -71,6 +77,14 @@ public class Outbox {
         logger.debug("...Completed processing of event.");
     }
 
+    /**
+     * Queue a message for every target node. All of the messages are persisted through a
+     * single saveAll so that Hibernate can write them as one JDBC batch; target nodes are
+     * sorted by ID so that the batch is always written in the same order. The messages are
+     * the owning side of the node relationship, so the target nodes themselves are neither
+     * modified nor re-saved. If the outbox runs in its KAFKA mode, the relay is signalled to
+     * publish the messages once they commit.
+     */
     private void queueMessagesForNodes(
         FlowEventEntity flowEventEntity,
         final List<NodeEntity> targets,
@@ -78,15 +92,30 @@ public class Outbox {
 
         var eventTimes = flowEventEntity.getFlowEventTimes();
         eventTimes.setSentToOutboxTime(OffsetDateTime.now());
-        for (var target : targets) {
-            this.queueMessageForNode(flowEventEntity, target, componentResponse);
+
+        var sortedTargets = targets
+            .stream()
+            .sorted(Comparator.comparing(NodeEntity::getId))
+            .toList();
+
+        var messages = new ArrayList<FlowMessageEntity>(sortedTargets.size());
+        for (var target : sortedTargets) {
+            messages.add(this.buildMessageForNode(flowEventEntity, target, componentResponse));
         }
+        this.flowMessageRepository.saveAll(messages);
+        flowEventEntity.getFlowMessages().addAll(messages);
         eventTimes.setEventCompleteTime(OffsetDateTime.now());
+
+        var targetNodeIds = sortedTargets.stream().map(NodeEntity::getId).toList();
+        this.inboxDispatcher.signalAfterCommit(targetNodeIds);
+        if (Objects.nonNull(this.kafkaOutboxRelay)) {
+            this.kafkaOutboxRelay.signalAfterCommit();
+        }
     }
 
-    private void queueMessageForNode(
-        FlowEventEntity flowEventEntity,
-        NodeEntity nodeEntity,
+    private FlowMessageEntity buildMessageForNode(
+        final FlowEventEntity flowEventEntity,
+        final NodeEntity nodeEntity,
         final String payload) {
 
         logger.debug("Creating an outbox message for event id {} for target node {}",
@@ -98,9 +127,6 @@ public class Outbox {
         message.setPayload(payload);
         message.setTags(new HashSet<>());
         message.setTargetNode(nodeEntity);
-        message = this.flowMessageRepository.save(message);
-        nodeEntity.getOutboxFlowMessages().add(message);
-        this.nodeRepository.save(nodeEntity);
-        flowEventEntity.getFlowMessages().add(message);
+        return message;
     }
 }
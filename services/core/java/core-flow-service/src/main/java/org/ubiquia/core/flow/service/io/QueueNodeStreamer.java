@@ -0,0 +1,251 @@
+package org.ubiquia.core.flow.service.io;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.ubiquia.common.library.api.interfaces.InterfaceLogger;
+import org.ubiquia.core.flow.component.node.QueueNode;
+import org.ubiquia.core.flow.service.command.node.QueueAdapterCommand;
+import org.ubiquia.core.flow.service.scheduler.NodeScheduler;
+
+/**
+ * A service that streams queue nodes' messages to consumers as server-sent events, rather than
+ * having consumers pop them one request at a time.
+ *
+ * <p>Streamed messages are claimed rather than popped: each is sent as a "message" event whose
+ * ID is the message's ID, and stays queued (invisible to other claimers) until the consumer
+ * acknowledges it. A stream holds at most "ubiquia.queue.stream.max-unacknowledged" messages
+ * that have not been acknowledged, so a slow consumer is not flooded; messages that are never
+ * acknowledged are claimed again once their lease expires, and those still held when a stream
+ * closes are released right away. Streams are woken as soon as messages are committed for their
+ * node, and otherwise poll every "ubiquia.queue.stream.poll-frequency-milliseconds".</p>
+ */
+@Service
+public class QueueNodeStreamer implements InterfaceLogger {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueueNodeStreamer.class);
+
+    @Value("${ubiquia.queue.stream.max-unacknowledged:1000}")
+    private Integer maxUnacknowledged;
+
+    @Value("${ubiquia.queue.stream.poll-frequency-milliseconds:1000}")
+    private Long pollFrequencyMilliseconds;
+
+    @Value("${ubiquia.queue.stream.timeout-milliseconds:3600000}")
+    private Long timeoutMilliseconds;
+
+    @Value("${ubiquia.queue.max-batch-size:1000}")
+    private Integer maxBatchSize;
+
+    @Autowired
+    private Inbox inbox;
+
+    @Autowired
+    private InboxDispatcher inboxDispatcher;
+
+    @Autowired
+    private NodeScheduler nodeScheduler;
+
+    @Autowired
+    private QueueAdapterCommand queueAdapterCommand;
+
+    private final Map<String, Set<QueueStream>> streams = new ConcurrentHashMap<>();
+
+    @Override
+    public Logger getLogger() {
+        return logger;
+    }
+
+    /**
+     * Open a stream of a queue node's messages.
+     *
+     * @param node      The queue to stream from.
+     * @param batchSize The maximum number of messages to claim at a time.
+     * @return The stream.
+     */
+    public SseEmitter open(final QueueNode node, final Integer batchSize) {
+        final var nodeContext = node.getNodeContext();
+        var stream = new QueueStream(
+            node,
+            Math.clamp(batchSize, 1, this.maxBatchSize),
+            new SseEmitter(this.timeoutMilliseconds));
+
+        stream.emitter.onCompletion(() -> this.close(stream));
+        stream.emitter.onTimeout(() -> this.close(stream));
+        stream.emitter.onError(e -> this.close(stream));
+
+        this.streams
+            .computeIfAbsent(nodeContext.getNodeId(), id -> ConcurrentHashMap.newKeySet())
+            .add(stream);
+        stream.listener = () -> {
+            if (!stream.closed) {
+                this.inboxDispatcher.listenOnce(nodeContext.getNodeId(), stream.listener);
+                this.pump(stream);
+            }
+        };
+        this.inboxDispatcher.listenOnce(nodeContext.getNodeId(), stream.listener);
+        stream.poll = this.nodeScheduler.schedule(
+            "queueStream",
+            () -> this.pump(stream),
+            0L,
+            this.pollFrequencyMilliseconds);
+
+        logger.info("...opened a stream of node {} for graph {}...",
+            nodeContext.getNodeName(),
+            nodeContext.getGraph().getName());
+        return stream.emitter;
+    }
+
+    /**
+     * Acknowledge streamed messages, removing them from the queue and making room for the
+     * streams they were sent on to send more.
+     *
+     * @param node       The queue the messages were streamed from.
+     * @param messageIds The IDs of the messages.
+     * @return The number of messages removed.
+     * @throws Exception Exceptions from recording the messages' events.
+     */
+    public Integer acknowledge(final QueueNode node, final List<String> messageIds)
+        throws Exception {
+        var nodeId = node.getNodeContext().getNodeId();
+        var acknowledged = this.queueAdapterCommand.acknowledgeFor(node, messageIds);
+
+        for (var stream : this.streams.getOrDefault(nodeId, Set.of())) {
+            if (stream.unacknowledged.keySet().removeAll(messageIds)) {
+                this.nodeScheduler.execute(() -> this.pump(stream));
+            }
+        }
+        return acknowledged;
+    }
+
+    /**
+     * Close every stream of a node (i.e., when it is torn down.)
+     *
+     * @param nodeId The ID of the node.
+     */
+    public void closeAllFor(final String nodeId) {
+        var open = this.streams.remove(nodeId);
+        if (Objects.nonNull(open)) {
+            for (var stream : open) {
+                this.close(stream);
+                stream.emitter.complete();
+            }
+        }
+    }
+
+    /**
+     * Send a stream as many messages as it has room for. Messages whose lease has expired
+     * without being acknowledged no longer count against the stream, since they may already
+     * have been claimed again.
+     */
+    private void pump(final QueueStream stream) {
+        synchronized (stream) {
+            if (stream.closed) {
+                return;
+            }
+            try {
+                var now = System.currentTimeMillis();
+                var expiredBefore = now - this.inbox.getLeaseDurationMilliseconds();
+                stream.unacknowledged.values().removeIf(sentAt -> sentAt < expiredBefore);
+
+                var room = this.maxUnacknowledged - stream.unacknowledged.size();
+                while (room > 0) {
+                    var messages = this.queueAdapterCommand.claimMessagesFor(
+                        stream.node,
+                        Math.min(room, stream.batchSize));
+                    if (messages.isEmpty()) {
+                        break;
+                    }
+                    for (var message : messages) {
+                        stream.unacknowledged.put(message.getMessageId(), now);
+                        stream.emitter.send(SseEmitter
+                            .event()
+                            .id(message.getMessageId())
+                            .name("message")
+                            .data(message, MediaType.APPLICATION_JSON));
+                    }
+                    room -= messages.size();
+                }
+            } catch (Exception e) {
+                logger.warn("Closing stream of node {}: {}",
+                    stream.node.getNodeContext().getNodeName(),
+                    e.getMessage());
+                this.close(stream);
+                stream.emitter.completeWithError(e);
+            }
+        }
+    }
+
+    /** Stop a stream and release the messages it still holds. */
+    private void close(final QueueStream stream) {
+        Collection<String> held;
+        synchronized (stream) {
+            if (stream.closed) {
+                return;
+            }
+            stream.closed = true;
+            held = List.copyOf(stream.unacknowledged.keySet());
+            stream.unacknowledged.clear();
+        }
+
+        var nodeId = stream.node.getNodeContext().getNodeId();
+        if (Objects.nonNull(stream.poll)) {
+            stream.poll.cancel(false);
+        }
+        this.inboxDispatcher.unlisten(nodeId, stream.listener);
+        this.streams.computeIfPresent(nodeId, (id, open) -> {
+            open.remove(stream);
+            return open.isEmpty() ? null : open;
+        });
+
+        try {
+            this.inbox.releaseLeasesFor(held);
+        } catch (Exception e) {
+            logger.warn("Could not release {} message(s) held by a stream of node {}: {}",
+                held.size(),
+                stream.node.getNodeContext().getNodeName(),
+                e.getMessage());
+        }
+        logger.info("...closed a stream of node {}, releasing {} unacknowledged message(s)...",
+            stream.node.getNodeContext().getNodeName(),
+            held.size());
+    }
+
+    /** An open stream along with the messages it has sent but not had acknowledged. */
+    private static class QueueStream {
+
+        private final QueueNode node;
+
+        private final Integer batchSize;
+
+        private final SseEmitter emitter;
+
+        private final Map<String, Long> unacknowledged = new ConcurrentHashMap<>();
+
+        private Runnable listener;
+
+        private ScheduledFuture<?> poll;
+
+        private volatile Boolean closed = false;
+
+        private QueueStream(
+            final QueueNode node,
+            final Integer batchSize,
+            final SseEmitter emitter) {
+            this.node = node;
+            this.batchSize = batchSize;
+            this.emitter = emitter;
+        }
+    }
+}
@@ -1,40 +1,196 @@
 package org.ubiquia.core.flow.service.io.broker;
 
-import jakarta.transaction.Transactional;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.ubiquia.common.library.api.interfaces.InterfaceLogger;
 import org.ubiquia.common.model.ubiquia.dto.FlowMessage;
+import org.ubiquia.core.flow.component.node.AbstractNode;
 import org.ubiquia.core.flow.component.node.PublishNode;
 import org.ubiquia.core.flow.repository.FlowEventRepository;
+import org.ubiquia.core.flow.repository.FlowMessageRepository;
+import org.ubiquia.core.flow.service.io.Inbox;
+import org.ubiquia.core.flow.service.io.InboxDispatcher;
 import org.ubiquia.core.flow.service.io.broker.kafka.KafkaEgress;
+import org.ubiquia.core.flow.service.scheduler.NodeScheduler;
+import org.ubiquia.core.flow.service.visitor.NodeOpenMessageVisitor;
 
 /**
- * A service that can be used to publish events over brokers.
+ * A service that can be used to publish events over brokers without waiting on each send.
+ *
+ * <ul>
+ *     <li>A publish node's claimed messages are all handed to its producer at once, so that the
+ *     producer can batch them per topic partition.</li>
+ *     <li>Messages stay leased in the node's inbox, and count as the node's open messages, until
+ *     the broker acknowledges them; only then are they deleted, and their events stamped with
+ *     when they were sent and acknowledged.</li>
+ *     <li>Delivery results are handled off the producer's I/O thread: they are queued, and
+ *     drained on the node scheduler in transactions of up to
+ *     "ubiquia.broker.publish.delivery-batch-size" results each.</li>
+ *     <li>Sends can take longer than an inbox lease (i.e., while the producer retries), so the
+ *     leases of messages awaiting acknowledgement are renewed every half lease until they are
+ *     acknowledged or fail.</li>
+ *     <li>Failed sends are logged and counted, and their leases released, so that they are
+ *     claimed and published again right away instead of once their lease expires.</li>
+ * </ul>
  */
 @Service
-public class BrokerEgress {
+public class BrokerEgress implements InterfaceLogger {
 
     private static final Logger logger = LoggerFactory.getLogger(BrokerEgress.class);
 
+    @Value("${ubiquia.broker.publish.delivery-batch-size:1000}")
+    private Integer deliveryBatchSize;
+
     @Autowired
     private FlowEventRepository flowEventRepository;
 
+    @Autowired
+    private FlowMessageRepository flowMessageRepository;
+
+    @Autowired
+    private Inbox inbox;
+
+    @Autowired
+    private InboxDispatcher inboxDispatcher;
+
     @Autowired(required = false)
     private KafkaEgress kafkaEgress;
 
-    /** Publishes the given flow message to the broker configured on the node. */
-    @Transactional
-    public void tryPublishFor(FlowMessage flowMessage, final PublishNode node) {
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private NodeOpenMessageVisitor nodeOpenMessageVisitor;
+
+    @Autowired
+    private NodeScheduler nodeScheduler;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final Queue<Delivery> deliveries = new ConcurrentLinkedQueue<>();
+
+    private final AtomicBoolean draining = new AtomicBoolean(false);
+
+    private final AtomicInteger inFlight = new AtomicInteger(0);
+
+    private final Set<String> inFlightMessageIds = ConcurrentHashMap.newKeySet();
+
+    private ScheduledFuture<?> leaseRenewalTask;
+
+    private Counter successCounter;
+
+    private Counter errorCounter;
+
+    @Override
+    public Logger getLogger() {
+        return logger;
+    }
+
+    /** Binds metrics and starts renewing the leases of in-flight messages. */
+    @PostConstruct
+    public void start() {
+        Gauge.builder("ubiquia.broker.publish.in-flight", this.inFlight, AtomicInteger::get)
+            .description("Published messages awaiting broker acknowledgement.")
+            .register(this.meterRegistry);
+        this.successCounter = Counter.builder("ubiquia.broker.publish.deliveries")
+            .tag("result", "success")
+            .register(this.meterRegistry);
+        this.errorCounter = Counter.builder("ubiquia.broker.publish.deliveries")
+            .tag("result", "error")
+            .register(this.meterRegistry);
+
+        var renewalPeriod = Math.max(1L, this.inbox.getLeaseDurationMilliseconds() / 2);
+        this.leaseRenewalTask = this.nodeScheduler.schedule(
+            "brokerEgressLeaseRenewal",
+            this::renewLeases,
+            renewalPeriod,
+            renewalPeriod);
+    }
+
+    /** Stops renewing the leases of in-flight messages. */
+    @PreDestroy
+    public void teardown() {
+        if (Objects.nonNull(this.leaseRenewalTask)) {
+            this.leaseRenewalTask.cancel(false);
+        }
+    }
+
+    /**
+     * Publish the given flow messages to the broker configured on the node. This returns once
+     * every message has been handed to the broker's producer; their delivery is recorded
+     * asynchronously.
+     *
+     * @param flowMessages The (claimed) messages to publish.
+     * @param node         The node publishing them.
+     */
+    public void tryPublishFor(final List<FlowMessage> flowMessages, final PublishNode node) {
+        if (flowMessages.isEmpty()) {
+            return;
+        }
 
         var nodeContext = node.getNodeContext();
-        logger.debug("Got a request to publish the output of an event for node {} of graph {}",
+        logger.debug("Got a request to publish {} message(s) for node {} of graph {}",
+            flowMessages.size(),
             nodeContext.getNodeName(),
             nodeContext.getGraph().getName());
 
+        this.nodeOpenMessageVisitor.incrementOpenMessagesFor(node, flowMessages.size());
+        this.inFlight.addAndGet(flowMessages.size());
+        for (var flowMessage : flowMessages) {
+            this.inFlightMessageIds.add(flowMessage.getId());
+        }
+        for (var flowMessage : flowMessages) {
+            var sentAt = OffsetDateTime.now();
+            try {
+                this.publish(flowMessage, node).whenComplete((result, error) ->
+                    this.onDelivery(new Delivery(flowMessage, node, sentAt, error)));
+            } catch (Exception e) {
+                this.onDelivery(new Delivery(flowMessage, node, sentAt, e));
+            }
+        }
+
+        // Keep claiming while the node has room; once it has none, acknowledgements signal it.
+        this.inboxDispatcher.signal(nodeContext.getNodeId());
+    }
+
+    /**
+     * Close a node's producer (i.e., when the node is torn down.)
+     *
+     * @param nodeId The ID of the node.
+     */
+    public void evictNode(final String nodeId) {
+        if (Objects.nonNull(this.kafkaEgress)) {
+            this.kafkaEgress.evictNode(nodeId);
+        }
+    }
+
+    private CompletableFuture<?> publish(final FlowMessage flowMessage, final PublishNode node) {
+
+        var nodeContext = node.getNodeContext();
         switch (nodeContext.getBrokerSettings().getType()) {
 
             case KAFKA:
@@ -43,11 +199,8 @@ public class BrokerEgress {
                         throw new RuntimeException(
                             "ERROR: Cannot egress a payload over Kafka when Kafka isn't enabled!");
                     }
-                    var egressTime = OffsetDateTime.now();
-                    this.kafkaEgress.tryPublishPayload(flowMessage.getPayload(), node);
-                    this.egressHelper(flowMessage, egressTime);
+                    return this.kafkaEgress.tryPublishPayload(flowMessage.getPayload(), node);
                 }
-                break;
 
             default:
                 {
@@ -56,22 +209,161 @@ public class BrokerEgress {
         }
     }
 
-    private void egressHelper(
-        final FlowMessage flowMessage,
-        final OffsetDateTime egressTime) {
+    /**
+     * Renew the leases of every message still awaiting acknowledgement, a delivery batch at a
+     * time, so that none of them is claimed and published again while it is in flight.
+     */
+    private void renewLeases() {
+        var messageIds = new ArrayList<>(this.inFlightMessageIds);
+        var now = OffsetDateTime.now();
+        for (var i = 0; i < messageIds.size(); i += this.deliveryBatchSize) {
+            var chunk = messageIds.subList(
+                i,
+                Math.min(messageIds.size(), i + this.deliveryBatchSize));
+            try {
+                this.inbox.extendLeasesFor(chunk, now);
+            } catch (Exception e) {
+                logger.warn("Could not renew the leases of {} in-flight message(s): {}",
+                    chunk.size(),
+                    e.getMessage());
+            }
+        }
+    }
+
+    private void onDelivery(final Delivery delivery) {
+        this.deliveries.add(delivery);
+        if (this.draining.compareAndSet(false, true)) {
+            this.nodeScheduler.execute(this::drain);
+        }
+    }
 
-        var flowEventRecord = this
-            .flowEventRepository
-            .findById(flowMessage.getFlowEvent().getId());
+    /**
+     * Record every queued delivery result. Results that arrive while draining are picked up by
+     * the same worker, so that at most one worker records at a time.
+     */
+    private void drain() {
+        do {
+            var batch = this.pollDeliveries();
+            while (!batch.isEmpty()) {
+                this.record(batch);
+                batch = this.pollDeliveries();
+            }
+            this.draining.set(false);
+        } while (!this.deliveries.isEmpty() && this.draining.compareAndSet(false, true));
+    }
 
-        if (flowEventRecord.isEmpty()) {
-            throw new RuntimeException("ERROR: Could not find an event for id: "
-                + flowMessage.getFlowEvent().getId());
+    private List<Delivery> pollDeliveries() {
+        var batch = new ArrayList<Delivery>();
+        var delivery = this.deliveries.poll();
+        while (Objects.nonNull(delivery)) {
+            batch.add(delivery);
+            if (batch.size() >= this.deliveryBatchSize) {
+                break;
+            }
+            delivery = this.deliveries.poll();
         }
+        return batch;
+    }
 
-        var times = flowEventRecord.get().getFlowEventTimes();
-        times.setPayloadEgressedTime(egressTime);
-        times.setEventCompleteTime(OffsetDateTime.now());
-        this.flowEventRepository.save(flowEventRecord.get());
+    /**
+     * Delete the acknowledged messages of a batch and stamp their events in one transaction,
+     * release the leases of its failed messages, then free up room for the batch's nodes to
+     * publish more.
+     */
+    private void record(final List<Delivery> batch) {
+        var acknowledged = new ArrayList<Delivery>(batch.size());
+        var failedMessageIds = new ArrayList<String>();
+        for (var delivery : batch) {
+            this.inFlightMessageIds.remove(delivery.flowMessageId);
+            if (Objects.isNull(delivery.error)) {
+                acknowledged.add(delivery);
+            } else {
+                failedMessageIds.add(delivery.flowMessageId);
+                logger.error("ERROR: Could not publish message {} for node {}: {}",
+                    delivery.flowMessageId,
+                    delivery.node.getNodeContext().getNodeName(),
+                    delivery.error.getMessage());
+                this.errorCounter.increment();
+            }
+        }
+
+        try {
+            if (!acknowledged.isEmpty()) {
+                this.transactionTemplate.executeWithoutResult(status ->
+                    this.recordAcknowledged(acknowledged));
+            }
+            this.successCounter.increment(acknowledged.size());
+        } catch (Exception e) {
+            logger.error("ERROR: Could not record {} broker acknowledgement(s): {}",
+                acknowledged.size(),
+                e.getMessage());
+        } finally {
+            this.tryReleaseLeasesFor(failedMessageIds);
+            this.inFlight.addAndGet(-batch.size());
+            batch
+                .stream()
+                .collect(Collectors.groupingBy(
+                    delivery -> delivery.node,
+                    Collectors.counting()))
+                .forEach((node, count) -> this
+                    .nodeOpenMessageVisitor
+                    .decrementOpenMessagesFor(node, count.intValue()));
+        }
+    }
+
+    private void tryReleaseLeasesFor(final List<String> failedMessageIds) {
+        try {
+            this.inbox.releaseLeasesFor(failedMessageIds);
+        } catch (Exception e) {
+            logger.warn("Could not release the leases of {} failed message(s): {}",
+                failedMessageIds.size(),
+                e.getMessage());
+        }
+    }
+
+    private void recordAcknowledged(final List<Delivery> acknowledged) {
+        var byFlowEventId = new LinkedHashMap<String, Delivery>();
+        for (var delivery : acknowledged) {
+            byFlowEventId.put(delivery.flowEventId, delivery);
+        }
+
+        this.flowMessageRepository.deleteAllByIds(acknowledged
+            .stream()
+            .map(delivery -> delivery.flowMessageId)
+            .toList());
+        for (var flowEvent : this.flowEventRepository.findAllById(byFlowEventId.keySet())) {
+            var delivery = byFlowEventId.get(flowEvent.getId());
+            var times = flowEvent.getFlowEventTimes();
+            times.setPayloadEgressedTime(delivery.sentAt);
+            times.setEventCompleteTime(delivery.completedAt);
+        }
+    }
+
+    /** A message's delivery result, with an error if it could not be delivered. */
+    private static class Delivery {
+
+        private final String flowMessageId;
+
+        private final String flowEventId;
+
+        private final AbstractNode node;
+
+        private final OffsetDateTime sentAt;
+
+        private final OffsetDateTime completedAt = OffsetDateTime.now();
+
+        private final Throwable error;
+
+        private Delivery(
+            final FlowMessage flowMessage,
+            final AbstractNode node,
+            final OffsetDateTime sentAt,
+            final Throwable error) {
+            this.flowMessageId = flowMessage.getId();
+            this.flowEventId = flowMessage.getFlowEvent().getId();
+            this.node = node;
+            this.sentAt = sentAt;
+            this.error = error;
+        }
     }
 }
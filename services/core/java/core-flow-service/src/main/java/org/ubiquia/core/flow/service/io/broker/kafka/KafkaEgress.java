@@ -1,17 +1,31 @@
 package org.ubiquia.core.flow.service.io.broker.kafka;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.kafka.clients.producer.ProducerConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
 import org.springframework.stereotype.Service;
 import org.ubiquia.core.flow.component.node.AbstractNode;
 import org.ubiquia.core.flow.interfaces.InterfaceBrokerEgress;
 
 /**
- * A class dedicated to publishing payloads over Kafka.
+ * A class dedicated to publishing payloads over Kafka. Each publish node gets a producer of its
+ * own, configured with the node's linger, batch size, compression, acks and idempotence (or the
+ * "ubiquia.broker.kafka.publish" defaults), so that its records are batched per topic partition
+ * independently of every other node's.
  */
 @ConditionalOnProperty(
     value = "ubiquia.broker.kafka.enabled",
@@ -22,21 +36,120 @@ import org.ubiquia.core.flow.interfaces.InterfaceBrokerEgress;
 public class KafkaEgress implements InterfaceBrokerEgress {
 
     private static final Logger logger = LoggerFactory.getLogger(KafkaEgress.class);
-    @Autowired
-    private KafkaTemplate<String, String> kafkaTemplate;
+
+    private static final List<String> ALL_ACKS = List.of("all", "-1");
+
+    @Value("${ubiquia.broker.kafka.publish.linger-milliseconds:5}")
+    private Integer defaultLingerMilliseconds;
+
+    @Value("${ubiquia.broker.kafka.publish.batch-size-bytes:65536}")
+    private Integer defaultBatchSizeBytes;
+
+    @Value("${ubiquia.broker.kafka.publish.compression-type:lz4}")
+    private String defaultCompressionType;
+
+    @Value("${ubiquia.broker.kafka.publish.acks:all}")
+    private String defaultAcks;
+
+    @Value("${ubiquia.broker.kafka.publish.idempotence:true}")
+    private Boolean defaultIdempotence;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private ProducerFactory<String, String> producerFactory;
+
+    private final Map<String, KafkaTemplate<String, String>> templates =
+        new ConcurrentHashMap<>();
+
+    /** Closes every node's producer. */
+    @PreDestroy
+    public void teardown() {
+        logger.info("Tearing down KafkaEgress...");
+        for (var nodeId : List.copyOf(this.templates.keySet())) {
+            this.evictNode(nodeId);
+        }
+        logger.info("...KafkaEgress torn down.");
+    }
+
     /**
-     * Attempt to publish the payload for the provided adapter.
+     * Attempt to publish the payload for the provided adapter. The payload is only handed to
+     * the adapter's producer, which sends it along with whatever else it has batched for the
+     * topic partition.
      *
      * @param payload The payload to publish.
      * @param adapter The adapter to publish a payload for.
+     * @return A future that completes once the broker acknowledges the payload.
      */
     @Override
-    public void tryPublishPayload(final String payload, final AbstractNode adapter) {
-        this.kafkaTemplate.send(
-            adapter.getNodeContext().getBrokerSettings().getTopic(),
-            payload);
+    public CompletableFuture<?> tryPublishPayload(
+        final String payload,
+        final AbstractNode adapter) {
+
+        var nodeContext = adapter.getNodeContext();
+        return this
+            .templates
+            .computeIfAbsent(nodeContext.getNodeId(), id -> this.buildTemplateFor(adapter))
+            .send(nodeContext.getBrokerSettings().getTopic(), payload);
+    }
+
+    /**
+     * Close a node's producer (i.e., when the node is torn down.) Records it has already been
+     * handed are sent before it closes.
+     *
+     * @param nodeId The ID of the node.
+     */
+    public void evictNode(final String nodeId) {
+        var template = this.templates.remove(nodeId);
+        if (Objects.nonNull(template)
+            && template.getProducerFactory() instanceof DisposableBean disposable) {
+            try {
+                disposable.destroy();
+            } catch (Exception e) {
+                logger.warn("Could not close producer of node {}: {}", nodeId, e.getMessage());
+            }
+        }
+    }
+
+    private KafkaTemplate<String, String> buildTemplateFor(final AbstractNode adapter) {
+        var nodeContext = adapter.getNodeContext();
+        var brokerSettings = nodeContext.getBrokerSettings();
+
+        var acks = Objects.nonNull(brokerSettings.getAcks())
+            ? brokerSettings.getAcks()
+            : this.defaultAcks;
+        var idempotence = Objects.nonNull(brokerSettings.getIdempotence())
+            ? brokerSettings.getIdempotence()
+            : this.defaultIdempotence;
+        if (idempotence && !ALL_ACKS.contains(acks)) {
+            logger.warn("...node {} publishes with acks of {}, but idempotence requires acks of "
+                    + "\"all\"; publishing without idempotence...",
+                nodeContext.getNodeName(),
+                acks);
+            idempotence = false;
+        }
+
+        var overrides = new HashMap<String, Object>();
+        overrides.put(ProducerConfig.LINGER_MS_CONFIG,
+            Objects.nonNull(brokerSettings.getLingerMilliseconds())
+                ? brokerSettings.getLingerMilliseconds()
+                : this.defaultLingerMilliseconds);
+        overrides.put(ProducerConfig.BATCH_SIZE_CONFIG,
+            Objects.nonNull(brokerSettings.getBatchSizeBytes())
+                ? brokerSettings.getBatchSizeBytes()
+                : this.defaultBatchSizeBytes);
+        overrides.put(ProducerConfig.COMPRESSION_TYPE_CONFIG,
+            Objects.nonNull(brokerSettings.getCompressionType())
+                ? brokerSettings.getCompressionType()
+                : this.defaultCompressionType);
+        overrides.put(ProducerConfig.ACKS_CONFIG, acks);
+        overrides.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, idempotence);
+
+        logger.info("...building producer for node {} of graph {} with settings {}...",
+            nodeContext.getNodeName(),
+            nodeContext.getGraph().getName(),
+            overrides);
+        return new KafkaTemplate<>(this.producerFactory.copyWithConfigurationOverride(overrides));
     }
 }
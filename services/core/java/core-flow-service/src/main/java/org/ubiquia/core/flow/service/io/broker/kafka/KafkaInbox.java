@@ -0,0 +1,292 @@
+package org.ubiquia.core.flow.service.io.broker.kafka;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.config.ContainerPostProcessor;
+import org.springframework.kafka.config.KafkaListenerContainerFactory;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.config.MethodKafkaListenerEndpoint;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.listener.AbstractMessageListenerContainer;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.messaging.handler.annotation.support.DefaultMessageHandlerMethodFactory;
+import org.springframework.stereotype.Service;
+import org.ubiquia.common.library.api.interfaces.InterfaceLogger;
+import org.ubiquia.common.model.ubiquia.dto.FlowMessage;
+import org.ubiquia.core.flow.component.node.AbstractNode;
+import org.ubiquia.core.flow.service.calculator.NodeConcurrencyCalculator;
+import org.ubiquia.core.flow.service.logic.node.NodeInboxPollingLogic;
+import org.ubiquia.core.flow.service.registrar.FlowMessageRegistrar;
+
+/**
+ * The consuming side of the outbox's KAFKA mode: nodes whose messages are relayed by the
+ * {@link KafkaOutboxRelay} consume them from their topic instead of polling the database.
+ *
+ * <p>Each node's topic is created with "ubiquia.outbox.kafka.partitions" partitions when the
+ * node is deployed, and every instance the node is deployed on consumes it in the same consumer
+ * group ("ubiquia.outbox.kafka.group-id-prefix" and the node's ID), so a node's inbox throughput
+ * scales with its partitions rather than with the database's query rate. Messages are keyed by
+ * flow, so a flow's messages to a node are consumed in order by one instance.</p>
+ *
+ * <p>Polls are handed to the node no faster than it may claim from its database inbox: only as
+ * many records as its egress concurrency has room for are handed over at a time. Once the node
+ * has no room, the offsets of the records handed over are committed, and the rest of the poll
+ * is sought back and redelivered after "ubiquia.outbox.kafka.back-pressure-backoff-milliseconds"
+ * (the consumer is paused in the meantime.)</p>
+ */
+@ConditionalOnProperty(
+    value = "ubiquia.outbox.mode",
+    havingValue = "KAFKA",
+    matchIfMissing = false
+)
+@Service
+public class KafkaInbox implements InterfaceLogger {
+
+    private static final AtomicLong endpointIdIndex = new AtomicLong(1);
+
+    private static final Logger logger = LoggerFactory.getLogger(KafkaInbox.class);
+
+    @Value("${ubiquia.outbox.kafka.partitions:12}")
+    private Integer partitions;
+
+    @Value("${ubiquia.outbox.kafka.replication-factor:1}")
+    private Integer replicationFactor;
+
+    @Value("${ubiquia.outbox.kafka.max-poll-records:500}")
+    private Integer maxPollRecords;
+
+    @Value("${ubiquia.outbox.kafka.consumer-concurrency:1}")
+    private Integer consumerConcurrency;
+
+    @Value("${ubiquia.outbox.kafka.group-id-prefix:ubiquia-inbox}")
+    private String groupIdPrefix;
+
+    @Value("${ubiquia.outbox.kafka.back-pressure-backoff-milliseconds:100}")
+    private Long backPressureBackoffMilliseconds;
+
+    @Autowired
+    private FlowMessageRegistrar flowMessageRegistrar;
+
+    @Autowired
+    private KafkaAdmin kafkaAdmin;
+
+    @Autowired
+    private KafkaListenerContainerFactory kafkaListenerContainerFactory;
+
+    @Autowired
+    private KafkaListenerEndpointRegistry kafkaListenerEndpointRegistry;
+
+    @Autowired
+    private KafkaOutboxRelay kafkaOutboxRelay;
+
+    @Autowired
+    private NodeConcurrencyCalculator nodeConcurrencyCalculator;
+
+    @Autowired
+    private NodeInboxPollingLogic nodeInboxPollingLogic;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Map<String, String> listenerIds = new ConcurrentHashMap<>();
+
+    @Override
+    public Logger getLogger() {
+        return logger;
+    }
+
+    /**
+     * Start consuming a node's topic, creating the topic (or adding partitions to it) first.
+     *
+     * @param node The node to consume for.
+     */
+    public void register(final AbstractNode node) {
+        var nodeContext = node.getNodeContext();
+        var topic = this.kafkaOutboxRelay.getTopicFor(nodeContext.getNodeId());
+        this.kafkaAdmin.createOrModifyTopics(TopicBuilder
+            .name(topic)
+            .partitions(this.partitions)
+            .replicas(this.replicationFactor)
+            .build());
+
+        var consumerProperties = new Properties();
+        consumerProperties.setProperty(
+            ConsumerConfig.MAX_POLL_RECORDS_CONFIG,
+            this.maxPollRecords.toString());
+        consumerProperties.setProperty(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+        // Messages relayed before a node's group first joins must not be skipped.
+        consumerProperties.setProperty(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+
+        var endpoint = new MethodKafkaListenerEndpoint<String, String>();
+        endpoint.setId("inbox-"
+            + nodeContext.getNodeId()
+            + "-"
+            + endpointIdIndex.getAndIncrement());
+        endpoint.setGroupId(this.groupIdPrefix + "-" + nodeContext.getNodeId());
+        endpoint.setAutoStartup(true);
+        endpoint.setBatchListener(true);
+        endpoint.setConcurrency(this.consumerConcurrency);
+        endpoint.setConsumerProperties(consumerProperties);
+        ContainerPostProcessor<String, String, AbstractMessageListenerContainer<String, String>>
+            postProcessor = container -> container
+                .getContainerProperties()
+                .setAckMode(ContainerProperties.AckMode.MANUAL);
+        endpoint.setContainerPostProcessor(postProcessor);
+        endpoint.setTopics(topic);
+        endpoint.setMessageHandlerMethodFactory(new DefaultMessageHandlerMethodFactory());
+        endpoint.setBean(new NodeInboxListener(node, this));
+        try {
+            endpoint.setMethod(NodeInboxListener.class.getMethod(
+                "onMessages",
+                List.class,
+                Acknowledgment.class));
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+
+        this.kafkaListenerEndpointRegistry.registerListenerContainer(
+            endpoint,
+            this.kafkaListenerContainerFactory,
+            true);
+        this.listenerIds.put(nodeContext.getNodeId(), endpoint.getId());
+
+        logger.info("...node {} of graph {} consuming its inbox from topic {} as group {}...",
+            nodeContext.getNodeName(),
+            nodeContext.getGraph().getName(),
+            topic,
+            endpoint.getGroupId());
+    }
+
+    /**
+     * Stop consuming a node's topic (i.e., when the node is torn down.) Its partitions are
+     * rebalanced to the node's consumers on other instances.
+     *
+     * @param nodeId The ID of the node.
+     */
+    public void deregister(final String nodeId) {
+        var listenerId = this.listenerIds.remove(nodeId);
+        if (Objects.nonNull(listenerId)) {
+            var container = this
+                .kafkaListenerEndpointRegistry
+                .unregisterListenerContainer(listenerId);
+            if (Objects.nonNull(container)) {
+                container.stop();
+            }
+        }
+    }
+
+    /**
+     * Hand a poll's records to their node as it has room for them, then acknowledge the ones
+     * handed over and seek back for the rest.
+     */
+    private void process(
+        final List<ConsumerRecord<String, String>> records,
+        final AbstractNode node,
+        final Acknowledgment acknowledgment) {
+
+        var handedOver = 0;
+        while (handedOver < records.size()) {
+            var room = this.getRoomFor(node);
+            if (room <= 0) {
+                break;
+            }
+            var window = records.subList(
+                handedOver,
+                Math.min(records.size(), handedOver + room));
+            node.tryProcessRelayedMessages(this.getMessagesFrom(window));
+            handedOver += window.size();
+        }
+
+        if (handedOver < records.size()) {
+            logger.debug("Node {} has no room for {} of {} relayed message(s); backing off...",
+                node.getNodeContext().getNodeName(),
+                records.size() - handedOver,
+                records.size());
+            acknowledgment.nack(
+                handedOver,
+                Duration.ofMillis(this.backPressureBackoffMilliseconds));
+        } else {
+            acknowledgment.acknowledge();
+        }
+    }
+
+    /**
+     * Get how many more messages a node may take on right now; this is the page size it would
+     * claim from its database inbox, or zero if it would not poll it at all.
+     */
+    private int getRoomFor(final AbstractNode node) {
+        var room = 0;
+        if (this.nodeInboxPollingLogic.isValidToPollInbox(node)) {
+            room = this.nodeConcurrencyCalculator.getInboxQueryPageSizeFor(node);
+        }
+        return room;
+    }
+
+    /**
+     * Parse records into messages pointed at their local flows. Records that cannot be parsed
+     * are logged and skipped.
+     */
+    private List<FlowMessage> getMessagesFrom(final List<ConsumerRecord<String, String>> records) {
+        var messages = new ArrayList<FlowMessage>(records.size());
+        var localFlowIds = new HashMap<String, String>();
+        for (var record : records) {
+            try {
+                var message = this.objectMapper.readValue(record.value(), FlowMessage.class);
+                var flow = message.getFlowEvent().getFlow();
+                flow.setId(localFlowIds.computeIfAbsent(
+                    flow.getId(),
+                    id -> this.flowMessageRegistrar.tryAdoptFlowOf(message)));
+                messages.add(message);
+            } catch (Exception e) {
+                logger.error("Could not process relayed message at offset {} of {}-{}: {}",
+                    record.offset(),
+                    record.topic(),
+                    record.partition(),
+                    e.getMessage());
+            }
+        }
+        return messages;
+    }
+
+    /** The listener a node's inbox consumers hand their polls to. */
+    public static class NodeInboxListener {
+
+        private final AbstractNode node;
+
+        private final KafkaInbox kafkaInbox;
+
+        private NodeInboxListener(final AbstractNode node, final KafkaInbox kafkaInbox) {
+            this.node = node;
+            this.kafkaInbox = kafkaInbox;
+        }
+
+        /**
+         * Process a poll's worth of records.
+         *
+         * @param records        The records.
+         * @param acknowledgment The acknowledgment to commit (or seek back) the records with.
+         */
+        public void onMessages(
+            final List<ConsumerRecord<String, String>> records,
+            final Acknowledgment acknowledgment) {
+            this.kafkaInbox.process(records, this.node, acknowledgment);
+        }
+    }
+}
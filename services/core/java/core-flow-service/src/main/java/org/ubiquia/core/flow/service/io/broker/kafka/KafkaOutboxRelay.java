@@ -0,0 +1,303 @@
+package org.ubiquia.core.flow.service.io.broker.kafka;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.ubiquia.common.library.api.interfaces.InterfaceLogger;
+import org.ubiquia.common.library.implementation.service.mapper.FlowMessageDtoMapper;
+import org.ubiquia.core.flow.repository.FlowMessageRepository;
+import org.ubiquia.core.flow.service.io.Inbox;
+import org.ubiquia.core.flow.service.logic.node.NodeTypeLogic;
+import org.ubiquia.core.flow.service.scheduler.NodeScheduler;
+
+/**
+ * The relay of the outbox's KAFKA mode ("ubiquia.outbox.mode"). The outbox still writes flow
+ * messages in the same transaction as their events; once they commit, this relay claims the
+ * ones whose target nodes consume over Kafka (see {@link NodeTypeLogic}), publishes each to its
+ * target node's topic ("ubiquia.outbox.kafka.topic-prefix" and the node's ID) keyed by its
+ * flow, and deletes them once the broker acknowledges them.
+ *
+ * <p>The relay's producer is idempotent with acks of "all," so the broker never records a
+ * retried send twice. A claimed message that is not acknowledged (i.e., because the instance
+ * died mid-relay) is relayed again once its lease expires, so delivery is at-least-once. The
+ * relay runs whenever messages commit, and otherwise every
+ * "ubiquia.outbox.frequency-milliseconds" to pick up messages other instances left behind.</p>
+ */
+@ConditionalOnProperty(
+    value = "ubiquia.outbox.mode",
+    havingValue = "KAFKA",
+    matchIfMissing = false
+)
+@Service
+public class KafkaOutboxRelay implements InterfaceLogger {
+
+    private static final Logger logger = LoggerFactory.getLogger(KafkaOutboxRelay.class);
+
+    @Value("${ubiquia.outbox.frequency-milliseconds:1000}")
+    private Long frequencyMilliseconds;
+
+    @Value("${ubiquia.outbox.kafka.topic-prefix:ubiquia.inbox}")
+    private String topicPrefix;
+
+    @Value("${ubiquia.outbox.kafka.relay-batch-size:1000}")
+    private Integer relayBatchSize;
+
+    @Value("${ubiquia.outbox.kafka.send-timeout-milliseconds:30000}")
+    private Long sendTimeoutMilliseconds;
+
+    @Autowired
+    private FlowMessageDtoMapper flowMessageDtoMapper;
+
+    @Autowired
+    private FlowMessageRepository flowMessageRepository;
+
+    @Autowired
+    private Inbox inbox;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private NodeScheduler nodeScheduler;
+
+    @Autowired
+    private NodeTypeLogic nodeTypeLogic;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProducerFactory<String, String> producerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final AtomicInteger signals = new AtomicInteger(0);
+
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    private ScheduledFuture<?> relayTask;
+
+    private Counter relayedCounter;
+
+    private Counter errorCounter;
+
+    @Override
+    public Logger getLogger() {
+        return logger;
+    }
+
+    /** Builds the relay's producer, binds metrics and starts the recurring relay. */
+    @PostConstruct
+    public void start() {
+        this.kafkaTemplate = new KafkaTemplate<>(this.producerFactory.copyWithConfigurationOverride(
+            Map.of(
+                ProducerConfig.ACKS_CONFIG, "all",
+                ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true)));
+
+        this.relayedCounter = Counter.builder("ubiquia.outbox.kafka.relayed")
+            .tag("result", "success")
+            .register(this.meterRegistry);
+        this.errorCounter = Counter.builder("ubiquia.outbox.kafka.relayed")
+            .tag("result", "error")
+            .register(this.meterRegistry);
+
+        this.relayTask = this.nodeScheduler.schedule(
+            "kafkaOutboxRelay",
+            this::signal,
+            this.frequencyMilliseconds,
+            this.frequencyMilliseconds);
+        logger.info("KafkaOutboxRelay started.");
+    }
+
+    /** Stops the recurring relay and closes the relay's producer. */
+    @PreDestroy
+    public void teardown() {
+        logger.info("Tearing down KafkaOutboxRelay...");
+        if (Objects.nonNull(this.relayTask)) {
+            this.relayTask.cancel(false);
+        }
+        if (this.kafkaTemplate.getProducerFactory() instanceof DisposableBean disposable) {
+            try {
+                disposable.destroy();
+            } catch (Exception e) {
+                logger.warn("Could not close the relay's producer: {}", e.getMessage());
+            }
+        }
+        logger.info("...KafkaOutboxRelay torn down.");
+    }
+
+    /**
+     * Get the topic that a node's messages are relayed to.
+     *
+     * @param nodeId The ID of the node.
+     * @return The topic.
+     */
+    public String getTopicFor(final String nodeId) {
+        return this.topicPrefix + "." + nodeId;
+    }
+
+    /**
+     * Run the relay once the current transaction commits, so that it sees the messages the
+     * transaction wrote. If there is no active transaction, the relay runs right away.
+     */
+    public void signalAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        KafkaOutboxRelay.this.signal();
+                    }
+                });
+        } else {
+            this.signal();
+        }
+    }
+
+    /**
+     * Run the relay on the worker pool. Signals that arrive while the relay is running are
+     * folded into one more run, so that the relay never runs concurrently with itself.
+     */
+    private void signal() {
+        if (this.signals.getAndIncrement() == 0) {
+            this.nodeScheduler.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        do {
+            this.signals.set(1);
+            try {
+                this.relayAll();
+            } catch (Exception e) {
+                logger.error("ERROR: Could not relay outbox messages: {}", e.getMessage());
+            }
+        } while (this.signals.decrementAndGet() > 0);
+    }
+
+    /**
+     * Relay claimed batches until there are no more, or until the broker fails to acknowledge
+     * part of one; the rest then waits out its lease rather than being retried in a hot loop.
+     */
+    private void relayAll() {
+        var claimed = this.transactionTemplate.execute(status -> this.claim());
+        while (Objects.nonNull(claimed) && !claimed.isEmpty()) {
+            var relayed = this.publish(claimed);
+            if (!relayed.isEmpty()) {
+                this.transactionTemplate.executeWithoutResult(status ->
+                    this.flowMessageRepository.deleteAllByIds(relayed));
+            }
+            logger.debug("...relayed {} of {} outbox message(s) to Kafka...",
+                relayed.size(),
+                claimed.size());
+            if (relayed.size() < claimed.size()) {
+                return;
+            }
+            claimed = this.transactionTemplate.execute(status -> this.claim());
+        }
+    }
+
+    private List<RelayRecord> claim() {
+        var now = OffsetDateTime.now();
+        var claimable = this
+            .flowMessageRepository
+            .findClaimableByTargetNodeTypes(
+                this.nodeTypeLogic.getKafkaRelayedNodeTypes(),
+                now,
+                PageRequest.of(0, this.relayBatchSize));
+
+        var expiry = now.plus(Duration.ofMillis(this.inbox.getLeaseDurationMilliseconds()));
+        var records = new ArrayList<RelayRecord>(claimable.size());
+        for (var message : claimable) {
+            message.setLeaseOwner(this.inbox.getLeaseOwner());
+            message.setLeaseExpiresAt(expiry);
+            try {
+                records.add(new RelayRecord(
+                    message.getId(),
+                    message.getTargetNode().getId(),
+                    message.getFlowId(),
+                    this.objectMapper.writeValueAsString(
+                        this.flowMessageDtoMapper.map(message))));
+            } catch (Exception e) {
+                logger.error("ERROR: Could not serialize outbox message {}: {}",
+                    message.getId(),
+                    e.getMessage());
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Hand every record to the producer at once, so that it batches them per partition, then
+     * wait for the broker to acknowledge them.
+     *
+     * @return The IDs of the messages the broker acknowledged.
+     */
+    private List<String> publish(final List<RelayRecord> records) {
+        var futures = new ArrayList<CompletableFuture<?>>(records.size());
+        for (var record : records) {
+            futures.add(this.kafkaTemplate.send(
+                this.getTopicFor(record.targetNodeId),
+                record.flowId,
+                record.json));
+        }
+
+        var deadline = System.currentTimeMillis() + this.sendTimeoutMilliseconds;
+        var relayed = new ArrayList<String>(records.size());
+        for (var i = 0; i < records.size(); i++) {
+            var record = records.get(i);
+            try {
+                futures.get(i).get(
+                    Math.max(0L, deadline - System.currentTimeMillis()),
+                    TimeUnit.MILLISECONDS);
+                relayed.add(record.messageId);
+                this.relayedCounter.increment();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                logger.error("ERROR: Could not relay outbox message {} to node {}: {}",
+                    record.messageId,
+                    record.targetNodeId,
+                    e.getMessage());
+                this.errorCounter.increment();
+            }
+        }
+        return relayed;
+    }
+
+    /** A claimed message, serialized for its target node's topic. */
+    private record RelayRecord(
+        String messageId,
+        String targetNodeId,
+        String flowId,
+        String json) {
+    }
+}
@@ -5,7 +5,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.ubiquia.common.model.ubiquia.enums.NodeType;
 import org.ubiquia.core.flow.component.node.AbstractNode;
+import org.ubiquia.core.flow.service.calculator.NodeConcurrencyCalculator;
 
 /**
  * A service that exposes various methods common to all adapters.
@@ -15,6 +17,9 @@ public class NodeInboxPollingLogic {
 
     private static final Logger logger = LoggerFactory.getLogger(NodeInboxPollingLogic.class);
 
+    @Autowired
+    private NodeConcurrencyCalculator nodeConcurrencyCalculator;
+
     @Autowired
     private NodePassthroughLogic nodePassthroughLogic;
 
@@ -40,6 +45,8 @@ public class NodeInboxPollingLogic {
             if (this.nodeTypeLogic.nodeTypeRequiresEgressSettings(type)
                 && Objects.nonNull(context.getEgressSettings())) {
                 valid = this.hasFewerOpenMessagesThanEgressConcurrency(node);
+            } else if (type.equals(NodeType.PUBLISH)) {
+                valid = this.nodeConcurrencyCalculator.getInboxQueryPageSizeFor(node) > 0;
             } else {
                 valid = true;
             }
@@ -1,5 +1,6 @@
 package org.ubiquia.core.flow.service.logic.node;
 
+import java.util.List;
 import org.springframework.stereotype.Service;
 import org.ubiquia.common.model.ubiquia.enums.NodeType;
 
@@ -55,4 +56,21 @@ public class NodeTypeLogic {
         return !nodeType.equals(NodeType.QUEUE)
             && !nodeType.equals(NodeType.PUBLISH);
     }
+
+    /**
+     * Return the types of node whose inbox messages are relayed over Kafka when the outbox runs
+     * in its KAFKA mode. These nodes are finished with a message once they have recorded its
+     * event; merge, queue and publish nodes hold on to their messages' rows (to join them, to
+     * be popped, or until the broker acknowledges them) and so keep the database inbox.
+     *
+     * @return The node types.
+     */
+    public List<NodeType> getKafkaRelayedNodeTypes() {
+        return List.of(NodeType.HIDDEN, NodeType.EGRESS);
+    }
+
+    /** Returns true if the node type's inbox is relayed over Kafka in the KAFKA outbox mode. */
+    public Boolean isKafkaRelayedNodeType(final NodeType nodeType) {
+        return this.getKafkaRelayedNodeTypes().contains(nodeType);
+    }
 }
@@ -12,6 +12,7 @@ import org.springframework.stereotype.Service;
 import org.ubiquia.common.library.api.interfaces.InterfaceLogger;
 import org.ubiquia.common.model.ubiquia.entity.FlowEventEntity;
 import org.ubiquia.core.flow.component.node.AbstractNode;
+import org.ubiquia.core.flow.model.payload.Payload;
 import org.ubiquia.core.flow.service.command.node.NodePostToComponentCommand;
 import org.ubiquia.core.flow.service.command.node.NodePutToComponentCommand;
 import org.ubiquia.core.flow.service.io.Outbox;
@@ -51,7 +52,7 @@ public class NodePayloadOrchestrator implements InterfaceLogger {
     public void forwardPayload(
         FlowEventEntity flowEventEntity,
         final AbstractNode node,
-        final String payload)
+        final Payload payload)
         throws JsonProcessingException,
         JsonGeneratorException,
         GenerationException,
@@ -60,14 +61,14 @@ public class NodePayloadOrchestrator implements InterfaceLogger {
         if (this.nodePassthroughLogic.isPassthrough(node)) {
             this.outbox.tryQueueMessage(
                 flowEventEntity,
-                payload);
+                payload.asJson());
         } else if (this.nodeSimulatedOutputLogic.isSimulatedResponsePayload(node)) {
-            this.templateComponentProxy.proxyAsComponentWith(flowEventEntity);
+            this.templateComponentProxy.proxyAsComponentWith(flowEventEntity, node);
         } else {
             this.trySendInputPayloadToComponent(
                 flowEventEntity,
                 node,
-                payload);
+                payload.asJson());
         }
     }
 
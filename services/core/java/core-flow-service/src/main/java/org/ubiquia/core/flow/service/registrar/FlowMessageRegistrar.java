@@ -3,6 +3,7 @@ package org.ubiquia.core.flow.service.registrar;
 import jakarta.transaction.Transactional;
 import java.time.OffsetDateTime;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Objects;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,6 +19,7 @@ import org.ubiquia.core.flow.repository.FlowMessageRepository;
 import org.ubiquia.core.flow.repository.FlowRepository;
 import org.ubiquia.core.flow.repository.GraphRepository;
 import org.ubiquia.core.flow.repository.NodeRepository;
+import org.ubiquia.core.flow.service.io.InboxDispatcher;
 
 /** Registers incoming and sync-received flow messages, creating associated flows and events. */
 @Service
@@ -37,6 +39,9 @@ public class FlowMessageRegistrar {
     @Autowired
     private GraphRepository graphRepository;
 
+    @Autowired
+    private InboxDispatcher inboxDispatcher;
+
     @Autowired
     private NodeRepository nodeRepository;
 
@@ -82,10 +87,42 @@ public class FlowMessageRegistrar {
         messageEntity.setPayload(dto.getPayload());
         messageEntity.setTags(new HashSet<>());
         this.flowMessageRepository.save(messageEntity);
+        this.inboxDispatcher.signalAfterCommit(List.of(nodeEntity.getId()));
 
         logger.info("Registered incoming flow message for node {}.", nodeEntity.getName());
     }
 
+    /**
+     * Find (or create) the local flow that a message relayed over Kafka should be processed
+     * in. Messages queued by an instance sharing this database belong to flows that already
+     * exist here; messages queued by an instance with a database of its own get a new flow in
+     * their target node's graph, as messages received from peers over HTTP do.
+     *
+     * @param dto The relayed message.
+     * @return The ID of the local flow.
+     */
+    @Transactional
+    public String tryAdoptFlowOf(final FlowMessage dto) {
+        var flowId = dto.getFlowEvent().getFlow().getId();
+        if (this.flowRepository.existsById(flowId)) {
+            return flowId;
+        }
+
+        var nodeId = dto.getTargetNode().getId();
+        var nodeEntity = this
+            .nodeRepository
+            .findById(nodeId)
+            .orElseThrow(() -> new IllegalStateException("ERROR: No node with ID " + nodeId));
+
+        var flowEntity = new FlowEntity();
+        flowEntity.setGraph(nodeEntity.getParentGraph());
+        flowEntity.setFlowEvents(new HashSet<>());
+        flowEntity = this.flowRepository.save(flowEntity);
+
+        logger.debug("Adopted relayed flow {} as local flow {}.", flowId, flowEntity.getId());
+        return flowEntity.getId();
+    }
+
     /** Registers a flow message received during cluster sync if it does not already exist. */
     @Transactional
     public void tryRegisterSync(final FlowMessage dto) {
@@ -123,6 +160,8 @@ public class FlowMessageRegistrar {
         entity.setFlowEvent(flowEventOpt.get());
         entity.setTargetNode(nodeOpt.get());
         entity.setPayload(dto.getPayload());
+        // Keep the message's place in the inbox from the instance it was queued on.
+        entity.setQueuedAt(dto.getCreatedAt());
         entity.setTags(new HashSet<>());
         this.flowMessageRepository.save(entity);
         logger.info("Sync-registered FlowMessage {}.", entity.getId());
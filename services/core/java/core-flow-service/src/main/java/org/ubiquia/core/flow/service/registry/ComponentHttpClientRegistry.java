@@ -0,0 +1,518 @@
+package org.ubiquia.core.flow.service.registry;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.config.TlsConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http2.HttpVersionPolicy;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.AbstractClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Service;
+import org.ubiquia.common.library.api.interfaces.InterfaceLogger;
+
+/**
+ * A registry of HTTP connection pools, one per target component (i.e., per scheme, host and
+ * port), so that a slow or unresponsive component can only exhaust its own pool rather than
+ * the connections every other component and graph depends on.
+ *
+ * <p>The registry is the request factory behind the service's RestTemplate, so every
+ * synchronous call to a component (egress POSTs and PUTs, poll node GETs, etc.) is routed to
+ * its component's pool. Each pool is an asynchronous client with its own connection manager:
+ * it negotiates HTTP/2 over TLS where the component supports it (falling back to HTTP/1.1),
+ * holds at most "ubiquia.component-client.max-connections" connections, keeps idle ones alive
+ * for "ubiquia.component-client.keep-alive-milliseconds", applies connect, read and acquire
+ * timeouts, and publishes leased, pending and latency metrics tagged with the component.
+ * Responses are read in full before they are returned, so a connection goes back to its pool
+ * as soon as its exchange completes.</p>
+ *
+ * <p>Nodes register the component they call when they are built, and each pool counts the
+ * nodes registered to it. Once the last of them is torn down the pool is retired: its metrics
+ * are removed and later requests get a new pool, but the retired pool is only closed once
+ * the requests already using it (whether from nodes or from other callers of the
+ * RestTemplate) have completed.</p>
+ */
+@Service
+public class ComponentHttpClientRegistry implements ClientHttpRequestFactory, InterfaceLogger {
+
+    private static final Logger logger =
+        LoggerFactory.getLogger(ComponentHttpClientRegistry.class);
+
+    // Headers the client sets itself, or that HTTP/2 does not allow.
+    private static final Set<String> CLIENT_MANAGED_HEADERS = Set.of(
+        "connection",
+        "content-length",
+        "host",
+        "keep-alive",
+        "proxy-connection",
+        "te",
+        "transfer-encoding",
+        "upgrade");
+
+    @Value("${ubiquia.component-client.max-connections:64}")
+    private Integer maxConnections;
+
+    @Value("${ubiquia.component-client.acquire-timeout-milliseconds:10000}")
+    private Long acquireTimeoutMilliseconds;
+
+    @Value("${ubiquia.component-client.connect-timeout-milliseconds:5000}")
+    private Long connectTimeoutMilliseconds;
+
+    @Value("${ubiquia.component-client.read-timeout-milliseconds:30000}")
+    private Long readTimeoutMilliseconds;
+
+    @Value("${ubiquia.component-client.keep-alive-milliseconds:30000}")
+    private Long keepAliveMilliseconds;
+
+    @Value("${ubiquia.component-client.http2.enabled:true}")
+    private Boolean http2Enabled;
+
+    @Value("${ubiquia.component-client.http2.cleartext:false}")
+    private Boolean http2Cleartext;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, ComponentPool> pools = new ConcurrentHashMap<>();
+
+    private final Map<String, String> nodePoolKeys = new ConcurrentHashMap<>();
+
+    @Override
+    public Logger getLogger() {
+        return logger;
+    }
+
+    /** Retires every pool, closing each once its requests in flight have completed. */
+    @PreDestroy
+    public void teardown() {
+        logger.info("Tearing down {} component HTTP client pool(s)...", this.pools.size());
+        for (var key : this.pools.keySet()) {
+            this.pools.computeIfPresent(key, (k, pool) -> {
+                this.retirePool(pool);
+                return null;
+            });
+        }
+        this.nodePoolKeys.clear();
+        logger.info("...component HTTP client pools torn down.");
+    }
+
+    @Override
+    public ClientHttpRequest createRequest(final URI uri, final HttpMethod httpMethod) {
+        return new ComponentHttpRequest(uri, httpMethod);
+    }
+
+    /**
+     * Register the component a node calls, so that the component's pool is kept for as long
+     * as the node is deployed.
+     *
+     * @param nodeId The ID of the node.
+     * @param uri    The node's endpoint.
+     */
+    public void registerNode(final String nodeId, final URI uri) {
+        var key = this.getPoolKeyFor(uri);
+        var previous = this.nodePoolKeys.put(nodeId, key);
+        if (!key.equals(previous)) {
+            this.pools.compute(key, (k, pool) -> {
+                var retained = Objects.nonNull(pool) ? pool : this.buildPool(k);
+                retained.nodes++;
+                return retained;
+            });
+            if (Objects.nonNull(previous)) {
+                this.release(previous);
+            }
+        }
+    }
+
+    /**
+     * Deregister a node (i.e., when it is torn down), retiring its component's pool and
+     * removing the pool's metrics if no other node calls that component.
+     *
+     * @param nodeId The ID of the node.
+     */
+    public void evictNode(final String nodeId) {
+        var key = this.nodePoolKeys.remove(nodeId);
+        if (Objects.nonNull(key)) {
+            this.release(key);
+        }
+    }
+
+    /**
+     * Get the key of the pool that requests to a URI are routed to.
+     *
+     * @param uri The URI.
+     * @return The pool key (i.e., "http://component:8080".)
+     */
+    public String getPoolKeyFor(final URI uri) {
+        return uri.getScheme() + "://" + uri.getAuthority();
+    }
+
+    /**
+     * Get the number of connections currently leased from a URI's pool.
+     *
+     * @param uri A URI served by the pool.
+     * @return The number of leased connections, or zero if there is no pool yet.
+     */
+    public Integer getLeasedFor(final URI uri) {
+        var pool = this.pools.get(this.getPoolKeyFor(uri));
+        return Objects.isNull(pool) ? 0 : pool.getLeased();
+    }
+
+    /**
+     * Release a node's registration of a pool, retiring the pool along with its last one.
+     *
+     * @param key The key of the pool.
+     */
+    private void release(final String key) {
+        this.pools.computeIfPresent(key, (k, pool) -> {
+            var kept = pool;
+            if (--pool.nodes <= 0) {
+                logger.info("...retiring HTTP client pool for component {}...", k);
+                this.retirePool(pool);
+                kept = null;
+            }
+            return kept;
+        });
+    }
+
+    /**
+     * Get the current pool for a URI's component, building it if need be, and count a request
+     * against it so that it is not closed until the request completes.
+     *
+     * @param key The key of the pool.
+     * @return The pool.
+     */
+    private ComponentPool lease(final String key) {
+        var pool = this.pools.computeIfAbsent(key, this::buildPool);
+        while (!pool.tryLease()) {
+            // The pool was retired (and removed) since it was looked up.
+            pool = this.pools.computeIfAbsent(key, this::buildPool);
+        }
+        return pool;
+    }
+
+    /**
+     * Retire a pool that is being removed from the registry. This is called while its entry
+     * is locked, so that its metrics are removed before another pool for the same component
+     * can register its own.
+     *
+     * @param pool The pool to retire.
+     */
+    private void retirePool(final ComponentPool pool) {
+        for (var meter : pool.meters) {
+            this.meterRegistry.remove(meter);
+        }
+        pool.retire();
+    }
+
+    private ComponentPool buildPool(final String key) {
+        logger.info("Building HTTP client pool for component {}...", key);
+
+        // HTTP/2 is negotiated via ALPN over TLS and falls back to HTTP/1.1. Plain HTTP
+        // cannot negotiate, so HTTP/2 is only spoken there when configured to be.
+        var secure = key.startsWith("https");
+        var versionPolicy = HttpVersionPolicy.FORCE_HTTP_1;
+        if (this.http2Enabled && secure) {
+            versionPolicy = HttpVersionPolicy.NEGOTIATE;
+        } else if (this.http2Enabled && this.http2Cleartext) {
+            versionPolicy = HttpVersionPolicy.FORCE_HTTP_2;
+        }
+
+        var keepAlive = TimeValue.ofMilliseconds(this.keepAliveMilliseconds);
+        var connectionManager = PoolingAsyncClientConnectionManagerBuilder.create()
+            .setMaxConnTotal(this.maxConnections)
+            .setMaxConnPerRoute(this.maxConnections)
+            .setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(this.connectTimeoutMilliseconds))
+                .setSocketTimeout(Timeout.ofMilliseconds(this.readTimeoutMilliseconds))
+                .build())
+            .setDefaultTlsConfig(TlsConfig.custom()
+                .setVersionPolicy(versionPolicy)
+                .build())
+            .build();
+
+        // Components rarely send Keep-Alive headers, so idle connections are kept for a fixed
+        // time and evicted in the background once they have been idle for longer.
+        var httpClient = HttpAsyncClients.custom()
+            .setConnectionManager(connectionManager)
+            .setDefaultRequestConfig(RequestConfig.custom()
+                .setConnectionRequestTimeout(
+                    Timeout.ofMilliseconds(this.acquireTimeoutMilliseconds))
+                .setResponseTimeout(Timeout.ofMilliseconds(this.readTimeoutMilliseconds))
+                .build())
+            .setKeepAliveStrategy((response, context) -> keepAlive)
+            .evictExpiredConnections()
+            .evictIdleConnections(keepAlive)
+            .disableRedirectHandling()
+            .build();
+        httpClient.start();
+
+        var pool = new ComponentPool(key, httpClient, connectionManager);
+        pool.meters.add(Gauge.builder("ubiquia.component.client.leased", pool,
+                ComponentPool::getLeased)
+            .description("Connections to the component currently leased by a request.")
+            .tag("component", key)
+            .register(this.meterRegistry));
+        pool.meters.add(Gauge.builder("ubiquia.component.client.pending", pool,
+                ComponentPool::getPending)
+            .description("Requests waiting for one of the component's connections.")
+            .tag("component", key)
+            .register(this.meterRegistry));
+        pool.latencyTimer = Timer.builder("ubiquia.component.client.latency")
+            .description("Time from sending a request to the component until its response "
+                + "has been read.")
+            .tag("component", key)
+            .publishPercentileHistogram(true)
+            .register(this.meterRegistry);
+        pool.meters.add(pool.latencyTimer);
+
+        logger.info("...built pool for {} with up to {} connections kept alive for {} ms over "
+                + "{}.",
+            key,
+            this.maxConnections,
+            this.keepAliveMilliseconds,
+            HttpVersionPolicy.FORCE_HTTP_1.equals(versionPolicy)
+                ? "HTTP/1.1"
+                : "HTTP/2 (where available)");
+        return pool;
+    }
+
+    /**
+     * A component's HTTP client along with its connection manager, metrics, and counts of the
+     * nodes registered to it and the requests using it.
+     */
+    private static class ComponentPool {
+
+        private final String key;
+
+        private final CloseableHttpAsyncClient httpClient;
+
+        private final PoolingAsyncClientConnectionManager connectionManager;
+
+        private final List<Meter> meters = new ArrayList<>();
+
+        private final AtomicInteger requests = new AtomicInteger(0);
+
+        private final AtomicBoolean closed = new AtomicBoolean(false);
+
+        private volatile Boolean retired = false;
+
+        // Only read and written while the pool's registry entry is locked.
+        private Integer nodes = 0;
+
+        private Timer latencyTimer;
+
+        private ComponentPool(
+            final String key,
+            final CloseableHttpAsyncClient httpClient,
+            final PoolingAsyncClientConnectionManager connectionManager) {
+
+            this.key = key;
+            this.httpClient = httpClient;
+            this.connectionManager = connectionManager;
+        }
+
+        private Integer getLeased() {
+            return this.connectionManager.getTotalStats().getLeased();
+        }
+
+        private Integer getPending() {
+            return this.connectionManager.getTotalStats().getPending();
+        }
+
+        /**
+         * Count a request against the pool, unless the pool has been retired.
+         *
+         * @return Whether the request may use the pool.
+         */
+        private Boolean tryLease() {
+            this.requests.incrementAndGet();
+            var leased = !this.retired;
+            if (!leased) {
+                this.unlease();
+            }
+            return leased;
+        }
+
+        /** Count a request as completed, closing the pool if it was its last one. */
+        private void unlease() {
+            if (this.requests.decrementAndGet() == 0 && this.retired) {
+                this.close();
+            }
+        }
+
+        /** Stop the pool from taking requests, closing it once none are in flight. */
+        private void retire() {
+            this.retired = true;
+            if (this.requests.get() == 0) {
+                this.close();
+            }
+        }
+
+        private void close() {
+            if (this.closed.compareAndSet(false, true)) {
+                logger.info("...closing HTTP client pool for component {}...", this.key);
+                this.httpClient.close(CloseMode.GRACEFUL);
+            }
+        }
+    }
+
+    /**
+     * A request to a component, sent through whichever pool is current for the component
+     * when it is executed.
+     */
+    private class ComponentHttpRequest extends AbstractClientHttpRequest {
+
+        private final URI uri;
+
+        private final HttpMethod method;
+
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream(1024);
+
+        private ComponentHttpRequest(final URI uri, final HttpMethod method) {
+            this.uri = uri;
+            this.method = method;
+        }
+
+        @Override
+        public HttpMethod getMethod() {
+            return this.method;
+        }
+
+        @Override
+        public URI getURI() {
+            return this.uri;
+        }
+
+        @Override
+        protected OutputStream getBodyInternal(final HttpHeaders headers) {
+            return this.body;
+        }
+
+        @Override
+        protected ClientHttpResponse executeInternal(final HttpHeaders headers)
+            throws IOException {
+
+            var request = SimpleHttpRequest.create(this.method.name(), this.uri);
+            headers.forEach((name, values) -> {
+                if (!CLIENT_MANAGED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                    values.forEach(value -> request.addHeader(name, value));
+                }
+            });
+            if (this.body.size() > 0) {
+                var contentType = Objects.nonNull(headers.getContentType())
+                    ? ContentType.parseLenient(headers.getContentType().toString())
+                    : null;
+                request.setBody(this.body.toByteArray(), contentType);
+            }
+
+            var registry = ComponentHttpClientRegistry.this;
+            var pool = registry.lease(registry.getPoolKeyFor(this.uri));
+            var start = System.nanoTime();
+            try {
+                return new ComponentHttpResponse(this.send(pool, request));
+            } finally {
+                pool.latencyTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                pool.unlease();
+            }
+        }
+
+        private SimpleHttpResponse send(final ComponentPool pool, final SimpleHttpRequest request)
+            throws IOException {
+
+            var future = pool.httpClient.execute(request, null);
+            try {
+                return future.get();
+            } catch (InterruptedException e) {
+                future.cancel(true);
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted calling component " + pool.key, e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException cause) {
+                    throw cause;
+                }
+                throw new IOException("Could not call component " + pool.key + ": "
+                    + e.getCause().getMessage(), e.getCause());
+            }
+        }
+    }
+
+    /** A component's response, read in full before it is returned. */
+    private static class ComponentHttpResponse implements ClientHttpResponse {
+
+        private final SimpleHttpResponse response;
+
+        private final HttpHeaders headers = new HttpHeaders();
+
+        private ComponentHttpResponse(final SimpleHttpResponse response) {
+            this.response = response;
+            for (var header : response.getHeaders()) {
+                this.headers.add(header.getName(), header.getValue());
+            }
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() {
+            return HttpStatusCode.valueOf(this.response.getCode());
+        }
+
+        @Override
+        public String getStatusText() {
+            return Objects.toString(this.response.getReasonPhrase(), "");
+        }
+
+        @Override
+        public InputStream getBody() {
+            var bytes = this.response.getBodyBytes();
+            return new ByteArrayInputStream(Objects.nonNull(bytes) ? bytes : new byte[0]);
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return this.headers;
+        }
+
+        @Override
+        public void close() {
+            // The response was read in full, and its connection already returned to the pool.
+        }
+    }
+}
@@ -0,0 +1,314 @@
+package org.ubiquia.core.flow.service.registry;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import java.net.URI;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import net.jimblackler.jsonschemafriend.GenerationException;
+import net.jimblackler.jsonschemafriend.Schema;
+import net.jimblackler.jsonschemafriend.SchemaStore;
+import net.jimblackler.jsonschemafriend.ValidationException;
+import net.jimblackler.jsonschemafriend.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.ubiquia.common.library.api.interfaces.InterfaceLogger;
+import org.ubiquia.common.model.ubiquia.embeddable.SubSchema;
+import org.ubiquia.common.model.ubiquia.entity.DomainOntologyEntity;
+import org.ubiquia.common.model.ubiquia.entity.NodeEntity;
+import org.ubiquia.core.flow.model.payload.Payload;
+import org.ubiquia.core.flow.repository.NodeRepository;
+
+/**
+ * A registry that compiles each domain ontology's JSON Schema once and hands out the
+ * compiled input/output subschemas for nodes, along with a thread-safe way to validate
+ * payloads against them.
+ *
+ * <p>Compiled schemas are keyed by domain ontology; nodes are bound to their subschemas on
+ * first use, and each ontology counts the nodes bound to it. Node bindings are evicted when a
+ * node is torn down (and the ontology's compiled schema along with them once its count drops
+ * to zero), and everything belonging to an ontology is evicted when the ontology is
+ * deleted.</p>
+ */
+@Service
+public class SchemaRegistry implements InterfaceLogger {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaRegistry.class);
+
+    private final ConcurrentHashMap<String, Schema> compiledSchemas = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<String, Schema> inputSchemas = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<String, Optional<Schema>> outputSchemas =
+        new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<String, String> nodeDomainOntologyIds =
+        new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<String, Integer> domainOntologyReferences =
+        new ConcurrentHashMap<>();
+
+    // Validators cache regex patterns in unsynchronized maps, so each thread gets its own.
+    private final ThreadLocal<Validator> validators = ThreadLocal.withInitial(Validator::new);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private NodeRepository nodeRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Counter hitCounter;
+
+    private Counter missCounter;
+
+    private Timer compileTimer;
+
+    @Override
+    public Logger getLogger() {
+        return logger;
+    }
+
+    /** Registers the registry's metrics. */
+    @PostConstruct
+    public void init() {
+        this.hitCounter = Counter.builder("ubiquia.schema.registry.lookups")
+            .description("Node schema lookups served from the registry.")
+            .tag("result", "hit")
+            .register(this.meterRegistry);
+        this.missCounter = Counter.builder("ubiquia.schema.registry.lookups")
+            .description("Node schema lookups served from the registry.")
+            .tag("result", "miss")
+            .register(this.meterRegistry);
+        this.compileTimer = Timer.builder("ubiquia.schema.registry.compile")
+            .description("Time spent compiling a domain ontology's JSON Schema.")
+            .register(this.meterRegistry);
+    }
+
+    /**
+     * Get the compiled subschema a node's input payloads must conform to.
+     *
+     * @param nodeId The ID of the node.
+     * @return The compiled input subschema.
+     */
+    public Schema getInputSchemaFor(final String nodeId) {
+        var schema = this.inputSchemas.get(nodeId);
+        if (Objects.nonNull(schema)) {
+            this.hitCounter.increment();
+        } else {
+            this.missCounter.increment();
+            schema = this.inputSchemas.computeIfAbsent(nodeId, id ->
+                this.transactionTemplate.execute(status -> {
+                    var nodeEntity = this.findNode(id);
+                    return this.getSubSchemaFor(nodeEntity, nodeEntity.getInputSubSchemas());
+                }));
+        }
+        return schema;
+    }
+
+    /**
+     * Get the compiled subschema a node's output payloads must conform to, if the node has one.
+     *
+     * @param nodeId The ID of the node.
+     * @return The compiled output subschema, or empty if the node does not define one.
+     */
+    public Optional<Schema> getOutputSchemaFor(final String nodeId) {
+        var schema = this.outputSchemas.get(nodeId);
+        if (Objects.nonNull(schema)) {
+            this.hitCounter.increment();
+        } else {
+            this.missCounter.increment();
+            schema = this.outputSchemas.computeIfAbsent(nodeId, id ->
+                this.transactionTemplate.execute(status -> {
+                    var nodeEntity = this.findNode(id);
+                    Optional<Schema> match = Optional.empty();
+                    if (Objects.nonNull(nodeEntity.getOutputSubSchema())) {
+                        match = Optional.of(this.getSubSchemaFor(
+                            nodeEntity,
+                            List.of(nodeEntity.getOutputSubSchema())));
+                    }
+                    return match;
+                }));
+        }
+        return schema;
+    }
+
+    /**
+     * Validate a payload against a compiled schema. Safe to call from any thread.
+     *
+     * @param schema  The compiled schema to validate against.
+     * @param payload The payload to validate.
+     * @throws ValidationException Exception from validating the payload.
+     */
+    public void validate(final Schema schema, final String payload)
+        throws ValidationException {
+        this.validators.get().validateJson(schema, payload);
+    }
+
+    /**
+     * Validate an already-parsed payload against a compiled schema, walking its parsed form
+     * directly instead of parsing its JSON again. Safe to call from any thread.
+     *
+     * @param schema  The compiled schema to validate against.
+     * @param payload The payload to validate.
+     * @throws ValidationException     Exception from validating the payload.
+     * @throws JsonProcessingException Exception from parsing the payload.
+     */
+    public void validate(final Schema schema, final Payload payload)
+        throws ValidationException, JsonProcessingException {
+        this.validators.get().validate(schema, payload.asDocument());
+    }
+
+    /**
+     * Evict a node's schema bindings, along with its ontology's compiled schema if no other
+     * node is bound to it. Lookups already in flight for the node finish binding it before
+     * its subschemas are removed, so the node is never left bound once this returns.
+     *
+     * @param nodeId The ID of the node to evict.
+     */
+    public void evictNode(final String nodeId) {
+        if (Objects.isNull(nodeId)) {
+            return;
+        }
+        this.inputSchemas.remove(nodeId);
+        this.outputSchemas.remove(nodeId);
+        var domainOntologyId = this.nodeDomainOntologyIds.remove(nodeId);
+        if (Objects.nonNull(domainOntologyId)) {
+            this.release(domainOntologyId);
+        }
+    }
+
+    /**
+     * Evict a domain ontology's compiled schema and every node bound to it.
+     *
+     * @param domainOntologyId The ID of the domain ontology to evict.
+     */
+    public void evictDomainOntology(final String domainOntologyId) {
+        logger.debug("...evicting compiled schema for domain ontology {}...", domainOntologyId);
+        this.domainOntologyReferences.remove(domainOntologyId);
+        this.compiledSchemas.remove(domainOntologyId);
+        this.nodeDomainOntologyIds.entrySet().removeIf(entry -> {
+            var bound = entry.getValue().equals(domainOntologyId);
+            if (bound) {
+                this.inputSchemas.remove(entry.getKey());
+                this.outputSchemas.remove(entry.getKey());
+            }
+            return bound;
+        });
+    }
+
+    private NodeEntity findNode(final String nodeId) {
+        var record = this.nodeRepository.findById(nodeId);
+        if (record.isEmpty()) {
+            throw new RuntimeException("ERROR: Cannot find node with id: " + nodeId);
+        }
+        return record.get();
+    }
+
+    /**
+     * Find the first of the provided subschemas that the node's domain ontology defines,
+     * compiling the ontology's schema if it has not been compiled yet.
+     */
+    private Schema getSubSchemaFor(
+        final NodeEntity nodeEntity,
+        final Collection<SubSchema> subSchemas) {
+
+        // Bind first, so that the ontology cannot lose its last reference while compiling.
+        var domainOntology = nodeEntity.getParentGraph().getDomainOntology();
+        this.bind(nodeEntity.getId(), domainOntology.getId());
+        var schema = this.getCompiledSchemaFor(domainOntology);
+
+        URI match = null;
+        for (var subSchema : subSchemas) {
+            var uri = schema
+                .getSubSchemas()
+                .keySet()
+                .stream()
+                .filter(x -> x.toString().contains(subSchema.getModelName()))
+                .findFirst();
+
+            if (uri.isPresent()) {
+                match = uri.get();
+                break;
+            }
+        }
+
+        if (Objects.isNull(match)) {
+            throw new RuntimeException("ERROR: Cannot find any subschema named "
+                + subSchemas.stream().map(SubSchema::getModelName).toList()
+                + " in domain ontology named '"
+                + domainOntology.getName()
+                + "'!");
+        }
+        return schema.getSubSchemas().get(match);
+    }
+
+    /**
+     * Bind a node to a domain ontology, counting it against the ontology once.
+     *
+     * @param nodeId           The ID of the node.
+     * @param domainOntologyId The ID of the domain ontology.
+     */
+    private void bind(final String nodeId, final String domainOntologyId) {
+        this.nodeDomainOntologyIds.compute(nodeId, (id, bound) -> {
+            if (!domainOntologyId.equals(bound)) {
+                if (Objects.nonNull(bound)) {
+                    this.release(bound);
+                }
+                this.domainOntologyReferences.merge(domainOntologyId, 1, Integer::sum);
+            }
+            return domainOntologyId;
+        });
+    }
+
+    /**
+     * Release a node's reference to a domain ontology, evicting the ontology's compiled schema
+     * along with its last reference.
+     *
+     * @param domainOntologyId The ID of the domain ontology.
+     */
+    private void release(final String domainOntologyId) {
+        this.domainOntologyReferences.computeIfPresent(domainOntologyId, (id, references) -> {
+            Integer remaining = null;
+            if (references > 1) {
+                remaining = references - 1;
+            } else {
+                logger.debug("...evicting compiled schema for domain ontology {}...", id);
+                this.compiledSchemas.remove(id);
+            }
+            return remaining;
+        });
+    }
+
+    private Schema getCompiledSchemaFor(final DomainOntologyEntity domainOntology) {
+        return this.compiledSchemas.computeIfAbsent(domainOntology.getId(), id -> {
+            logger.info("Compiling JSON Schema for domain ontology {}...",
+                domainOntology.getName());
+            var start = System.nanoTime();
+            Schema schema = null;
+            try {
+                var schemaStore = new SchemaStore(true);
+                schema = schemaStore.loadSchemaJson(
+                    domainOntology.getDomainDataContract().getSchema());
+            } catch (GenerationException e) {
+                throw new RuntimeException("ERROR: Could not compile JSON Schema for domain "
+                    + "ontology named '" + domainOntology.getName() + "': " + e.getMessage(), e);
+            }
+            this.compileTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            logger.info("...compiled.");
+            return schema;
+        });
+    }
+}
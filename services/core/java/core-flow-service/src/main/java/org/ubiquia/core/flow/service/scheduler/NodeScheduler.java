@@ -0,0 +1,211 @@
+package org.ubiquia.core.flow.service.scheduler;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.ubiquia.common.library.api.interfaces.InterfaceLogger;
+import org.ubiquia.core.flow.model.node.NodeContext;
+
+/**
+ * A service that runs every recurring node task (inbox polls, back pressure polls, endpoint
+ * polls, stimulation, etc.) on a single shared timer and a bounded worker pool, rather than
+ * one thread pool per task.
+ *
+ * <p>The timer thread never runs node logic itself; it only hands work to the worker pool.
+ * A recurring task is never queued more than once at a time, so a slow node skips ticks
+ * instead of piling up work and starving other nodes. Start times are jittered so that nodes
+ * deployed together do not all fire on the same tick.</p>
+ */
+@Service
+public class NodeScheduler implements InterfaceLogger {
+
+    private static final Logger logger = LoggerFactory.getLogger(NodeScheduler.class);
+
+    @Value("${ubiquia.scheduler.timer-threads:1}")
+    private Integer timerThreads;
+
+    @Value("${ubiquia.scheduler.worker-threads:8}")
+    private Integer workerThreads;
+
+    @Value("${ubiquia.scheduler.virtual-threads.enabled:false}")
+    private Boolean virtualThreadsEnabled;
+
+    @Value("${ubiquia.scheduler.shutdown-timeout-milliseconds:5000}")
+    private Long shutdownTimeoutMilliseconds;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private ScheduledExecutorService timer;
+
+    private ExecutorService workers;
+
+    private Timer lagTimer;
+
+    @Override
+    public Logger getLogger() {
+        return logger;
+    }
+
+    /** Starts the shared timer and worker pool, binding their metrics. */
+    @PostConstruct
+    public void start() {
+        this.timer = Executors.newScheduledThreadPool(
+            this.timerThreads,
+            Thread.ofPlatform().name("ubiquia-node-timer-", 0).daemon(true).factory());
+
+        if (this.virtualThreadsEnabled) {
+            this.workers = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("ubiquia-node-worker-", 0).factory());
+        } else {
+            this.workers = Executors.newFixedThreadPool(
+                this.workerThreads,
+                Thread.ofPlatform().name("ubiquia-node-worker-", 0).daemon(true).factory());
+        }
+
+        this.timer = ExecutorServiceMetrics.monitor(
+            this.meterRegistry,
+            this.timer,
+            "ubiquia.node.scheduler.timer");
+        this.workers = ExecutorServiceMetrics.monitor(
+            this.meterRegistry,
+            this.workers,
+            "ubiquia.node.scheduler.workers");
+        this.lagTimer = Timer.builder("ubiquia.node.scheduler.lag")
+            .description("Time between a node task becoming due and a worker starting it.")
+            .publishPercentileHistogram(true)
+            .register(this.meterRegistry);
+
+        logger.info("NodeScheduler started with {} timer thread(s) and {} worker pool.",
+            this.timerThreads,
+            this.virtualThreadsEnabled ? "a virtual-thread" : "a " + this.workerThreads
+                + "-thread");
+    }
+
+    /** Shuts down the timer and worker pool, waiting briefly for running tasks. */
+    @PreDestroy
+    public void teardown() throws InterruptedException {
+        logger.info("Tearing down NodeScheduler...");
+        this.timer.shutdownNow();
+        this.workers.shutdown();
+        if (!this.workers.awaitTermination(
+            this.shutdownTimeoutMilliseconds,
+            TimeUnit.MILLISECONDS)) {
+            this.workers.shutdownNow();
+        }
+        logger.info("...NodeScheduler torn down.");
+    }
+
+    /**
+     * Schedule a recurring task on behalf of a node. The task is tracked by the node's context
+     * so that it is cancelled when the node is torn down.
+     *
+     * @param nodeContext        The context of the node the task belongs to.
+     * @param taskName           A name for the task, used for logging.
+     * @param task               The task to run.
+     * @param periodMilliseconds The period between runs.
+     * @return The scheduled task.
+     */
+    public ScheduledFuture<?> scheduleFor(
+        final NodeContext nodeContext,
+        final String taskName,
+        final Runnable task,
+        final Long periodMilliseconds) {
+
+        var initialDelay = this.getJitteredDelay(periodMilliseconds);
+        var future = this.schedule(taskName, task, initialDelay, periodMilliseconds);
+        nodeContext.getTasks().add(future);
+        logger.debug("...scheduled task {} for node {} every {} ms (first run in {} ms)...",
+            taskName,
+            nodeContext.getNodeName(),
+            periodMilliseconds,
+            initialDelay);
+        return future;
+    }
+
+    /**
+     * Schedule a recurring task that does not belong to any node (i.e., service-level
+     * relays.) The caller is responsible for cancelling the returned task.
+     *
+     * @param taskName                 A name for the task, used for logging.
+     * @param task                     The task to run.
+     * @param initialDelayMilliseconds The delay before the first run.
+     * @param periodMilliseconds       The period between runs.
+     * @return The scheduled task.
+     */
+    public ScheduledFuture<?> schedule(
+        final String taskName,
+        final Runnable task,
+        final Long initialDelayMilliseconds,
+        final Long periodMilliseconds) {
+
+        var queued = new AtomicBoolean(false);
+        return this.timer.scheduleAtFixedRate(
+            () -> this.tryHandOff(taskName, task, queued),
+            initialDelayMilliseconds,
+            periodMilliseconds,
+            TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Run a one-off task on the shared worker pool.
+     *
+     * @param task The task to run.
+     */
+    public void execute(final Runnable task) {
+        this.workers.execute(task);
+    }
+
+    /**
+     * Hand a due task off to the worker pool, unless a previous run of the same task is still
+     * queued or running.
+     */
+    private void tryHandOff(
+        final String taskName,
+        final Runnable task,
+        final AtomicBoolean queued) {
+
+        if (!queued.compareAndSet(false, true)) {
+            logger.debug("...task {} is still running; skipping this tick...", taskName);
+            return;
+        }
+
+        var due = System.nanoTime();
+        try {
+            this.workers.execute(() -> {
+                this.lagTimer.record(System.nanoTime() - due, TimeUnit.NANOSECONDS);
+                try {
+                    task.run();
+                } catch (Exception e) {
+                    logger.error("ERROR: Scheduled task {} failed: {}", taskName, e.getMessage());
+                } finally {
+                    queued.set(false);
+                }
+            });
+        } catch (Exception e) {
+            queued.set(false);
+            logger.warn("Could not hand off task {}: {}", taskName, e.getMessage());
+        }
+    }
+
+    private Long getJitteredDelay(final Long periodMilliseconds) {
+        var jitter = periodMilliseconds > 1
+            ? ThreadLocalRandom.current().nextLong(periodMilliseconds)
+            : 0L;
+        return periodMilliseconds + jitter;
+    }
+}
@@ -1,23 +1,47 @@
 package org.ubiquia.core.flow.service.visitor;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.ubiquia.core.flow.component.node.AbstractNode;
+import org.ubiquia.core.flow.service.io.InboxDispatcher;
 
-/** Tracks open message counts on node contexts. */
+/**
+ * Tracks open message counts on node contexts. Counts are incremented by node threads and
+ * decremented by HTTP response threads, so every update is atomic.
+ */
 @Service
 public class NodeOpenMessageVisitor {
 
+    @Autowired
+    private InboxDispatcher inboxDispatcher;
+
     /** Increments the open message count for the given node. */
     public void incrementOpenMessagesFor(AbstractNode adapter) {
-        var context = adapter.getNodeContext();
-        var messagesCount = context.getOpenMessages() + 1;
-        context.setOpenMessages(messagesCount);
+        adapter.getNodeContext().getOpenMessageCounter().incrementAndGet();
+    }
+
+    /** Increments the open message count for the given node by the given count. */
+    public void incrementOpenMessagesFor(AbstractNode adapter, final int count) {
+        adapter.getNodeContext().getOpenMessageCounter().addAndGet(count);
     }
 
-    /** Decrements the open message count for the given node. */
+    /**
+     * Decrements the open message count for the given node and signals the node, as it may
+     * now have room to accept more messages from its inbox.
+     */
     public void decrementOpenMessagesFor(AbstractNode adapter) {
         var context = adapter.getNodeContext();
-        var messagesCount = context.getOpenMessages() - 1;
-        context.setOpenMessages(messagesCount);
+        context.getOpenMessageCounter().updateAndGet(count -> Math.max(0, count - 1));
+        this.inboxDispatcher.signal(context.getNodeId());
+    }
+
+    /**
+     * Decrements the open message count for the given node by the given count and signals the
+     * node once, rather than once per message.
+     */
+    public void decrementOpenMessagesFor(AbstractNode adapter, final int count) {
+        var context = adapter.getNodeContext();
+        context.getOpenMessageCounter().updateAndGet(open -> Math.max(0, open - count));
+        this.inboxDispatcher.signal(context.getNodeId());
     }
-}
\ No newline at end of file
+}
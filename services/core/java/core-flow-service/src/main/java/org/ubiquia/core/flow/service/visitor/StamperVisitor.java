@@ -1,24 +1,33 @@
 package org.ubiquia.core.flow.service.visitor;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import java.util.ArrayList;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Objects;
+import java.util.Set;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.ubiquia.common.model.ubiquia.embeddable.KeyValuePair;
 import org.ubiquia.common.model.ubiquia.entity.FlowEventEntity;
+import org.ubiquia.core.flow.model.node.NodeContext;
+import org.ubiquia.core.flow.model.payload.Payload;
+import org.ubiquia.core.flow.model.stamp.StampExtractor;
+import org.ubiquia.core.flow.service.builder.PayloadBuilder;
 
 /**
  * This is a service that can "stamp" payloads from adapters per their configuration. Stamps
  * are data structures that will be persisted in the database as key-value-pairs where the
  * key is the stamp "keychain" and the value is the "value" retrieved using that keychain.
+ *
+ * <p>Deployed nodes carry their keychains precompiled in their {@link NodeContext}; all of a
+ * node's input (or output) stamps are then pulled from a payload in a single streaming pass.
+ * See {@link StampExtractor} for the supported keychain syntax.</p>
  */
 @Service
 public class StamperVisitor {
 
     @Autowired
-    private ObjectMapper objectMapper;
+    private PayloadBuilder payloadBuilder;
 
     /**
      * Attempt to stamp an input payload for an adapter.
@@ -29,18 +38,38 @@ public class StamperVisitor {
      */
     public void tryStampInputs(FlowEventEntity flowEventEntity, final String inputPayload)
         throws JsonProcessingException {
+        this.tryStampInputs(flowEventEntity, this.payloadBuilder.fromJson(inputPayload), null);
+    }
 
-        for (var stampKeychain : flowEventEntity
-            .getNode()
-            .getNodeSettings()
-            .getInputStampKeychains()) {
+    /**
+     * Attempt to stamp an input payload for an adapter.
+     *
+     * @param flowEventEntity  The event associated with the payload.
+     * @param inputPayload The payload to stamp.
+     * @param nodeContext The context of the node whose compiled keychains to use; keychains
+     *                    are compiled into it on first use if it has none. If null, they are
+     *                    compiled from the event's node settings for this call only.
+     * @throws JsonProcessingException Exception from trying to retrieve the stamps.
+     */
+    public void tryStampInputs(
+        FlowEventEntity flowEventEntity,
+        final Payload inputPayload,
+        final NodeContext nodeContext)
+        throws JsonProcessingException {
 
-            var stamp = this.getStampFrom(inputPayload, stampKeychain);
-            var kvp = new KeyValuePair();
-            kvp.setKey(stampKeychain);
-            kvp.setValue(stamp);
-            flowEventEntity.getInputPayloadStamps().add(kvp);
+        var extractor = Objects.nonNull(nodeContext)
+            ? nodeContext.getInputStampExtractor()
+            : null;
+        if (Objects.isNull(extractor)) {
+            extractor = StampExtractor.compile(flowEventEntity
+                .getNode()
+                .getNodeSettings()
+                .getInputStampKeychains());
+            if (Objects.nonNull(nodeContext)) {
+                nodeContext.setInputStampExtractor(extractor);
+            }
         }
+        this.stamp(extractor, inputPayload, flowEventEntity.getInputPayloadStamps());
     }
 
     /**
@@ -52,76 +81,58 @@ public class StamperVisitor {
      */
     public void tryStampOutputs(FlowEventEntity flowEventEntity, final String outputPayload)
         throws JsonProcessingException {
-
-        for (var stampKeychain : flowEventEntity
-            .getNode()
-            .getNodeSettings()
-            .getOutputStampKeychains()) {
-            var stamp = this.getStampFrom(outputPayload, stampKeychain);
-            var kvp = new KeyValuePair();
-            kvp.setKey(stampKeychain);
-            kvp.setValue(stamp);
-            flowEventEntity.getOutputPayloadStamps().add(kvp);
-        }
+        this.tryStampOutputs(flowEventEntity, this.payloadBuilder.fromJson(outputPayload), null);
     }
 
     /**
-     * Get a stamp from a payload by using the keychain.
+     * Attempt to stamp an output payload for an adapter.
      *
-     * @param payload  The payload to extract from.
-     * @param keyChain The keychain defining what value to extract from the payload.
-     * @return The extracted value, if found.
-     * @throws JsonProcessingException Exception from being unable to parse the JSON.
+     * @param flowEventEntity   The event associated with the payload.
+     * @param outputPayload The payload to stamp.
+     * @param nodeContext The context of the node whose compiled keychains to use; keychains
+     *                    are compiled into it on first use if it has none. If null, they are
+     *                    compiled from the event's node settings for this call only.
+     * @throws JsonProcessingException Exception from trying to retrieve the stamps.
      */
-    private String getStampFrom(final String payload, final String keyChain)
+    public void tryStampOutputs(
+        FlowEventEntity flowEventEntity,
+        final Payload outputPayload,
+        final NodeContext nodeContext)
         throws JsonProcessingException {
 
-        String stamp = null;
-        var splitKeys = keyChain.split("\\.");
-        var node = this.objectMapper.readTree(payload);
-        if (node.isArray()) {
-            var stampList = new ArrayList<>();
-            for (var elem : node) {
-                for (int i = 0; i < splitKeys.length; i++) {
-                    node = this.getChildNode(elem, splitKeys[i]);
-                }
-
-                if (node.isTextual()) {
-                    stamp = node.textValue();
-                } else if (node.isIntegralNumber()) {
-                    stamp = String.valueOf(node.intValue());
-                }
-                stampList.add(stamp);
-            }
-            stamp = stampList.toString();
-        } else {
-            for (int i = 0; i < splitKeys.length; i++) {
-                node = this.getChildNode(node, splitKeys[i]);
-            }
-
-            if (node.isTextual()) {
-                stamp = node.textValue();
-            } else if (node.isIntegralNumber()) {
-                stamp = String.valueOf(node.intValue());
+        var extractor = Objects.nonNull(nodeContext)
+            ? nodeContext.getOutputStampExtractor()
+            : null;
+        if (Objects.isNull(extractor)) {
+            extractor = StampExtractor.compile(flowEventEntity
+                .getNode()
+                .getNodeSettings()
+                .getOutputStampKeychains());
+            if (Objects.nonNull(nodeContext)) {
+                nodeContext.setOutputStampExtractor(extractor);
             }
         }
-        return stamp;
+        this.stamp(extractor, outputPayload, flowEventEntity.getOutputPayloadStamps());
     }
 
-    /**
-     * Helper method to return a child node given a child node's field name.
-     *
-     * @param node           The node we're finding a child from.
-     * @param childFieldName The name of the child node to look for.
-     * @return The child node.
-     */
-    private JsonNode getChildNode(final JsonNode node, final String childFieldName) {
-        if (!node.has(childFieldName)) {
-            throw new IllegalArgumentException("ERROR: Could not find "
-                + "field for name: "
-                + childFieldName);
+    private void stamp(
+        final StampExtractor extractor,
+        final Payload payload,
+        final Set<KeyValuePair> stamps)
+        throws JsonProcessingException {
+
+        if (extractor.isEmpty()) {
+            return;
+        }
+
+        try {
+            for (var stamp : extractor.extract(payload.asParser()).entrySet()) {
+                stamps.add(new KeyValuePair(stamp.getKey(), stamp.getValue()));
+            }
+        } catch (JsonProcessingException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-        var value = node.get(childFieldName);
-        return value;
     }
 }
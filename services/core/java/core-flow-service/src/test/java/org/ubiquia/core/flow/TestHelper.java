@@ -1,15 +1,23 @@
 package org.ubiquia.core.flow;
 
+import java.time.OffsetDateTime;
 import java.util.HashMap;
+import java.util.HashSet;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.ubiquia.common.model.ubiquia.dto.DomainOntology;
 import org.ubiquia.common.model.ubiquia.dto.Graph;
+import org.ubiquia.common.model.ubiquia.embeddable.FlowEventTimes;
 import org.ubiquia.common.model.ubiquia.embeddable.GraphDeployment;
+import org.ubiquia.common.model.ubiquia.entity.FlowEntity;
+import org.ubiquia.common.model.ubiquia.entity.FlowEventEntity;
+import org.ubiquia.common.model.ubiquia.entity.NodeEntity;
 import org.ubiquia.core.flow.component.node.AbstractNode;
 import org.ubiquia.core.flow.controller.DomainOntologyController;
 import org.ubiquia.core.flow.controller.GraphController;
+import org.ubiquia.core.flow.repository.FlowEventRepository;
+import org.ubiquia.core.flow.repository.FlowRepository;
 import org.ubiquia.core.flow.repository.NodeRepository;
 import org.ubiquia.core.flow.service.logic.agent.AgentInitializationLogic;
 import org.ubiquia.core.flow.service.manager.NodeManager;
@@ -21,6 +29,12 @@ public class TestHelper {
     @Autowired
     private DomainOntologyController domainOntologyController;
 
+    @Autowired
+    private FlowEventRepository flowEventRepository;
+
+    @Autowired
+    private FlowRepository flowRepository;
+
     @Autowired
     private GraphController graphController;
 
@@ -79,4 +93,48 @@ public class TestHelper {
 
         return node;
     }
+
+    /**
+     * Persist a new flow with a single event at a registered node, for tests that queue
+     * messages without running a node.
+     *
+     * @param graphName The graph the node belongs to.
+     * @param nodeName  The name of the node.
+     * @return The persisted event.
+     */
+    @SuppressWarnings("OptionalGetWithoutIsPresent")
+    public FlowEventEntity buildFlowEventFor(final String graphName, final String nodeName) {
+        var nodeEntity = this
+            .nodeRepository
+            .findByParentGraphNameAndName(graphName, nodeName)
+            .get();
+        return this.buildFlowEventFor(nodeEntity);
+    }
+
+    /**
+     * Persist a new flow with a single event at a node.
+     *
+     * @param nodeEntity The node.
+     * @return The persisted event.
+     */
+    public FlowEventEntity buildFlowEventFor(final NodeEntity nodeEntity) {
+        var flowEntity = new FlowEntity();
+        flowEntity.setGraph(nodeEntity.getParentGraph());
+        flowEntity.setFlowEvents(new HashSet<>());
+        flowEntity = this.flowRepository.save(flowEntity);
+
+        var eventTimes = new FlowEventTimes();
+        eventTimes.setEventStartTime(OffsetDateTime.now());
+
+        var flowEvent = new FlowEventEntity();
+        flowEvent.setNode(nodeEntity);
+        flowEvent.setFlow(flowEntity);
+        flowEvent.setFlowMessages(new HashSet<>());
+        flowEvent.setInputPayloadStamps(new HashSet<>());
+        flowEvent.setOutputPayloadStamps(new HashSet<>());
+        flowEvent.setTags(new HashSet<>());
+        flowEvent.setFlowEventTimes(eventTimes);
+        flowEntity.getFlowEvents().add(flowEvent);
+        return this.flowEventRepository.save(flowEvent);
+    }
 }
\ No newline at end of file
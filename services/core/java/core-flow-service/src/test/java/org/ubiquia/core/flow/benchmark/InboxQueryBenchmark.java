@@ -0,0 +1,226 @@
+package org.ubiquia.core.flow.benchmark;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.ubiquia.common.model.ubiquia.dto.GraphEdge;
+import org.ubiquia.common.model.ubiquia.enums.NodeType;
+import org.ubiquia.core.flow.TestHelper;
+import org.ubiquia.core.flow.controller.DomainOntologyController;
+import org.ubiquia.core.flow.dummy.factory.DummyFactory;
+import org.ubiquia.core.flow.repository.FlowMessageRepository;
+import org.ubiquia.core.flow.repository.NodeRepository;
+
+/**
+ * Load benchmark measuring inbox query latency (claiming a node's oldest page, and looking up
+ * a node's messages for one flow) with 1M messages queued across 16 nodes. Runs against H2 by
+ * default; point it at PostgreSQL with i.e.:
+ * <pre>
+ * ./gradlew :services:core:java:core-flow-service:benchmark \
+ *     -Dspring.datasource.url=jdbc:postgresql://localhost:5432/ubiquia \
+ *     -Dspring.datasource.driverClassName=org.postgresql.Driver \
+ *     -Dspring.datasource.username=... -Dspring.datasource.password=...
+ * </pre>
+ * The message count can be changed with -Dubiquia.benchmark.inbox.messages.
+ */
+@SpringBootTest
+@Tag("benchmark")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class InboxQueryBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(InboxQueryBenchmark.class);
+    private static final int NODES = 16;
+    private static final int FLOWS = 1_000;
+    private static final int INSERT_BATCH_SIZE = 10_000;
+    private static final int PAGE_SIZE = 10;
+    private static final int WARMUP_QUERIES = 50;
+    private static final int MEASURED_QUERIES = 500;
+    private static final String PAYLOAD = "{\"name\":\"benchmark\",\"age\":42}";
+
+    @Value("${ubiquia.benchmark.inbox.messages:1000000}")
+    private Integer messageCount;
+
+    @Autowired
+    private DomainOntologyController domainOntologyController;
+
+    @Autowired
+    private DummyFactory dummyFactory;
+
+    @Autowired
+    private FlowMessageRepository flowMessageRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NodeRepository nodeRepository;
+
+    @Autowired
+    private TestHelper testHelper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /** Sets up test fixtures. */
+    @BeforeEach
+    public void setup() {
+        this.testHelper.setupAgentState();
+    }
+
+    @Test
+    public void benchmarkInboxQueries() throws Exception {
+
+        var domainOntology = this.dummyFactory.generateDomainOntology();
+        final var graph = domainOntology.getGraphs().get(0);
+
+        var ingressNode = this.dummyFactory.generateNode();
+        ingressNode.setNodeType(NodeType.PUSH);
+        ingressNode.getInputSubSchemas().add(this.dummyFactory.buildSubSchema("Person"));
+        ingressNode.setOutputSubSchema(this.dummyFactory.buildSubSchema("Dog"));
+        graph.getNodes().add(ingressNode);
+
+        var edge = new GraphEdge();
+        edge.setLeftNodeName(ingressNode.getName());
+        edge.setRightNodeNames(new ArrayList<>());
+        for (var i = 0; i < NODES; i++) {
+            var hiddenNode = this.dummyFactory.generateNode();
+            hiddenNode.setNodeType(NodeType.HIDDEN);
+            hiddenNode.getInputSubSchemas().add(this.dummyFactory.buildSubSchema("Dog"));
+            graph.getNodes().add(hiddenNode);
+            edge.getRightNodeNames().add(hiddenNode.getName());
+        }
+        graph.getEdges().add(edge);
+
+        // Register only; nodes are not deployed so nothing drains the inbox mid-benchmark.
+        this.domainOntologyController.register(domainOntology);
+
+        var targetNodeIds = this.transactionTemplate.execute(status -> edge
+            .getRightNodeNames()
+            .stream()
+            .map(name -> this.nodeRepository
+                .findByParentGraphNameAndName(graph.getName(), name)
+                .get()
+                .getId())
+            .toList());
+        var events = this.transactionTemplate.execute(status ->
+            this.buildFlowEventsFor(graph.getName(), ingressNode.getName()));
+
+        var start = System.nanoTime();
+        this.insertMessages(targetNodeIds, events);
+        logger.info("BENCHMARK inbox: queued {} messages in {} ms",
+            this.messageCount,
+            (System.nanoTime() - start) / 1_000_000);
+        Assertions.assertEquals((long) this.messageCount, this.flowMessageRepository.count());
+
+        var claim = this.measure(i -> this.transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            return this.flowMessageRepository.findClaimableByTargetNodeId(
+                targetNodeIds.get(i % NODES),
+                OffsetDateTime.now(),
+                PageRequest.of(0, PAGE_SIZE)).size();
+        }));
+        var byFlow = this.measure(i -> this.transactionTemplate.execute(status ->
+            this.flowMessageRepository.findAllByTargetNodeIdAndFlowId(
+                targetNodeIds.get(i % NODES),
+                events.get(i % FLOWS)[1]).size()));
+
+        this.report("claim oldest page", claim);
+        this.report("messages by flow", byFlow);
+    }
+
+    private List<String[]> buildFlowEventsFor(final String graphName, final String nodeName) {
+        var nodeEntity = this
+            .nodeRepository
+            .findByParentGraphNameAndName(graphName, nodeName)
+            .get();
+
+        // Each entry is {event ID, flow ID}.
+        var events = new ArrayList<String[]>();
+        for (var i = 0; i < FLOWS; i++) {
+            var flowEvent = this.testHelper.buildFlowEventFor(nodeEntity);
+            events.add(new String[] {flowEvent.getId(), flowEvent.getFlow().getId()});
+        }
+        return events;
+    }
+
+    /**
+     * Queue messages with plain JDBC batches; going through JPA would make seeding 1M rows
+     * take far longer than the queries being measured.
+     */
+    private void insertMessages(final List<String> targetNodeIds, final List<String[]> events) {
+        var queuedAt = OffsetDateTime.now().minusDays(1);
+        for (var offset = 0; offset < this.messageCount; offset += INSERT_BATCH_SIZE) {
+            var base = new ArrayList<Object[]>(INSERT_BATCH_SIZE);
+            var messages = new ArrayList<Object[]>(INSERT_BATCH_SIZE);
+            var end = Math.min(this.messageCount, offset + INSERT_BATCH_SIZE);
+            for (var i = offset; i < end; i++) {
+                var id = UUID.randomUUID().toString();
+                var time = queuedAt.plusNanos(i * 1_000L);
+                var event = events.get(i % FLOWS);
+                base.add(new Object[] {id, time, time});
+                messages.add(new Object[] {
+                    id,
+                    event[0],
+                    targetNodeIds.get(i % NODES),
+                    PAYLOAD,
+                    time,
+                    event[1]});
+            }
+            this.transactionTemplate.executeWithoutResult(status -> {
+                this.jdbcTemplate.batchUpdate(
+                    "INSERT INTO abstract_model_entity (id, created_at, updated_at) "
+                        + "VALUES (?, ?, ?)",
+                    base);
+                this.jdbcTemplate.batchUpdate(
+                    "INSERT INTO flow_message_entity (id, message_events_join_id, "
+                        + "message_target_node_join_id, payload, queued_at, message_flow_id) "
+                        + "VALUES (?, ?, ?, ?, ?, ?)",
+                    messages);
+            });
+        }
+    }
+
+    private long[] measure(final Query query) {
+        for (var i = 0; i < WARMUP_QUERIES; i++) {
+            Assertions.assertTrue(query.run(i) > 0);
+        }
+        var latencies = new long[MEASURED_QUERIES];
+        for (var i = 0; i < MEASURED_QUERIES; i++) {
+            var start = System.nanoTime();
+            Assertions.assertTrue(query.run(i) > 0);
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private void report(final String queryName, final long[] latencies) {
+        logger.info("BENCHMARK inbox query \"{}\" at {} queued messages: p50 {} us, p99 {} us, "
+                + "max {} us",
+            queryName,
+            this.messageCount,
+            latencies[latencies.length / 2] / 1_000,
+            latencies[latencies.length * 99 / 100] / 1_000,
+            latencies[latencies.length - 1] / 1_000);
+    }
+
+    @FunctionalInterface
+    private interface Query {
+        Integer run(int iteration);
+    }
+}
@@ -0,0 +1,118 @@
+package org.ubiquia.core.flow.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.ubiquia.common.model.ubiquia.dto.GraphEdge;
+import org.ubiquia.common.model.ubiquia.enums.NodeType;
+import org.ubiquia.core.flow.TestHelper;
+import org.ubiquia.core.flow.controller.DomainOntologyController;
+import org.ubiquia.core.flow.dummy.factory.DummyFactory;
+import org.ubiquia.core.flow.repository.FlowMessageRepository;
+import org.ubiquia.core.flow.service.io.Outbox;
+
+/**
+ * Integration benchmark measuring Outbox throughput (in messages per second) for a node that
+ * fans out to 1, 8 and 64 downstream nodes. Run with the "benchmark" Gradle task.
+ */
+@SpringBootTest
+@Tag("benchmark")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class OutboxFanOutBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxFanOutBenchmark.class);
+    private static final int WARMUP_EVENTS = 50;
+    private static final int MEASURED_EVENTS = 500;
+    private static final String PAYLOAD = "{\"name\":\"benchmark\",\"age\":42}";
+
+    @Autowired
+    private DomainOntologyController domainOntologyController;
+
+    @Autowired
+    private DummyFactory dummyFactory;
+
+    @Autowired
+    private FlowMessageRepository flowMessageRepository;
+
+    @Autowired
+    private Outbox outbox;
+
+    @Autowired
+    private TestHelper testHelper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /** Sets up test fixtures. */
+    @BeforeEach
+    public void setup() {
+        this.testHelper.setupAgentState();
+    }
+
+    /** Measures fanning out to the given number of downstream nodes. */
+    @ParameterizedTest
+    @ValueSource(ints = {1, 8, 64})
+    public void benchmarkFanOut(final int width) throws Exception {
+
+        var domainOntology = this.dummyFactory.generateDomainOntology();
+        final var graph = domainOntology.getGraphs().get(0);
+
+        var ingressNode = this.dummyFactory.generateNode();
+        ingressNode.setNodeType(NodeType.PUSH);
+        ingressNode.getInputSubSchemas().add(this.dummyFactory.buildSubSchema("Person"));
+        ingressNode.setOutputSubSchema(this.dummyFactory.buildSubSchema("Dog"));
+        graph.getNodes().add(ingressNode);
+
+        var edge = new GraphEdge();
+        edge.setLeftNodeName(ingressNode.getName());
+        edge.setRightNodeNames(new ArrayList<>());
+        for (var i = 0; i < width; i++) {
+            var hiddenNode = this.dummyFactory.generateNode();
+            hiddenNode.setNodeType(NodeType.HIDDEN);
+            hiddenNode.getInputSubSchemas().add(this.dummyFactory.buildSubSchema("Dog"));
+            graph.getNodes().add(hiddenNode);
+            edge.getRightNodeNames().add(hiddenNode.getName());
+        }
+        graph.getEdges().add(edge);
+
+        // Register only; nodes are not deployed so nothing drains the inbox mid-benchmark.
+        this.domainOntologyController.register(domainOntology);
+
+        var flowEvent = this.transactionTemplate.execute(status ->
+            this.testHelper.buildFlowEventFor(graph.getName(), ingressNode.getName()));
+
+        for (var i = 0; i < WARMUP_EVENTS; i++) {
+            flowEvent.setFlowMessages(new HashSet<>());
+            this.outbox.tryQueueMessage(flowEvent, PAYLOAD);
+        }
+
+        var start = System.nanoTime();
+        for (var i = 0; i < MEASURED_EVENTS; i++) {
+            flowEvent.setFlowMessages(new HashSet<>());
+            this.outbox.tryQueueMessage(flowEvent, PAYLOAD);
+        }
+        var elapsedNanos = System.nanoTime() - start;
+
+        var messages = (long) MEASURED_EVENTS * width;
+        var messagesPerSecond = messages / (elapsedNanos / 1_000_000_000.0);
+        logger.info("BENCHMARK outbox fan-out width {}: {} messages/s ({} messages in {} ms)",
+            width,
+            String.format("%.0f", messagesPerSecond),
+            messages,
+            elapsedNanos / 1_000_000);
+
+        Assertions.assertEquals(
+            (long) (WARMUP_EVENTS + MEASURED_EVENTS) * width,
+            this.flowMessageRepository.count());
+    }
+}
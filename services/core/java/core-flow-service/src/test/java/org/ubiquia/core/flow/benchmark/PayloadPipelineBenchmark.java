@@ -0,0 +1,200 @@
+package org.ubiquia.core.flow.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import net.jimblackler.jsonschemafriend.Schema;
+import net.jimblackler.jsonschemafriend.SchemaStore;
+import net.jimblackler.jsonschemafriend.Validator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.ubiquia.core.flow.model.payload.Payload;
+
+/**
+ * Micro benchmark comparing latency and allocated bytes per node hop for 1 KB, 100 KB and 5 MB
+ * payloads: the previous path (parse once for validation and once per stamp keychain,
+ * re-serialize HTTP response bodies) against the single-parse {@link Payload} path. Run with
+ * the "benchmark" Gradle task.
+ */
+@Tag("benchmark")
+public class PayloadPipelineBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(PayloadPipelineBenchmark.class);
+    private static final List<String> STAMP_KEYCHAINS = List.of("id", "owner.name", "owner.id");
+    private static final String SCHEMA = """
+        {
+          "type": "object",
+          "required": ["id", "owner", "items"],
+          "properties": {
+            "id": {"type": "string"},
+            "owner": {
+              "type": "object",
+              "properties": {"id": {"type": "integer"}, "name": {"type": "string"}}
+            },
+            "items": {
+              "type": "array",
+              "items": {
+                "type": "object",
+                "required": ["index", "label"],
+                "properties": {"index": {"type": "integer"}, "label": {"type": "string"}}
+              }
+            }
+          }
+        }
+        """;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Validator validator = new Validator();
+
+    private Schema schema;
+
+    /** Sets up test fixtures. */
+    @BeforeEach
+    public void setup() throws Exception {
+        this.schema = new SchemaStore(true).loadSchemaJson(SCHEMA);
+    }
+
+    /** Measures a hop of a payload arriving from an inbox. */
+    @ParameterizedTest
+    @ValueSource(ints = {1_024, 100 * 1_024, 5 * 1_024 * 1_024})
+    public void benchmarkInboxHop(final int sizeBytes) throws Exception {
+        var json = this.buildPayloadOfSize(sizeBytes);
+        var iterations = this.getIterationsFor(sizeBytes);
+
+        var legacy = this.measure(iterations, () -> {
+            this.validator.validateJson(this.schema, json);
+            for (var keychain : STAMP_KEYCHAINS) {
+                this.stamp(this.objectMapper.readTree(json), keychain);
+            }
+            return json;
+        });
+        var single = this.measure(iterations, () -> {
+            var payload = Payload.fromJson(this.objectMapper, json);
+            this.validator.validate(this.schema, payload.asDocument());
+            for (var keychain : STAMP_KEYCHAINS) {
+                this.stamp(payload.asTree(), keychain);
+            }
+            return payload.asJson();
+        });
+
+        this.report("inbox", sizeBytes, legacy, single);
+    }
+
+    /** Measures a hop of a payload returned by a component. */
+    @ParameterizedTest
+    @ValueSource(ints = {1_024, 100 * 1_024, 5 * 1_024 * 1_024})
+    public void benchmarkComponentResponseHop(final int sizeBytes) throws Exception {
+        var body = this.objectMapper.readValue(this.buildPayloadOfSize(sizeBytes), Object.class);
+        var iterations = this.getIterationsFor(sizeBytes);
+
+        var legacy = this.measure(iterations, () -> {
+            var json = this.objectMapper.writeValueAsString(body);
+            this.validator.validateJson(this.schema, json);
+            for (var keychain : STAMP_KEYCHAINS) {
+                this.stamp(this.objectMapper.readTree(json), keychain);
+            }
+            return json;
+        });
+        var single = this.measure(iterations, () -> {
+            var payload = Payload.fromValue(this.objectMapper, body);
+            this.validator.validate(this.schema, payload.asDocument());
+            for (var keychain : STAMP_KEYCHAINS) {
+                this.stamp(payload.asTree(), keychain);
+            }
+            return payload.asJson();
+        });
+
+        this.report("component response", sizeBytes, legacy, single);
+    }
+
+    private Result measure(final int iterations, final Hop hop) throws Exception {
+        for (var i = 0; i < Math.max(1, iterations / 5); i++) {
+            hop.run();
+        }
+
+        var threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        var threadId = Thread.currentThread().threadId();
+        var allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+        var start = System.nanoTime();
+        for (var i = 0; i < iterations; i++) {
+            Assertions.assertNotNull(hop.run());
+        }
+        var elapsed = System.nanoTime() - start;
+        var allocated = threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        return new Result(elapsed / iterations, allocated / iterations);
+    }
+
+    private void report(
+        final String hopName,
+        final int sizeBytes,
+        final Result legacy,
+        final Result single) {
+
+        logger.info("BENCHMARK {} hop, {} KB payload: legacy {} us / {} KB allocated; "
+                + "single-parse {} us / {} KB allocated",
+            hopName,
+            sizeBytes / 1_024,
+            legacy.nanosPerHop() / 1_000,
+            legacy.bytesPerHop() / 1_024,
+            single.nanosPerHop() / 1_000,
+            single.bytesPerHop() / 1_024);
+    }
+
+    private String stamp(final JsonNode payload, final String keychain) {
+        var node = payload;
+        for (var key : keychain.split("\\.")) {
+            node = node.get(key);
+        }
+        return node.asText();
+    }
+
+    private int getIterationsFor(final int sizeBytes) {
+        return Math.max(5, 2_000_000 / sizeBytes);
+    }
+
+    private String buildPayloadOfSize(final int sizeBytes) throws Exception {
+        var owner = new LinkedHashMap<String, Object>();
+        owner.put("id", 42);
+        owner.put("name", "benchmark");
+
+        var items = new ArrayList<Map<String, Object>>();
+        var payload = new LinkedHashMap<String, Object>();
+        payload.put("id", "payload-" + sizeBytes);
+        payload.put("owner", owner);
+        payload.put("items", items);
+
+        // Estimate how many more items are needed from the size so far, so that building a
+        // 5 MB payload only takes a few passes.
+        var json = this.objectMapper.writeValueAsString(payload);
+        while (json.length() < sizeBytes) {
+            var itemBytes = Math.max(1, json.length() / Math.max(1, items.size()));
+            var missing = Math.max(1, (sizeBytes - json.length()) / itemBytes);
+            for (var i = 0; i < missing; i++) {
+                var item = new LinkedHashMap<String, Object>();
+                item.put("index", items.size());
+                item.put("label", "item-label-" + items.size());
+                items.add(item);
+            }
+            json = this.objectMapper.writeValueAsString(payload);
+        }
+        return json;
+    }
+
+    @FunctionalInterface
+    private interface Hop {
+        String run() throws Exception;
+    }
+
+    private record Result(long nanosPerHop, long bytesPerHop) {
+    }
+}
@@ -0,0 +1,181 @@
+package org.ubiquia.core.flow.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.ubiquia.common.model.ubiquia.dto.GraphEdge;
+import org.ubiquia.common.model.ubiquia.embeddable.BrokerSettings;
+import org.ubiquia.common.model.ubiquia.embeddable.GraphDeployment;
+import org.ubiquia.common.model.ubiquia.entity.FlowMessageEntity;
+import org.ubiquia.common.model.ubiquia.enums.BrokerType;
+import org.ubiquia.common.model.ubiquia.enums.NodeType;
+import org.ubiquia.core.flow.TestHelper;
+import org.ubiquia.core.flow.controller.DomainOntologyController;
+import org.ubiquia.core.flow.controller.GraphController;
+import org.ubiquia.core.flow.dummy.factory.DummyFactory;
+import org.ubiquia.core.flow.repository.FlowEventRepository;
+import org.ubiquia.core.flow.repository.FlowMessageRepository;
+import org.ubiquia.core.flow.repository.NodeRepository;
+import org.ubiquia.core.flow.service.io.InboxDispatcher;
+
+/**
+ * Integration benchmark measuring publish node throughput (in messages per second, from
+ * deployment to the last message acknowledged by the broker and deleted from the inbox) against
+ * an embedded Kafka broker with producer lingers of 0, 5 and 20 milliseconds. The inbox is
+ * filled before the node is deployed. Run with the "benchmark" Gradle task.
+ */
+@SpringBootTest(properties = "ubiquia.inbox.push-dispatch.enabled=true")
+@Tag("benchmark")
+@EmbeddedKafka(
+    partitions = 1,
+    brokerProperties = {
+        "listeners=PLAINTEXT://localhost:9092",
+        "port=9092"
+    }
+)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class PublishNodeBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(PublishNodeBenchmark.class);
+    private static final int MESSAGES = 50_000;
+    private static final int SEED_BATCH_SIZE = 1_000;
+    private static final long TIMEOUT_MILLISECONDS = 300_000;
+    private static final String PAYLOAD = "{\"name\":\"benchmark\",\"age\":42}";
+
+    @Autowired
+    private DomainOntologyController domainOntologyController;
+
+    @Autowired
+    private DummyFactory dummyFactory;
+
+    @Autowired
+    private FlowEventRepository flowEventRepository;
+
+    @Autowired
+    private FlowMessageRepository flowMessageRepository;
+
+    @Autowired
+    private GraphController graphController;
+
+    @Autowired
+    private InboxDispatcher inboxDispatcher;
+
+    @Autowired
+    private NodeRepository nodeRepository;
+
+    @Autowired
+    private TestHelper testHelper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /** Sets up test fixtures. */
+    @BeforeEach
+    public void setup() {
+        this.testHelper.setupAgentState();
+    }
+
+    /** Measures publishing with the given producer linger. */
+    @ParameterizedTest
+    @ValueSource(ints = {0, 5, 20})
+    public void benchmarkPublish(final int lingerMilliseconds) throws Exception {
+
+        var domainOntology = this.dummyFactory.generateDomainOntology();
+        final var graph = domainOntology.getGraphs().get(0);
+
+        var ingressNode = this.dummyFactory.generateNode();
+        ingressNode.setNodeType(NodeType.PUSH);
+        ingressNode.getInputSubSchemas().add(this.dummyFactory.buildSubSchema("Person"));
+        ingressNode.setOutputSubSchema(this.dummyFactory.buildSubSchema("Dog"));
+        graph.getNodes().add(ingressNode);
+
+        var publishNode = this.dummyFactory.generateNode();
+        publishNode.setNodeType(NodeType.PUBLISH);
+        publishNode.setBrokerSettings(new BrokerSettings());
+        publishNode.getBrokerSettings().setType(BrokerType.KAFKA);
+        publishNode.getBrokerSettings().setTopic("benchmark.publish." + lingerMilliseconds);
+        publishNode.getBrokerSettings().setLingerMilliseconds(lingerMilliseconds);
+        publishNode.getInputSubSchemas().add(this.dummyFactory.buildSubSchema("Dog"));
+        graph.getNodes().add(publishNode);
+
+        var edge = new GraphEdge();
+        edge.setLeftNodeName(ingressNode.getName());
+        edge.setRightNodeNames(new ArrayList<>());
+        edge.getRightNodeNames().add(publishNode.getName());
+        graph.getEdges().add(edge);
+
+        // Register first, and deploy only once the inbox is full.
+        this.domainOntologyController.register(domainOntology);
+
+        var flowEventId = this.transactionTemplate.execute(status ->
+            this.testHelper.buildFlowEventFor(graph.getName(), ingressNode.getName()).getId());
+        var publishNodeId = this
+            .nodeRepository
+            .findByParentGraphNameAndName(graph.getName(), publishNode.getName())
+            .get()
+            .getId();
+        for (var seeded = 0; seeded < MESSAGES; seeded += SEED_BATCH_SIZE) {
+            this.transactionTemplate.executeWithoutResult(status ->
+                this.seedMessages(flowEventId, publishNodeId));
+        }
+        Assertions.assertEquals(
+            (long) MESSAGES,
+            this.flowMessageRepository.countByTargetNodeId(publishNodeId));
+
+        var deployment = new GraphDeployment();
+        deployment.setGraphName(graph.getName());
+        deployment.setDomainVersion(domainOntology.getVersion());
+        deployment.setDomainOntologyName(domainOntology.getName());
+
+        final var start = System.nanoTime();
+        this.graphController.tryDeployGraph(deployment);
+        // Wake the node rather than waiting out its recovery sweep's first (jittered) run.
+        this.inboxDispatcher.signal(publishNodeId);
+
+        var deadline = System.currentTimeMillis() + TIMEOUT_MILLISECONDS;
+        var remaining = (long) MESSAGES;
+        while (remaining > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            remaining = this.flowMessageRepository.countByTargetNodeId(publishNodeId);
+        }
+        var elapsedNanos = System.nanoTime() - start;
+
+        var published = MESSAGES - remaining;
+        var messagesPerSecond = published / (elapsedNanos / 1_000_000_000.0);
+        logger.info("BENCHMARK publish, linger of {} ms: {} messages/s "
+                + "({} messages in {} ms)",
+            lingerMilliseconds,
+            String.format("%.0f", messagesPerSecond),
+            published,
+            elapsedNanos / 1_000_000);
+
+        Assertions.assertEquals(0L, remaining);
+    }
+
+    private void seedMessages(final String flowEventId, final String publishNodeId) {
+        var flowEvent = this.flowEventRepository.getReferenceById(flowEventId);
+        var targetNode = this.nodeRepository.getReferenceById(publishNodeId);
+
+        var messages = new ArrayList<FlowMessageEntity>(SEED_BATCH_SIZE);
+        for (var i = 0; i < SEED_BATCH_SIZE; i++) {
+            var message = new FlowMessageEntity();
+            message.setFlowEvent(flowEvent);
+            message.setPayload(PAYLOAD);
+            message.setTags(new HashSet<>());
+            message.setTargetNode(targetNode);
+            messages.add(message);
+        }
+        this.flowMessageRepository.saveAll(messages);
+    }
+}
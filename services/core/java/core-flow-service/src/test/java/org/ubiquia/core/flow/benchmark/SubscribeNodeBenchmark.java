@@ -0,0 +1,104 @@
+package org.ubiquia.core.flow.benchmark;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.annotation.DirtiesContext;
+import org.ubiquia.core.flow.TestHelper;
+import org.ubiquia.core.flow.dummy.factory.DummyFactory;
+import org.ubiquia.core.flow.repository.FlowMessageRepository;
+
+/**
+ * Integration benchmark measuring subscribe node throughput (in records per second, from the
+ * first record sent to the last record persisted downstream) against an embedded Kafka broker
+ * for 1, 100 and 500 records per poll. Run with the "benchmark" Gradle task.
+ */
+@SpringBootTest(properties = "spring.kafka.consumer.auto-offset-reset=earliest")
+@Tag("benchmark")
+@EmbeddedKafka(
+    partitions = 1,
+    brokerProperties = {
+        "listeners=PLAINTEXT://localhost:9092",
+        "port=9092"
+    }
+)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class SubscribeNodeBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(SubscribeNodeBenchmark.class);
+    private static final int RECORDS = 5_000;
+    private static final long TIMEOUT_MILLISECONDS = 300_000;
+
+    @Autowired
+    private DummyFactory dummyFactory;
+
+    @Autowired
+    private FlowMessageRepository flowMessageRepository;
+
+    @Autowired
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Autowired
+    private TestHelper testHelper;
+
+    /** Sets up test fixtures. */
+    @BeforeEach
+    public void setup() {
+        this.testHelper.setupAgentState();
+    }
+
+    /** Measures consuming with the given records per poll. */
+    @ParameterizedTest
+    @ValueSource(ints = {1, 100, 500})
+    public void benchmarkConsume(final int maxPollRecords) throws Exception {
+
+        var domainOntology = this.dummyFactory.generateDomainOntology();
+        var graph = domainOntology.getGraphs().get(0);
+        var topic = "benchmark.subscribe." + maxPollRecords;
+
+        var subscribeNode = this
+            .dummyFactory
+            .addKafkaSubscribeNodeTo(graph, topic, maxPollRecords);
+        var queueNode = this.dummyFactory.addQueueNodeTo(graph, subscribeNode);
+
+        this.testHelper.registerAndDeploy(domainOntology, graph);
+
+        var queueNodeId = this
+            .testHelper
+            .findNode(queueNode.getName(), graph.getName())
+            .getNodeContext()
+            .getNodeId();
+
+        final var start = System.nanoTime();
+        for (var i = 0; i < RECORDS; i++) {
+            this.kafkaTemplate.send(topic, "test");
+        }
+        this.kafkaTemplate.flush();
+
+        var deadline = System.currentTimeMillis() + TIMEOUT_MILLISECONDS;
+        var persisted = 0L;
+        while (persisted < RECORDS && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            persisted = this.flowMessageRepository.countByTargetNodeId(queueNodeId);
+        }
+        var elapsedNanos = System.nanoTime() - start;
+
+        var recordsPerSecond = persisted / (elapsedNanos / 1_000_000_000.0);
+        logger.info("BENCHMARK subscribe, {} records per poll: {} records/s "
+                + "({} records in {} ms)",
+            maxPollRecords,
+            String.format("%.0f", recordsPerSecond),
+            persisted,
+            elapsedNanos / 1_000_000);
+
+        Assertions.assertEquals(RECORDS, persisted);
+    }
+}
@@ -14,11 +14,13 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
 import org.ubiquia.common.model.ubiquia.dto.GraphEdge;
+import org.ubiquia.common.model.ubiquia.enums.MergeTimeoutPolicy;
 import org.ubiquia.common.model.ubiquia.enums.NodeType;
 import org.ubiquia.core.flow.TestHelper;
 import org.ubiquia.core.flow.dummy.factory.DummyFactory;
 import org.ubiquia.core.flow.repository.FlowEventRepository;
 import org.ubiquia.core.flow.repository.FlowMessageRepository;
+import org.ubiquia.core.flow.service.io.MergeJoinBuffer;
 
 /** Test class for MergeNodeTest. */
 @SpringBootTest
@@ -37,6 +39,9 @@ public class MergeNodeTest {
     @Autowired
     private DummyFactory dummyFactory;
 
+    @Autowired
+    private MergeJoinBuffer mergeJoinBuffer;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -130,5 +135,87 @@ public class MergeNodeTest {
 
         Assertions.assertEquals(0, messagesCount);
         Assertions.assertEquals(4, eventCount);
+
+        var merge = this.testHelper.findNode(mergeNode.getName(), graph.getName());
+        Assertions.assertEquals(
+            0,
+            this.mergeJoinBuffer.getPendingJoinCountFor(merge.getNodeContext().getNodeId()));
+    }
+
+    @Test
+    public void assertMergesPartialJoinOnTimeout_isValid() throws Exception {
+        var domainOntology = this.dummyFactory.generateDomainOntology();
+        final var graph = domainOntology.getGraphs().get(0);
+
+        var ingressNode = this.dummyFactory.generateNode();
+        ingressNode.setNodeType(NodeType.PUSH);
+        ingressNode.setName("IngressNode");
+        ingressNode.getInputSubSchemas().add(this.dummyFactory.buildSubSchema("Person"));
+        ingressNode.setOutputSubSchema(this.dummyFactory.buildSubSchema("Dog"));
+        graph.getNodes().add(ingressNode);
+
+        var hiddenNodeA = this.dummyFactory.generateNode();
+        hiddenNodeA.setNodeType(NodeType.HIDDEN);
+        hiddenNodeA.setName("HiddenNodeA");
+        hiddenNodeA.getInputSubSchemas().add(this.dummyFactory.buildSubSchema("Dog"));
+        hiddenNodeA.setOutputSubSchema(this.dummyFactory.buildSubSchema("Cat"));
+        graph.getNodes().add(hiddenNodeA);
+
+        // Nothing ever reaches this node, so the merge can only resolve by timing out.
+        var silentNode = this.dummyFactory.generateNode();
+        silentNode.setNodeType(NodeType.HIDDEN);
+        silentNode.setName("SilentNode");
+        silentNode.getInputSubSchemas().add(this.dummyFactory.buildSubSchema("Dog"));
+        silentNode.setOutputSubSchema(this.dummyFactory.buildSubSchema("Poodle"));
+        graph.getNodes().add(silentNode);
+
+        var mergeNode = this.dummyFactory.generateNode();
+        mergeNode.setName("MergeNode");
+        mergeNode.setNodeType(NodeType.MERGE);
+        mergeNode.getInputSubSchemas().add(this.dummyFactory.buildSubSchema("Cat"));
+        mergeNode.getInputSubSchemas().add(this.dummyFactory.buildSubSchema("Poodle"));
+        mergeNode.setOutputSubSchema(this.dummyFactory.buildSubSchema("AdoptionTransaction"));
+        mergeNode.getNodeSettings().setMergeTimeoutMilliseconds(1000L);
+        mergeNode.getNodeSettings().setMergeTimeoutPolicy(MergeTimeoutPolicy.MERGE_PARTIAL);
+        graph.getNodes().add(mergeNode);
+
+        var edge = new GraphEdge();
+        edge.setLeftNodeName(ingressNode.getName());
+        edge.setRightNodeNames(new ArrayList<>());
+        edge.getRightNodeNames().add(hiddenNodeA.getName());
+        graph.getEdges().add(edge);
+
+        edge = new GraphEdge();
+        edge.setLeftNodeName(hiddenNodeA.getName());
+        edge.setRightNodeNames(new ArrayList<>());
+        edge.getRightNodeNames().add(mergeNode.getName());
+        graph.getEdges().add(edge);
+
+        edge = new GraphEdge();
+        edge.setLeftNodeName(silentNode.getName());
+        edge.setRightNodeNames(new ArrayList<>());
+        edge.getRightNodeNames().add(mergeNode.getName());
+        graph.getEdges().add(edge);
+
+        this.testHelper.registerAndDeploy(domainOntology, graph);
+
+        var pushNode = (PushNode) this
+            .testHelper
+            .findNode(ingressNode.getName(), graph.getName());
+
+        var inputPayloadMap = new HashMap<String, String>();
+        inputPayloadMap.put("testKeyA", UUID.randomUUID().toString());
+        pushNode.push(this.objectMapper.writeValueAsString(inputPayloadMap));
+
+        Thread.sleep(5000);
+
+        // The ingress, hidden and (partial) merge events; the held message was acknowledged.
+        Assertions.assertEquals(0, this.flowMessageRepository.count());
+        Assertions.assertEquals(3, this.flowEventRepository.count());
+
+        var merge = this.testHelper.findNode(mergeNode.getName(), graph.getName());
+        Assertions.assertEquals(
+            0,
+            this.mergeJoinBuffer.getPendingJoinCountFor(merge.getNodeContext().getNodeId()));
     }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package org.ubiquia.core.flow.component.node;
 
 import java.util.ArrayList;
+import java.util.Objects;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -17,6 +18,8 @@ import org.ubiquia.common.model.ubiquia.enums.BrokerType;
 import org.ubiquia.common.model.ubiquia.enums.NodeType;
 import org.ubiquia.core.flow.TestHelper;
 import org.ubiquia.core.flow.dummy.factory.DummyFactory;
+import org.ubiquia.core.flow.repository.FlowEventRepository;
+import org.ubiquia.core.flow.repository.FlowMessageRepository;
 
 
 /** Test class for PublishNodeTest. */
@@ -35,6 +38,12 @@ public class PublishNodeTest {
     @Autowired
     private DummyFactory dummyFactory;
 
+    @Autowired
+    private FlowEventRepository flowEventRepository;
+
+    @Autowired
+    private FlowMessageRepository flowMessageRepository;
+
     @Autowired
     private TestHelper testHelper;
 
@@ -88,4 +97,59 @@ public class PublishNodeTest {
         Thread.sleep(6000);
         Assertions.assertNotNull(this.mostRecentlyConsumedMessage);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void assertDeletesMessagesOnceAcknowledged_isValid() throws Exception {
+        var domainOntology = this.dummyFactory.generateDomainOntology();
+        final var graph = domainOntology.getGraphs().get(0);
+
+        var ingressNode = this.dummyFactory.generateNode();
+        ingressNode.setNodeType(NodeType.PUSH);
+        ingressNode.getInputSubSchemas().add(this.dummyFactory.buildSubSchema("Person"));
+        ingressNode.setOutputSubSchema(this.dummyFactory.buildSubSchema("Dog"));
+        graph.getNodes().add(ingressNode);
+
+        // Idempotence requires acks of "all," so this node must publish without it.
+        var publishNode = this.dummyFactory.generateNode();
+        publishNode.setNodeType(NodeType.PUBLISH);
+        publishNode.setBrokerSettings(new BrokerSettings());
+        publishNode.getBrokerSettings().setTopic("topic.test");
+        publishNode.getBrokerSettings().setType(BrokerType.KAFKA);
+        publishNode.getBrokerSettings().setLingerMilliseconds(20);
+        publishNode.getBrokerSettings().setCompressionType("gzip");
+        publishNode.getBrokerSettings().setAcks("1");
+        publishNode.getBrokerSettings().setIdempotence(true);
+        publishNode.getInputSubSchemas().add(this.dummyFactory.buildSubSchema("Dog"));
+        graph.getNodes().add(publishNode);
+
+        var edge = new GraphEdge();
+        edge.setLeftNodeName(ingressNode.getName());
+        edge.setRightNodeNames(new ArrayList<>());
+        edge.getRightNodeNames().add(publishNode.getName());
+        graph.getEdges().add(edge);
+
+        this.testHelper.registerAndDeploy(domainOntology, graph);
+
+        var node = (PushNode) this
+            .testHelper
+            .findNode(ingressNode.getName(), graph.getName());
+        final var publishNodeId = this
+            .testHelper
+            .findNode(publishNode.getName(), graph.getName())
+            .getNodeContext()
+            .getNodeId();
+        for (var i = 0; i < 10; i++) {
+            node.push("test");
+        }
+
+        Thread.sleep(6000);
+        Assertions.assertNotNull(this.mostRecentlyConsumedMessage);
+        Assertions.assertEquals(0L, this.flowMessageRepository.countByTargetNodeId(publishNodeId));
+        Assertions.assertTrue(this
+            .flowEventRepository
+            .findAll()
+            .stream()
+            .anyMatch(event -> Objects.nonNull(
+                event.getFlowEventTimes().getPayloadEgressedTime())));
+    }
+}
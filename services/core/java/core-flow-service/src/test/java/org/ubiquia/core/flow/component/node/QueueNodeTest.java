@@ -2,6 +2,7 @@ package org.ubiquia.core.flow.component.node;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.ArrayList;
+import java.util.List;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -9,14 +10,23 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.ubiquia.common.model.ubiquia.dto.DomainOntology;
+import org.ubiquia.common.model.ubiquia.dto.Graph;
 import org.ubiquia.common.model.ubiquia.dto.GraphEdge;
 import org.ubiquia.common.model.ubiquia.enums.NodeType;
+import org.ubiquia.common.model.ubiquia.node.QueueNodeBatchEgress;
 import org.ubiquia.common.model.ubiquia.node.QueueNodeEgress;
+import org.ubiquia.common.model.ubiquia.node.QueueNodeMessage;
 import org.ubiquia.core.flow.TestHelper;
 import org.ubiquia.core.flow.dummy.factory.DummyFactory;
+import org.ubiquia.core.flow.repository.FlowEventRepository;
+import org.ubiquia.core.flow.service.command.node.QueueAdapterCommand;
+import org.ubiquia.core.flow.service.io.Inbox;
 
 
 /** Test class for QueueNodeTest. */
@@ -31,12 +41,21 @@ public class QueueNodeTest {
     @Autowired
     private DummyFactory dummyFactory;
 
+    @Autowired
+    private FlowEventRepository flowEventRepository;
+
+    @Autowired
+    private Inbox inbox;
+
     @Autowired
     private ObjectMapper objectMapper;
 
     @Autowired
     private TestHelper testHelper;
 
+    @Autowired
+    private QueueAdapterCommand queueAdapterCommand;
+
     /** Sets up test fixtures. */
     @BeforeEach
     public void setup() {
@@ -169,4 +188,157 @@ public class QueueNodeTest {
             0,
             popEventTwo.getQueuedRecords());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void assertPopBatch_isValid() throws Exception {
+
+        var domainOntology = this.dummyFactory.generateDomainOntology();
+        final var graph = domainOntology.getGraphs().get(0);
+        var nodes = this.deployQueueGraph(domainOntology, graph);
+
+        for (var i = 0; i < 3; i++) {
+            nodes.ingressNode().push("test");
+        }
+
+        Thread.sleep(5000);
+
+        var popped = this.getResultOf(nodes.queueNode().popBatch(2, 0L));
+        Assertions.assertEquals(2, popped.getFlowEvents().size());
+        Assertions.assertEquals(1, popped.getQueuedRecords());
+
+        popped = this.getResultOf(nodes.queueNode().popBatch(2, 0L));
+        Assertions.assertEquals(1, popped.getFlowEvents().size());
+        Assertions.assertEquals(0, popped.getQueuedRecords());
+    }
+
+    @Test
+    public void assertLongPollPopBatch_isValid() throws Exception {
+
+        var domainOntology = this.dummyFactory.generateDomainOntology();
+        final var graph = domainOntology.getGraphs().get(0);
+        var nodes = this.deployQueueGraph(domainOntology, graph);
+
+        var deferred = nodes.queueNode().popBatch(10, 10000L);
+        Assertions.assertFalse(deferred.hasResult());
+
+        var event = nodes.ingressNode().push("test").getBody();
+
+        for (var i = 0; i < 50 && !deferred.hasResult(); i++) {
+            Thread.sleep(200);
+        }
+
+        var popped = this.getResultOf(deferred);
+        Assertions.assertEquals(1, popped.getFlowEvents().size());
+        Assertions.assertEquals(
+            event.getFlow().getId(),
+            popped.getFlowEvents().get(0).getFlow().getId());
+    }
+
+    @Test
+    public void assertAcknowledgeClaimedMessages_isValid() throws Exception {
+
+        var domainOntology = this.dummyFactory.generateDomainOntology();
+        final var graph = domainOntology.getGraphs().get(0);
+        var nodes = this.deployQueueGraph(domainOntology, graph);
+
+        nodes.ingressNode().push("test");
+        nodes.ingressNode().push("test");
+
+        Thread.sleep(5000);
+
+        var claimed = this.queueAdapterCommand.claimMessagesFor(nodes.queueNode(), 10);
+        Assertions.assertEquals(2, claimed.size());
+
+        var popped = this.getResultOf(nodes.queueNode().popBatch(10, 0L));
+        Assertions.assertTrue(popped.getFlowEvents().isEmpty());
+        Assertions.assertEquals(2, popped.getQueuedRecords());
+
+        var acknowledged = nodes.queueNode().acknowledge(claimed
+            .stream()
+            .map(QueueNodeMessage::getMessageId)
+            .toList());
+        Assertions.assertEquals(2, acknowledged.getBody());
+
+        popped = this.getResultOf(nodes.queueNode().popBatch(10, 0L));
+        Assertions.assertEquals(0, popped.getQueuedRecords());
+    }
+
+    @Test
+    public void assertRedeliveredMessagesRecordOneEvent_isValid() throws Exception {
+
+        var domainOntology = this.dummyFactory.generateDomainOntology();
+        final var graph = domainOntology.getGraphs().get(0);
+        var nodes = this.deployQueueGraph(domainOntology, graph);
+
+        nodes.ingressNode().push("test");
+
+        Thread.sleep(5000);
+
+        var claimed = this.queueAdapterCommand.claimMessagesFor(nodes.queueNode(), 10);
+        Assertions.assertEquals(1, claimed.size());
+        var messageId = claimed.get(0).getMessageId();
+        var eventId = claimed.get(0).getFlowEvent().getId();
+        Assertions.assertFalse(this.flowEventRepository.existsById(eventId));
+
+        // A lease that lapses before the acknowledgement gets the message streamed again.
+        this.inbox.releaseLeasesFor(List.of(messageId));
+        var redelivered = this.queueAdapterCommand.claimMessagesFor(nodes.queueNode(), 10);
+        Assertions.assertEquals(1, redelivered.size());
+        Assertions.assertEquals(messageId, redelivered.get(0).getMessageId());
+        Assertions.assertEquals(eventId, redelivered.get(0).getFlowEvent().getId());
+        Assertions.assertFalse(this.flowEventRepository.existsById(eventId));
+
+        Assertions.assertEquals(1, nodes.queueNode().acknowledge(List.of(messageId)).getBody());
+        Assertions.assertEquals(0, nodes.queueNode().acknowledge(List.of(messageId)).getBody());
+        Assertions.assertTrue(this.flowEventRepository.existsById(eventId));
+        Assertions.assertEquals(1, this
+            .flowEventRepository
+            .findAll()
+            .stream()
+            .filter(event -> event
+                .getNode()
+                .getId()
+                .equals(nodes.queueNode().getNodeContext().getNodeId()))
+            .count());
+    }
+
+    /** Deploy a push node whose payloads are queued by a queue node. */
+    private QueueGraph deployQueueGraph(
+        final DomainOntology domainOntology,
+        final Graph graph)
+        throws Exception {
+
+        var ingressNode = this.dummyFactory.generateNode();
+        ingressNode.setNodeType(NodeType.PUSH);
+        ingressNode.getInputSubSchemas().add(this.dummyFactory.buildSubSchema("Person"));
+        ingressNode.setOutputSubSchema(this.dummyFactory.buildSubSchema("Dog"));
+        graph.getNodes().add(ingressNode);
+
+        var queueNode = this.dummyFactory.generateNode();
+        queueNode.setNodeType(NodeType.QUEUE);
+        queueNode.getInputSubSchemas().add(this.dummyFactory.buildSubSchema("Dog"));
+        graph.getNodes().add(queueNode);
+
+        var edge = new GraphEdge();
+        edge.setLeftNodeName(ingressNode.getName());
+        edge.setRightNodeNames(new ArrayList<>());
+        edge.getRightNodeNames().add(queueNode.getName());
+        graph.getEdges().add(edge);
+
+        this.testHelper.registerAndDeploy(domainOntology, graph);
+
+        return new QueueGraph(
+            (PushNode) this.testHelper.findNode(ingressNode.getName(), graph.getName()),
+            (QueueNode) this.testHelper.findNode(queueNode.getName(), graph.getName()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private QueueNodeBatchEgress getResultOf(
+        final DeferredResult<ResponseEntity<QueueNodeBatchEgress>> deferred) {
+        Assertions.assertTrue(deferred.hasResult());
+        return ((ResponseEntity<QueueNodeBatchEgress>) deferred.getResult()).getBody();
+    }
+
+    private record QueueGraph(PushNode ingressNode, QueueNode queueNode) {
+    }
+}
@@ -1,14 +1,27 @@
 package org.ubiquia.core.flow.component.node;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import okhttp3.mockwebserver.MockWebServer;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
 import org.springframework.kafka.test.context.EmbeddedKafka;
 import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
 import org.ubiquia.common.model.ubiquia.embeddable.BrokerSettings;
 import org.ubiquia.common.model.ubiquia.enums.BrokerType;
 import org.ubiquia.common.model.ubiquia.enums.ComponentType;
@@ -17,9 +30,14 @@ import org.ubiquia.core.flow.TestHelper;
 import org.ubiquia.core.flow.controller.DomainOntologyController;
 import org.ubiquia.core.flow.controller.GraphController;
 import org.ubiquia.core.flow.dummy.factory.DummyFactory;
+import org.ubiquia.core.flow.repository.FlowMessageRepository;
+import org.ubiquia.core.flow.service.orchestrator.NodePayloadOrchestrator;
 
 /** Test class for SubscribeNodeTest. */
-@SpringBootTest
+@SpringBootTest(properties = {
+    "spring.kafka.consumer.auto-offset-reset=earliest",
+    "ubiquia.broker.kafka.subscription.retry-backoff-milliseconds=100"
+})
 @AutoConfigureMockMvc
 @EmbeddedKafka(
     partitions = 1,
@@ -36,6 +54,15 @@ public class SubscribeNodeTest {
     @Autowired
     private DummyFactory dummyFactory;
 
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafkaBroker;
+
+    @Autowired
+    private FlowMessageRepository flowMessageRepository;
+
+    @MockitoSpyBean
+    private NodePayloadOrchestrator nodePayloadOrchestrator;
+
     @Autowired
     private TestHelper testHelper;
 
@@ -81,4 +108,133 @@ public class SubscribeNodeTest {
 
         mockWebServer.shutdown();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void assertCommitsBatchOffsetsOncePersisted_isValid() throws Exception {
+        var domainOntology = this.dummyFactory.generateDomainOntology();
+        var graph = domainOntology.getGraphs().get(0);
+
+        var subscribeNode = this
+            .dummyFactory
+            .addKafkaSubscribeNodeTo(graph, "topic.batch", 4);
+        var queueNode = this.dummyFactory.addQueueNodeTo(graph, subscribeNode);
+
+        this.testHelper.registerAndDeploy(domainOntology, graph);
+
+        var queueNodeId = this
+            .testHelper
+            .findNode(queueNode.getName(), graph.getName())
+            .getNodeContext()
+            .getNodeId();
+
+        for (var i = 0; i < 10; i++) {
+            this.kafkaTemplate.send("topic.batch", "test");
+        }
+        this.kafkaTemplate.flush();
+
+        var queued = 0L;
+        for (var i = 0; i < 50 && queued < 10; i++) {
+            Thread.sleep(200);
+            queued = this.flowMessageRepository.countByTargetNodeId(queueNodeId);
+        }
+        Assertions.assertEquals(10, this.flowMessageRepository.countByTargetNodeId(queueNodeId));
+
+        var groupId = "ubiquia-"
+            + graph.getName().toLowerCase()
+            + "-"
+            + subscribeNode.getName().toLowerCase();
+        var committed = 0L;
+        for (var i = 0; i < 25 && committed < 10; i++) {
+            Thread.sleep(200);
+            committed = this.getCommittedOffsetFor(groupId, "topic.batch");
+        }
+        Assertions.assertEquals(10L, committed);
+    }
+
+    @Test
+    public void assertRedeliversBatchesThatFailToPersist_isValid() throws Exception {
+        var domainOntology = this.dummyFactory.generateDomainOntology();
+        var graph = domainOntology.getGraphs().get(0);
+
+        var subscribeNode = this
+            .dummyFactory
+            .addKafkaSubscribeNodeTo(graph, "topic.failing", 4);
+        var queueNode = this.dummyFactory.addQueueNodeTo(graph, subscribeNode);
+
+        // Fail every batch's passthrough transaction until the "database" comes back.
+        var failing = new AtomicBoolean(true);
+        var failedAttempts = new AtomicInteger(0);
+        doAnswer(invocation -> {
+            if (failing.get()) {
+                failedAttempts.incrementAndGet();
+                throw new IllegalStateException("Database unavailable");
+            }
+            return invocation.callRealMethod();
+        }).when(this.nodePayloadOrchestrator).forwardPayload(any(), any(), any());
+
+        this.testHelper.registerAndDeploy(domainOntology, graph);
+
+        final var queueNodeId = this
+            .testHelper
+            .findNode(queueNode.getName(), graph.getName())
+            .getNodeContext()
+            .getNodeId();
+        final var groupId = "ubiquia-"
+            + graph.getName().toLowerCase()
+            + "-"
+            + subscribeNode.getName().toLowerCase();
+
+        for (var i = 0; i < 4; i++) {
+            this.kafkaTemplate.send("topic.failing", "test");
+        }
+        this.kafkaTemplate.flush();
+
+        // More attempts than the default error handler's ten, so a batch it gave up on (and
+        // committed) would show up below.
+        for (var i = 0; i < 100 && failedAttempts.get() < 15; i++) {
+            Thread.sleep(100);
+        }
+        Assertions.assertTrue(failedAttempts.get() >= 15);
+        Assertions.assertEquals(0L, this.flowMessageRepository.countByTargetNodeId(queueNodeId));
+        Assertions.assertEquals(0L, this.getCommittedOffsetFor(groupId, "topic.failing"));
+
+        failing.set(false);
+
+        var queued = 0L;
+        for (var i = 0; i < 50 && queued < 4; i++) {
+            Thread.sleep(200);
+            queued = this.flowMessageRepository.countByTargetNodeId(queueNodeId);
+        }
+        Assertions.assertEquals(4L, queued);
+
+        var committed = 0L;
+        for (var i = 0; i < 25 && committed < 4; i++) {
+            Thread.sleep(200);
+            committed = this.getCommittedOffsetFor(groupId, "topic.failing");
+        }
+        Assertions.assertEquals(4L, committed);
+    }
+
+    /**
+     * Get a consumer group's committed offset for a single-partition topic.
+     *
+     * @param groupId The consumer group.
+     * @param topic   The topic.
+     * @return The committed offset, or zero if the group has not committed one.
+     */
+    private Long getCommittedOffsetFor(final String groupId, final String topic)
+        throws Exception {
+
+        try (var adminClient = AdminClient.create(Map.of(
+            AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG,
+            this.embeddedKafkaBroker.getBrokersAsString()))) {
+
+            var offset = adminClient
+                .listConsumerGroupOffsets(groupId)
+                .partitionsToOffsetAndMetadata()
+                .get()
+                .get(new TopicPartition(topic, 0));
+            return Objects.isNull(offset) ? 0L : offset.offset();
+        }
+    }
+}
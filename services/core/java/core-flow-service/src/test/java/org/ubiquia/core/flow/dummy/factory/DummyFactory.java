@@ -11,10 +11,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.ubiquia.common.model.ubiquia.dto.*;
+import org.ubiquia.common.model.ubiquia.embeddable.BrokerSettings;
 import org.ubiquia.common.model.ubiquia.embeddable.NodeSettings;
 import org.ubiquia.common.model.ubiquia.embeddable.SemanticVersion;
 import org.ubiquia.common.model.ubiquia.embeddable.SubSchema;
+import org.ubiquia.common.model.ubiquia.enums.BrokerType;
 import org.ubiquia.common.model.ubiquia.enums.ComponentType;
+import org.ubiquia.common.model.ubiquia.enums.NodeType;
 
 
 /** Test class for DummyFactory. */
@@ -150,6 +153,53 @@ public class DummyFactory {
         return graph;
     }
 
+    /**
+     * Add a subscribe node consuming a Kafka topic to a graph.
+     *
+     * @param graph          The graph to add the node to.
+     * @param topic          The topic to subscribe to.
+     * @param maxPollRecords The most records per poll, or null for the default.
+     * @return The subscribe node.
+     */
+    public Node addKafkaSubscribeNodeTo(
+        final Graph graph,
+        final String topic,
+        final Integer maxPollRecords) {
+
+        var subscribeNode = this.generateNode();
+        subscribeNode.setNodeType(NodeType.SUBSCRIBE);
+        subscribeNode.setBrokerSettings(new BrokerSettings());
+        subscribeNode.getBrokerSettings().setType(BrokerType.KAFKA);
+        subscribeNode.getBrokerSettings().setTopic(topic);
+        subscribeNode.getBrokerSettings().setMaxPollRecords(maxPollRecords);
+        subscribeNode.getInputSubSchemas().add(this.buildSubSchema("Person"));
+        subscribeNode.setOutputSubSchema(this.buildSubSchema("Dog"));
+        graph.getNodes().add(subscribeNode);
+        return subscribeNode;
+    }
+
+    /**
+     * Add a queue node downstream of another node to a graph. Queue nodes do not drain their
+     * inbox, so every message sent to one stays countable.
+     *
+     * @param graph    The graph to add the node to.
+     * @param leftNode The node the queue node receives from.
+     * @return The queue node.
+     */
+    public Node addQueueNodeTo(final Graph graph, final Node leftNode) {
+        var queueNode = this.generateNode();
+        queueNode.setNodeType(NodeType.QUEUE);
+        queueNode.getInputSubSchemas().add(this.buildSubSchema("Dog"));
+        graph.getNodes().add(queueNode);
+
+        var edge = new GraphEdge();
+        edge.setLeftNodeName(leftNode.getName());
+        edge.setRightNodeNames(new ArrayList<>());
+        edge.getRightNodeNames().add(queueNode.getName());
+        graph.getEdges().add(edge);
+        return queueNode;
+    }
+
     /**
      * Generate a semantic version for testing.
      *
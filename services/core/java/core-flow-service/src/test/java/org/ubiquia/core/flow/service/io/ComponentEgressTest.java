@@ -0,0 +1,180 @@
+package org.ubiquia.core.flow.service.io;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpMethod;
+import org.springframework.test.annotation.DirtiesContext;
+import org.ubiquia.common.model.ubiquia.embeddable.EgressSettings;
+import org.ubiquia.common.model.ubiquia.embeddable.FlowEventTimes;
+import org.ubiquia.common.model.ubiquia.entity.FlowEventEntity;
+import org.ubiquia.common.model.ubiquia.enums.EgressType;
+import org.ubiquia.common.model.ubiquia.enums.NodeType;
+import org.ubiquia.core.flow.component.node.HiddenNode;
+import org.ubiquia.core.flow.model.node.NodeContext;
+
+
+/** Test class for ComponentEgressTest. */
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class ComponentEgressTest {
+
+    @Autowired
+    private ComponentEgress componentEgress;
+
+    private MockWebServer server;
+
+    private final AtomicInteger requests = new AtomicInteger(0);
+
+    private final AtomicInteger active = new AtomicInteger(0);
+
+    private final AtomicInteger maxActive = new AtomicInteger(0);
+
+    private final AtomicInteger failuresToReturn = new AtomicInteger(0);
+
+    private final AtomicInteger failureStatus = new AtomicInteger(503);
+
+    /** Sets up test fixtures. */
+    @BeforeEach
+    public void setup() throws IOException {
+        this.server = new MockWebServer();
+        this.server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(final RecordedRequest request) {
+                return ComponentEgressTest.this.handle();
+            }
+        });
+        this.server.start();
+    }
+
+    /** Tears down test fixtures. */
+    @AfterEach
+    public void teardown() throws IOException {
+        this.server.shutdown();
+    }
+
+    @Test
+    public void assertInFlightRequestsAreBoundedByEgressConcurrency_isValid() throws Exception {
+        var node = this.buildNode(2, 0);
+
+        for (var i = 0; i < 10; i++) {
+            this.componentEgress.sendAsynchronously(
+                this.buildEvent(),
+                node,
+                HttpMethod.POST,
+                "{}");
+        }
+
+        Assertions.assertTrue(this.awaitDrained(node, 10));
+        Assertions.assertEquals(10, this.requests.get());
+        Assertions.assertTrue(this.maxActive.get() <= 2);
+        Assertions.assertEquals(0, node.getNodeContext().getOpenMessages());
+    }
+
+    @Test
+    public void assertTransientFailuresAreRetried_isValid() throws Exception {
+        var node = this.buildNode(1, 2);
+        this.failuresToReturn.set(2);
+
+        this.componentEgress.sendAsynchronously(this.buildEvent(), node, HttpMethod.POST, "{}");
+
+        Assertions.assertTrue(this.awaitDrained(node, 3));
+        Assertions.assertEquals(3, this.requests.get());
+        Assertions.assertEquals(0, node.getNodeContext().getOpenMessages());
+    }
+
+    @Test
+    public void assertAmbiguousFailuresAreNotRetriedByDefault_isValid() throws Exception {
+        var node = this.buildNode(1, 2);
+        this.failureStatus.set(502);
+        this.failuresToReturn.set(2);
+
+        this.componentEgress.sendAsynchronously(this.buildEvent(), node, HttpMethod.POST, "{}");
+
+        Assertions.assertTrue(this.awaitDrained(node, 1));
+        Thread.sleep(1000);
+        Assertions.assertEquals(1, this.requests.get());
+    }
+
+    @Test
+    public void assertAmbiguousFailuresAreRetriedWhenEnabled_isValid() throws Exception {
+        var node = this.buildNode(1, 2);
+        node.getNodeContext().getEgressSettings().setRetryAmbiguousFailures(true);
+        this.failureStatus.set(502);
+        this.failuresToReturn.set(2);
+
+        this.componentEgress.sendAsynchronously(this.buildEvent(), node, HttpMethod.POST, "{}");
+
+        Assertions.assertTrue(this.awaitDrained(node, 3));
+        Assertions.assertEquals(3, this.requests.get());
+    }
+
+    private MockResponse handle() {
+        this.requests.incrementAndGet();
+        this.maxActive.accumulateAndGet(this.active.incrementAndGet(), Math::max);
+        try {
+            Thread.sleep(50);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.active.decrementAndGet();
+
+        var status = this.failuresToReturn.getAndUpdate(x -> Math.max(0, x - 1)) > 0
+            ? this.failureStatus.get()
+            : 200;
+        return new MockResponse()
+            .setResponseCode(status)
+            .setHeader("Content-Type", "application/json")
+            .setBody("{}");
+    }
+
+    private Boolean awaitDrained(final HiddenNode node, final Integer expectedRequests)
+        throws InterruptedException {
+
+        var deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            if (this.requests.get() >= expectedRequests
+                && node.getNodeContext().getOpenMessages() == 0) {
+                return true;
+            }
+            Thread.sleep(10);
+        }
+        return false;
+    }
+
+    private HiddenNode buildNode(final Integer egressConcurrency, final Integer maxRetries) {
+        var egressSettings = new EgressSettings();
+        egressSettings.setEgressType(EgressType.ASYNCHRONOUS);
+        egressSettings.setEgressConcurrency(egressConcurrency);
+        egressSettings.setMaxRetries(maxRetries);
+        egressSettings.setTimeoutMilliseconds(5000L);
+
+        var nodeContext = new NodeContext();
+        nodeContext.setNodeId(UUID.randomUUID().toString());
+        nodeContext.setNodeName("test-node");
+        nodeContext.setNodeType(NodeType.HIDDEN);
+        nodeContext.setEgressSettings(egressSettings);
+        nodeContext.setEndpointUri(this.server.url("/component").uri());
+
+        var node = new HiddenNode();
+        node.setNodeContext(nodeContext);
+        return node;
+    }
+
+    private FlowEventEntity buildEvent() {
+        var event = new FlowEventEntity();
+        event.setId(UUID.randomUUID().toString());
+        event.setFlowEventTimes(new FlowEventTimes());
+        return event;
+    }
+}
@@ -0,0 +1,156 @@
+package org.ubiquia.core.flow.service.io;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.ubiquia.common.model.ubiquia.enums.NodeType;
+import org.ubiquia.core.flow.component.node.HiddenNode;
+import org.ubiquia.core.flow.model.node.NodeContext;
+
+
+/** Test class for InboxDispatcherTest. */
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class InboxDispatcherTest {
+
+    @Autowired
+    private InboxDispatcher inboxDispatcher;
+
+    @Test
+    public void assertSignaledNodePollsInbox_isValid() throws Exception {
+        var latch = new CountDownLatch(1);
+        var node = this.buildNode(latch, new AtomicInteger(0));
+        this.inboxDispatcher.register(node);
+
+        this.inboxDispatcher.signalAfterCommit(List.of(node.getNodeContext().getNodeId()));
+
+        Assertions.assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void assertDeregisteredNodeIsNotSignaled_isValid() throws Exception {
+        var latch = new CountDownLatch(1);
+        var node = this.buildNode(latch, new AtomicInteger(0));
+        this.inboxDispatcher.register(node);
+        this.inboxDispatcher.deregister(node);
+
+        this.inboxDispatcher.signal(node.getNodeContext().getNodeId());
+
+        Assertions.assertFalse(latch.await(500, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void assertNodeNeverPollsConcurrently_isValid() throws Exception {
+        var latch = new CountDownLatch(1);
+        var concurrentPolls = new AtomicInteger(0);
+        var node = this.buildNode(latch, concurrentPolls);
+        this.inboxDispatcher.register(node);
+
+        for (var i = 0; i < 50; i++) {
+            this.inboxDispatcher.signal(node.getNodeContext().getNodeId());
+        }
+
+        Assertions.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        Thread.sleep(500);
+        Assertions.assertEquals(0, concurrentPolls.get());
+    }
+
+    @Test
+    public void assertSignalsWhilePollingAreCoalesced_isValid() throws Exception {
+        var polling = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var polls = new AtomicInteger(0);
+        var node = new HiddenNode() {
+            @Override
+            public Boolean tryPollInbox() {
+                if (polls.incrementAndGet() == 1) {
+                    polling.countDown();
+                    await(release);
+                }
+                return false;
+            }
+        };
+        this.setNodeContextOf(node);
+        this.inboxDispatcher.register(node);
+
+        this.inboxDispatcher.signal(node.getNodeContext().getNodeId());
+        Assertions.assertTrue(polling.await(5, TimeUnit.SECONDS));
+        for (var i = 0; i < 50; i++) {
+            this.inboxDispatcher.signal(node.getNodeContext().getNodeId());
+        }
+        release.countDown();
+
+        // The first poll answers the first signal; one more answers all fifty raised during it.
+        Thread.sleep(500);
+        Assertions.assertEquals(2, polls.get());
+    }
+
+    @Test
+    public void assertPollsAgainAfterFullPage_isValid() throws Exception {
+        var latch = new CountDownLatch(3);
+        var polls = new AtomicInteger(0);
+        var node = new HiddenNode() {
+            @Override
+            public Boolean tryPollInbox() {
+                latch.countDown();
+                return polls.incrementAndGet() < 3;
+            }
+        };
+        this.setNodeContextOf(node);
+        this.inboxDispatcher.register(node);
+
+        this.inboxDispatcher.signal(node.getNodeContext().getNodeId());
+
+        Assertions.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        Thread.sleep(500);
+        Assertions.assertEquals(3, polls.get());
+    }
+
+    private HiddenNode buildNode(
+        final CountDownLatch latch,
+        final AtomicInteger concurrentPolls) {
+
+        var active = new AtomicInteger(0);
+        var node = new HiddenNode() {
+            @Override
+            public Boolean tryPollInbox() {
+                if (active.incrementAndGet() > 1) {
+                    concurrentPolls.incrementAndGet();
+                }
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                active.decrementAndGet();
+                latch.countDown();
+                return false;
+            }
+        };
+        this.setNodeContextOf(node);
+        return node;
+    }
+
+    private void setNodeContextOf(final HiddenNode node) {
+        var nodeContext = new NodeContext();
+        nodeContext.setNodeId(UUID.randomUUID().toString());
+        nodeContext.setNodeName("test-node");
+        nodeContext.setNodeType(NodeType.HIDDEN);
+        node.setNodeContext(nodeContext);
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package org.ubiquia.core.flow.service.io;
+
+import java.util.ArrayList;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.ubiquia.common.model.ubiquia.dto.FlowMessage;
+import org.ubiquia.common.model.ubiquia.dto.GraphEdge;
+import org.ubiquia.common.model.ubiquia.embeddable.EgressSettings;
+import org.ubiquia.common.model.ubiquia.enums.NodeType;
+import org.ubiquia.core.flow.TestHelper;
+import org.ubiquia.core.flow.component.node.HiddenNode;
+import org.ubiquia.core.flow.component.node.QueueNode;
+import org.ubiquia.core.flow.controller.DomainOntologyController;
+import org.ubiquia.core.flow.dummy.factory.DummyFactory;
+import org.ubiquia.core.flow.model.node.NodeContext;
+import org.ubiquia.core.flow.repository.NodeRepository;
+
+/** Test class for InboxTest. */
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class InboxTest {
+
+    @Autowired
+    private DomainOntologyController domainOntologyController;
+
+    @Autowired
+    private DummyFactory dummyFactory;
+
+    @Autowired
+    private Inbox inbox;
+
+    @Autowired
+    private NodeRepository nodeRepository;
+
+    @Autowired
+    private Outbox outbox;
+
+    @Autowired
+    private TestHelper testHelper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /** Sets up test fixtures. */
+    @BeforeEach
+    public void setup() {
+        this.testHelper.setupAgentState();
+    }
+
+    @Test
+    public void assertClaimedMessagesAreNotClaimedAgain_isValid() throws Exception {
+        var node = this.queueMessagesForHiddenNode(3);
+
+        var first = this.inbox.tryQueryInboxMessagesFor(node);
+        var second = this.inbox.tryQueryInboxMessagesFor(node);
+        var third = this.inbox.tryQueryInboxMessagesFor(node);
+
+        Assertions.assertEquals(2, first.size());
+        Assertions.assertEquals(1, second.size());
+        Assertions.assertTrue(third.isEmpty());
+
+        var firstIds = first.stream().map(FlowMessage::getId).toList();
+        Assertions.assertFalse(firstIds.contains(second.get(0).getId()));
+    }
+
+    @Test
+    public void assertReleasedMessagesCanBeClaimedAgain_isValid() throws Exception {
+        var node = this.queueMessagesForHiddenNode(2);
+
+        var claimed = this.inbox.tryQueryInboxMessagesFor(node);
+        Assertions.assertEquals(2, claimed.size());
+        Assertions.assertTrue(this.inbox.tryQueryInboxMessagesFor(node).isEmpty());
+
+        this.inbox.releaseLeasesFor(node);
+
+        var reclaimed = this.inbox.tryQueryInboxMessagesFor(node);
+        Assertions.assertEquals(2, reclaimed.size());
+    }
+
+    @Test
+    public void assertPeekSeesLeasedHead_isValid() throws Exception {
+        var node = new QueueNode();
+        node.setNodeContext(this.queueMessagesFor(NodeType.QUEUE, 2));
+
+        var peeked = this.inbox.tryQueryInboxMessagesFor(node);
+        var claimed = this.inbox.tryClaimInboxMessageFor(node);
+
+        // The peek neither claims the head nor loses sight of it once it is claimed.
+        Assertions.assertEquals(peeked.getId(), claimed.getId());
+        Assertions.assertEquals(claimed.getId(), this.inbox.tryQueryInboxMessagesFor(node).getId());
+    }
+
+    private HiddenNode queueMessagesForHiddenNode(final int count) throws Exception {
+        var node = new HiddenNode();
+        node.setNodeContext(this.queueMessagesFor(NodeType.HIDDEN, count));
+        return node;
+    }
+
+    private NodeContext queueMessagesFor(final NodeType nodeType, final int count)
+        throws Exception {
+        var domainOntology = this.dummyFactory.generateDomainOntology();
+        final var graph = domainOntology.getGraphs().get(0);
+
+        var ingressNode = this.dummyFactory.generateNode();
+        ingressNode.setNodeType(NodeType.PUSH);
+        ingressNode.getInputSubSchemas().add(this.dummyFactory.buildSubSchema("Person"));
+        ingressNode.setOutputSubSchema(this.dummyFactory.buildSubSchema("Dog"));
+        graph.getNodes().add(ingressNode);
+
+        var targetNode = this.dummyFactory.generateNode();
+        targetNode.setNodeType(nodeType);
+        targetNode.getInputSubSchemas().add(this.dummyFactory.buildSubSchema("Dog"));
+        graph.getNodes().add(targetNode);
+
+        var edge = new GraphEdge();
+        edge.setLeftNodeName(ingressNode.getName());
+        edge.setRightNodeNames(new ArrayList<>());
+        edge.getRightNodeNames().add(targetNode.getName());
+        graph.getEdges().add(edge);
+
+        this.domainOntologyController.register(domainOntology);
+
+        var flowEvent = this.transactionTemplate.execute(status ->
+            this.testHelper.buildFlowEventFor(graph.getName(), ingressNode.getName()));
+        for (var i = 0; i < count; i++) {
+            this.outbox.tryQueueMessage(flowEvent, "{\"name\":\"test\"}");
+        }
+
+        var targetEntity = this
+            .nodeRepository
+            .findByParentGraphNameAndName(graph.getName(), targetNode.getName())
+            .get();
+
+        var egressSettings = new EgressSettings();
+        egressSettings.setEgressConcurrency(2);
+
+        var nodeContext = new NodeContext();
+        nodeContext.setNodeId(targetEntity.getId());
+        nodeContext.setNodeName(targetEntity.getName());
+        nodeContext.setNodeType(nodeType);
+        nodeContext.setEgressSettings(egressSettings);
+        return nodeContext;
+    }
+}
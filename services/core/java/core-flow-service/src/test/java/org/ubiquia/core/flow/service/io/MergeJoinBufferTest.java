@@ -0,0 +1,161 @@
+package org.ubiquia.core.flow.service.io;
+
+import java.time.OffsetDateTime;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.ubiquia.common.model.ubiquia.dto.Flow;
+import org.ubiquia.common.model.ubiquia.dto.FlowEvent;
+import org.ubiquia.common.model.ubiquia.dto.FlowMessage;
+import org.ubiquia.common.model.ubiquia.dto.Graph;
+import org.ubiquia.common.model.ubiquia.dto.Node;
+import org.ubiquia.common.model.ubiquia.embeddable.NodeSettings;
+import org.ubiquia.common.model.ubiquia.enums.NodeType;
+import org.ubiquia.core.flow.model.node.NodeContext;
+
+
+/** Test class for MergeJoinBufferTest. */
+@SpringBootTest(properties = "ubiquia.merge.max-pending-joins=2")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class MergeJoinBufferTest {
+
+    @Autowired
+    private MergeJoinBuffer mergeJoinBuffer;
+
+    private String nodeId;
+
+    /** Sets up test fixtures. */
+    @BeforeEach
+    public void setup() {
+        var nodeSettings = new NodeSettings();
+        nodeSettings.setMergeTimeoutMilliseconds(1000L);
+
+        var graph = new Graph();
+        graph.setName("test-graph");
+
+        var nodeContext = new NodeContext();
+        nodeContext.setNodeId(UUID.randomUUID().toString());
+        nodeContext.setNodeName("test-merge-node");
+        nodeContext.setNodeType(NodeType.MERGE);
+        nodeContext.setNodeSettings(nodeSettings);
+        nodeContext.setGraph(graph);
+
+        this.nodeId = nodeContext.getNodeId();
+        this.mergeJoinBuffer.register(nodeContext, Set.of("A", "B"));
+    }
+
+    @Test
+    public void assertCompletesJoinOnceEveryUpstreamArrives_isValid() {
+        var flowId = UUID.randomUUID().toString();
+        var fromA = this.buildMessage(flowId, "A", OffsetDateTime.now());
+
+        var offer = this.mergeJoinBuffer.offer(this.nodeId, fromA);
+        Assertions.assertEquals(MergeJoinBuffer.Arrival.BUFFERED, offer.arrival());
+        Assertions.assertEquals(1, this.mergeJoinBuffer.getPendingJoinCountFor(this.nodeId));
+
+        offer = this.mergeJoinBuffer.offer(this.nodeId, fromA);
+        Assertions.assertEquals(MergeJoinBuffer.Arrival.REDELIVERED, offer.arrival());
+
+        offer = this.mergeJoinBuffer.offer(
+            this.nodeId,
+            this.buildMessage(flowId, "A", OffsetDateTime.now()));
+        Assertions.assertEquals(MergeJoinBuffer.Arrival.DUPLICATE, offer.arrival());
+
+        offer = this.mergeJoinBuffer.offer(
+            this.nodeId,
+            this.buildMessage(flowId, "B", OffsetDateTime.now()));
+        Assertions.assertEquals(MergeJoinBuffer.Arrival.COMPLETE, offer.arrival());
+        Assertions.assertEquals(2, offer.join().getMessageIds().size());
+        Assertions.assertEquals(0, this.mergeJoinBuffer.getPendingJoinCountFor(this.nodeId));
+
+        offer = this.mergeJoinBuffer.offer(
+            this.nodeId,
+            this.buildMessage(flowId, "B", OffsetDateTime.now()));
+        Assertions.assertEquals(MergeJoinBuffer.Arrival.LATE, offer.arrival());
+    }
+
+    @Test
+    public void assertExpiresJoinsPastTheirDeadline_isValid() {
+        var staleFlowId = UUID.randomUUID().toString();
+        var freshFlowId = UUID.randomUUID().toString();
+        this.mergeJoinBuffer.offer(
+            this.nodeId,
+            this.buildMessage(staleFlowId, "A", OffsetDateTime.now().minusSeconds(5)));
+        this.mergeJoinBuffer.offer(
+            this.nodeId,
+            this.buildMessage(freshFlowId, "A", OffsetDateTime.now()));
+
+        var expired = this.mergeJoinBuffer.expire(this.nodeId, OffsetDateTime.now());
+
+        Assertions.assertEquals(1, expired.size());
+        Assertions.assertEquals(staleFlowId, expired.get(0).getFlowId());
+        Assertions.assertEquals(1, this.mergeJoinBuffer.getPendingJoinCountFor(this.nodeId));
+
+        var offer = this.mergeJoinBuffer.offer(
+            this.nodeId,
+            this.buildMessage(staleFlowId, "B", OffsetDateTime.now()));
+        Assertions.assertEquals(MergeJoinBuffer.Arrival.LATE, offer.arrival());
+    }
+
+    @Test
+    public void assertEvictsOldestJoinsOverCapacity_isValid() {
+        var flowIds = new String[] {
+            UUID.randomUUID().toString(),
+            UUID.randomUUID().toString(),
+            UUID.randomUUID().toString()};
+        for (var flowId : flowIds) {
+            this.mergeJoinBuffer.offer(
+                this.nodeId,
+                this.buildMessage(flowId, "A", OffsetDateTime.now()));
+        }
+
+        var expired = this.mergeJoinBuffer.expire(this.nodeId, OffsetDateTime.now());
+
+        Assertions.assertEquals(1, expired.size());
+        Assertions.assertEquals(flowIds[0], expired.get(0).getFlowId());
+        Assertions.assertEquals(2, this.mergeJoinBuffer.getPendingJoinCountFor(this.nodeId));
+    }
+
+    @Test
+    public void assertReleasedJoinIsRebuilt_isValid() {
+        var flowId = UUID.randomUUID().toString();
+        var fromA = this.buildMessage(flowId, "A", OffsetDateTime.now());
+        this.mergeJoinBuffer.offer(this.nodeId, fromA);
+        var offer = this.mergeJoinBuffer.offer(
+            this.nodeId,
+            this.buildMessage(flowId, "B", OffsetDateTime.now()));
+
+        this.mergeJoinBuffer.release(this.nodeId, offer.join());
+
+        offer = this.mergeJoinBuffer.offer(this.nodeId, fromA);
+        Assertions.assertEquals(MergeJoinBuffer.Arrival.BUFFERED, offer.arrival());
+    }
+
+    private FlowMessage buildMessage(
+        final String flowId,
+        final String source,
+        final OffsetDateTime createdAt) {
+
+        var flow = new Flow();
+        flow.setId(flowId);
+
+        var node = new Node();
+        node.setName(source);
+
+        var flowEvent = new FlowEvent();
+        flowEvent.setFlow(flow);
+        flowEvent.setNode(node);
+
+        var message = new FlowMessage();
+        message.setId(UUID.randomUUID().toString());
+        message.setCreatedAt(createdAt);
+        message.setFlowEvent(flowEvent);
+        message.setPayload("{}");
+        return message;
+    }
+}
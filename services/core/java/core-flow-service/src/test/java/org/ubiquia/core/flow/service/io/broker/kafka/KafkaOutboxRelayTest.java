@@ -0,0 +1,199 @@
+package org.ubiquia.core.flow.service.io.broker.kafka;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.annotation.DirtiesContext;
+import org.ubiquia.common.model.ubiquia.dto.GraphEdge;
+import org.ubiquia.common.model.ubiquia.embeddable.EgressSettings;
+import org.ubiquia.common.model.ubiquia.enums.ComponentType;
+import org.ubiquia.common.model.ubiquia.enums.EgressType;
+import org.ubiquia.common.model.ubiquia.enums.HttpOutputType;
+import org.ubiquia.common.model.ubiquia.enums.NodeType;
+import org.ubiquia.core.flow.TestHelper;
+import org.ubiquia.core.flow.component.node.AbstractNode;
+import org.ubiquia.core.flow.component.node.PushNode;
+import org.ubiquia.core.flow.dummy.factory.DummyFactory;
+import org.ubiquia.core.flow.repository.FlowMessageRepository;
+
+
+/** Test class for KafkaOutboxRelayTest. */
+@SpringBootTest(properties = "ubiquia.outbox.mode=KAFKA")
+@AutoConfigureMockMvc
+@EmbeddedKafka(
+    partitions = 1,
+    brokerProperties = {
+        "listeners=PLAINTEXT://localhost:9092",
+        "port=9092"
+    }
+)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class KafkaOutboxRelayTest {
+
+    @Autowired
+    private DummyFactory dummyFactory;
+
+    @Autowired
+    private FlowMessageRepository flowMessageRepository;
+
+    @Autowired
+    private TestHelper testHelper;
+
+    /** Sets up test fixtures. */
+    @BeforeEach
+    public void setup() {
+        this.testHelper.setupAgentState();
+    }
+
+    @Test
+    public void assertRelaysMessagesOverKafka_isValid() throws Exception {
+
+        try (var server = new MockWebServer()) {
+            server.enqueue(new MockResponse().setResponseCode(200));
+            server.start();
+
+            var domainOntology = this.dummyFactory.generateDomainOntology();
+            var graph = domainOntology.getGraphs().get(0);
+
+            var hiddenComponent = this.dummyFactory.generateComponent();
+            hiddenComponent.setComponentType(ComponentType.NONE);
+            graph.getComponents().add(hiddenComponent);
+
+            var ingressNode = this.dummyFactory.generateNode();
+            ingressNode.setNodeType(NodeType.PUSH);
+            ingressNode.getInputSubSchemas().add(this.dummyFactory.buildSubSchema("Person"));
+            ingressNode.setOutputSubSchema(this.dummyFactory.buildSubSchema("Dog"));
+            graph.getNodes().add(ingressNode);
+
+            var egressSettings = new EgressSettings();
+            egressSettings.setHttpOutputType(HttpOutputType.POST);
+            egressSettings.setEgressType(EgressType.ASYNCHRONOUS);
+
+            var hiddenNode = this.dummyFactory.generateNode();
+            hiddenNode.setNodeType(NodeType.HIDDEN);
+            hiddenNode.setEgressSettings(egressSettings);
+            hiddenNode.setEndpoint(server.url("/test").toString());
+            hiddenNode.getInputSubSchemas().add(this.dummyFactory.buildSubSchema("Dog"));
+            hiddenComponent.setNode(hiddenNode);
+            graph.getNodes().add(hiddenNode);
+
+            var edge = new GraphEdge();
+            edge.setLeftNodeName(ingressNode.getName());
+            edge.setRightNodeNames(new ArrayList<>());
+            edge.getRightNodeNames().add(hiddenNode.getName());
+            graph.getEdges().add(edge);
+
+            this.testHelper.registerAndDeploy(domainOntology, graph);
+
+            var node = (PushNode) this
+                .testHelper
+                .findNode(ingressNode.getName(), graph.getName());
+            final var hiddenNodeId = this
+                .testHelper
+                .findNode(hiddenNode.getName(), graph.getName())
+                .getNodeContext()
+                .getNodeId();
+
+            node.push("test");
+
+            // The hidden node only gets the message by consuming its topic.
+            var request = server.takeRequest(30, TimeUnit.SECONDS);
+            Assertions.assertNotNull(request);
+            Assertions.assertEquals("POST", request.getMethod());
+            Assertions.assertEquals(
+                0L,
+                this.flowMessageRepository.countByTargetNodeId(hiddenNodeId));
+        }
+    }
+
+    @Test
+    public void assertHonorsEgressConcurrency_isValid() throws Exception {
+
+        var messages = 5;
+        var inFlight = new AtomicInteger(0);
+        var maxInFlight = new AtomicInteger(0);
+        var maxOpenMessages = new AtomicInteger(0);
+        var hiddenNodeRef = new AtomicReference<AbstractNode>();
+
+        try (var server = new MockWebServer()) {
+            server.setDispatcher(new Dispatcher() {
+                @Override
+                public MockResponse dispatch(final RecordedRequest request)
+                    throws InterruptedException {
+                    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    maxOpenMessages.accumulateAndGet(
+                        hiddenNodeRef.get().getNodeContext().getOpenMessages(),
+                        Math::max);
+                    Thread.sleep(200);
+                    inFlight.decrementAndGet();
+                    return new MockResponse().setResponseCode(200);
+                }
+            });
+            server.start();
+
+            var domainOntology = this.dummyFactory.generateDomainOntology();
+            var graph = domainOntology.getGraphs().get(0);
+
+            var hiddenComponent = this.dummyFactory.generateComponent();
+            hiddenComponent.setComponentType(ComponentType.NONE);
+            graph.getComponents().add(hiddenComponent);
+
+            var ingressNode = this.dummyFactory.generateNode();
+            ingressNode.setNodeType(NodeType.PUSH);
+            ingressNode.getInputSubSchemas().add(this.dummyFactory.buildSubSchema("Person"));
+            ingressNode.setOutputSubSchema(this.dummyFactory.buildSubSchema("Dog"));
+            graph.getNodes().add(ingressNode);
+
+            var egressSettings = new EgressSettings();
+            egressSettings.setHttpOutputType(HttpOutputType.POST);
+            egressSettings.setEgressType(EgressType.ASYNCHRONOUS);
+            egressSettings.setEgressConcurrency(1);
+
+            var hiddenNode = this.dummyFactory.generateNode();
+            hiddenNode.setNodeType(NodeType.HIDDEN);
+            hiddenNode.setEgressSettings(egressSettings);
+            hiddenNode.setEndpoint(server.url("/test").toString());
+            hiddenNode.getInputSubSchemas().add(this.dummyFactory.buildSubSchema("Dog"));
+            hiddenComponent.setNode(hiddenNode);
+            graph.getNodes().add(hiddenNode);
+
+            var edge = new GraphEdge();
+            edge.setLeftNodeName(ingressNode.getName());
+            edge.setRightNodeNames(new ArrayList<>());
+            edge.getRightNodeNames().add(hiddenNode.getName());
+            graph.getEdges().add(edge);
+
+            this.testHelper.registerAndDeploy(domainOntology, graph);
+
+            var node = (PushNode) this
+                .testHelper
+                .findNode(ingressNode.getName(), graph.getName());
+            hiddenNodeRef.set(this
+                .testHelper
+                .findNode(hiddenNode.getName(), graph.getName()));
+
+            for (var i = 0; i < messages; i++) {
+                node.push("test");
+            }
+
+            // Every message still arrives, but never more than one at a time.
+            for (var i = 0; i < messages; i++) {
+                Assertions.assertNotNull(server.takeRequest(30, TimeUnit.SECONDS));
+            }
+            Assertions.assertEquals(1, maxInFlight.get());
+            Assertions.assertEquals(1, maxOpenMessages.get());
+        }
+    }
+}
@@ -7,7 +7,6 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
-import org.springframework.test.util.ReflectionTestUtils;
 import org.ubiquia.common.model.ubiquia.dto.GraphEdge;
 import org.ubiquia.common.model.ubiquia.embeddable.EgressSettings;
 import org.ubiquia.common.model.ubiquia.enums.NodeType;
@@ -84,7 +83,7 @@ public class NodeInboxPollingLogicTest {
         node.setNodeContext(nodeContext);
         nodeContext.setEgressSettings(new EgressSettings());
         nodeContext.setNodeType(NodeType.EGRESS);
-        ReflectionTestUtils.setField(nodeContext, "openMessages", 100);
+        nodeContext.setOpenMessages(100);
 
         var valid = this.nodeInboxPollingLogic.isValidToPollInbox(node);
         Assertions.assertFalse(valid);
@@ -162,7 +161,7 @@ public class NodeInboxPollingLogicTest {
             .findNode(hiddenNode.getName(), graph.getName());
 
         var nodeContext = node.getNodeContext();
-        ReflectionTestUtils.setField(nodeContext, "openMessages", 100);
+        nodeContext.setOpenMessages(100);
 
         var valid = this.nodeInboxPollingLogic.isValidToPollInbox(node);
         Assertions.assertFalse(valid);
@@ -165,7 +165,7 @@ public class NodeSimulatedOutputLogicTest {
             templateNode.getName(), graph.getName());
 
         var flowEvent = this.flowEventBuilder.makeFlowAndEventFrom("test", deployedNode);
-        this.templateComponentProxy.proxyAsComponentWith(flowEvent);
+        this.templateComponentProxy.proxyAsComponentWith(flowEvent, deployedNode);
 
         Assertions.assertNotNull(flowEvent.getOutputPayload());
     }
@@ -107,7 +107,7 @@ public class TemplateComponentProxyTest {
             .flowEventBuilder
             .makeFlowAndEventFrom("test", node);
 
-        this.templateComponentProxy.proxyAsComponentWith(flowEvent);
+        this.templateComponentProxy.proxyAsComponentWith(flowEvent, node);
         var fuzzyData = this
             .objectMapper
             .readValue(flowEvent.getOutputPayload(), Object.class);
@@ -0,0 +1,187 @@
+package org.ubiquia.core.flow.service.registry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import okhttp3.Protocol;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+
+/** Test class for ComponentHttpClientRegistryTest. */
+@SpringBootTest(properties = "ubiquia.component-client.max-connections=1")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class ComponentHttpClientRegistryTest {
+
+    @Autowired
+    private ComponentHttpClientRegistry componentHttpClientRegistry;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Test
+    public void assertComponentsGetSeparatePools_isValid() throws Exception {
+        try (var first = new MockWebServer(); var second = new MockWebServer()) {
+            first.enqueue(new MockResponse().setResponseCode(200).setBody("first"));
+            second.enqueue(new MockResponse().setResponseCode(200).setBody("second"));
+            first.start();
+            second.start();
+
+            var firstUri = first.url("/a").uri();
+            var secondUri = second.url("/b").uri();
+            Assertions.assertNotEquals(
+                this.componentHttpClientRegistry.getPoolKeyFor(firstUri),
+                this.componentHttpClientRegistry.getPoolKeyFor(secondUri));
+            Assertions.assertEquals(
+                this.componentHttpClientRegistry.getPoolKeyFor(firstUri),
+                this.componentHttpClientRegistry.getPoolKeyFor(first.url("/other").uri()));
+
+            Assertions.assertEquals("first",
+                this.restTemplate.getForObject(firstUri, String.class));
+            Assertions.assertEquals("second",
+                this.restTemplate.getForObject(secondUri, String.class));
+            this.assertNoLeasesFor(firstUri);
+            this.assertNoLeasesFor(secondUri);
+        }
+    }
+
+    @Test
+    public void assertPoolLimitsConcurrentRequests_isValid() throws Exception {
+        var active = new AtomicInteger(0);
+        var maxActive = new AtomicInteger(0);
+        try (var server = new MockWebServer()) {
+            server.setDispatcher(new Dispatcher() {
+                @Override
+                public MockResponse dispatch(final RecordedRequest request)
+                    throws InterruptedException {
+                    maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                    Thread.sleep(100);
+                    active.decrementAndGet();
+                    return new MockResponse().setResponseCode(200).setBody("ok");
+                }
+            });
+            server.start();
+
+            var uri = server.url("/slow").uri();
+            var requests = new CompletableFuture<?>[4];
+            for (var i = 0; i < requests.length; i++) {
+                requests[i] = CompletableFuture.runAsync(() ->
+                    this.restTemplate.getForObject(uri, String.class));
+            }
+            CompletableFuture.allOf(requests).join();
+
+            Assertions.assertEquals(4, server.getRequestCount());
+            Assertions.assertEquals(1, maxActive.get());
+            this.assertNoLeasesFor(uri);
+        }
+    }
+
+    @Test
+    public void assertPoolIsEvictedWithItsLastNode_isValid() throws Exception {
+        try (var server = new MockWebServer()) {
+            server.enqueue(new MockResponse().setResponseCode(200).setBody("ok"));
+            server.start();
+
+            var uri = server.url("/a").uri();
+            final var key = this.componentHttpClientRegistry.getPoolKeyFor(uri);
+            this.componentHttpClientRegistry.registerNode("first", uri);
+            this.componentHttpClientRegistry.registerNode("second", server.url("/b").uri());
+            Assertions.assertEquals("ok", this.restTemplate.getForObject(uri, String.class));
+
+            this.componentHttpClientRegistry.evictNode("first");
+            Assertions.assertNotNull(this.meterRegistry
+                .find("ubiquia.component.client.leased")
+                .tag("component", key)
+                .gauge());
+
+            this.componentHttpClientRegistry.evictNode("second");
+            Assertions.assertNull(this.meterRegistry
+                .find("ubiquia.component.client.leased")
+                .tag("component", key)
+                .gauge());
+            Assertions.assertNull(this.meterRegistry
+                .find("ubiquia.component.client.latency")
+                .tag("component", key)
+                .timer());
+        }
+    }
+
+    @Test
+    public void assertNodeTornDownMidRequestLetsRequestComplete_isValid() throws Exception {
+        var received = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        try (var server = new MockWebServer()) {
+            server.setDispatcher(new Dispatcher() {
+                @Override
+                public MockResponse dispatch(final RecordedRequest request)
+                    throws InterruptedException {
+                    received.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                    return new MockResponse().setResponseCode(200).setBody("ok");
+                }
+            });
+            server.start();
+
+            var uri = server.url("/slow").uri();
+            final var key = this.componentHttpClientRegistry.getPoolKeyFor(uri);
+            this.componentHttpClientRegistry.registerNode("node", uri);
+            final var response = CompletableFuture.supplyAsync(() ->
+                this.restTemplate.getForObject(uri, String.class));
+            Assertions.assertTrue(received.await(5, TimeUnit.SECONDS));
+
+            // The pool is retired while its request is in flight, but not closed under it.
+            this.componentHttpClientRegistry.evictNode("node");
+            Assertions.assertNull(this.meterRegistry
+                .find("ubiquia.component.client.leased")
+                .tag("component", key)
+                .gauge());
+            release.countDown();
+            Assertions.assertEquals("ok", response.get(5, TimeUnit.SECONDS));
+
+            // Later requests get a new pool.
+            Assertions.assertEquals("ok", this.restTemplate.getForObject(uri, String.class));
+            Assertions.assertNotNull(this.meterRegistry
+                .find("ubiquia.component.client.leased")
+                .tag("component", key)
+                .gauge());
+        }
+    }
+
+    @Test
+    public void assertSpeaksHttp2OverCleartextWhenEnabled_isValid() throws Exception {
+        ReflectionTestUtils.setField(this.componentHttpClientRegistry, "http2Cleartext", true);
+        try (var server = new MockWebServer()) {
+            server.setProtocols(List.of(Protocol.H2_PRIOR_KNOWLEDGE));
+            server.enqueue(new MockResponse().setResponseCode(200).setBody("ok"));
+            server.start();
+
+            var uri = server.url("/h2").uri();
+            Assertions.assertEquals("ok", this.restTemplate.getForObject(uri, String.class));
+            Assertions.assertEquals(1, server.getRequestCount());
+        }
+    }
+
+    private void assertNoLeasesFor(final URI uri) throws InterruptedException {
+        // Connections go back to the pool just after their exchange completes.
+        for (var i = 0; i < 50 && this.componentHttpClientRegistry.getLeasedFor(uri) > 0; i++) {
+            Thread.sleep(10);
+        }
+        Assertions.assertEquals(0, this.componentHttpClientRegistry.getLeasedFor(uri));
+    }
+}
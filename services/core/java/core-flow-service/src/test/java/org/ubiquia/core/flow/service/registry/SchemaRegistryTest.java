@@ -0,0 +1,184 @@
+package org.ubiquia.core.flow.service.registry;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import net.jimblackler.jsonschemafriend.ValidationException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.ubiquia.common.model.ubiquia.dto.GraphEdge;
+import org.ubiquia.common.model.ubiquia.dto.Node;
+import org.ubiquia.common.model.ubiquia.enums.NodeType;
+import org.ubiquia.core.flow.TestHelper;
+import org.ubiquia.core.flow.controller.DomainOntologyController;
+import org.ubiquia.core.flow.dummy.factory.DummyFactory;
+import org.ubiquia.core.flow.model.payload.Payload;
+import org.ubiquia.core.flow.repository.NodeRepository;
+
+
+/** Test class for SchemaRegistryTest. */
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class SchemaRegistryTest {
+
+    @Autowired
+    private DomainOntologyController domainOntologyController;
+
+    @Autowired
+    private DummyFactory dummyFactory;
+
+    @Autowired
+    private NodeRepository nodeRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SchemaRegistry schemaRegistry;
+
+    @Autowired
+    private TestHelper testHelper;
+
+    /** Sets up test fixtures. */
+    @BeforeEach
+    public void setup() {
+        this.testHelper.setupAgentState();
+    }
+
+    @Test
+    public void assertSchemasAreCompiledOnceAndEvicted_isValid() throws Exception {
+        var nodeId = this.registerPushNode();
+
+        var input = this.schemaRegistry.getInputSchemaFor(nodeId);
+        var output = this.schemaRegistry.getOutputSchemaFor(nodeId);
+
+        Assertions.assertNotNull(input);
+        Assertions.assertTrue(output.isPresent());
+        Assertions.assertSame(input, this.schemaRegistry.getInputSchemaFor(nodeId));
+        Assertions.assertSame(output.get(), this.schemaRegistry.getOutputSchemaFor(nodeId).get());
+
+        this.schemaRegistry.evictNode(nodeId);
+        Assertions.assertNotSame(input, this.schemaRegistry.getInputSchemaFor(nodeId));
+    }
+
+    @Test
+    public void assertConcurrentLookupsCompileOnce_isValid() throws Exception {
+        var nodeId = this.registerPushNodes(1).get(0);
+
+        var lookups = new ArrayList<Callable<Object>>();
+        for (var i = 0; i < 8; i++) {
+            lookups.add(() -> this.schemaRegistry.getInputSchemaFor(nodeId));
+        }
+        var executor = Executors.newFixedThreadPool(8);
+        try {
+            var schemas = executor.invokeAll(lookups);
+            for (var schema : schemas) {
+                Assertions.assertSame(schemas.get(0).get(), schema.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assertions.assertEquals(1, this.getCompiledSchemas().size());
+    }
+
+    @Test
+    public void assertCompiledSchemaIsKeptWhileNodesAreBound_isValid() throws Exception {
+        var nodeIds = this.registerPushNodes(2);
+        this.schemaRegistry.getInputSchemaFor(nodeIds.get(0));
+        this.schemaRegistry.getOutputSchemaFor(nodeIds.get(0));
+        this.schemaRegistry.getInputSchemaFor(nodeIds.get(1));
+        var compiled = this.getCompiledSchema();
+
+        // The second node still holds the ontology, so the first rebinds without compiling.
+        this.schemaRegistry.evictNode(nodeIds.get(0));
+        this.schemaRegistry.getInputSchemaFor(nodeIds.get(0));
+        Assertions.assertSame(compiled, this.getCompiledSchema());
+
+        this.schemaRegistry.evictNode(nodeIds.get(0));
+        this.schemaRegistry.evictNode(nodeIds.get(1));
+        Assertions.assertTrue(this.getCompiledSchemas().isEmpty());
+
+        this.schemaRegistry.getInputSchemaFor(nodeIds.get(1));
+        Assertions.assertNotSame(compiled, this.getCompiledSchema());
+    }
+
+    @Test
+    public void assertInvalidPayloadFailsValidation_isValid() throws Exception {
+        var nodeId = this.registerPushNode();
+        var schema = this.schemaRegistry.getInputSchemaFor(nodeId);
+
+        var invalidPayload = this.objectMapper.writeValueAsString(
+            this.dummyFactory.generateNode());
+
+        Assertions.assertThrows(
+            ValidationException.class,
+            () -> this.schemaRegistry.validate(schema, invalidPayload));
+    }
+
+    @Test
+    public void assertInvalidParsedPayloadFailsValidation_isValid() throws Exception {
+        var nodeId = this.registerPushNode();
+        var schema = this.schemaRegistry.getInputSchemaFor(nodeId);
+
+        var invalidPayload = Payload.fromTree(
+            this.objectMapper,
+            this.objectMapper.valueToTree(this.dummyFactory.generateNode()));
+
+        Assertions.assertThrows(
+            ValidationException.class,
+            () -> this.schemaRegistry.validate(schema, invalidPayload));
+    }
+
+    private String registerPushNode() throws Exception {
+        return this.registerPushNodes(1).get(0);
+    }
+
+    private List<String> registerPushNodes(final Integer count) throws Exception {
+        var domainOntology = this.dummyFactory.generateDomainOntology();
+        var graph = domainOntology.getGraphs().get(0);
+
+        var ingressNodes = new ArrayList<Node>();
+        for (var i = 0; i < count; i++) {
+            var ingressNode = this.dummyFactory.generateNode();
+            ingressNode.setNodeType(NodeType.PUSH);
+            ingressNode.getInputSubSchemas().add(this.dummyFactory.buildSubSchema("Person"));
+            ingressNode.setOutputSubSchema(this.dummyFactory.buildSubSchema("Dog"));
+            graph.getNodes().add(ingressNode);
+
+            var edge = new GraphEdge();
+            edge.setLeftNodeName(ingressNode.getName());
+            edge.setRightNodeNames(new ArrayList<>());
+            graph.getEdges().add(edge);
+            ingressNodes.add(ingressNode);
+        }
+
+        this.domainOntologyController.register(domainOntology);
+
+        return ingressNodes
+            .stream()
+            .map(x -> this
+                .nodeRepository
+                .findByParentGraphNameAndName(graph.getName(), x.getName())
+                .get()
+                .getId())
+            .toList();
+    }
+
+    private Map<?, ?> getCompiledSchemas() {
+        return (Map<?, ?>) ReflectionTestUtils.getField(this.schemaRegistry, "compiledSchemas");
+    }
+
+    private Object getCompiledSchema() {
+        var compiledSchemas = this.getCompiledSchemas();
+        Assertions.assertEquals(1, compiledSchemas.size());
+        return compiledSchemas.values().iterator().next();
+    }
+}
@@ -0,0 +1,66 @@
+package org.ubiquia.core.flow.service.scheduler;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.ubiquia.core.flow.model.node.NodeContext;
+
+
+/** Test class for NodeSchedulerTest. */
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class NodeSchedulerTest {
+
+    @Autowired
+    private NodeScheduler nodeScheduler;
+
+    @Test
+    public void assertScheduledTaskRunsAndIsTracked_isValid() throws Exception {
+        var nodeContext = new NodeContext();
+        nodeContext.setNodeName("test-node");
+        var latch = new CountDownLatch(2);
+
+        var task = this.nodeScheduler.scheduleFor(
+            nodeContext,
+            "test",
+            latch::countDown,
+            10L);
+
+        Assertions.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        Assertions.assertTrue(nodeContext.getTasks().contains(task));
+        task.cancel(true);
+    }
+
+    @Test
+    public void assertSlowTaskIsNeverRunConcurrently_isValid() throws Exception {
+        var active = new AtomicInteger(0);
+        var overlaps = new AtomicInteger(0);
+        var latch = new CountDownLatch(3);
+
+        var task = this.nodeScheduler.schedule(
+            "slow",
+            () -> {
+                if (active.incrementAndGet() > 1) {
+                    overlaps.incrementAndGet();
+                }
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                active.decrementAndGet();
+                latch.countDown();
+            },
+            0L,
+            1L);
+
+        Assertions.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        task.cancel(true);
+        Assertions.assertEquals(0, overlaps.get());
+    }
+}
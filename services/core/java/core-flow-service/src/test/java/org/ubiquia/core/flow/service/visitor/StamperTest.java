@@ -90,4 +90,68 @@ public class StamperTest {
         Assertions.assertEquals(1, (long) event.getOutputPayloadStamps().size());
         Assertions.assertEquals(payload.get("stampKey"), match.get().getValue());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void assertStampsNestedArraysAndPointers_isValid() throws JsonProcessingException {
+
+        var json = """
+            {
+              "owner": {"name": "alice"},
+              "orders": [
+                {"lines": [{"sku": "a"}, {"sku": "b"}]},
+                {"lines": [{"sku": "c"}]}
+              ],
+              "odd/key": 7
+            }
+            """;
+
+        var event = new FlowEventEntity();
+        event.setInputPayload(json);
+        event.setInputPayloadStamps(new HashSet<>());
+
+        var settings = new NodeSettings();
+        settings.setInputStampKeychains(new ArrayList<>());
+        settings.getInputStampKeychains().add("owner.name");
+        settings.getInputStampKeychains().add("orders.lines.sku");
+        settings.getInputStampKeychains().add("/orders/1/lines/0/sku");
+        settings.getInputStampKeychains().add("/odd~1key");
+
+        var node = new NodeEntity();
+        node.setNodeSettings(settings);
+        event.setNode(node);
+
+        this.stamper.tryStampInputs(event, json);
+        var stamps = new HashMap<String, String>();
+        event.getInputPayloadStamps().forEach(x -> stamps.put(x.getKey(), x.getValue()));
+        Assertions.assertEquals(4, stamps.size());
+        Assertions.assertEquals("alice", stamps.get("owner.name"));
+        Assertions.assertEquals("[a, b, c]", stamps.get("orders.lines.sku"));
+        Assertions.assertEquals("c", stamps.get("/orders/1/lines/0/sku"));
+        Assertions.assertEquals("7", stamps.get("/odd~1key"));
+    }
+
+    @Test
+    public void assertSkipsMissingKeychains_isValid() throws JsonProcessingException {
+
+        var json = "{\"present\": \"value\"}";
+
+        var event = new FlowEventEntity();
+        event.setInputPayload(json);
+        event.setInputPayloadStamps(new HashSet<>());
+
+        var settings = new NodeSettings();
+        settings.setInputStampKeychains(new ArrayList<>());
+        settings.getInputStampKeychains().add("present");
+        settings.getInputStampKeychains().add("missing.nested");
+        settings.getInputStampKeychains().add("/missing/0");
+
+        var node = new NodeEntity();
+        node.setNodeSettings(settings);
+        event.setNode(node);
+
+        this.stamper.tryStampInputs(event, json);
+        Assertions.assertEquals(1, (long) event.getInputPayloadStamps().size());
+        Assertions.assertEquals("value",
+            event.getInputPayloadStamps().iterator().next().getValue());
+    }
+}